@@ -29,13 +29,17 @@ for VERTYPE in VM Versioned
 do
   for RETYPE in Thin Stats ThinLRU StatsLRU ThinDisk StatsDisk ThinDiskLRU StatsDiskLRU
   do
-    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2'
+    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2' 'OffHeapKey KEY_OFFHEAP'
     do
       for MEMTYPE in Heap OffHeap
       do
       declare -a KEY_ARRAY=($KEY_INFO)
       KEY_CLASS=${KEY_ARRAY[0]}
       KEY_TYPE=${KEY_ARRAY[1]}
+      if [ "$KEY_TYPE" = "KEY_OFFHEAP" ] && [ "$MEMTYPE" = "Heap" ]; then
+        # off-heap keys are only supported by off-heap entries
+        continue
+      fi
       BASE=${VERTYPE}${RETYPE}RegionEntry${MEMTYPE}
       OUT=${BASE}${KEY_CLASS}
       WP_ARGS=-Wp,-C,-P,-D${KEY_TYPE},-DPARENT_CLASS=$BASE,-DLEAF_CLASS=$OUT
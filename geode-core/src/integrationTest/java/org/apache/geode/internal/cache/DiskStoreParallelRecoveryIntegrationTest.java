@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+
+public class DiskStoreParallelRecoveryIntegrationTest extends DiskRegionTestingBase {
+
+  private static final int ENTRIES = 50000;
+
+  private static final String INVALID = "<invalid>";
+
+  private int recoveryThreads;
+
+  @Override
+  protected void postSetUp() throws Exception {
+    recoveryThreads = PersistentOplogSet.RECOVERY_THREADS;
+  }
+
+  @Override
+  protected void postTearDown() throws Exception {
+    PersistentOplogSet.RECOVERY_THREADS = recoveryThreads;
+  }
+
+  @Test
+  public void pooledKrfRecoveryRecoversTheSameEntriesAsSerialRecovery() {
+    Region<Object, Object> region = createRegion();
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put("key-" + i, "value-" + i);
+    }
+    for (int i = 0; i < ENTRIES; i += 3) {
+      region.put("key-" + i, "updated-" + i);
+    }
+    for (int i = 1; i < ENTRIES; i += 7) {
+      region.invalidate("key-" + i);
+    }
+    for (int i = 2; i < ENTRIES; i += 11) {
+      region.destroy("key-" + i);
+    }
+    Map<Object, Object> expected = contents(region);
+    cache.close();
+    assertThat(krfCount()).isPositive();
+
+    PersistentOplogSet.RECOVERY_THREADS = 1;
+    cache = createCache();
+    assertThat(contents(createRegion())).isEqualTo(expected);
+    cache.close();
+
+    PersistentOplogSet.RECOVERY_THREADS = 4;
+    cache = createCache();
+    assertThat(contents(createRegion())).isEqualTo(expected);
+  }
+
+  @Test
+  public void pooledKrfRecoveryRecoversTheSameVersionsAsSerialRecovery() {
+    Region<Object, Object> region = createRegion();
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put("key-" + i, "value-" + i);
+    }
+    for (int i = 0; i < ENTRIES; i += 3) {
+      region.put("key-" + i, "updated-" + i);
+    }
+    for (int i = 2; i < ENTRIES; i += 11) {
+      region.destroy("key-" + i);
+    }
+    Map<Object, String> expected = versions(region);
+    cache.close();
+
+    PersistentOplogSet.RECOVERY_THREADS = 1;
+    cache = createCache();
+    assertThat(versions(createRegion())).isEqualTo(expected);
+    cache.close();
+
+    PersistentOplogSet.RECOVERY_THREADS = 4;
+    cache = createCache();
+    assertThat(versions(createRegion())).isEqualTo(expected);
+  }
+
+  private Region<Object, Object> createRegion() {
+    cache.createDiskStoreFactory().setMaxOplogSize(1).setDiskDirs(dirs).create("store");
+    return cache.createRegionFactory().setDiskStoreName("store")
+        .setDataPolicy(DataPolicy.PERSISTENT_REPLICATE).create("region");
+  }
+
+  private Map<Object, Object> contents(Region<Object, Object> region) {
+    Map<Object, Object> contents = new HashMap<>();
+    for (Object key : region.keySet()) {
+      contents.put(key, region.containsValueForKey(key) ? region.get(key) : INVALID);
+    }
+    return contents;
+  }
+
+  private Map<Object, String> versions(Region<Object, Object> region) {
+    Map<Object, String> versions = new HashMap<>();
+    for (Object key : region.keySet()) {
+      VersionStamp<?> stamp = ((LocalRegion) region).getRegionEntry(key).getVersionStamp();
+      versions.put(key, stamp.getMemberID() + ":" + stamp.getEntryVersion() + ":"
+          + stamp.getRegionVersion() + ":" + stamp.getVersionTimeStamp());
+    }
+    return versions;
+  }
+
+  private int krfCount() {
+    int krfs = 0;
+    for (File dir : dirs) {
+      File[] files = dir.listFiles((d, name) -> name.endsWith(".krf"));
+      krfs += files.length;
+    }
+    return krfs;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.entries.DiskEntry;
+
+/**
+ * Tests faulting in values from overflow oplogs that are memory mapped once they are full.
+ */
+public class OverflowOplogMappedReadsIntegrationTest extends DiskRegionTestingBase {
+
+  private static final int ENTRIES = 200;
+
+  private DiskStoreImpl diskStore;
+
+  @Override
+  protected void postSetUp() {
+    OverflowOplog.MMAP_READS = true;
+  }
+
+  @Override
+  protected void postTearDown() {
+    OverflowOplog.MMAP_READS = false;
+  }
+
+  private void createRegion(boolean compaction) {
+    DiskRegionProperties props = new DiskRegionProperties();
+    props.setDiskDirs(dirs);
+    props.setOverFlowCapacity(1);
+    props.setMaxOplogSize(2048);
+    props.setRolling(compaction);
+    props.setCompactionThreshold(100);
+    region = DiskRegionHelperFactory.getSyncOverFlowOnlyRegion(cache, props);
+    diskStore = ((LocalRegion) region).getDiskStore();
+  }
+
+  private static byte[] value(int key, int version) {
+    byte[] value = new byte[100];
+    Arrays.fill(value, (byte) (key + version));
+    return value;
+  }
+
+  private List<OverflowOplog> mappedOplogs() {
+    return diskStore.testHookGetAllOverflowOplogs().stream().filter(OverflowOplog::isCrfMapped)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void fullOplogsAreMappedAndActiveOplogIsNot() {
+    createRegion(false);
+
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, 0));
+    }
+
+    assertThat(mappedOplogs()).isNotEmpty();
+    assertThat(diskStore.overflowOplogs.getActiveOverflowOplog().isCrfMapped()).isFalse();
+  }
+
+  @Test
+  public void valuesAreReadFromMappedOplogsWithoutTheirFiles() {
+    createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, 0));
+    }
+    List<OverflowOplog> mapped = mappedOplogs();
+    assertThat(mapped).isNotEmpty();
+
+    // reads of a mapped oplog do not use its file
+    mapped.forEach(OverflowOplog::testClose);
+
+    int readFromMapped = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      DiskId diskId = ((DiskEntry) ((LocalRegion) region).getRegionEntry(i)).getDiskId();
+      boolean inMapped = diskStore.overflowOplogs.getChild(diskId.getOplogId()) != null
+          && diskStore.overflowOplogs.getChild(diskId.getOplogId()).isCrfMapped();
+      if (inMapped) {
+        assertThat(region.get(i)).isEqualTo(value(i, 0));
+        readFromMapped++;
+      }
+    }
+    assertThat(readFromMapped).isGreaterThan(0);
+  }
+
+  @Test
+  public void valuesAreReadWhileOplogIsStillBeingWritten() {
+    createRegion(false);
+
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, 0));
+      if (i > 0) {
+        // evicted to the oplog being written by the put of i
+        assertThat(region.get(i - 1)).isEqualTo(value(i - 1, 0));
+      }
+      if (i % 10 == 9) {
+        for (int j = 0; j <= i; j++) {
+          assertThat(region.get(j)).isEqualTo(value(j, 0));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void valuesAreReadAfterCompaction() {
+    createRegion(true);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, 0));
+    }
+    List<OverflowOplog> mapped = mappedOplogs();
+    assertThat(mapped).isNotEmpty();
+
+    // leaves the mapped oplogs with garbage, so their other values are copied forward
+    for (int i = 0; i < ENTRIES; i += 2) {
+      region.put(i, value(i, 1));
+    }
+
+    await().untilAsserted(() -> assertThat(diskStore.testHookGetAllOverflowOplogs())
+        .doesNotContainAnyElementsOf(mapped));
+    for (OverflowOplog oplog : mapped) {
+      assertThat(oplog.isCrfMapped()).isFalse();
+    }
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i, i % 2 == 0 ? 1 : 0));
+    }
+  }
+
+  @Test
+  public void destroyingDiskStoreUnmapsAndDeletesOplogs() {
+    createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, 0));
+    }
+    List<OverflowOplog> mapped = mappedOplogs();
+    assertThat(mapped).isNotEmpty();
+
+    region.destroyRegion();
+    diskStore.destroy();
+
+    for (OverflowOplog oplog : mapped) {
+      assertThat(oplog.isCrfMapped()).isFalse();
+    }
+    for (File dir : dirs) {
+      assertThat(dir.list((d, name) -> name.startsWith("OVERFLOW"))).isEmpty();
+    }
+  }
+
+  @Test
+  public void closingOplogUnmapsIt() {
+    createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, 0));
+    }
+    List<OverflowOplog> mapped = mappedOplogs();
+    assertThat(mapped).isNotEmpty();
+
+    diskStore.testHookCloseAllOverflowOplogs();
+
+    for (OverflowOplog oplog : mapped) {
+      assertThat(oplog.isCrfMapped()).isFalse();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.logging.internal.executors.VirtualThreadFactory;
+
+/**
+ * Measures how the pool that runs server connections scales with the number of connected clients.
+ * Each connection is a loopback socket whose server side is read by a task in the pool, like a
+ * ServerConnection waiting for its next message. Each operation sends a byte on every connection
+ * and waits until all of them have been read, so it measures one request from each of the idle
+ * clients. The platform mode runs each connection on a platform thread, the virtual mode on a
+ * virtual thread, which needs a JVM that supports them. The larger connection counts need an open
+ * file limit of twice the connections.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class ServerConnectionPoolBenchmark {
+
+  @Param({"platform", "virtual"})
+  public String mode;
+
+  @Param({"100", "1000", "5000"})
+  public int connections;
+
+  private ExecutorService pool;
+  private ServerSocket serverSocket;
+  private final List<Socket> sockets = new ArrayList<>();
+  private final List<Socket> clientSockets = new ArrayList<>();
+  private volatile CountDownLatch reads;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    boolean virtualThreads = mode.equals("virtual");
+    if (virtualThreads && !VirtualThreadFactory.isAvailable()) {
+      throw new IllegalStateException("Virtual threads are not supported by this JVM");
+    }
+    pool = AcceptorImpl.newServerConnectionPool(virtualThreads,
+        AcceptorImpl::newVirtualThreadPool, 0, connections, "ServerConnection Thread ", null,
+        null);
+    serverSocket = new ServerSocket(0, connections, InetAddress.getLoopbackAddress());
+    for (int i = 0; i < connections; i++) {
+      Socket clientSocket = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+      clientSockets.add(clientSocket);
+      sockets.add(clientSocket);
+      Socket socket = serverSocket.accept();
+      sockets.add(socket);
+      pool.execute(() -> serve(socket));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    for (Socket socket : sockets) {
+      socket.close();
+    }
+    serverSocket.close();
+    pool.shutdownNow();
+  }
+
+  private void serve(Socket socket) {
+    try {
+      InputStream input = socket.getInputStream();
+      while (input.read() != -1) {
+        reads.countDown();
+      }
+    } catch (IOException ignore) {
+      // the socket was closed by tearDown
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void requestOnEveryConnection() throws Exception {
+    reads = new CountDownLatch(connections);
+    for (Socket clientSocket : clientSockets) {
+      clientSocket.getOutputStream().write(1);
+    }
+    reads.await();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by FreeListManager.defragment to coalesce memory that has been filled
+ * with chunks of one size and then freed in random order, using both the stop-the-world and the
+ * incremental algorithm.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class DefragmentationBenchmark {
+  private static final int SLAB_SIZE = 16 * 1024 * 1024;
+  private static final int SLAB_COUNT = 4;
+
+  @Param({"32", "1024", "65536"})
+  public int chunkSize;
+
+  @Param({"false", "true"})
+  public boolean incremental;
+
+  private FreeListManager freeListManager;
+  private long[] addresses;
+  private final Random random = new Random(0);
+
+  @Setup(Level.Trial)
+  public void setup() {
+    MemoryAllocatorImpl allocator = MemoryAllocatorImpl.createForUnitTest(
+        new NullOutOfOffHeapMemoryListener(), new NullOffHeapMemoryStats(),
+        new Slab[] {new SlabImpl(1024 * 1024)});
+    Slab[] slabs = new Slab[SLAB_COUNT];
+    for (int i = 0; i < SLAB_COUNT; i++) {
+      slabs[i] = new SlabImpl(SLAB_SIZE);
+    }
+    freeListManager = new FreeListManager(allocator, slabs, incremental);
+    addresses = new long[(SLAB_SIZE / chunkSize) * SLAB_COUNT];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    freeListManager.freeSlabs();
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  /**
+   * Fills all the slabs with chunks and frees them in random order so that the free lists are
+   * unsorted and nothing is left in the fragments.
+   */
+  @Setup(Level.Iteration)
+  public void fragmentMemory() {
+    for (int i = 0; i < addresses.length; i++) {
+      addresses[i] =
+          freeListManager.allocate(chunkSize - OffHeapStoredObject.HEADER_SIZE).getAddress();
+    }
+    for (int i = addresses.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      long tmp = addresses[i];
+      addresses[i] = addresses[j];
+      addresses[j] = tmp;
+    }
+    for (long address : addresses) {
+      OffHeapStoredObject.release(address, freeListManager);
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 20)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean defragment() {
+    return freeListManager.defragment(Integer.MAX_VALUE);
+  }
+}
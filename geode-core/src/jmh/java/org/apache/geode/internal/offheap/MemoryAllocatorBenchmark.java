@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of MemoryAllocatorImpl.allocate and release for different value sizes
+ * and thread counts. Values up to FreeListManager.MAX_TINY (512K by default) are served by the
+ * tiny free lists, larger ones by the huge free list. The per-thread caches can be measured by
+ * running with -Dgemfire.OFF_HEAP_THREAD_CACHE_SIZE set.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class MemoryAllocatorBenchmark {
+  private static final int SLAB_SIZE = 64 * 1024 * 1024;
+  // enough for 16 threads each keeping LIVE_VALUES of the largest values allocated
+  private static final int SLAB_COUNT = 20;
+
+  /**
+   * The number of values each thread keeps allocated by the retained benchmarks.
+   */
+  private static final int LIVE_VALUES = 64;
+
+  @Param({"8", "100", "1000", "10000", "200000", "1048576"})
+  public int valueSize;
+
+  private MemoryAllocatorImpl allocator;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Slab[] slabs = new Slab[SLAB_COUNT];
+    for (int i = 0; i < SLAB_COUNT; i++) {
+      slabs[i] = new SlabImpl(SLAB_SIZE);
+    }
+    allocator = MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), slabs);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  /**
+   * The values a thread still has allocated. Releasing the value allocated LIVE_VALUES operations
+   * ago, instead of the one just allocated, keeps the free lists from degenerating into a single
+   * chunk that is handed back and forth. The values still live at the end are reclaimed when the
+   * slabs are freed.
+   */
+  @State(Scope.Thread)
+  public static class LiveValues {
+    final StoredObject[] values = new StoredObject[LIVE_VALUES];
+    int next;
+
+    StoredObject replace(StoredObject value) {
+      StoredObject old = values[next];
+      values[next] = value;
+      next = (next + 1) % LIVE_VALUES;
+      return old;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public StoredObject allocateAndRelease1Thread() {
+    return allocateAndRelease();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public StoredObject allocateAndRelease4Threads() {
+    return allocateAndRelease();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(16)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public StoredObject allocateAndRelease16Threads() {
+    return allocateAndRelease();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public StoredObject allocateAndReleaseRetained1Thread(LiveValues liveValues) {
+    return allocateAndReleaseRetained(liveValues);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public StoredObject allocateAndReleaseRetained4Threads(LiveValues liveValues) {
+    return allocateAndReleaseRetained(liveValues);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(16)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public StoredObject allocateAndReleaseRetained16Threads(LiveValues liveValues) {
+    return allocateAndReleaseRetained(liveValues);
+  }
+
+  private StoredObject allocateAndRelease() {
+    StoredObject value = allocator.allocate(valueSize);
+    value.release();
+    return value;
+  }
+
+  private StoredObject allocateAndReleaseRetained(LiveValues liveValues) {
+    StoredObject old = liveValues.replace(allocator.allocate(valueSize));
+    if (old != null) {
+      old.release();
+    }
+    return old;
+  }
+}
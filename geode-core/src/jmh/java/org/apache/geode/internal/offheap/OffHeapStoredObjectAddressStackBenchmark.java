@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures offer followed by poll on a single OffHeapStoredObjectAddressStack, which is what every
+ * tiny allocation and free does on the free list of its size.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class OffHeapStoredObjectAddressStackBenchmark {
+  private static final int SLAB_SIZE = 16 * 1024 * 1024;
+
+  /**
+   * The number of addresses on the stack before the benchmark starts.
+   */
+  private static final int INITIAL_DEPTH = 1024;
+
+  private final OffHeapStoredObjectAddressStack stack = new OffHeapStoredObjectAddressStack();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), new Slab[] {new SlabImpl(SLAB_SIZE)});
+    for (int i = 0; i < INITIAL_DEPTH; i++) {
+      stack.offer(allocateAddress());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  /**
+   * The address a thread offers next. Each thread offers before it polls so the stack never runs
+   * empty; the address it polls is the one it offers in its next invocation.
+   */
+  @State(Scope.Thread)
+  public static class ThreadAddress {
+    long address;
+
+    @Setup(Level.Trial)
+    public void setup(OffHeapStoredObjectAddressStackBenchmark benchmark) {
+      address = allocateAddress();
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long offerAndPoll1Thread(ThreadAddress threadAddress) {
+    return offerAndPoll(threadAddress);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long offerAndPoll4Threads(ThreadAddress threadAddress) {
+    return offerAndPoll(threadAddress);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(16)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long offerAndPoll16Threads(ThreadAddress threadAddress) {
+    return offerAndPoll(threadAddress);
+  }
+
+  private long offerAndPoll(ThreadAddress threadAddress) {
+    stack.offer(threadAddress.address);
+    threadAddress.address = stack.poll();
+    return threadAddress.address;
+  }
+
+  private static long allocateAddress() {
+    return MemoryAllocatorImpl.getAllocator().allocate(24).getAddress();
+  }
+}
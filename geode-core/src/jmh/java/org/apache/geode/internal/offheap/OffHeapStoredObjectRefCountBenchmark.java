@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of OffHeapStoredObject.retain followed by release. The shared benchmarks have
+ * every thread change the reference count of the same object, like concurrent reads of one hot
+ * entry; the uncontended ones give each thread its own object.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class OffHeapStoredObjectRefCountBenchmark {
+  private static final int SLAB_SIZE = 16 * 1024 * 1024;
+
+  private long sharedAddress;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), new Slab[] {new SlabImpl(SLAB_SIZE)});
+    sharedAddress = MemoryAllocatorImpl.getAllocator().allocate(100).getAddress();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  /**
+   * An object only used by one thread. It is never released; freeing the slabs reclaims it.
+   */
+  @State(Scope.Thread)
+  public static class ThreadAddress {
+    long address;
+
+    @Setup(Level.Trial)
+    public void setup(OffHeapStoredObjectRefCountBenchmark benchmark) {
+      address = MemoryAllocatorImpl.getAllocator().allocate(100).getAddress();
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean retainAndReleaseShared1Thread() {
+    return retainAndRelease(sharedAddress);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean retainAndReleaseShared4Threads() {
+    return retainAndRelease(sharedAddress);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(16)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean retainAndReleaseShared16Threads() {
+    return retainAndRelease(sharedAddress);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean retainAndReleaseUncontended4Threads(ThreadAddress threadAddress) {
+    return retainAndRelease(threadAddress.address);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(16)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean retainAndReleaseUncontended16Threads(ThreadAddress threadAddress) {
+    return retainAndRelease(threadAddress.address);
+  }
+
+  private static boolean retainAndRelease(long address) {
+    boolean retained = OffHeapStoredObject.retain(address);
+    OffHeapStoredObject.release(address);
+    return retained;
+  }
+}
@@ -17,6 +17,8 @@ package org.apache.geode.cache.client.internal;
 
 import java.io.IOException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -213,6 +215,111 @@ public abstract class AbstractOp implements Op {
     }
   }
 
+  /**
+   * Returns true if this op can be executed on a {@link PipelinedConnection}. Such an op must get a
+   * single, unchunked reply that {@link #processResponse(Message, Connection)} can process in the
+   * thread that executes the op, and must not depend on server affinity or on a transaction.
+   */
+  protected boolean isPipelinable() {
+    return false;
+  }
+
+  /**
+   * Executes this op on the given pipelined connection. Other ops may be sent on the connection
+   * while this one waits for its reply.
+   */
+  Object attemptPipelined(PipelinedConnection cnx) throws Exception {
+    failed = true;
+    timedOut = false;
+    long start = startAttempt(cnx.getStats());
+    try {
+      PipelinedConnection.PendingReply reply;
+      try {
+        reply = cnx.send(this, false);
+        failed = false;
+      } finally {
+        endSendAttempt(cnx.getStats(), start);
+      }
+      failed = true;
+      Message msg;
+      try {
+        msg = reply.await();
+      } catch (SocketTimeoutException ste) {
+        failed = false;
+        timedOut = true;
+        throw ste;
+      }
+      Object result = processResponse(msg, cnx);
+      failed = false;
+      return result;
+    } finally {
+      endAttempt(cnx.getStats(), start);
+    }
+  }
+
+  /**
+   * Executes this op on the given pipelined connection without waiting for its reply. The returned
+   * future is completed by the thread that reads the reply, which also processes it.
+   */
+  CompletableFuture<Object> attemptPipelinedAsync(PipelinedConnection cnx) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    failed = true;
+    timedOut = false;
+    long start = startAttempt(cnx.getStats());
+    PipelinedConnection.PendingReply reply;
+    try {
+      try {
+        reply = cnx.send(this, true);
+        failed = false;
+      } finally {
+        endSendAttempt(cnx.getStats(), start);
+      }
+    } catch (Exception e) {
+      endAttempt(cnx.getStats(), start);
+      result.completeExceptionally(e);
+      return result;
+    }
+    failed = true;
+    reply.getFuture().whenComplete((msg, exception) -> {
+      Object value = null;
+      Throwable failure = exception;
+      if (failure == null) {
+        try {
+          value = processResponse(msg, cnx);
+          failed = false;
+        } catch (Exception e) {
+          failure = e;
+        }
+      } else if (failure instanceof SocketTimeoutException) {
+        failed = false;
+        timedOut = true;
+      }
+      endAttempt(cnx.getStats(), start);
+      if (failure == null) {
+        result.complete(value);
+      } else {
+        result.completeExceptionally(failure);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Reads the reply to this op from a pipelined connection into the given buffer, which is used
+   * instead of the connection's so that another op's request can be written at the same time.
+   */
+  Message receivePipelinedResponse(Connection cnx, ByteBuffer commBuffer) throws Exception {
+    Message msg = createResponseMessage();
+    msg.setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(), commBuffer,
+        cnx.getStats());
+    try {
+      msg.receive();
+    } finally {
+      msg.unsetComms();
+    }
+    return msg;
+  }
+
   /**
    * By default just create a normal one part msg. Subclasses can override this.
    */
@@ -18,6 +18,7 @@ import static org.apache.geode.util.internal.UncheckedUtils.uncheckedCast;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -131,6 +132,53 @@ public class ClientMetadataService {
     if (prAdvisor == null) {
       return null;
     }
+    int bucketId = getBucketId(prAdvisor, region, operation, key, value, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+
+    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
+    ServerLocation location = null;
+    if (bucketServerLocation != null) {
+      location =
+          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
+    }
+    return location;
+  }
+
+  /**
+   * Returns the servers hosting the bucket of the given key in random order, or null if they are
+   * not known.
+   */
+  public List<ServerLocation> getBucketServerLocations(Region region, Operation operation,
+      Object key, Object value, Object callbackArg) {
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(region.getFullPath());
+    if (prAdvisor == null) {
+      return null;
+    }
+    int bucketId = getBucketId(prAdvisor, region, operation, key, value, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+    List<BucketServerLocation66> bucketServerLocations =
+        prAdvisor.adviseServerLocations(bucketId);
+    if (bucketServerLocations == null) {
+      return null;
+    }
+    List<ServerLocation> locations = new ArrayList<>(bucketServerLocations.size());
+    for (BucketServerLocation66 bucketServerLocation : bucketServerLocations) {
+      locations.add(
+          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort()));
+    }
+    Collections.shuffle(locations, rand);
+    return locations;
+  }
+
+  /**
+   * Returns the bucket of the given key, or -1 if it is not known.
+   */
+  private int getBucketId(ClientPartitionAdvisor prAdvisor, Region region, Operation operation,
+      Object key, Object value, Object callbackArg) {
     int totalNumberOfBuckets = prAdvisor.getTotalNumBuckets();
 
     final PartitionResolver resolver = getResolver(region, key, callbackArg);
@@ -162,22 +210,11 @@ public class ClientMetadataService {
                 prms));
       } else {
         bucketId = prAdvisor.assignFixedBucketId(region, partition, resolveKey);
-        if (bucketId == -1) {
-          return null;
-        }
-
       }
     } else {
       bucketId = PartitionedRegionHelper.getHashKey(resolveKey, totalNumberOfBuckets);
     }
-
-    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
-    ServerLocation location = null;
-    if (bucketServerLocation != null) {
-      location =
-          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
-    }
-    return location;
+    return bucketId;
   }
 
   private ServerLocation getServerLocation(Region region, Operation operation, int bucketId) {
@@ -280,8 +280,20 @@ public class ConnectionImpl implements Connection {
       endpoint.updateLastExecute();
       return result;
     }
-    synchronized (this) {
-      result = op.attempt(this);
+    EndpointLoad load = endpoint.getLoad();
+    if (load == null) {
+      synchronized (this) {
+        result = op.attempt(this);
+      }
+    } else {
+      long start = load.startOp();
+      try {
+        synchronized (this) {
+          result = op.attempt(this);
+        }
+      } finally {
+        load.endOp(start);
+      }
     }
     // Do not call endpoint.updateLastExecute here because it should have been
     // called on the final destination endpoint inside LiverServerPinger
@@ -35,6 +35,8 @@ public class Endpoint {
   private final ConnectionStats stats;
   private final EndpointManagerImpl manager;
   private final DistributedMember memberId;
+  private final EndpointLoad load =
+      EndpointLoad.ADAPTIVE_LOAD_BALANCING ? new EndpointLoad() : null;
   private volatile boolean closed;
 
   Endpoint(EndpointManagerImpl endpointManager, DistributedSystem ds, ServerLocation location,
@@ -73,6 +75,13 @@ public class Endpoint {
     return stats;
   }
 
+  /**
+   * @return the load this client sees on the server, or null if adaptive load balancing is off
+   */
+  public EndpointLoad getLoad() {
+    return load;
+  }
+
   void addReference() {
     references.incrementAndGet();
   }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * The load a client sees on a server, measured by the ops it executes there: the number of ops in
+ * progress and a moving average of their response times. The average follows an increase at once
+ * and decays towards lower response times, and towards zero while no op completes, over
+ * {@link #DECAY_MILLIS}. The cost of a server is its average response time multiplied by the
+ * number of ops in progress plus one, so a server that stops responding, for example because of a
+ * GC pause, becomes more expensive with every op sent to it before any of them completes.
+ */
+public class EndpointLoad {
+
+  /**
+   * If true, ops that are not sent to a particular server are sent to the less loaded of two
+   * servers chosen at random, using the response times and ops in progress this client sees on
+   * each server instead of only the connection counts the locators balance. If false, the load of
+   * the servers is not measured at all.
+   */
+  public static final boolean ADAPTIVE_LOAD_BALANCING =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "PoolImpl.ADAPTIVE_LOAD_BALANCING");
+
+  /**
+   * The time in milliseconds over which a server's average response time forgets older samples.
+   */
+  static final long DECAY_MILLIS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "PoolImpl.LATENCY_DECAY_MILLIS", 1000);
+
+  private static final double DECAY_NANOS = TimeUnit.MILLISECONDS.toNanos(DECAY_MILLIS);
+
+  private final AtomicInteger inProgress = new AtomicInteger();
+
+  /** The average response time in nanoseconds. Guarded by this. */
+  private double responseTime;
+
+  /** The time the average was last updated. Guarded by this. */
+  private long lastUpdate = System.nanoTime();
+
+  /**
+   * Called before an op is executed on the server. Returns the start time to pass to
+   * {@link #endOp(long)}.
+   */
+  public long startOp() {
+    inProgress.incrementAndGet();
+    return System.nanoTime();
+  }
+
+  /**
+   * Called after an op has been executed on the server, whether it succeeded or not.
+   */
+  public void endOp(long start) {
+    long now = System.nanoTime();
+    inProgress.decrementAndGet();
+    addResponseTime(now - start, now);
+  }
+
+  synchronized void addResponseTime(long sample, long now) {
+    if (sample > responseTime) {
+      responseTime = sample;
+    } else {
+      double weight = Math.exp(-(now - lastUpdate) / DECAY_NANOS);
+      responseTime = responseTime * weight + sample * (1 - weight);
+    }
+    lastUpdate = Math.max(lastUpdate, now);
+  }
+
+  int getInProgress() {
+    return inProgress.get();
+  }
+
+  /**
+   * Returns the cost of sending another op to the server at the given time.
+   */
+  double getCost(long now) {
+    double decayed;
+    synchronized (this) {
+      decayed = responseTime * Math.exp(-Math.max(0, now - lastUpdate) / DECAY_NANOS);
+    }
+    // a server without samples is ordered by the ops in progress
+    return Math.max(decayed, 1) * (inProgress.get() + 1);
+  }
+
+  /**
+   * Returns the less loaded of two endpoints chosen at random from the given ones, ignoring the
+   * closed ones, or null if there is none. Choosing between two instead of taking the least loaded
+   * of all keeps the threads that choose at the same time from all picking the same server.
+   */
+  public static Endpoint chooseLessLoaded(Collection<Endpoint> endpoints) {
+    Endpoint[] open = endpoints.stream().filter(e -> !e.isClosed()).toArray(Endpoint[]::new);
+    if (open.length == 0) {
+      return null;
+    }
+    if (open.length == 1) {
+      return open[0];
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(open.length);
+    int second = random.nextInt(open.length - 1);
+    if (second >= first) {
+      second++;
+    }
+    long now = System.nanoTime();
+    return open[first].getLoad().getCost(now) <= open[second].getLoad().getCost(now) ? open[first]
+        : open[second];
+  }
+}
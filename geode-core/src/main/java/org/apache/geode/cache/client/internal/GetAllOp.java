@@ -14,10 +14,12 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.Logger;
 
@@ -121,6 +123,136 @@ public class GetAllOp {
     }
   }
 
+  /**
+   * Does a region getAll on a server using connections from the given pool to communicate with the
+   * server, delivering the values to the given consumer a chunk at a time as they are read instead
+   * of collecting them all first. The keys of each chunk are set.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the name of the region to do the getAll on
+   * @param keys list of keys to get
+   * @param consumer is given each chunk of values read
+   */
+  public static void execute(ExecutablePool pool, String region, List keys, Object callback,
+      Consumer<VersionedObjectList> consumer) {
+    GetAllOpImpl op = new GetAllOpImpl(region, keys, callback, consumer);
+    op.initMessagePart();
+    pool.execute(op);
+    op.throwConsumerFailure();
+  }
+
+  /**
+   * Does a region getAll on the servers hosting the keys, delivering the values to the given
+   * consumer a chunk at a time as they are read instead of collecting them all first. The keys of
+   * each chunk are set.
+   *
+   * <p>
+   * The request for each server's keys is sent to every server before any reply is read, so the
+   * servers work in parallel while the calling thread reads their replies one after the other. No
+   * other thread is used, and only one chunk is held at a time: a server whose reply is not being
+   * read is held back once the connection's socket buffers are full.
+   *
+   * <p>
+   * If a server fails, the keys whose values it had not delivered yet are fetched from any server.
+   * A value is never delivered twice.
+   *
+   * @param consumer is given each chunk of values read, in the calling thread
+   */
+  public static void execute(ExecutablePool pool, Region region, List keys, int retryAttempts,
+      Object callback, Consumer<VersionedObjectList> consumer) {
+    String regionPath = region.getFullPath();
+    ClientMetadataService cms = ((InternalRegion) region).getCache().getClientMetadataService();
+
+    Map<ServerLocation, Set> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
+
+    if (serverToFilterMap == null || serverToFilterMap.isEmpty()
+        || UserAttributes.userAttributes.get() != null) {
+      // in multiuser mode the ops are executed by the pool, which authenticates the user
+      execute(pool, regionPath, keys, callback, consumer);
+      return;
+    }
+    PoolImpl poolImpl = (PoolImpl) pool;
+    List<GetAllOpImpl> ops = new ArrayList<>(serverToFilterMap.size());
+    List<Connection> connections = new ArrayList<>(serverToFilterMap.size());
+    List retryList = new ArrayList();
+    ServerConnectivityException se = null;
+    try {
+      for (Map.Entry<ServerLocation, Set> entry : serverToFilterMap.entrySet()) {
+        GetAllOpImpl op =
+            new GetAllOpImpl(regionPath, new ArrayList(entry.getValue()), callback, consumer);
+        op.initMessagePart();
+        Connection connection = null;
+        try {
+          connection = poolImpl.acquireConnection(entry.getKey());
+          op.send(connection);
+        } catch (Exception e) {
+          se = serverFailed(poolImpl, cms, region, entry.getKey(), connection, e);
+          retryList.addAll(op.getUndeliveredKeys());
+          continue;
+        }
+        ops.add(op);
+        connections.add(connection);
+      }
+      for (int i = 0; i < ops.size(); i++) {
+        GetAllOpImpl op = ops.get(i);
+        Connection connection = connections.set(i, null);
+        try {
+          op.readResponse(connection);
+        } catch (Exception e) {
+          se = serverFailed(poolImpl, cms, region, connection.getServer(), connection, e);
+          retryList.addAll(op.getUndeliveredKeys());
+          continue;
+        }
+        poolImpl.returnConnection(connection);
+        op.throwConsumerFailure();
+      }
+    } finally {
+      for (int i = 0; i < connections.size(); i++) {
+        Connection connection = connections.get(i);
+        if (connection != null) {
+          // the reply was not read, so the connection can not be used again
+          ops.get(i).abandon(connection);
+          connection.destroy();
+          poolImpl.returnConnection(connection);
+        }
+      }
+    }
+
+    if (se != null) {
+      if (retryAttempts == 0) {
+        throw se;
+      }
+      execute(pool, regionPath, retryList, callback, consumer);
+    }
+  }
+
+  /**
+   * Handles the failure of a getAll sent to the given server, returning the connection to the pool
+   * if there is one. Returns the exception to report if the keys can not be fetched from another
+   * server, and throws it if the failure was not caused by the server or connection.
+   */
+  private static ServerConnectivityException serverFailed(PoolImpl pool,
+      ClientMetadataService cms, Region region, ServerLocation server, Connection connection,
+      Exception e) {
+    if (connection != null) {
+      try {
+        pool.processException(e, connection);
+      } finally {
+        pool.returnConnection(connection);
+      }
+    } else if (!(e instanceof ServerConnectivityException)) {
+      throw e instanceof RuntimeException ? (RuntimeException) e
+          : new ServerOperationException(e);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("GetAllOp#streaming getAll failed on server {}", server, e);
+    }
+    cms.removeBucketServerLocation(server);
+    cms.scheduleGetPRMetaData((LocalRegion) region, false);
+    return e instanceof ServerConnectivityException ? (ServerConnectivityException) e
+        : new ServerConnectivityException("getAll failed on server " + server, e);
+  }
+
   private GetAllOp() {
     // no instances allowed
   }
@@ -151,13 +283,30 @@ public class GetAllOp {
     private final List keyList;
     private final Object callback;
 
+    /** If not null, is given each chunk of values instead of collecting them in the result. */
+    private final Consumer<VersionedObjectList> consumer;
+
+    /** The number of keys whose values have been delivered to the consumer. */
+    private int delivered;
+
+    /** The first exception thrown by the consumer, after which no more values are delivered. */
+    private RuntimeException consumerFailure;
+
+    private long start;
+
     /**
      * @throws org.apache.geode.SerializationException if serialization fails
      */
     public GetAllOpImpl(String region, List keys, Object callback) {
+      this(region, keys, callback, null);
+    }
+
+    GetAllOpImpl(String region, List keys, Object callback,
+        Consumer<VersionedObjectList> consumer) {
       super(callback != null ? MessageType.GET_ALL_WITH_CALLBACK : MessageType.GET_ALL_70, 3);
       this.keyList = keys;
       this.callback = callback;
+      this.consumer = consumer;
       getMessage().addStringPart(region, true);
     }
 
@@ -178,6 +327,59 @@ public class GetAllOp {
       return this.keyList;
     }
 
+    /**
+     * Returns the keys whose values have not been delivered to the consumer.
+     */
+    List getUndeliveredKeys() {
+      return this.keyList.subList(this.delivered, this.keyList.size());
+    }
+
+    void throwConsumerFailure() {
+      if (this.consumerFailure != null) {
+        throw this.consumerFailure;
+      }
+    }
+
+    /**
+     * Sends this op's message on the given connection. Its reply is read by
+     * {@link #readResponse(Connection)}.
+     */
+    void send(Connection connection) throws Exception {
+      failed = true;
+      timedOut = false;
+      start = startAttempt(connection.getStats());
+      try {
+        attemptSend(connection);
+        failed = false;
+      } finally {
+        endSendAttempt(connection.getStats(), start);
+        if (failed) {
+          endAttempt(connection.getStats(), start);
+        }
+      }
+    }
+
+    void readResponse(Connection connection) throws Exception {
+      failed = true;
+      try {
+        attemptReadResponse(connection);
+        failed = false;
+      } catch (SocketTimeoutException ste) {
+        failed = false;
+        timedOut = true;
+        throw ste;
+      } finally {
+        endAttempt(connection.getStats(), start);
+      }
+    }
+
+    /**
+     * Called instead of {@link #readResponse(Connection)} when the reply will not be read.
+     */
+    void abandon(Connection connection) {
+      failed = true;
+      endAttempt(connection.getStats(), start);
+    }
 
     @Override
     protected Message createResponseMessage() {
@@ -191,8 +393,9 @@ public class GetAllOp {
 
     @Override
     protected Object processResponse(Message msg, final Connection con) throws Exception {
-      final VersionedObjectList result = new VersionedObjectList(false);
+      final VersionedObjectList result = consumer == null ? new VersionedObjectList(false) : null;
       final Exception[] exceptionRef = new Exception[1];
+      final int[] position = new int[1];
       processChunkedResponse((ChunkedMessage) msg, "getAll", new ChunkHandler() {
         @Override
         public void handle(ChunkedMessage cm) throws Exception {
@@ -205,7 +408,13 @@ public class GetAllOp {
             } else {
               VersionedObjectList chunk = (VersionedObjectList) o;
               chunk.replaceNullIDs(con.getEndpoint().getMemberId());
-              result.addAll(chunk);
+              if (result != null) {
+                result.addAll(chunk);
+              } else {
+                int chunkStart = position[0];
+                position[0] += chunk.size();
+                deliver(chunk, chunkStart);
+              }
             }
           } catch (Exception e) {
             exceptionRef[0] = new ServerOperationException("Unable to deserialize value", e);
@@ -219,6 +428,38 @@ public class GetAllOp {
       }
     }
 
+    /**
+     * Delivers the values of the given chunk, which starts at the given position in the key list,
+     * that have not already been delivered by an earlier attempt.
+     */
+    private void deliver(VersionedObjectList chunk, int chunkStart) {
+      int chunkEnd = chunkStart + chunk.size();
+      if (chunkEnd <= delivered || consumerFailure != null) {
+        return;
+      }
+      chunk.setKeys(keyList.subList(chunkStart, chunkEnd));
+      if (chunkStart < delivered) {
+        VersionedObjectList rest =
+            new VersionedObjectList(chunkEnd - delivered, true, chunk.regionIsVersioned());
+        int index = chunkStart;
+        for (VersionedObjectList.Iterator it = chunk.iterator(); it.hasNext(); index++) {
+          VersionedObjectList.Entry entry = it.next();
+          if (index >= delivered) {
+            rest.addPart(entry.getKey(), entry.getObject(), entry.getObjectType(),
+                entry.getVersionTag());
+          }
+        }
+        chunk = rest;
+      }
+      delivered = chunkEnd;
+      try {
+        consumer.accept(chunk);
+      } catch (RuntimeException e) {
+        // the rest of the reply is still read so the connection can be used again
+        consumerFailure = e;
+      }
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.GET_ALL_DATA_ERROR;
@@ -56,6 +56,11 @@ public class GetEntryOp {
       return snap;
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.REQUESTDATAERROR;
@@ -14,6 +14,9 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.cache.CacheClosedException;
@@ -26,6 +29,7 @@ import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.Message;
@@ -59,6 +63,24 @@ public class GetOp {
    */
   public static Object execute(ExecutablePool pool, LocalRegion region, Object key,
       Object callbackArg, boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
+    return execute(pool, region, key, callbackArg, prSingleHopEnabled, clientEvent, null);
+  }
+
+  /**
+   * Does a region get on a server using connections from the given pool to communicate with the
+   * server, hedging it with the given hedgedGets if it is not null and the key's bucket has
+   * redundant copies.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the region to do the get on
+   * @param key the entry key to do the get on
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @param clientEvent holder for returning version information
+   * @param hedgedGets the region's hedged gets, or null if its gets are not hedged
+   * @return the entry value found by the get if any
+   */
+  static Object execute(ExecutablePool pool, LocalRegion region, Object key, Object callbackArg,
+      boolean prSingleHopEnabled, EntryEventImpl clientEvent, HedgedGets hedgedGets) {
     ClientMetadataService cms = region.getCache().getClientMetadataService();
     GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, clientEvent);
 
@@ -66,14 +88,28 @@ public class GetOp {
       logger.debug("GetOp invoked for key {}", key);
     }
     if (prSingleHopEnabled) {
-      ServerLocation server =
-          cms.getBucketServerLocation(region, Operation.GET, key, null, callbackArg);
+      ServerLocation server;
+      ServerLocation otherServer = null;
+      if (hedgedGets != null && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX) {
+        List<ServerLocation> servers =
+            cms.getBucketServerLocations(region, Operation.GET, key, null, callbackArg);
+        server = servers == null || servers.isEmpty() ? null : servers.get(0);
+        if (servers != null && servers.size() > 1) {
+          otherServer = servers.get(1);
+        }
+      } else {
+        server = cms.getBucketServerLocation(region, Operation.GET, key, null, callbackArg);
+      }
       if (server != null) {
         try {
           PoolImpl poolImpl = (PoolImpl) pool;
           boolean onlyUseExistingCnx = ((poolImpl.getMaxConnections() != -1
               && poolImpl.getConnectionCount() >= poolImpl.getMaxConnections()) ? true : false);
           op.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+          if (otherServer != null) {
+            return executeHedged(pool, region, key, callbackArg, clientEvent, hedgedGets, server,
+                otherServer, onlyUseExistingCnx);
+          }
           return pool.executeOn(new ServerLocation(server.getHostName(), server.getPort()), op,
               true, onlyUseExistingCnx);
         } catch (AllConnectionsInUseException e) {
@@ -92,6 +128,36 @@ public class GetOp {
     return pool.execute(op);
   }
 
+  private static Object executeHedged(ExecutablePool pool, LocalRegion region, Object key,
+      Object callbackArg, EntryEventImpl clientEvent, HedgedGets hedgedGets,
+      ServerLocation server, ServerLocation otherServer, boolean onlyUseExistingCnx) {
+    GetOpImpl get = new GetOpImpl(region, key, callbackArg, true, null);
+    GetOpImpl hedge = new GetOpImpl(region, key, callbackArg, true, null);
+    get.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+    hedge.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+    return hedgedGets.execute(pool, server, get, otherServer, hedge, onlyUseExistingCnx,
+        clientEvent);
+  }
+
+  /**
+   * Does a region get on a server without waiting for the reply, using the pool's pipelined
+   * connections if it has any. The get is not routed to the server hosting the key's bucket.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the region to do the get on
+   * @param key the entry key to do the get on
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @param clientEvent holder for returning version information
+   * @return a future completed with the entry value found by the get if any
+   */
+  public static CompletableFuture<Object> executeAsync(ExecutablePool pool, LocalRegion region,
+      Object key, Object callbackArg, EntryEventImpl clientEvent) {
+    GetOpImpl op = new GetOpImpl(region, key, callbackArg, false, clientEvent);
+    if (logger.isDebugEnabled()) {
+      logger.debug("GetOp invoked asynchronously for key {}", key);
+    }
+    return pool.executeAsync(op);
+  }
 
   private GetOp() {
     // no instances allowed
@@ -109,6 +175,16 @@ public class GetOp {
 
     private EntryEventImpl clientEvent;
 
+    private volatile VersionTag versionTag;
+
+    /** True if this get may be cancelled while it is executed; see {@link HedgedGets}. */
+    private volatile boolean cancellable;
+
+    private volatile boolean cancelled;
+
+    /** The connection this get is executed on, if it may be cancelled. */
+    private volatile Connection connection;
+
     public String toString() {
       return "GetOpImpl(key=" + key + ")";
     }
@@ -158,6 +234,7 @@ public class GetOp {
           assert con.getEndpoint() != null; // for debugging
           assert tag != null; // for debugging
           tag.replaceNullIDs((InternalDistributedMember) con.getEndpoint().getMemberId());
+          this.versionTag = tag;
           if (this.clientEvent != null) {
             this.clientEvent.setVersionTag(tag);
           }
@@ -212,6 +289,63 @@ public class GetOp {
       return object;
     }
 
+    /**
+     * Returns the version tag of the entry the server replied with, if any.
+     */
+    VersionTag getVersionTag() {
+      return this.versionTag;
+    }
+
+    /**
+     * Allows this get to be cancelled. It is then not executed on a pipelined connection, which
+     * would be destroyed with the ops of other threads.
+     */
+    void setCancellable() {
+      this.cancellable = true;
+    }
+
+    /**
+     * Cancels this get, destroying the connection it is executed on so that the thread executing
+     * it stops waiting for the reply.
+     */
+    void cancel() {
+      this.cancelled = true;
+      Connection cnx = this.connection;
+      if (cnx != null) {
+        cnx.destroy();
+      }
+    }
+
+    boolean isCancelled() {
+      return this.cancelled;
+    }
+
+    @Override
+    public Object attempt(Connection cnx) throws Exception {
+      if (!this.cancellable) {
+        return super.attempt(cnx);
+      }
+      this.connection = cnx;
+      try {
+        if (!this.cancelled) {
+          return super.attempt(cnx);
+        }
+      } catch (Exception e) {
+        if (!this.cancelled) {
+          throw e;
+        }
+        throw new HedgedGets.AttemptCancelledException(e);
+      } finally {
+        this.connection = null;
+      }
+      throw new HedgedGets.AttemptCancelledException(null);
+    }
+
+    @Override
+    protected boolean isPipelinable() {
+      return !this.cancellable;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.REQUESTDATAERROR;
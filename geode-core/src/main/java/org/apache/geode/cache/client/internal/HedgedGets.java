@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Hedges the single hop gets of a region whose buckets have redundant copies. If the server a get
+ * is sent to has not replied within the response time that {@link #PERCENTILE} percent of the
+ * region's recent gets were answered in, the get is also sent to another server hosting the key's
+ * bucket and whichever reply comes first is used. A server in a GC pause then delays a get by
+ * about that percentile instead of the pool's read timeout.
+ *
+ * <p>
+ * The get is executed by the calling thread. A timer starts the hedge on one of the single hop
+ * executor's threads once the delay has passed, unless the get has been answered by then. The
+ * attempt that loses is cancelled by destroying its connection, so neither a thread nor a
+ * connection keeps waiting for a reply that is not needed. Hedged gets are not executed on
+ * pipelined connections, whose other ops would fail with them.
+ *
+ * <p>
+ * The response times are kept in a histogram with four buckets per power of two microseconds,
+ * whose counts are halved every {@link #DECAY_SAMPLES} samples so it follows changes in the
+ * servers' response times.
+ */
+class HedgedGets {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The percentile of the response times after which a get is hedged. Zero, the default, disables
+   * hedging.
+   */
+  static final int PERCENTILE =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "GetOp.HEDGE_PERCENTILE", 0);
+
+  /** Gets are not hedged until this many response times are known. */
+  static final int MINIMUM_SAMPLES = 100;
+
+  static final int DECAY_SAMPLES = 1024;
+
+  private static final int BUCKETS = 160;
+
+  /** Starts the hedges whose delay has passed. Its thread is only created once one is needed. */
+  @MakeNotStatic
+  private static final ScheduledExecutorService timer =
+      LoggingExecutors.newSingleThreadScheduledExecutor("HedgedGetTimer");
+
+  private final int percentile;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  private final AtomicLong samples = new AtomicLong();
+
+  HedgedGets(int percentile) {
+    this.percentile = percentile;
+  }
+
+  /**
+   * Executes the given get on the given server and, if it has not replied within the hedging
+   * delay, also executes the given hedge on the other server. Returns the first reply, setting the
+   * version tag it came with on the clientEvent if it is not null, or throws the get's exception if
+   * neither server replied successfully.
+   */
+  Object execute(ExecutablePool pool, ServerLocation server, GetOp.GetOpImpl get,
+      ServerLocation otherServer, GetOp.GetOpImpl hedge, boolean onlyUseExistingCnx,
+      EntryEventImpl clientEvent) {
+    long start = System.nanoTime();
+    long delay = getDelayNanos();
+    if (delay < 0) {
+      Object result = pool.executeOn(server, get, true, onlyUseExistingCnx);
+      addResponseTime(System.nanoTime() - start);
+      return new Reply(get, result).getValue(clientEvent);
+    }
+    get.setCancellable();
+    hedge.setCancellable();
+    Hedge hedged = new Hedge(pool, otherServer, get, hedge, onlyUseExistingCnx);
+    hedged.schedule(delay);
+    Object result;
+    try {
+      result = pool.executeOn(server, get, true, onlyUseExistingCnx);
+    } catch (RuntimeException e) {
+      if (hedged.getFailed()) {
+        Reply reply = hedged.awaitReply();
+        if (reply != null) {
+          addResponseTime(System.nanoTime() - start);
+          return reply.getValue(clientEvent);
+        }
+      }
+      throw e;
+    }
+    hedged.getSucceeded();
+    addResponseTime(System.nanoTime() - start);
+    return new Reply(get, result).getValue(clientEvent);
+  }
+
+  /**
+   * Returns the time after which a get is hedged, or -1 if gets are not hedged yet.
+   */
+  long getDelayNanos() {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    if (total < MINIMUM_SAMPLES) {
+      return -1;
+    }
+    long rank = (total * percentile + 99) / 100;
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += counts.get(i);
+      if (count >= rank) {
+        return TimeUnit.MICROSECONDS.toNanos(upperBoundOf(i));
+      }
+    }
+    return TimeUnit.MICROSECONDS.toNanos(upperBoundOf(BUCKETS - 1));
+  }
+
+  void addResponseTime(long nanos) {
+    counts.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    if (samples.incrementAndGet() % DECAY_SAMPLES == 0) {
+      // concurrent samples may be lost, which only makes the decay a little faster
+      for (int i = 0; i < BUCKETS; i++) {
+        counts.set(i, counts.get(i) / 2);
+      }
+    }
+  }
+
+  static int bucketOf(long micros) {
+    if (micros < 4) {
+      return (int) micros;
+    }
+    int log = 63 - Long.numberOfLeadingZeros(micros);
+    int sub = (int) (micros >>> (log - 2)) & 3;
+    return Math.min(log * 4 + sub - 4, BUCKETS - 1);
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < 4) {
+      return bucket;
+    }
+    int log = (bucket + 4) / 4;
+    int sub = (bucket + 4) % 4;
+    return ((5L + sub) << (log - 2)) - 1;
+  }
+
+  /**
+   * The value a get was answered with. The gets of a hedged get may run at the same time, so each
+   * keeps the version tag it is answered with until one of them is chosen.
+   */
+  private static class Reply {
+    private final GetOp.GetOpImpl get;
+    private final Object value;
+
+    Reply(GetOp.GetOpImpl get, Object value) {
+      this.get = get;
+      this.value = value;
+    }
+
+    Object getValue(EntryEventImpl clientEvent) {
+      if (clientEvent != null && get.getVersionTag() != null) {
+        clientEvent.setVersionTag(get.getVersionTag());
+      }
+      return value;
+    }
+  }
+
+  /**
+   * The hedge of a get. The timer starts it once its delay has passed, unless the get has been
+   * answered or has failed by then.
+   */
+  private static class Hedge implements Runnable {
+    private final ExecutablePool pool;
+    private final ServerLocation server;
+    private final GetOp.GetOpImpl get;
+    private final GetOp.GetOpImpl hedge;
+    private final boolean onlyUseExistingCnx;
+    private final UserAttributes securityAttributes = UserAttributes.userAttributes.get();
+    private ScheduledFuture<?> scheduled;
+
+    /** True once the hedge has been started. Guarded by this. */
+    private boolean started;
+
+    /** True once the get has been answered or has failed. Guarded by this. */
+    private boolean getDone;
+
+    /** True once the hedge has been answered or has failed. Guarded by this. */
+    private boolean done;
+
+    /** The reply to the hedge, or null if it failed. Guarded by this. */
+    private Reply reply;
+
+    Hedge(ExecutablePool pool, ServerLocation server, GetOp.GetOpImpl get,
+        GetOp.GetOpImpl hedge, boolean onlyUseExistingCnx) {
+      this.pool = pool;
+      this.server = server;
+      this.get = get;
+      this.hedge = hedge;
+      this.onlyUseExistingCnx = onlyUseExistingCnx;
+    }
+
+    void schedule(long delay) {
+      scheduled = timer.schedule(this, delay, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+      synchronized (this) {
+        if (getDone) {
+          return;
+        }
+        started = true;
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("Hedging {} on {}", get, server);
+      }
+      try {
+        SingleHopClientExecutor.execService.execute(this::execute);
+      } catch (RejectedExecutionException e) {
+        complete(null);
+      }
+    }
+
+    private void execute() {
+      Reply result = null;
+      if (!hedge.isCancelled()) {
+        UserAttributes.userAttributes.set(securityAttributes);
+        try {
+          result = new Reply(hedge, pool.executeOn(server, hedge, true, onlyUseExistingCnx));
+        } catch (RuntimeException e) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Hedged {} on {} failed", hedge, server, e);
+          }
+        } finally {
+          UserAttributes.userAttributes.set(null);
+        }
+      }
+      complete(result);
+    }
+
+    private void complete(Reply result) {
+      boolean cancelGet;
+      synchronized (this) {
+        reply = result;
+        done = true;
+        cancelGet = result != null && !getDone;
+        notifyAll();
+      }
+      if (cancelGet) {
+        get.cancel();
+      }
+    }
+
+    /**
+     * Called once the get has been answered, which cancels the hedge.
+     */
+    void getSucceeded() {
+      boolean cancelHedge;
+      synchronized (this) {
+        getDone = true;
+        cancelHedge = started && !done;
+        if (!started) {
+          scheduled.cancel(false);
+        }
+      }
+      if (cancelHedge) {
+        hedge.cancel();
+      }
+    }
+
+    /**
+     * Called once the get has failed, possibly because the hedge was answered first. Returns true
+     * if the hedge has been started, whose reply is then awaited.
+     */
+    synchronized boolean getFailed() {
+      getDone = true;
+      if (!started) {
+        scheduled.cancel(false);
+      }
+      return started;
+    }
+
+    /**
+     * Waits for the hedge to be answered and returns its reply, or null if it failed.
+     */
+    synchronized Reply awaitReply() {
+      boolean interrupted = false;
+      try {
+        while (!done) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            // the hedge has been sent, so its reply is still needed
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return reply;
+    }
+  }
+
+  /**
+   * Thrown by a get that was cancelled because the other attempt of a hedged get was answered
+   * first. The connection it was executed on has been destroyed, but its server is fine.
+   */
+  static class AttemptCancelledException extends ConnectionDestroyedException {
+    private static final long serialVersionUID = -3578224936218325318L;
+
+    AttemptCancelledException(Throwable cause) {
+      super("The other attempt of the hedged get was answered first", cause);
+    }
+  }
+}
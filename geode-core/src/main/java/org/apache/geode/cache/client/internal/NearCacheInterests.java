@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Keeps a client's caching region coherent with the servers without registering interest in
+ * values. Before a key is loaded from or written to a server, interest in it is registered with
+ * updates sent as invalidates, so the servers only send the client an invalidate when the key
+ * changes. The interest is unregistered once the key's entry has been evicted, destroyed or
+ * invalidated by the client, so the servers only track the keys the client holds and the region's
+ * eviction attributes bound how many that is.
+ *
+ * <p>
+ * The threads that need interest in keys at the same time share one registration: the first of
+ * them registers every key waiting for interest, including the ones the others added while it was
+ * waiting, and also unregisters the keys evicted since the last registration. A key is only loaded
+ * once its interest has been registered, so no update made after the load can be missed.
+ *
+ * <p>
+ * A load or write is in progress from {@link #beforeLoad(Object)} or {@link #beforeWrite(Object)}
+ * until the matching {@link #afterLoad(Object)} or {@link #afterWrite(Object)}, which is called
+ * once its value has been cached. The interest in a key removed while a load or write of it is in
+ * progress is kept, since the value being loaded or written may be cached after the removal. When
+ * the last of them ends the interest is unregistered if the client holds no value for the key.
+ */
+public class NearCacheInterests {
+
+  /**
+   * If true, client regions that store data and whose pool has subscriptions enabled use
+   * invalidation-only interest in the keys they hold instead of requiring interest to be registered
+   * by the application.
+   */
+  static final boolean ENABLED =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "ClientRegion.NEAR_CACHE_INTERESTS");
+
+  private final ServerRegionProxy proxy;
+
+  private final byte regionDataPolicy;
+
+  /** Returns true if the client holds a value for the given key. */
+  private final Predicate<Object> holdsValue;
+
+  /** The keys whose interest is registered on the servers. Guarded by this. */
+  private final Set<Object> registered = new HashSet<>();
+
+  /** The keys waiting for the next registration. Guarded by this. */
+  private Set<Object> toRegister = new HashSet<>();
+
+  /** The evicted keys whose interest is to be unregistered. Guarded by this. */
+  private Set<Object> toUnregister = new HashSet<>();
+
+  /** The number of loads and writes in progress for each key. Guarded by this. */
+  private final Map<Object, Integer> inProgress = new HashMap<>();
+
+  /** The keys removed while a load or write of them was in progress. Guarded by this. */
+  private final Set<Object> removedInProgress = new HashSet<>();
+
+  /** True while a thread is registering interest. Guarded by this. */
+  private boolean registering;
+
+  /** The number of registrations that have finished, whether they succeeded or not. */
+  private long finishedRegistrations;
+
+  NearCacheInterests(ServerRegionProxy proxy, byte regionDataPolicy,
+      Predicate<Object> holdsValue) {
+    this.proxy = proxy;
+    this.regionDataPolicy = regionDataPolicy;
+    this.holdsValue = holdsValue;
+  }
+
+  /**
+   * Registers interest in the given key, unless it is already registered, and returns once it is.
+   * Called before the key is loaded from a server. If this returns, {@link #afterLoad(Object)} must
+   * be called once the loaded value has been cached or the load has failed.
+   */
+  public void beforeLoad(Object key) {
+    synchronized (this) {
+      startOp(key);
+      if (isRegistered(key)) {
+        return;
+      }
+      toRegister.add(key);
+    }
+    boolean registered = false;
+    try {
+      awaitRegistration(key);
+      registered = true;
+    } finally {
+      if (!registered) {
+        afterLoad(key);
+      }
+    }
+  }
+
+  /**
+   * Registers interest in the given keys, unless it is already registered, and returns once it
+   * is. Called before the keys are loaded from a server. If this returns,
+   * {@link #afterLoad(Collection)} must be called once the loaded values have been cached or the
+   * load has failed.
+   */
+  public void beforeLoad(Collection<?> keys) {
+    List<Object> pending = new ArrayList<>();
+    synchronized (this) {
+      for (Object key : keys) {
+        startOp(key);
+        if (!isRegistered(key)) {
+          toRegister.add(key);
+          pending.add(key);
+        }
+      }
+    }
+    boolean registered = false;
+    try {
+      // the keys are usually all registered by the first registration
+      for (Object key : pending) {
+        awaitRegistration(key);
+      }
+      registered = true;
+    } finally {
+      if (!registered) {
+        afterLoad(keys);
+      }
+    }
+  }
+
+  /**
+   * Called once the value loaded after {@link #beforeLoad(Object)} has been cached or the load has
+   * failed.
+   */
+  public void afterLoad(Object key) {
+    boolean removed;
+    synchronized (this) {
+      removed = endOp(key);
+    }
+    if (removed && !holdsValue.test(key)) {
+      afterRemoval(key);
+    }
+  }
+
+  /**
+   * Called once the values loaded after {@link #beforeLoad(Collection)} have been cached or the
+   * load has failed.
+   */
+  public void afterLoad(Collection<?> keys) {
+    List<Object> removed = new ArrayList<>();
+    synchronized (this) {
+      for (Object key : keys) {
+        if (endOp(key)) {
+          removed.add(key);
+        }
+      }
+    }
+    for (Object key : removed) {
+      if (!holdsValue.test(key)) {
+        afterRemoval(key);
+      }
+    }
+  }
+
+  /**
+   * Registers interest in the given key, unless it is already registered, and returns once it is.
+   * Called before the key is written to a server, so that the changes others make after the write
+   * are not missed. If this returns, {@link #afterWrite(Object)} must be called once the written
+   * value has been cached or the write has failed.
+   */
+  public void beforeWrite(Object key) {
+    beforeLoad(key);
+  }
+
+  /**
+   * Registers interest in the given keys, unless it is already registered, and returns once it
+   * is. Called before the keys are written to a server. If this returns,
+   * {@link #afterWrite(Collection)} must be called once the written values have been cached or the
+   * write has failed.
+   */
+  public void beforeWrite(Collection<?> keys) {
+    beforeLoad(keys);
+  }
+
+  /**
+   * Called once the value written after {@link #beforeWrite(Object)} has been cached or the write
+   * has failed.
+   */
+  public void afterWrite(Object key) {
+    afterLoad(key);
+  }
+
+  /**
+   * Called once the values written after {@link #beforeWrite(Collection)} have been cached or the
+   * write has failed.
+   */
+  public void afterWrite(Collection<?> keys) {
+    afterLoad(keys);
+  }
+
+  /**
+   * Called when the given key's entry has been evicted, destroyed or invalidated by the client, so
+   * interest in it is no longer needed. It is unregistered by the next registration, unless a load
+   * or write of the key is in progress.
+   */
+  public synchronized void afterRemoval(Object key) {
+    if (inProgress.containsKey(key)) {
+      // the value being loaded or written may still be cached, so the interest is kept for now
+      removedInProgress.add(key);
+      return;
+    }
+    if (registered.remove(key)) {
+      toUnregister.add(key);
+    }
+  }
+
+  synchronized int getRegisteredCount() {
+    return registered.size();
+  }
+
+  private void startOp(Object key) {
+    inProgress.merge(key, 1, Integer::sum);
+  }
+
+  /**
+   * Ends a load or write of the given key. Returns true if it was the last one in progress and the
+   * key was removed while it was.
+   */
+  private boolean endOp(Object key) {
+    Integer count = inProgress.get(key);
+    if (count == null) {
+      return false;
+    }
+    if (count > 1) {
+      inProgress.put(key, count - 1);
+      return false;
+    }
+    inProgress.remove(key);
+    return removedInProgress.remove(key);
+  }
+
+  private boolean isRegistered(Object key) {
+    if (toUnregister.remove(key)) {
+      // the key was loaded again before its interest was unregistered
+      registered.add(key);
+      return true;
+    }
+    return registered.contains(key);
+  }
+
+  /**
+   * Waits for a registration that includes the given key, doing it if no other thread is
+   * registering.
+   */
+  private void awaitRegistration(Object key) {
+    for (;;) {
+      List<Object> keys;
+      List<Object> evictedKeys;
+      boolean interrupted = false;
+      synchronized (this) {
+        if (isRegistered(key)) {
+          return;
+        }
+        // the key is not in toRegister if a registration failed or it was removed meanwhile
+        toRegister.add(key);
+        // a registration in progress took its keys before the key was added
+        long registration = finishedRegistrations + (registering ? 2 : 1);
+        try {
+          while (registering && finishedRegistrations < registration) {
+            try {
+              wait();
+            } catch (InterruptedException ignore) {
+              // the key can not be loaded until its interest is registered
+              interrupted = true;
+            }
+          }
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        if (finishedRegistrations >= registration) {
+          // the registration failed or the key was removed since, so try again
+          continue;
+        }
+        registering = true;
+        keys = new ArrayList<>(toRegister);
+        toRegister = new HashSet<>();
+        evictedKeys = new ArrayList<>(toUnregister);
+        toUnregister = new HashSet<>();
+      }
+      register(keys, evictedKeys);
+      return;
+    }
+  }
+
+  private void register(List<Object> keys, List<Object> evictedKeys) {
+    boolean succeeded = false;
+    try {
+      if (!evictedKeys.isEmpty()) {
+        proxy.unregisterInterestList(evictedKeys, false, false);
+      }
+      proxy.registerInterestList(keys, InterestResultPolicy.NONE, false, true, regionDataPolicy);
+      succeeded = true;
+    } finally {
+      synchronized (this) {
+        if (succeeded) {
+          registered.addAll(keys);
+        } else {
+          // the other threads waiting for these keys register them again
+          toRegister.addAll(keys);
+          for (Object key : evictedKeys) {
+            if (!registered.contains(key) && !inProgress.containsKey(key)) {
+              toUnregister.add(key);
+            }
+          }
+        }
+        registering = false;
+        finishedRegistrations++;
+        notifyAll();
+      }
+    }
+  }
+}
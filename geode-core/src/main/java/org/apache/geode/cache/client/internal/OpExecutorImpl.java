@@ -20,9 +20,12 @@ import java.io.NotSerializableException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.nio.BufferUnderflowException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.logging.log4j.Logger;
 
@@ -92,6 +95,9 @@ public class OpExecutorImpl implements ExecutablePool {
 
   private final ThreadLocal<Integer> affinityRetryCount = ThreadLocal.withInitial(() -> 0);
 
+  /** Null unless the pool pipelines ops. */
+  private PipelinedConnections pipelinedConnections;
+
   public OpExecutorImpl(ConnectionManager connectionManager, QueueManager queueManager,
       EndpointManager endpointManager, RegisterInterestTracker riTracker, int retryAttempts,
       long serverTimeout, long singleServerTimeout, CancelCriterion cancelCriterion,
@@ -107,6 +113,10 @@ public class OpExecutorImpl implements ExecutablePool {
     this.pool = pool;
   }
 
+  void setPipelinedConnections(PipelinedConnections pipelinedConnections) {
+    this.pipelinedConnections = pipelinedConnections;
+  }
+
   @Override
   public Object execute(Op op) {
     return execute(op, retryAttempts);
@@ -126,6 +136,25 @@ public class OpExecutorImpl implements ExecutablePool {
       return executeWithServerAffinity(loc, op);
     }
 
+    if (pipelinedConnections != null && pipelinedConnections.canExecute(op)) {
+      PipelinedConnection conn =
+          pipelinedConnections.getConnection(null, Collections.emptySet());
+      if (conn != null) {
+        try {
+          return conn.execute(op);
+        } catch (MessageTooLargeException e) {
+          throw new GemFireIOException("unable to transmit message to server", e);
+        } catch (Exception e) {
+          handleException(e, conn, 0, retries == 0);
+          // retry on one of the pool's other connections
+          ((AbstractOp) op).getMessage().setIsRetry();
+          if (retries > 0) {
+            retries--;
+          }
+        }
+      }
+    }
+
     Connection conn = connectionManager.borrowConnection(serverTimeout);
     try {
       Set<ServerLocation> attemptedServers = null;
@@ -172,6 +201,75 @@ public class OpExecutorImpl implements ExecutablePool {
     }
   }
 
+  @Override
+  public CompletableFuture<Object> executeAsync(Op op) {
+    if (pipelinedConnections == null || !pipelinedConnections.canExecute(op)
+        || serverAffinity.get()) {
+      return ExecutablePool.super.executeAsync(op);
+    }
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    executeAsync(op, retryAttempts, 0, new HashSet<>(), result);
+    return result;
+  }
+
+  /**
+   * Executes the given op on a pipelined connection to a server not in attemptedServers and, if the
+   * attempt fails, retries it on another one once its reply has been read. A retry is never
+   * executed on the pool's other connections because it would hold a thread that reads replies
+   * until it is answered.
+   */
+  private void executeAsync(Op op, int retries, int attempt, Set<ServerLocation> attemptedServers,
+      CompletableFuture<Object> result) {
+    PipelinedConnection conn = pipelinedConnections.getConnection(null, attemptedServers);
+    if (conn == null) {
+      if (attempt == 0) {
+        // no pipelined connection could be created, so the caller's thread executes the op
+        try {
+          result.complete(execute(op, retries));
+        } catch (RuntimeException e) {
+          result.completeExceptionally(e);
+        }
+      } else {
+        result.completeExceptionally(new NoAvailableServersException());
+      }
+      return;
+    }
+    conn.executeAsync(op).whenComplete((value, exception) -> {
+      if (exception == null) {
+        result.complete(value);
+        return;
+      }
+      // the failure is usually seen by a thread that reads replies, which must not wait to connect
+      // or write to another server while the replies after the failed one wait for it
+      try {
+        pipelinedConnections.execute(
+            () -> retryAsync(op, retries, attempt, attemptedServers, result, conn, exception));
+      } catch (RejectedExecutionException e) {
+        // the pool is being closed
+        result.completeExceptionally(exception);
+      }
+    });
+  }
+
+  /**
+   * Handles the failure of an attempt to execute the given op asynchronously and, unless it was the
+   * final attempt, retries it on another server.
+   */
+  private void retryAsync(Op op, int retries, int attempt, Set<ServerLocation> attemptedServers,
+      CompletableFuture<Object> result, PipelinedConnection conn, Throwable exception) {
+    try {
+      if (exception instanceof MessageTooLargeException) {
+        throw new GemFireIOException("unable to transmit message to server", exception);
+      }
+      handleException(exception, conn, attempt, attempt >= retries && retries != -1);
+      ((AbstractOp) op).getMessage().setIsRetry();
+      attemptedServers.add(conn.getServer());
+      executeAsync(op, retries, attempt + 1, attemptedServers, result);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
   /**
    * execute the given op on the given server. If the server cannot be reached, sends a
    * TXFailoverOp, then retries the given op
@@ -328,6 +426,20 @@ public class OpExecutorImpl implements ExecutablePool {
         }
       }
     }
+    if (conn == null && !onlyUseExistingCnx && !serverAffinity.get()
+        && pipelinedConnections != null && pipelinedConnections.canExecute(op)) {
+      PipelinedConnection pipelinedConn =
+          pipelinedConnections.getConnection(p_server, Collections.emptySet());
+      if (pipelinedConn != null) {
+        try {
+          return pipelinedConn.execute(op);
+        } catch (Exception e) {
+          handleException(e, pipelinedConn, 0, true);
+          // this shouldn't actually be reached, handle exception will throw something
+          throw new ServerConnectivityException("Received error connecting to server", e);
+        }
+      }
+    }
     if (conn == null) {
       conn = connectionManager.borrowConnection(p_server, singleServerTimeout, onlyUseExistingCnx);
     }
@@ -587,6 +699,12 @@ public class OpExecutorImpl implements ExecutablePool {
       invalidateServer = timeoutFatal;
       title = "socket timed out on client";
       cause = null;
+    } else if (e instanceof HedgedGets.AttemptCancelledException) {
+      // the other attempt of a hedged get was answered first
+      invalidateServer = false;
+      warn = false;
+      title = "hedged get was cancelled";
+      cause = null;
     } else if (e instanceof ConnectionDestroyedException) {
       invalidateServer = false;
       title = "connection was asynchronously destroyed";
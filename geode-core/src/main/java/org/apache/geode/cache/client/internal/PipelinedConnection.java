@@ -0,0 +1,496 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * A client to server connection that many threads execute ops on at the same time. An op's request
+ * is written as soon as no other request is being written, without waiting for the replies to the
+ * ops sent before it. The server processes the requests of a connection one after the other, so the
+ * replies arrive in the order the requests were sent and that order is what matches a reply to its
+ * op. Whichever waiting thread finds no other thread reading reads the replies in order, handing
+ * each one to the thread that sent its request, until its own reply arrives. The replies are
+ * processed by the threads that sent the requests.
+ *
+ * <p>
+ * The replies of ops executed with {@link #executeAsync(Op)}, which no thread waits for, are read
+ * and processed by a thread of the pool's reader executor that runs for as long as such replies are
+ * pending. So a connection never has more than one thread reading, however many ops are pending.
+ *
+ * <p>
+ * Only ops that are {@link AbstractOp#isPipelinable() pipelinable} can be executed. If a request
+ * or reply can not be transferred completely the connection is out of sync with the server, so it
+ * is destroyed and every op waiting for a reply on it fails.
+ */
+public class PipelinedConnection implements Connection {
+  private static final Logger logger = LogService.getLogger();
+
+  private final Connection connection;
+
+  private final Executor readerExecutor;
+
+  private final Consumer<PipelinedConnection> destroyListener;
+
+  /** Replies are read into this buffer so that a request can be written while one is read. */
+  private ByteBuffer readBuffer;
+
+  private final Object sendLock = new Object();
+
+  /** The ops whose requests were sent and whose replies have not been read yet. Guarded by this. */
+  private final Deque<PendingReply> pendingReplies = new ArrayDeque<>();
+
+  /** The number of pending replies that no thread waits for. Guarded by this. */
+  private int asyncReplies;
+
+  /** True while a thread is reading replies. Guarded by this. */
+  private boolean reading;
+
+  /** Set once the connection can no longer be used. Guarded by this. */
+  private boolean destroyed;
+
+  PipelinedConnection(Connection connection, Executor readerExecutor,
+      Consumer<PipelinedConnection> destroyListener) throws SocketException {
+    this.connection = connection;
+    this.readerExecutor = readerExecutor;
+    this.destroyListener = destroyListener;
+    readBuffer = ServerConnection.allocateCommBuffer(connection.getCommBuffer().capacity(),
+        connection.getSocket());
+  }
+
+  /**
+   * Returns the number of ops whose replies have not been read yet.
+   */
+  synchronized int getPendingCount() {
+    return pendingReplies.size();
+  }
+
+  @Override
+  public Object execute(Op op) throws Exception {
+    EndpointLoad load = getEndpoint().getLoad();
+    Object result;
+    if (load == null) {
+      result = ((AbstractOp) op).attemptPipelined(this);
+    } else {
+      long start = load.startOp();
+      try {
+        result = ((AbstractOp) op).attemptPipelined(this);
+      } finally {
+        load.endOp(start);
+      }
+    }
+    getEndpoint().updateLastExecute();
+    return result;
+  }
+
+  /**
+   * Executes the given op without waiting for its reply. The returned future is completed, in a
+   * thread that reads replies for this connection, once the reply has been read and processed.
+   */
+  CompletableFuture<Object> executeAsync(Op op) {
+    EndpointLoad load = getEndpoint().getLoad();
+    if (load == null) {
+      CompletableFuture<Object> result = ((AbstractOp) op).attemptPipelinedAsync(this);
+      result.thenRun(() -> getEndpoint().updateLastExecute());
+      return result;
+    }
+    long start = load.startOp();
+    CompletableFuture<Object> result;
+    try {
+      result = ((AbstractOp) op).attemptPipelinedAsync(this);
+    } catch (RuntimeException e) {
+      load.endOp(start);
+      throw e;
+    }
+    result.whenComplete((value, exception) -> load.endOp(start));
+    result.thenRun(() -> getEndpoint().updateLastExecute());
+    return result;
+  }
+
+  /**
+   * Writes the request of the given op and returns its reply. If async is true no thread will
+   * wait for the reply, so a reader is started if none is running.
+   */
+  PendingReply send(AbstractOp op, boolean async) throws Exception {
+    PendingReply reply = new PendingReply(op, async ? new CompletableFuture<>() : null);
+    boolean startReader = false;
+    synchronized (sendLock) {
+      synchronized (this) {
+        if (destroyed) {
+          throw new ConnectionDestroyedException("The pipelined connection was destroyed");
+        }
+      }
+      try {
+        op.attemptSend(connection);
+      } catch (Exception e) {
+        // part of the request may have been written
+        destroy();
+        throw e;
+      }
+      synchronized (this) {
+        pendingReplies.addLast(reply);
+        if (async) {
+          asyncReplies++;
+          if (!reading) {
+            reading = true;
+            startReader = true;
+          }
+        }
+      }
+    }
+    if (startReader) {
+      startReader();
+    }
+    return reply;
+  }
+
+  private void startReader() {
+    try {
+      readerExecutor.execute(() -> readReplies(null));
+    } catch (RejectedExecutionException e) {
+      // the pool is being closed
+      failPendingReplies(null, e);
+    }
+  }
+
+  /**
+   * Reads the replies in order until the given one has been read or, if it is null, until no
+   * replies are pending. The calling thread must have set reading.
+   */
+  private void readReplies(PendingReply until) {
+    for (;;) {
+      PendingReply head = null;
+      synchronized (this) {
+        if (!destroyed) {
+          head = pendingReplies.peekFirst();
+          if (head == null) {
+            reading = false;
+            notifyAll();
+            return;
+          }
+        }
+      }
+      if (head == null) {
+        failPendingReplies(null, null);
+        return;
+      }
+      Message message;
+      try {
+        message = head.op.receivePipelinedResponse(connection, readBuffer);
+      } catch (Exception e) {
+        failPendingReplies(head, e);
+        return;
+      }
+      boolean startReader = false;
+      synchronized (this) {
+        pendingReplies.pollFirst();
+        head.complete(message, null);
+        if (head.future != null) {
+          asyncReplies--;
+        }
+        if (head == until) {
+          // the replies of the other waiting threads are read by one of them, but the replies no
+          // thread waits for need a reader of their own
+          startReader = asyncReplies > 0 && !destroyed;
+          reading = startReader;
+        }
+        notifyAll();
+      }
+      head.completeFuture();
+      if (head == until) {
+        if (startReader) {
+          startReader();
+        }
+        return;
+      }
+    }
+  }
+
+  /**
+   * Destroys this connection and fails all the pending replies. The given one, whose reply could
+   * not be read, fails with the given exception and the others with a {@link
+   * ConnectionDestroyedException}. Only called by the thread that is reading, or when none is.
+   */
+  private void failPendingReplies(PendingReply failed, Exception cause) {
+    destroy();
+    List<PendingReply> replies;
+    synchronized (this) {
+      replies = new ArrayList<>(pendingReplies);
+      pendingReplies.clear();
+      asyncReplies = 0;
+      reading = false;
+      releaseReadBuffer();
+      for (PendingReply reply : replies) {
+        reply.complete(null, reply == failed ? cause
+            : new ConnectionDestroyedException("The pipelined connection was destroyed", cause));
+      }
+      notifyAll();
+    }
+    for (PendingReply reply : replies) {
+      reply.completeFuture();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    boolean failReplies;
+    synchronized (this) {
+      if (destroyed) {
+        return;
+      }
+      destroyed = true;
+      // a thread that is reading fails the pending replies once closing the socket ends its read
+      failReplies = !reading;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Destroying pipelined connection {}", this);
+    }
+    connection.destroy();
+    destroyListener.accept(this);
+    if (failReplies) {
+      failPendingReplies(null, null);
+    }
+  }
+
+  private void releaseReadBuffer() {
+    ByteBuffer bb = readBuffer;
+    if (bb != null) {
+      readBuffer = null;
+      ServerConnection.releaseCommBuffer(bb);
+    }
+  }
+
+  @Override
+  public synchronized boolean isDestroyed() {
+    return destroyed;
+  }
+
+  @Override
+  public void close(boolean keepAlive) throws Exception {
+    boolean busy;
+    synchronized (this) {
+      if (destroyed) {
+        return;
+      }
+      busy = reading || !pendingReplies.isEmpty();
+      if (!busy) {
+        destroyed = true;
+        releaseReadBuffer();
+      }
+    }
+    if (busy) {
+      // the server can not be told that the connection is closed while it has ops to answer
+      destroy();
+      return;
+    }
+    try {
+      connection.close(keepAlive);
+    } finally {
+      destroyListener.accept(this);
+    }
+  }
+
+  @Override
+  public void emergencyClose() {
+    connection.emergencyClose();
+  }
+
+  @Override
+  public Socket getSocket() {
+    return connection.getSocket();
+  }
+
+  @Override
+  public long getBirthDate() {
+    return connection.getBirthDate();
+  }
+
+  @Override
+  public void setBirthDate(long ts) {
+    connection.setBirthDate(ts);
+  }
+
+  @Override
+  public ByteBuffer getCommBuffer() throws SocketException {
+    return connection.getCommBuffer();
+  }
+
+  @Override
+  public ConnectionStats getStats() {
+    return connection.getStats();
+  }
+
+  @Override
+  public boolean isActive() {
+    return true;
+  }
+
+  @Override
+  public ServerLocation getServer() {
+    return connection.getServer();
+  }
+
+  @Override
+  public Endpoint getEndpoint() {
+    return connection.getEndpoint();
+  }
+
+  @Override
+  public ServerQueueStatus getQueueStatus() {
+    return connection.getQueueStatus();
+  }
+
+  @Override
+  public short getWanSiteVersion() {
+    return connection.getWanSiteVersion();
+  }
+
+  @Override
+  public void setWanSiteVersion(short wanSiteVersion) {
+    connection.setWanSiteVersion(wanSiteVersion);
+  }
+
+  @Override
+  public int getDistributedSystemId() {
+    return connection.getDistributedSystemId();
+  }
+
+  @Override
+  public OutputStream getOutputStream() {
+    return connection.getOutputStream();
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return connection.getInputStream();
+  }
+
+  @Override
+  public void setConnectionID(long id) {
+    connection.setConnectionID(id);
+  }
+
+  @Override
+  public long getConnectionID() {
+    return connection.getConnectionID();
+  }
+
+  @Override
+  public String toString() {
+    return "PipelinedConnection[" + connection + "]";
+  }
+
+  /**
+   * The reply to an op whose request has been sent.
+   */
+  class PendingReply {
+    private final AbstractOp op;
+
+    /** Completed with the reply if no thread waits for it, otherwise null. */
+    private final CompletableFuture<Message> future;
+
+    /** Guarded by the connection. */
+    private boolean done;
+    private Message message;
+    private Exception exception;
+
+    PendingReply(AbstractOp op, CompletableFuture<Message> future) {
+      this.op = op;
+      this.future = future;
+    }
+
+    private void complete(Message message, Exception exception) {
+      this.message = message;
+      this.exception = exception;
+      done = true;
+    }
+
+    /**
+     * Completes the future, outside of the connection's lock, after the reply has been completed.
+     */
+    private void completeFuture() {
+      if (future != null) {
+        if (exception != null) {
+          future.completeExceptionally(exception);
+        } else {
+          future.complete(message);
+        }
+      }
+    }
+
+    CompletableFuture<Message> getFuture() {
+      return future;
+    }
+
+    /**
+     * Waits for the reply, reading it and the ones before it if no other thread is reading, and
+     * returns it.
+     */
+    Message await() throws Exception {
+      final PipelinedConnection cnx = PipelinedConnection.this;
+      boolean interrupted = false;
+      try {
+        for (;;) {
+          synchronized (cnx) {
+            while (!done && cnx.reading) {
+              try {
+                cnx.wait();
+              } catch (InterruptedException ignore) {
+                // the reply has to be read before the next op's reply can be
+                interrupted = true;
+              }
+            }
+            if (done) {
+              if (exception != null) {
+                throw exception;
+              }
+              return message;
+            }
+            if (cnx.destroyed) {
+              throw new ConnectionDestroyedException("The pipelined connection was destroyed");
+            }
+            cnx.reading = true;
+          }
+          readReplies(this);
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * The {@link PipelinedConnection}s of a pool. They are kept apart from the pool's other
+ * connections, which are used by one op at a time, and there are at most
+ * {@link #CONNECTIONS_PER_SERVER} of them to each server. An op is executed on the connection with
+ * the fewest ops waiting for replies; a new connection is only created when every existing one has
+ * ops waiting.
+ *
+ * <p>
+ * Pipelining is only used with servers that do not require credentials, because a server may
+ * answer an op with new credentials for the connection that the ops sent after it would need.
+ */
+class PipelinedConnections {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The maximum number of pipelined connections a pool has to each server. Zero, the default,
+   * disables pipelining.
+   */
+  static final int CONNECTIONS_PER_SERVER = Integer
+      .getInteger(GeodeGlossary.GEMFIRE_PREFIX + "PoolImpl.PIPELINED_CONNECTIONS_PER_SERVER", 0);
+
+  private final ConnectionFactory connectionFactory;
+
+  private final int connectionsPerServer;
+
+  /** Runs the threads that read the replies of asynchronously executed ops. */
+  private final ExecutorService readerExecutor;
+
+  /** Guarded by this. */
+  private final Map<ServerLocation, List<PipelinedConnection>> connections = new HashMap<>();
+
+  /** True while a thread is creating a connection. Guarded by this. */
+  private boolean creating;
+
+  /** Set once a server requiring credentials is found, or the pool is closed. Guarded by this. */
+  private boolean disabled;
+
+  PipelinedConnections(ConnectionFactory connectionFactory, int connectionsPerServer,
+      ExecutorService readerExecutor) {
+    this.connectionFactory = connectionFactory;
+    this.connectionsPerServer = connectionsPerServer;
+    this.readerExecutor = readerExecutor;
+  }
+
+  /**
+   * Runs the given task in one of the threads that read replies. Used for work
+   * that the thread reading a connection's replies must not wait for.
+   *
+   * @throws RejectedExecutionException if the pool is being closed
+   */
+  void execute(Runnable task) {
+    readerExecutor.execute(task);
+  }
+
+  /**
+   * Returns true if the given op can be executed on a pipelined connection.
+   */
+  boolean canExecute(Op op) {
+    return op instanceof AbstractOp && ((AbstractOp) op).isPipelinable()
+        && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX && !isDisabled();
+  }
+
+  private synchronized boolean isDisabled() {
+    return disabled;
+  }
+
+  /**
+   * Returns a connection to execute an op on, to the given server or, if it is null, to any server
+   * not in excludedServers. Returns null if there is no such connection and none could be created.
+   */
+  PipelinedConnection getConnection(ServerLocation server, Set<ServerLocation> excludedServers) {
+    PipelinedConnection least;
+    Set<ServerLocation> fullServers = null;
+    synchronized (this) {
+      if (disabled) {
+        return null;
+      }
+      least = findLeastPending(server, excludedServers);
+      if ((least != null && least.getPendingCount() == 0) || creating) {
+        return least;
+      }
+      if (server != null) {
+        if (connections.getOrDefault(server, Collections.emptyList())
+            .size() >= connectionsPerServer) {
+          return least;
+        }
+      } else {
+        fullServers = new HashSet<>(excludedServers);
+        for (Map.Entry<ServerLocation, List<PipelinedConnection>> entry : connections.entrySet()) {
+          if (entry.getValue().size() >= connectionsPerServer) {
+            fullServers.add(entry.getKey());
+          }
+        }
+      }
+      creating = true;
+    }
+    PipelinedConnection created = null;
+    try {
+      created = create(server, fullServers);
+    } finally {
+      synchronized (this) {
+        creating = false;
+        if (created != null) {
+          if (disabled) {
+            created.destroy();
+            created = null;
+          } else {
+            connections.computeIfAbsent(created.getServer(), k -> new ArrayList<>()).add(created);
+          }
+        }
+      }
+    }
+    return created != null ? created : least;
+  }
+
+  private PipelinedConnection findLeastPending(ServerLocation server,
+      Set<ServerLocation> excludedServers) {
+    PipelinedConnection least = null;
+    int leastPending = Integer.MAX_VALUE;
+    for (Map.Entry<ServerLocation, List<PipelinedConnection>> entry : connections.entrySet()) {
+      if (server != null ? !server.equals(entry.getKey())
+          : excludedServers.contains(entry.getKey())) {
+        continue;
+      }
+      for (PipelinedConnection connection : entry.getValue()) {
+        int pending = connection.getPendingCount();
+        if (pending < leastPending) {
+          least = connection;
+          leastPending = pending;
+        }
+      }
+    }
+    return least;
+  }
+
+  private PipelinedConnection create(ServerLocation server, Set<ServerLocation> excludedServers) {
+    Connection connection;
+    try {
+      connection = server != null ? connectionFactory.createClientToServerConnection(server, false)
+          : connectionFactory.createClientToServerConnection(excludedServers);
+    } catch (RuntimeException e) {
+      // the op will be executed on one of the pool's other connections, which reports the failure
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to create a pipelined connection", e);
+      }
+      return null;
+    }
+    if (connection == null) {
+      return null;
+    }
+    if (connection.getServer().getRequiresCredentials()) {
+      logger.info("Not pipelining ops because server {} requires credentials.",
+          connection.getServer());
+      synchronized (this) {
+        disabled = true;
+      }
+      connection.destroy();
+      return null;
+    }
+    try {
+      return new PipelinedConnection(connection, readerExecutor, this::remove);
+    } catch (Exception e) {
+      connection.destroy();
+      return null;
+    }
+  }
+
+  private synchronized void remove(PipelinedConnection connection) {
+    List<PipelinedConnection> serverConnections = connections.get(connection.getServer());
+    if (serverConnections != null && serverConnections.remove(connection)
+        && serverConnections.isEmpty()) {
+      connections.remove(connection.getServer());
+    }
+  }
+
+  /**
+   * Destroys the connections to the given server, for example because it crashed.
+   */
+  void destroyConnections(ServerLocation server) {
+    List<PipelinedConnection> serverConnections;
+    synchronized (this) {
+      serverConnections = connections.remove(server);
+    }
+    if (serverConnections != null) {
+      for (PipelinedConnection connection : serverConnections) {
+        connection.destroy();
+      }
+    }
+  }
+
+  void close(boolean keepAlive) {
+    List<PipelinedConnection> all = new ArrayList<>();
+    synchronized (this) {
+      disabled = true;
+      for (List<PipelinedConnection> serverConnections : connections.values()) {
+        all.addAll(serverConnections);
+      }
+      connections.clear();
+    }
+    for (PipelinedConnection connection : all) {
+      try {
+        connection.close(keepAlive);
+      } catch (Exception e) {
+        logger.warn(String.format("Error closing connection %s", connection), e);
+      }
+    }
+    readerExecutor.shutdown();
+  }
+}
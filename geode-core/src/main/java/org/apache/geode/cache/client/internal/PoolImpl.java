@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -69,6 +70,7 @@ import org.apache.geode.internal.logging.CoreLoggingExecutors;
 import org.apache.geode.internal.logging.InternalLogWriter;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.statistics.DummyStatisticsFactory;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.util.internal.GeodeGlossary;
 
@@ -139,6 +141,8 @@ public class PoolImpl implements InternalPool {
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
   private final OpExecutorImpl executor;
+  /** Null unless ops are pipelined. */
+  private final PipelinedConnections pipelinedConnections;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem distributedSystem;
   private InternalCache cache;
@@ -283,6 +287,15 @@ public class PoolImpl implements InternalPool {
     // an exception, by passing in the poolOrCache stopper
     executor = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker, retryAttempts,
         freeConnectionTimeout, serverConnectionTimeout, new PoolOrCacheStopper(), this);
+    if (PipelinedConnections.CONNECTIONS_PER_SERVER > 0 && !usedByGateway
+        && !multiuserSecureModeEnabled) {
+      pipelinedConnections = new PipelinedConnections(connectionFactory,
+          PipelinedConnections.CONNECTIONS_PER_SERVER,
+          LoggingExecutors.newCachedThreadPool("PipelinedConnectionReader-" + name + "-", true));
+      executor.setPipelinedConnections(pipelinedConnections);
+    } else {
+      pipelinedConnections = null;
+    }
     if (multiuserSecureModeEnabled) {
       proxyCacheList = new ArrayList<>();
     } else {
@@ -348,6 +361,14 @@ public class PoolImpl implements InternalPool {
       endpointManager.addListener(new PdxRegistryRecoveryListener(this));
     }
     endpointManager.addListener(new LiveServerPinger(this));
+    if (pipelinedConnections != null) {
+      endpointManager.addListener(new EndpointManager.EndpointListenerAdapter() {
+        @Override
+        public void endpointCrashed(Endpoint endpoint) {
+          pipelinedConnections.destroyConnections(endpoint.getLocation());
+        }
+      });
+    }
 
     manager.start(backgroundProcessor);
     if (queueManager != null) {
@@ -631,6 +652,14 @@ public class PoolImpl implements InternalPool {
             e);
       }
 
+      try {
+        if (pipelinedConnections != null) {
+          pipelinedConnections.close(keepAlive);
+        }
+      } catch (RuntimeException e) {
+        logger.error("Error encountered while closing pipelined connections.", e);
+      }
+
       try {
         if (manager != null) {
           manager.close(keepAlive);
@@ -799,6 +828,12 @@ public class PoolImpl implements InternalPool {
     return executor.execute(op);
   }
 
+  @Override
+  public CompletableFuture<Object> executeAsync(Op op) {
+    authenticateIfRequired(null, op);
+    return executor.executeAsync(op);
+  }
+
   /**
    * Execute the given op on the servers that this pool connects to. This method is responsible for
    * retrying the op if an attempt fails. It will only execute it once and on one server.
@@ -960,7 +995,8 @@ public class PoolImpl implements InternalPool {
   }
 
   /**
-   * Test hook to handle an exception that happened on the given connection
+   * Handles an exception that happened on the given connection. Used by tests and by getAlls that
+   * read the replies of several servers.
    */
   public void processException(Throwable e, Connection con) {
     executor.handleException(e, con, 0, false);
@@ -16,6 +16,8 @@
 package org.apache.geode.cache.client.internal;
 
 
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.DataSerializer;
@@ -95,6 +97,27 @@ public class PutOp {
     return result;
   }
 
+  /**
+   * Does a region put on a server without waiting for the reply, using the pool's pipelined
+   * connections if it has any. The put is not routed to the server hosting the key's bucket and
+   * the full value is always sent.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the region to do the put on
+   * @param key the entry key to do the put on
+   * @param value the entry value to put
+   * @param event the event for this put
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @return a future completed with the old value, if requireOldValue is true, once the put is done
+   */
+  public static CompletableFuture<Object> executeAsync(ExecutablePool pool, LocalRegion region,
+      Object key, Object value, EntryEventImpl event, Operation operation, boolean requireOldValue,
+      Object expectedOldValue, Object callbackArg) {
+    PutOpImpl op = new PutOpImpl(region, key, value, null, event, operation, requireOldValue,
+        expectedOldValue, callbackArg, true, false);
+    return pool.executeAsync(op);
+  }
+
   public static Object execute(ExecutablePool pool, String regionName, Object key, Object value,
       byte[] deltaBytes, EntryEventImpl event, Operation operation,
       boolean requireOldValue,
@@ -379,6 +402,12 @@ public class PutOp {
       }
     }
 
+    @Override
+    protected boolean isPipelinable() {
+      // a failed delta is followed by another op on the same connection
+      return !deltaSent;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.PUT_DATA_ERROR;
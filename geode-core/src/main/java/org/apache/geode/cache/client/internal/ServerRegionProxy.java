@@ -18,13 +18,17 @@ package org.apache.geode.cache.client.internal;
 import static java.util.Collections.emptySet;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.InterestResultPolicy;
 import org.apache.geode.cache.Operation;
@@ -41,6 +45,7 @@ import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.EventIDHolder;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.TXCommitMessage;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
@@ -64,6 +69,9 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   private final LocalRegion region;
   private final String regionName;
 
+  /** Null unless the region uses invalidation-only interest in the keys it holds. */
+  private final NearCacheInterests nearCacheInterests;
+  private final HedgedGets hedgedGets;
 
   /**
    * Creates a server region proxy for the given region.
@@ -76,6 +84,20 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
     assert r instanceof LocalRegion;
     region = (LocalRegion) r;
     regionName = r.getFullPath();
+    if (NearCacheInterests.ENABLED && region.getDataPolicy() == DataPolicy.NORMAL
+        && !region.isSecret() && pool.getSubscriptionEnabled()) {
+      nearCacheInterests = new NearCacheInterests(this, region.getDataPolicy().ordinal, key -> {
+        RegionEntry entry = region.getRegionEntry(key);
+        return entry != null && !entry.isInvalidOrRemoved();
+      });
+    } else {
+      nearCacheInterests = null;
+    }
+    if (HedgedGets.PERCENTILE > 0 && pool.getPRSingleHopEnabled()) {
+      hedgedGets = new HedgedGets(HedgedGets.PERCENTILE);
+    } else {
+      hedgedGets = null;
+    }
   }
 
   /**
@@ -86,6 +108,25 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
     super(pool);
     region = null;
     this.regionName = regionName;
+    nearCacheInterests = null;
+    hedgedGets = null;
+  }
+
+  @VisibleForTesting
+  ServerRegionProxy(LocalRegion region, InternalPool pool) {
+    super(pool);
+    this.region = region;
+    regionName = region.getFullPath();
+    nearCacheInterests = null;
+    hedgedGets = null;
+  }
+
+  /**
+   * Returns the tracker of the interest this proxy's region registers in the keys it holds, or
+   * null if the application registers the region's interest.
+   */
+  public NearCacheInterests getNearCacheInterests() {
+    return nearCacheInterests;
   }
 
   private static InternalPool calcPool(Region r) {
@@ -112,10 +153,67 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   public Object get(Object key, Object callbackArg, EntryEventImpl clientEvent) {
     recordTXOperation(ServerRegionOperation.GET, key, callbackArg);
     return GetOp.execute(pool, region, key, callbackArg,
-        pool.getPRSingleHopEnabled(), clientEvent);
+        pool.getPRSingleHopEnabled(), clientEvent, hedgedGets);
+  }
+
+
+  /**
+   * Does a region get on the server without waiting for the reply. The value is not looked up in,
+   * or stored in, the local cache. If the pool has no pipelined connections the get is done by
+   * the calling thread.
+   *
+   * @param key the entry key to do the get on
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @return a future completed with the entry value found by the get if any
+   */
+  public CompletableFuture<Object> getAsync(Object key, Object callbackArg) {
+    recordTXOperation(ServerRegionOperation.GET, key, callbackArg);
+    return GetOp.executeAsync(pool, region, key, callbackArg, null);
   }
 
+  /**
+   * Does a region put on the server without waiting for the reply. The local cache is not
+   * updated. If the pool has no pipelined connections the put is done by the calling thread.
+   *
+   * @param key the entry key to do the put on
+   * @param value the entry value to put
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @return a future completed once the put is done
+   */
+  public CompletableFuture<Void> putAsync(Object key, Object value, Object callbackArg) {
+    EventIDHolder event =
+        new EventIDHolder(new EventID(region.getCache().getInternalDistributedSystem()));
+    recordTXOperation(ServerRegionOperation.PUT, key, value, null, event.getEventId(),
+        Operation.UPDATE, false, null, callbackArg, false);
+    return PutOp.executeAsync(pool, region, key, value, event, Operation.UPDATE, false, null,
+        callbackArg).thenApply(oldValue -> null);
+  }
 
+  /**
+   * Does a region get on the server for each of the given keys without waiting for the replies.
+   * The gets are pipelined rather than sent as one getAll, so each key is sent as soon as it can
+   * be and the values are not looked up in, or stored in, the local cache.
+   *
+   * @param keys the entry keys to do the gets on
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @return a future completed with a map of each key to the value found for it, if any, or
+   *         with the first exception that failed a get
+   */
+  public CompletableFuture<Map<Object, Object>> getAllAsync(Collection<?> keys,
+      Object callbackArg) {
+    Map<Object, CompletableFuture<Object>> gets = new LinkedHashMap<>();
+    for (Object key : keys) {
+      gets.computeIfAbsent(key, k -> getAsync(k, callbackArg));
+    }
+    return CompletableFuture.allOf(gets.values().toArray(new CompletableFuture<?>[0]))
+        .thenApply(ignored -> {
+          Map<Object, Object> result = new LinkedHashMap<>();
+          for (Map.Entry<Object, CompletableFuture<Object>> get : gets.entrySet()) {
+            result.put(get.getKey(), get.getValue().join());
+          }
+          return result;
+        });
+  }
 
   @Override
   public int size() {
@@ -639,6 +737,38 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
     return result;
   }
 
+  /**
+   * Does a getAll on the servers, giving the values to the given consumer a chunk at a time as they
+   * are read instead of returning them all at once, so the memory used does not grow with the
+   * number of keys. The keys of each chunk are set.
+   *
+   * @param keys the entry keys to get
+   * @param callback an optional callback arg to pass to any cache callbacks
+   * @param consumer is given each chunk of values, in the calling thread
+   */
+  public void getAll(List keys, Object callback, Consumer<VersionedObjectList> consumer) {
+    recordTXOperation(ServerRegionOperation.GET_ALL, null, keys);
+    Consumer<VersionedObjectList> loggingConsumer = chunk -> {
+      for (Iterator it = chunk.iterator(); it.hasNext();) {
+        VersionedObjectList.Entry entry = it.next();
+        Object value = entry.getValue();
+        if (!entry.isKeyNotOnServer() && value instanceof Throwable) {
+          logger.warn(String.format(
+              "%s: Caught the following exception attempting to get value for key=%s", value,
+              entry.getKey()),
+              (Throwable) value);
+        }
+      }
+      consumer.accept(chunk);
+    };
+    int txID = TXManagerImpl.getCurrentTXUniqueId();
+    if (pool.getPRSingleHopEnabled() && (txID == TXManagerImpl.NOTX)) {
+      GetAllOp.execute(pool, region, keys, pool.getRetryAttempts(), callback, loggingConsumer);
+    } else {
+      GetAllOp.execute(pool, regionName, keys, callback, loggingConsumer);
+    }
+  }
+
   /**
    * Release use of this pool
    */
@@ -48,6 +48,7 @@ import org.apache.geode.cache.client.ServerRefusedConnectionException;
 import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.ConnectionFactory;
 import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.EndpointLoad;
 import org.apache.geode.cache.client.internal.EndpointManager;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.PoolImpl.PoolTask;
@@ -266,7 +267,8 @@ public class ConnectionManagerImpl implements ConnectionManager {
     try {
       long timeout = System.nanoTime() + MILLISECONDS.toNanos(acquireTimeout);
       while (true) {
-        Connection connection = availableConnectionManager.useFirst();
+        Connection connection = EndpointLoad.ADAPTIVE_LOAD_BALANCING ? useLessLoaded()
+            : availableConnectionManager.useFirst();
         if (null != connection) {
           return connection;
         }
@@ -304,6 +306,34 @@ public class ConnectionManagerImpl implements ConnectionManager {
     throw new AllConnectionsInUseException();
   }
 
+  /**
+   * Returns an available connection to the less loaded of two servers chosen at random, creating
+   * one if there is none and the pool is allowed to. Otherwise returns any available connection.
+   */
+  private Connection useLessLoaded() {
+    Endpoint endpoint = EndpointLoad.chooseLessLoaded(endpointManager.getEndpointMap().values());
+    if (endpoint == null) {
+      return availableConnectionManager.useFirst();
+    }
+    ServerLocation server = endpoint.getLocation();
+    Connection connection =
+        availableConnectionManager.useFirst((c) -> c.getServer().equals(server));
+    if (null == connection && connectionAccounting.tryCreate()) {
+      try {
+        connection = createPooledConnection(server);
+      } catch (ServerRefusedConnectionException e) {
+        // fall back to any available connection
+      } catch (GemFireSecurityException e) {
+        throw new ServerOperationException(e);
+      } finally {
+        if (connection == null) {
+          connectionAccounting.cancelTryCreate();
+        }
+      }
+    }
+    return null != connection ? connection : availableConnectionManager.useFirst();
+  }
+
   @Override
   public Connection borrowConnection(ServerLocation server, long acquireTimeout,
       boolean onlyUseExistingCnx)
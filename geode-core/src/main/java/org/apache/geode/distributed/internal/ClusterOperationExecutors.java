@@ -169,6 +169,15 @@ public class ClusterOperationExecutors implements OperationExecutors {
 
   private SerialQueuedExecutorPool serialQueuedExecutorPool;
 
+  /**
+   * The statistics about the time the jobs of each pool wait and run, by pool name. Empty unless
+   * time statistics are enabled or the pools are resized.
+   */
+  private final Map<String, ExecutorPoolStats> executorPoolStats = new HashMap<>();
+
+  /** Resizes the pools from the time their jobs wait, if enabled. */
+  private ExecutorPoolSizer poolSizer;
+
 
   ClusterOperationExecutors(DistributionStats stats,
       InternalDistributedSystem system) {
@@ -214,7 +223,7 @@ public class ClusterOperationExecutors implements OperationExecutors {
       }
       serialThread = CoreLoggingExecutors.newSerialThreadPool(poolQueue, "Serial Message Processor",
           thread -> stats.incSerialThreadStarts(),
-          this::doSerialThread, stats.getSerialProcessorHelper(),
+          this::doSerialThread, timed(stats.getSerialProcessorHelper(), "serial"),
           threadMonitor);
 
     }
@@ -223,13 +232,13 @@ public class ClusterOperationExecutors implements OperationExecutors {
         CoreLoggingExecutors.newThreadPoolWithFeedStatistics(MAX_THREADS,
             INCOMING_QUEUE_LIMIT, stats.getOverflowQueueHelper(), "Pooled Message Processor ",
             thread -> stats.incProcessingThreadStarts(), this::doProcessingThread,
-            stats.getNormalPoolHelper(),
+            timed(stats.getNormalPoolHelper(), "standard"),
             threadMonitor);
 
     highPriorityPool = CoreLoggingExecutors.newThreadPoolWithFeedStatistics(
         MAX_THREADS, INCOMING_QUEUE_LIMIT, stats.getHighPriorityQueueHelper(),
         "Pooled High Priority Message Processor ", thread -> stats.incHighPriorityThreadStarts(),
-        this::doHighPriorityThread, stats.getHighPriorityPoolHelper(),
+        this::doHighPriorityThread, timed(stats.getHighPriorityPoolHelper(), "highPriority"),
         threadMonitor);
 
     {
@@ -243,7 +252,7 @@ public class ClusterOperationExecutors implements OperationExecutors {
       waitingPool = CoreLoggingExecutors.newThreadPool(MAX_WAITING_THREADS, poolQueue,
           "Pooled Waiting Message Processor ",
           thread -> stats.incWaitingThreadStarts(), this::doWaitingThread,
-          stats.getWaitingPoolHelper(), threadMonitor);
+          timed(stats.getWaitingPoolHelper(), "waiting"), threadMonitor);
     }
 
     // should this pool using the waiting pool stats?
@@ -260,14 +269,14 @@ public class ClusterOperationExecutors implements OperationExecutors {
               MAX_PR_THREADS, INCOMING_QUEUE_LIMIT, stats.getPartitionedRegionQueueHelper(),
               "PartitionedRegion Message Processor",
               thread -> stats.incPartitionedRegionThreadStarts(), this::doPartitionRegionThread,
-              stats.getPartitionedRegionPoolHelper(),
+              timed(stats.getPartitionedRegionPoolHelper(), "partitionedRegion"),
               threadMonitor);
     } else {
       partitionedRegionThread = CoreLoggingExecutors.newSerialThreadPoolWithFeedStatistics(
           INCOMING_QUEUE_LIMIT, stats.getPartitionedRegionQueueHelper(),
           "PartitionedRegion Message Processor",
           thread -> stats.incPartitionedRegionThreadStarts(), this::doPartitionRegionThread,
-          stats.getPartitionedRegionPoolHelper(), threadMonitor);
+          timed(stats.getPartitionedRegionPoolHelper(), "partitionedRegion"), threadMonitor);
     }
     if (MAX_FE_THREADS > 1) {
       functionExecutionPool =
@@ -275,7 +284,7 @@ public class ClusterOperationExecutors implements OperationExecutors {
               MAX_FE_THREADS, INCOMING_QUEUE_LIMIT, stats.getFunctionExecutionQueueHelper(),
               FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX,
               thread -> stats.incFunctionExecutionThreadStarts(), this::doFunctionExecutionThread,
-              stats.getFunctionExecutionPoolHelper(),
+              timed(stats.getFunctionExecutionPoolHelper(), "functionExecution"),
               threadMonitor);
     } else {
       functionExecutionThread =
@@ -283,7 +292,38 @@ public class ClusterOperationExecutors implements OperationExecutors {
               INCOMING_QUEUE_LIMIT, stats.getFunctionExecutionQueueHelper(),
               FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX,
               thread -> stats.incFunctionExecutionThreadStarts(), this::doFunctionExecutionThread,
-              stats.getFunctionExecutionPoolHelper(), threadMonitor);
+              timed(stats.getFunctionExecutionPoolHelper(), "functionExecution"), threadMonitor);
+    }
+
+    if (ExecutorPoolSizer.ENABLED) {
+      poolSizer = new ExecutorPoolSizer();
+      addToPoolSizer("standard", threadPool);
+      addToPoolSizer("highPriority", highPriorityPool);
+      addToPoolSizer("waiting", waitingPool);
+      addToPoolSizer("partitionedRegion", partitionedRegionPool);
+      addToPoolSizer("functionExecution", functionExecutionPool);
+      poolSizer.start();
+    }
+  }
+
+  /**
+   * Returns the helper to give to the pool with the given name, which also records the time its
+   * jobs wait and run if time statistics are enabled or the pools are resized.
+   */
+  private PoolStatHelper timed(PoolStatHelper poolStatHelper, String poolName) {
+    if (!DistributionStats.enableClockStats && !ExecutorPoolSizer.ENABLED) {
+      return poolStatHelper;
+    }
+    ExecutorPoolStats poolStats = new ExecutorPoolStats(system, poolName, poolStatHelper);
+    executorPoolStats.put(poolName, poolStats);
+    return poolStats;
+  }
+
+  private void addToPoolSizer(String poolName, ExecutorService executor) {
+    // pools without a bound on their size are not resized
+    if (executor instanceof ThreadPoolExecutor
+        && ((ThreadPoolExecutor) executor).getMaximumPoolSize() < Integer.MAX_VALUE) {
+      poolSizer.add(poolName, (ThreadPoolExecutor) executor, executorPoolStats.get(poolName));
     }
   }
 
@@ -467,6 +507,9 @@ public class ClusterOperationExecutors implements OperationExecutors {
     // Stop executors after they have finished
     ExecutorService es;
     threadMonitor.close();
+    if (poolSizer != null) {
+      poolSizer.stop();
+    }
     es = serialThread;
     if (es != null) {
       es.shutdown();
@@ -506,6 +549,9 @@ public class ClusterOperationExecutors implements OperationExecutors {
     if (es != null) {
       es.shutdown();
     }
+    for (ExecutorPoolStats poolStats : executorPoolStats.values()) {
+      poolStats.close();
+    }
   }
 
   void waitForThreadsToStop(long timeInMillis) throws InterruptedException {
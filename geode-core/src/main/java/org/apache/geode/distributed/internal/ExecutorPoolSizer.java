@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Grows and shrinks the distribution manager's thread pools from the time their jobs wait to be
+ * started, as recorded by their {@link ExecutorPoolStats}. A pool only queues jobs once all of its
+ * threads are busy, so jobs that wait long mean that the pool is too small for its load.
+ *
+ * <p>
+ * Once every {@link #INTERVAL} milliseconds the jobs each pool started since the last time are
+ * looked at. If more than one percent of them waited at least {@link #QUEUE_WAIT_TARGET}
+ * milliseconds the pool's maximum size is increased, up to {@link #GROWTH_LIMIT} times its
+ * configured size. Once none of them have for {@link #SHRINK_INTERVALS} intervals in a row it is
+ * decreased again, but never below the configured size, since some pools need that many threads
+ * to avoid distributed deadlocks.
+ */
+class ExecutorPoolSizer {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * If true, the distribution manager's thread pools are resized from the time their jobs wait to
+   * be started.
+   */
+  static final boolean ENABLED = Boolean.getBoolean("DistributionManager.ADAPTIVE_POOL_SIZING");
+
+  /** The time, in milliseconds, between the resizings of the pools. */
+  static final long INTERVAL =
+      Long.getLong("DistributionManager.ADAPTIVE_POOL_SIZING_INTERVAL", 1000);
+
+  /** The time, in milliseconds, that jobs should not wait longer than to be started. */
+  static final long QUEUE_WAIT_TARGET =
+      Long.getLong("DistributionManager.ADAPTIVE_POOL_SIZING_QUEUE_WAIT", 10);
+
+  /** How many times its configured size a pool may grow to. */
+  static final int GROWTH_LIMIT =
+      Integer.getInteger("DistributionManager.ADAPTIVE_POOL_SIZING_GROWTH_LIMIT", 4);
+
+  /** The number of intervals without slow jobs after which a pool is shrunk. */
+  static final int SHRINK_INTERVALS = 10;
+
+  private final List<Pool> pools = new ArrayList<>();
+
+  private final int slowRange;
+
+  private ScheduledExecutorService timer;
+
+  ExecutorPoolSizer() {
+    this(QUEUE_WAIT_TARGET);
+  }
+
+  ExecutorPoolSizer(long queueWaitTarget) {
+    // the jobs in the ranges of times starting at or after the target are the slow ones
+    long target = MILLISECONDS.toNanos(queueWaitTarget);
+    int range = 0;
+    while (range < ExecutorPoolStats.RANGE_LIMITS.length
+        && (range == 0 ? 0 : ExecutorPoolStats.RANGE_LIMITS[range - 1]) < target) {
+      range++;
+    }
+    slowRange = range;
+  }
+
+  /**
+   * Adds a pool to be resized. Must be called before {@link #start}.
+   */
+  void add(String name, ThreadPoolExecutor executor, ExecutorPoolStats stats) {
+    pools.add(new Pool(name, executor, stats));
+  }
+
+  void start() {
+    timer = LoggingExecutors.newScheduledThreadPool(1, "Executor Pool Sizer");
+    timer.scheduleWithFixedDelay(this::resize, INTERVAL, INTERVAL, MILLISECONDS);
+  }
+
+  void stop() {
+    if (timer != null) {
+      timer.shutdownNow();
+    }
+  }
+
+  void resize() {
+    for (Pool pool : pools) {
+      try {
+        pool.resize(slowRange);
+      } catch (RuntimeException e) {
+        logger.warn("Unable to resize thread pool " + pool.name, e);
+      }
+    }
+  }
+
+  private static class Pool {
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorPoolStats stats;
+    private final int minimumSize;
+    private final int maximumSize;
+    private final int step;
+    private long[] lastQueueWaits;
+    private int intervalsWithoutSlowJobs;
+
+    Pool(String name, ThreadPoolExecutor executor, ExecutorPoolStats stats) {
+      this.name = name;
+      this.executor = executor;
+      this.stats = stats;
+      minimumSize = executor.getMaximumPoolSize();
+      maximumSize = (int) Math.min(Integer.MAX_VALUE, (long) minimumSize * GROWTH_LIMIT);
+      step = Math.max(1, minimumSize / 4);
+      lastQueueWaits = stats.getQueueWaits();
+      stats.setMaximumPoolSize(minimumSize);
+    }
+
+    void resize(int slowRange) {
+      long[] queueWaits = stats.getQueueWaits();
+      long jobs = 0;
+      long slowJobs = 0;
+      for (int i = 0; i < queueWaits.length; i++) {
+        long count = queueWaits[i] - lastQueueWaits[i];
+        jobs += count;
+        if (i >= slowRange) {
+          slowJobs += count;
+        }
+      }
+      lastQueueWaits = queueWaits;
+
+      int size = executor.getMaximumPoolSize();
+      if (slowJobs == 0) {
+        if (++intervalsWithoutSlowJobs >= SHRINK_INTERVALS && size > minimumSize) {
+          intervalsWithoutSlowJobs = 0;
+          setSize(Math.max(minimumSize, size - step));
+          stats.incPoolSizeDecreases();
+        }
+      } else {
+        intervalsWithoutSlowJobs = 0;
+        if (slowJobs * 100 > jobs && size < maximumSize) {
+          setSize(Math.min(maximumSize, size + step));
+          stats.incPoolSizeIncreases();
+        }
+      }
+    }
+
+    private void setSize(int size) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Changing the maximum size of thread pool {} from {} to {}", name,
+            executor.getMaximumPoolSize(), size);
+      }
+      executor.setMaximumPoolSize(size);
+      stats.setMaximumPoolSize(size);
+    }
+  }
+}
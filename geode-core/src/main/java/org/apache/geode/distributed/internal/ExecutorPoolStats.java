@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.annotations.Immutable;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics about the time the jobs of one of the distribution manager's thread pools wait to be
+ * started and run. Besides the total times, the number of jobs in each of a few ranges of times is
+ * kept, so the distribution of queueing delay can be seen, not just its average.
+ *
+ * <p>
+ * These statistics are the pool's {@link PoolStatHelper}, so the executors that are given them
+ * can find them. The jobs given to such an executor are wrapped by {@link #timed} so that the time
+ * they were queued is known when they are started.
+ */
+public class ExecutorPoolStats implements PoolStatHelper {
+
+  /** The upper bounds, in nanoseconds, of the ranges of times, except for the last range. */
+  @Immutable
+  static final long[] RANGE_LIMITS = {100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+      1_000_000_000L};
+
+  @Immutable
+  private static final String[] RANGE_NAMES =
+      {"Under100us", "Under1ms", "Under10ms", "Under100ms", "Under1s", "Over1s"};
+
+  @Immutable
+  private static final String[] RANGE_DESCRIPTIONS = {"less than 100 microseconds",
+      "between 100 microseconds and 1 millisecond", "between 1 and 10 milliseconds",
+      "between 10 and 100 milliseconds", "between 100 milliseconds and 1 second",
+      "at least 1 second"};
+
+  @Immutable
+  private static final StatisticsType type;
+
+  private static final int jobsId;
+  private static final int queueWaitTimeId;
+  private static final int runTimeId;
+  private static final int maximumPoolSizeId;
+  private static final int poolSizeIncreasesId;
+  private static final int poolSizeDecreasesId;
+  @Immutable
+  private static final int[] queueWaitsIds = new int[RANGE_NAMES.length];
+  @Immutable
+  private static final int[] runsIds = new int[RANGE_NAMES.length];
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    List<StatisticDescriptor> descriptors = new ArrayList<>();
+    descriptors.add(f.createLongCounter("jobs", "The number of jobs the pool has started.",
+        "operations"));
+    descriptors.add(f.createLongCounter("queueWaitTime",
+        "The total time jobs waited for a thread of the pool to start them.", "nanoseconds"));
+    descriptors.add(f.createLongCounter("runTime",
+        "The total time threads of the pool spent running jobs.", "nanoseconds"));
+    descriptors.add(f.createLongGauge("maximumPoolSize",
+        "The maximum number of threads the pool may have.", "threads"));
+    descriptors.add(f.createLongCounter("poolSizeIncreases",
+        "The number of times the maximum number of threads of the pool was increased.",
+        "operations"));
+    descriptors.add(f.createLongCounter("poolSizeDecreases",
+        "The number of times the maximum number of threads of the pool was decreased.",
+        "operations"));
+    for (int i = 0; i < RANGE_NAMES.length; i++) {
+      descriptors.add(f.createLongCounter("queueWaits" + RANGE_NAMES[i],
+          "The number of jobs that waited " + RANGE_DESCRIPTIONS[i] + " to be started.",
+          "operations"));
+    }
+    for (int i = 0; i < RANGE_NAMES.length; i++) {
+      descriptors.add(f.createLongCounter("runs" + RANGE_NAMES[i],
+          "The number of jobs that ran for " + RANGE_DESCRIPTIONS[i] + ".", "operations"));
+    }
+    type = f.createType("ExecutorPoolStats",
+        "Statistics about the queueing delay and run time of the jobs of a thread pool",
+        descriptors.toArray(new StatisticDescriptor[0]));
+
+    jobsId = type.nameToId("jobs");
+    queueWaitTimeId = type.nameToId("queueWaitTime");
+    runTimeId = type.nameToId("runTime");
+    maximumPoolSizeId = type.nameToId("maximumPoolSize");
+    poolSizeIncreasesId = type.nameToId("poolSizeIncreases");
+    poolSizeDecreasesId = type.nameToId("poolSizeDecreases");
+    for (int i = 0; i < RANGE_NAMES.length; i++) {
+      queueWaitsIds[i] = type.nameToId("queueWaits" + RANGE_NAMES[i]);
+      runsIds[i] = type.nameToId("runs" + RANGE_NAMES[i]);
+    }
+  }
+
+  private final Statistics stats;
+
+  /** The helper that keeps the pool's other statistics, or null. */
+  private final PoolStatHelper poolStatHelper;
+
+  /**
+   * Creates the statistics of the pool with the given name.
+   *
+   * @param poolStatHelper if not null, the helper that the pool's jobs are also reported to
+   */
+  public ExecutorPoolStats(StatisticsFactory factory, String poolName,
+      PoolStatHelper poolStatHelper) {
+    stats = factory.createStatistics(type, poolName);
+    this.poolStatHelper = poolStatHelper;
+  }
+
+  public void close() {
+    stats.close();
+  }
+
+  @Override
+  public void startJob() {
+    if (poolStatHelper != null) {
+      poolStatHelper.startJob();
+    }
+  }
+
+  @Override
+  public void endJob() {
+    if (poolStatHelper != null) {
+      poolStatHelper.endJob();
+    }
+  }
+
+  void endQueueWait(long time) {
+    stats.incLong(jobsId, 1);
+    stats.incLong(queueWaitTimeId, time);
+    stats.incLong(queueWaitsIds[getRange(time)], 1);
+  }
+
+  void endRun(long time) {
+    stats.incLong(runTimeId, time);
+    stats.incLong(runsIds[getRange(time)], 1);
+  }
+
+  /**
+   * Returns the number of jobs that have waited to be started for each range of times, in the
+   * order of {@link #RANGE_LIMITS}, with the jobs that waited longer than all of them last.
+   */
+  long[] getQueueWaits() {
+    long[] queueWaits = new long[queueWaitsIds.length];
+    for (int i = 0; i < queueWaitsIds.length; i++) {
+      queueWaits[i] = stats.getLong(queueWaitsIds[i]);
+    }
+    return queueWaits;
+  }
+
+  void setMaximumPoolSize(int size) {
+    stats.setLong(maximumPoolSizeId, size);
+  }
+
+  void incPoolSizeIncreases() {
+    stats.incLong(poolSizeIncreasesId, 1);
+  }
+
+  void incPoolSizeDecreases() {
+    stats.incLong(poolSizeDecreasesId, 1);
+  }
+
+  private static int getRange(long time) {
+    int range = 0;
+    while (range < RANGE_LIMITS.length && time >= RANGE_LIMITS[range]) {
+      range++;
+    }
+    return range;
+  }
+
+  /**
+   * Returns the job to give to an executor whose {@link PoolStatHelper} is the given helper. If
+   * it is an ExecutorPoolStats, the job is wrapped so that the time it waits and runs is recorded.
+   */
+  static Runnable timed(PoolStatHelper poolStatHelper, Runnable job) {
+    if (!(poolStatHelper instanceof ExecutorPoolStats) || job instanceof TimedJob) {
+      return job;
+    }
+    return new TimedJob((ExecutorPoolStats) poolStatHelper, job);
+  }
+
+  /**
+   * Called by an executor before it runs the given job.
+   */
+  static void beforeJob(Runnable job) {
+    if (job instanceof TimedJob) {
+      ((TimedJob) job).started();
+    }
+  }
+
+  /**
+   * Called by an executor after it runs the given job.
+   */
+  static void afterJob(Runnable job) {
+    if (job instanceof TimedJob) {
+      ((TimedJob) job).ended();
+    }
+  }
+
+  /**
+   * A job that knows when it was queued. It has the size of the job it wraps, so that queues that
+   * throttle by size are not affected.
+   */
+  static class TimedJob implements Runnable, Sizeable {
+    private final ExecutorPoolStats stats;
+    private final Runnable job;
+    private final long queuedTime = System.nanoTime();
+    private long startTime;
+
+    TimedJob(ExecutorPoolStats stats, Runnable job) {
+      this.stats = stats;
+      this.job = job;
+    }
+
+    @Override
+    public void run() {
+      job.run();
+    }
+
+    @Override
+    public int getSize() {
+      return job instanceof Sizeable ? ((Sizeable) job).getSize() : 0;
+    }
+
+    void started() {
+      startTime = System.nanoTime();
+      stats.endQueueWait(startTime - queuedTime);
+    }
+
+    void ended() {
+      stats.endRun(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public String toString() {
+      return job.toString();
+    }
+  }
+}
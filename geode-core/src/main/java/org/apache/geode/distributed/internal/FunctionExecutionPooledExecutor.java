@@ -203,8 +203,14 @@ public class FunctionExecutionPooledExecutor extends ThreadPoolExecutor {
     return l;
   }
 
+  @Override
+  public void execute(Runnable command) {
+    super.execute(ExecutorPoolStats.timed(stats, command));
+  }
+
   @Override
   protected void beforeExecute(Thread t, Runnable r) {
+    ExecutorPoolStats.beforeJob(r);
     if (stats != null) {
       stats.startJob();
     }
@@ -215,6 +221,7 @@ public class FunctionExecutionPooledExecutor extends ThreadPoolExecutor {
 
   @Override
   protected void afterExecute(Runnable r, Throwable t) {
+    ExecutorPoolStats.afterJob(r);
     if (stats != null) {
       stats.endJob();
     }
@@ -120,8 +120,14 @@ public class PooledExecutorWithDMStats extends ThreadPoolExecutor {
     return l;
   }
 
+  @Override
+  public void execute(Runnable command) {
+    super.execute(ExecutorPoolStats.timed(poolStatHelper, command));
+  }
+
   @Override
   protected void beforeExecute(Thread t, Runnable r) {
+    ExecutorPoolStats.beforeJob(r);
     if (poolStatHelper != null) {
       poolStatHelper.startJob();
     }
@@ -132,6 +138,7 @@ public class PooledExecutorWithDMStats extends ThreadPoolExecutor {
 
   @Override
   protected void afterExecute(Runnable r, Throwable ex) {
+    ExecutorPoolStats.afterJob(r);
     if (poolStatHelper != null) {
       poolStatHelper.endJob();
     }
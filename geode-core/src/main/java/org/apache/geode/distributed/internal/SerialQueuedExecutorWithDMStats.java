@@ -42,8 +42,14 @@ public class SerialQueuedExecutorWithDMStats extends ThreadPoolExecutor {
     this.threadsMonitoring = threadsMonitoring;
   }
 
+  @Override
+  public void execute(Runnable command) {
+    super.execute(ExecutorPoolStats.timed(poolStatHelper, command));
+  }
+
   @Override
   protected void beforeExecute(Thread t, Runnable r) {
+    ExecutorPoolStats.beforeJob(r);
     if (poolStatHelper != null) {
       poolStatHelper.startJob();
     }
@@ -54,6 +60,7 @@ public class SerialQueuedExecutorWithDMStats extends ThreadPoolExecutor {
 
   @Override
   protected void afterExecute(Runnable r, Throwable t) {
+    ExecutorPoolStats.afterJob(r);
     if (poolStatHelper != null) {
       poolStatHelper.endJob();
     }
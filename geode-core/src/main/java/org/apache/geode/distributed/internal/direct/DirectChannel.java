@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.logging.log4j.Logger;
 
@@ -75,6 +76,9 @@ public class DirectChannel {
   private final DMStats stats;
   private final BufferPool bufferPool;
 
+  /** Writes messages to several members at the same time, or null. */
+  private final ExecutorService fanOutExecutor;
+
   private volatile boolean disconnected = true;
 
   /** This is set to true when completely disconnected (all connections are closed) */
@@ -117,6 +121,11 @@ public class DirectChannel {
     this.dm = dm;
     this.stats = dm.getStats();
     this.bufferPool = new BufferPool(stats);
+    if (MsgStreamer.FAN_OUT_THREADS > 0) {
+      this.fanOutExecutor = MsgStreamer.createFanOutExecutor(MsgStreamer.FAN_OUT_THREADS);
+    } else {
+      this.fanOutExecutor = null;
+    }
 
     DistributionConfig dc = dm.getConfig();
     this.address = initAddress(dc);
@@ -307,7 +316,7 @@ public class DirectChannel {
         List<?> sentCons; // used for cons we sent to this time
 
         final BaseMsgStreamer ms =
-            MsgStreamer.create(cons, msg, directReply, stats, bufferPool);
+            MsgStreamer.create(cons, msg, directReply, stats, bufferPool, fanOutExecutor);
         try {
           startTime = 0;
           if (ackTimeout > 0) {
@@ -652,6 +661,10 @@ public class DirectChannel {
     this.disconnected = true;
     this.disconnectCompleted = false;
     this.conduit.stop(cause);
+    if (this.fanOutExecutor != null) {
+      // messages being sent write to their remaining connections themselves
+      this.fanOutExecutor.shutdown();
+    }
     this.disconnectCompleted = true;
   }
 
@@ -192,6 +192,7 @@ import org.apache.geode.internal.cache.CacheDistributionAdvisor;
 import org.apache.geode.internal.cache.CacheServerAdvisor.CacheServerProfile;
 import org.apache.geode.internal.cache.ClientRegionEventImpl;
 import org.apache.geode.internal.cache.CloseCacheMessage;
+import org.apache.geode.internal.cache.CoalescedUpdateMessage;
 import org.apache.geode.internal.cache.ControllerAdvisor.ControllerProfile;
 import org.apache.geode.internal.cache.CreateRegionProcessor;
 import org.apache.geode.internal.cache.DestroyOperation;
@@ -485,6 +486,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
     serializer.registerDSFID(DISPATCHED_AND_CURRENT_EVENTS, DispatchedAndCurrentEvents.class);
     serializer.registerDSFID(DISTRIBUTED_MEMBER, InternalDistributedMember.class);
     serializer.registerDSFID(UPDATE_MESSAGE, UpdateOperation.UpdateMessage.class);
+    serializer.registerDSFID(COALESCED_UPDATE_MESSAGE, CoalescedUpdateMessage.class);
     serializer.registerDSFID(REPLY_MESSAGE, ReplyMessage.class);
     serializer.registerDSFID(PR_DESTROY, DestroyMessage.class);
     serializer.registerDSFID(CREATE_REGION_MESSAGE,
@@ -46,6 +46,7 @@ import org.apache.geode.internal.cache.DiskInitFile.DiskRegionFlag;
 import org.apache.geode.internal.cache.entries.AbstractOplogDiskRegionEntry;
 import org.apache.geode.internal.cache.entries.AbstractRegionEntry;
 import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.cache.map.CacheModificationLock;
 import org.apache.geode.internal.cache.map.FocusedRegionMap;
@@ -72,7 +73,9 @@ import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.OpenAddressingConcurrentHashMap;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
  * Abstract implementation of {@link RegionMap}that has all the common behavior.
@@ -84,6 +87,14 @@ public abstract class AbstractRegionMap extends BaseRegionMap
   private static final Logger logger = LogService.getLogger();
   private final TxCallbackEventFactory txCallbackEventFactory = new TxCallbackEventFactoryImpl();
 
+  /**
+   * If true, regions whose key constraint is Long, Integer or String keep their entries in an
+   * {@link OpenAddressingConcurrentHashMap} instead of a {@link CustomEntryConcurrentHashMap}. To
+   * enable it, set the 'gemfire.OPEN_ADDRESSING_REGION_MAP' system property.
+   */
+  private static final boolean OPEN_ADDRESSING_REGION_MAP =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "OPEN_ADDRESSING_REGION_MAP");
+
   /** The underlying map for this region. */
   protected ConcurrentMapWithReusableEntries<Object, Object> map;
 
@@ -111,8 +122,14 @@ public abstract class AbstractRegionMap extends BaseRegionMap
       InternalRegionArguments internalRegionArgs, boolean isLRU) {
     _setAttributes(attr);
     setOwner(owner);
-    setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
-        attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    if (OPEN_ADDRESSING_REGION_MAP
+        && OpenAddressingConcurrentHashMap.isSupportedKeyType(attr.keyConstraint)) {
+      setEntryMap(new OpenAddressingConcurrentHashMap<>(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel));
+    } else {
+      setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    }
 
     boolean isDisk;
     boolean withVersioning;
@@ -273,6 +290,10 @@ public abstract class AbstractRegionMap extends BaseRegionMap
   @Override
   public RegionEntry putEntryIfAbsent(Object key, RegionEntry regionEntry) {
     RegionEntry oldRe = (RegionEntry) getEntryMap().putIfAbsent(key, regionEntry);
+    if (oldRe != null && regionEntry instanceof OffHeapKeyRegionEntry) {
+      // the new entry did not make it into the map so it no longer needs its off-heap key
+      OffHeapRegionEntryHelper.releaseKey((OffHeapKeyRegionEntry) regionEntry);
+    }
     if (oldRe == null && (regionEntry instanceof OffHeapRegionEntry) && _isOwnerALocalRegion()
         && _getOwner().isThisRegionBeingClosedOrDestroyed()) {
       // prevent orphan during concurrent destroy (#48068)
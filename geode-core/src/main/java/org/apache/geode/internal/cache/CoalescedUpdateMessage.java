@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.MessageWithReply;
+import org.apache.geode.distributed.internal.ReplyException;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplySender;
+import org.apache.geode.distributed.internal.SerialDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+
+/**
+ * Carries the updates of a replicated region that an {@link UpdateCoalescer} sends together. The
+ * recipient applies them in order and acknowledges them with one reply, which carries the first
+ * exception they failed with, if any.
+ */
+public class CoalescedUpdateMessage extends SerialDistributionMessage
+    implements MessageWithReply {
+
+  private int processorId;
+
+  private List<CacheOperationMessage> messages;
+
+  /** for deserialization only */
+  public CoalescedUpdateMessage() {}
+
+  CoalescedUpdateMessage(int processorId, List<CacheOperationMessage> messages) {
+    this.processorId = processorId;
+    this.messages = messages;
+  }
+
+  @Override
+  public int getProcessorId() {
+    return processorId;
+  }
+
+  List<CacheOperationMessage> getMessages() {
+    return messages;
+  }
+
+  @Override
+  protected void process(ClusterDistributionManager dm) {
+    FirstExceptionCollector replies = new FirstExceptionCollector();
+    try {
+      for (CacheOperationMessage message : messages) {
+        message.setSender(getSender());
+        // the updates reply to the collector rather than to the sender
+        message.setReplySender(replies);
+        message.process(dm);
+      }
+    } finally {
+      ReplyMessage.send(getSender(), processorId, replies.exception, getReplySender(dm));
+    }
+  }
+
+  @Override
+  public int getDSFID() {
+    return COALESCED_UPDATE_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    super.toData(out, context);
+    out.writeInt(processorId);
+    out.writeInt(messages.size());
+    for (CacheOperationMessage message : messages) {
+      context.getSerializer().writeObject(message, out);
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    super.fromData(in, context);
+    processorId = in.readInt();
+    int size = in.readInt();
+    messages = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      messages.add(context.getDeserializer().readObject(in));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getShortClassName() + "(processorId=" + processorId + "; updates="
+        + (messages == null ? 0 : messages.size()) + ")";
+  }
+
+  /**
+   * Keeps the first exception replied by the updates of a message instead of sending their
+   * replies.
+   */
+  private static class FirstExceptionCollector implements ReplySender {
+    private ReplyException exception;
+
+    @Override
+    public Set<InternalDistributedMember> putOutgoing(DistributionMessage message) {
+      if (exception == null && message instanceof ReplyMessage) {
+        exception = ((ReplyMessage) message).getException();
+      }
+      return null;
+    }
+  }
+}
@@ -66,7 +66,9 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.Logger;
@@ -3608,6 +3610,25 @@ public class DiskStoreImpl implements DiskStore {
       return allInts.stream().mapToInt(IntOpenHashSet::size).sum()
           + allLongs.stream().mapToInt(LongOpenHashSet::size).sum();
     }
+
+    /**
+     * Adds all the ids in other to this set.
+     */
+    public void addAll(OplogEntryIdSet other) {
+      for (IntOpenHashSet ints : other.allInts) {
+        IntIterator it = ints.iterator();
+        while (it.hasNext()) {
+          // ids up to 0xFFFFFFFF are stored as ints
+          add(Integer.toUnsignedLong(it.nextInt()));
+        }
+      }
+      for (LongOpenHashSet longs : other.allLongs) {
+        LongIterator it = longs.iterator();
+        while (it.hasNext()) {
+          add(it.nextLong());
+        }
+      }
+    }
   }
 
   /**
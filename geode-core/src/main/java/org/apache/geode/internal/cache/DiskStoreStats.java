@@ -49,6 +49,9 @@ public class DiskStoreStats {
   private static final int readTimeId;
   private static final int recoveriesInProgressId;
   private static final int recoveryTimeId;
+  private static final int recoveryDrfTimeId;
+  private static final int recoveryCrfTimeId;
+  private static final int recoveryRegionInitTimeId;
   private static final int recoveredBytesId;
   private static final int recoveredEntryCreatesId;
   private static final int recoveredEntryUpdatesId;
@@ -81,6 +84,7 @@ public class DiskStoreStats {
 
   private static final int oplogReadsId;
   private static final int oplogSeeksId;
+  private static final int groupCommitsId;
 
   private static final int uncreatedRecoveredRegionsId;
   private static final int backupsInProgress;
@@ -134,6 +138,15 @@ public class DiskStoreStats {
             f.createIntGauge("recoveriesInProgress",
                 "current number of persistent regions being recovered from disk", "ops"),
             f.createLongCounter("recoveryTime", recoveryTimeDesc, "nanoseconds"),
+            f.createLongCounter("recoveryDrfTime",
+                "The total amount of time spent reading drfs to find destroyed entries during a recovery",
+                "nanoseconds"),
+            f.createLongCounter("recoveryCrfTime",
+                "The total amount of time spent reading krfs and crfs to find live entries during a recovery",
+                "nanoseconds"),
+            f.createLongCounter("recoveryRegionInitTime",
+                "The total amount of time spent initializing oplogs and regions once their entries are recovered",
+                "nanoseconds"),
             f.createLongCounter("recoveredBytes", recoveredBytesDesc, "bytes"),
             f.createLongCounter("recoveredEntryCreates",
                 "The total number of entry create records processed while recovering oplog data.",
@@ -190,6 +203,9 @@ public class DiskStoreStats {
                 "oplogs"),
             f.createLongCounter("oplogReads", "Total number of oplog reads", "reads"),
             f.createLongCounter("oplogSeeks", "Total number of oplog seeks", "seeks"),
+            f.createLongCounter("groupCommits",
+                "Total number of flushes shared by the synchronous writes waiting for a group commit",
+                "flushes"),
             f.createIntGauge("uncreatedRecoveredRegions",
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
@@ -208,6 +224,9 @@ public class DiskStoreStats {
     bytesReadId = type.nameToId("readBytes");
     recoveriesInProgressId = type.nameToId("recoveriesInProgress");
     recoveryTimeId = type.nameToId("recoveryTime");
+    recoveryDrfTimeId = type.nameToId("recoveryDrfTime");
+    recoveryCrfTimeId = type.nameToId("recoveryCrfTime");
+    recoveryRegionInitTimeId = type.nameToId("recoveryRegionInitTime");
     recoveredBytesId = type.nameToId("recoveredBytes");
     recoveredEntryCreatesId = type.nameToId("recoveredEntryCreates");
     recoveredEntryUpdatesId = type.nameToId("recoveredEntryUpdates");
@@ -235,6 +254,7 @@ public class DiskStoreStats {
     compactUpdateTimeId = type.nameToId("compactUpdateTime");
     oplogReadsId = type.nameToId("oplogReads");
     oplogSeeksId = type.nameToId("oplogSeeks");
+    groupCommitsId = type.nameToId("groupCommits");
 
     openOplogsId = type.nameToId("openOplogs");
     inactiveOplogsId = type.nameToId("inactiveOplogs");
@@ -454,6 +474,30 @@ public class DiskStoreStats {
     this.stats.incLong(recoveredBytesId, bytesRead);
   }
 
+  public void endRecoveryDrfs(long start) {
+    this.stats.incLong(recoveryDrfTimeId, getTime() - start);
+  }
+
+  public void endRecoveryCrfs(long start) {
+    this.stats.incLong(recoveryCrfTimeId, getTime() - start);
+  }
+
+  public void endRecoveryRegionInit(long start) {
+    this.stats.incLong(recoveryRegionInitTimeId, getTime() - start);
+  }
+
+  public long getRecoveryDrfTime() {
+    return this.stats.getLong(recoveryDrfTimeId);
+  }
+
+  public long getRecoveryCrfTime() {
+    return this.stats.getLong(recoveryCrfTimeId);
+  }
+
+  public long getRecoveryRegionInitTime() {
+    return this.stats.getLong(recoveryRegionInitTimeId);
+  }
+
   public void endCompaction(long start) {
     this.stats.incInt(compactsInProgressId, -1);
     long end = getTime();
@@ -519,6 +563,14 @@ public class DiskStoreStats {
     this.stats.incLong(oplogSeeksId, 1);
   }
 
+  public void incGroupCommits() {
+    this.stats.incLong(groupCommitsId, 1);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
   public void incInactiveOplogs(int delta) {
     this.stats.incInt(inactiveOplogsId, delta);
   }
@@ -449,6 +449,21 @@ public abstract class DistributedCacheOperation {
           this.event.setLocalFilterInfo(filterInfo);
         }
 
+      } else if (shouldAck() && !reliableOp && persistentIds == null
+          && adjunctRecipients.isEmpty() && needsOldValueInCacheOp.isEmpty()
+          && cachelessNodes.isEmpty() && canBeCoalesced()) {
+        // the message is sent and acknowledged together with those of other operations, except
+        // to members running an older version
+        CacheOperationMessage msg = createMessage();
+        initMessage(msg, null);
+        msg.needsRouting = !routingComputed;
+        if (region.cache.isClosed() && !canBeSentDuringShutdown()) {
+          throw region.cache.getCacheClosedException(
+              "The cache has been closed",
+              null);
+        }
+        region.getUpdateCoalescer().distribute(msg, recipients);
+
       } else {
         boolean directAck = false;
         boolean useMulticast = region.getMulticastEnabled()
@@ -827,6 +842,14 @@ public abstract class DistributedCacheOperation {
     return getRegion().scope.isAck();
   }
 
+  /**
+   * Returns true if the message of this operation can be sent by the region's
+   * {@link UpdateCoalescer} together with the messages of other operations.
+   */
+  protected boolean canBeCoalesced() {
+    return false;
+  }
+
   protected DistributedRegion getRegion() {
     return (DistributedRegion) this.event.getRegion();
   }
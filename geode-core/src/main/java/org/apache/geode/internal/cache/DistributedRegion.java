@@ -181,6 +181,9 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
 
   private final PersistentMemberID persistentId;
 
+  /** Sends the updates of this region together, or null if they are sent one at a time. */
+  private final UpdateCoalescer updateCoalescer;
+
   /**
    * This boolean is set to false when this region is non-persistent, but there are persistent
    * members in the distributed system to which all region modifications should be forwarded see bug
@@ -276,6 +279,17 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
     } else {
       persistentId = null;
     }
+    if (UpdateCoalescer.ENABLED && !internalRegionArgs.isUsedForPartitionedRegionBucket()
+        && attrs.getScope().isAck()) {
+      updateCoalescer = new UpdateCoalescer(getDistributionManager(), UpdateCoalescer.MAX_UPDATES,
+          UpdateCoalescer.MAX_SENDS);
+    } else {
+      updateCoalescer = null;
+    }
+  }
+
+  UpdateCoalescer getUpdateCoalescer() {
+    return updateCoalescer;
   }
 
   @Override
@@ -24,6 +24,14 @@ public class InlineKeyHelper {
   public static final boolean INLINE_REGION_KEYS =
       !Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "DISABLE_INLINE_REGION_KEYS");
 
+  /**
+   * If true, string keys of off-heap regions that are too long to be encoded inline are stored in
+   * off-heap memory and only their address is kept on the heap. Only used when
+   * {@link #INLINE_REGION_KEYS} is true.
+   */
+  public static final boolean OFF_HEAP_REGION_KEYS =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "OFF_HEAP_REGION_KEYS");
+
   /**
    * The maximum number of longs any of region entry subclasses use to store the string key inline.
    */
@@ -119,6 +119,7 @@ import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.NearCacheInterests;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.cache.control.ResourceManager;
@@ -350,6 +351,13 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   public static final String EXPIRY_MS_PROPERTY =
       GeodeGlossary.GEMFIRE_PREFIX + "EXPIRY_UNITS_MS";
 
+  /**
+   * If true getRetained returns a retained reference to a locally stored off-heap value instead of
+   * a heap copy of it so that client gets can send the value straight from off-heap memory.
+   */
+  private static final boolean RETAIN_OFF_HEAP_VALUES_FOR_CLIENTS =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "OFF_HEAP_ZERO_COPY_CLIENT_GET");
+
   /**
    * Used by unit tests to set expiry to milliseconds instead of the default seconds. Used in
    * ExpiryTask.
@@ -686,6 +694,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       ma.loadFactor = loadFactor;
       ma.initialCapacity = initialCapacity;
       ma.concurrencyLevel = concurrencyLevel;
+      ma.keyConstraint = keyConstraint;
       result = regionMapConstructor.create(this, ma, internalRegionArgs);
     }
     return result;
@@ -1342,8 +1351,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       boolean disableCopyOnRead, ClientProxyMembershipID requestingClient,
       EntryEventImpl clientEvent, boolean returnTombstones, boolean opScopeIsLocal)
       throws TimeoutException, CacheLoaderException {
+    // a transaction may hand out values it holds itself so they are never retained for the caller
+    final boolean retainResult = RETAIN_OFF_HEAP_VALUES_FOR_CLIENTS && !isTX();
     return get(key, aCallbackArgument, generateCallbacks, disableCopyOnRead, true, requestingClient,
-        clientEvent, returnTombstones, opScopeIsLocal, false);
+        clientEvent, returnTombstones, opScopeIsLocal, retainResult);
   }
 
   /**
@@ -2786,6 +2797,31 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       boolean generateCallbacks, Object localValue, boolean disableCopyOnRead, boolean preferCD,
       ClientProxyMembershipID requestingClient, EntryEventImpl clientEvent,
       boolean returnTombstones) throws CacheLoaderException, TimeoutException {
+    ServerRegionProxy mySRP = getServerProxy();
+    NearCacheInterests nearCacheInterests =
+        mySRP == null ? null : mySRP.getNearCacheInterests();
+    if (nearCacheInterests == null) {
+      return loadObject(keyInfo, isCreate, generateCallbacks, preferCD, clientEvent);
+    }
+    Object key = keyInfo.getKey();
+    nearCacheInterests.beforeLoad(key);
+    try {
+      return loadObject(keyInfo, isCreate, generateCallbacks, preferCD, clientEvent);
+    } finally {
+      nearCacheInterests.afterLoad(key);
+    }
+  }
+
+  /**
+   * Loads the value from a server or a loader and puts it in the cache, once the interest of the
+   * near cache, if any, is registered.
+   *
+   * @see #findObjectInSystem(KeyInfo, boolean, TXStateInterface, boolean, Object, boolean, boolean,
+   *      ClientProxyMembershipID, EntryEventImpl, boolean)
+   */
+  private Object loadObject(KeyInfo keyInfo, boolean isCreate, boolean generateCallbacks,
+      boolean preferCD, EntryEventImpl clientEvent)
+      throws CacheLoaderException, TimeoutException {
 
     final Object key = keyInfo.getKey();
     final Object aCallbackArgument = keyInfo.getCallbackArg();
@@ -4956,8 +4992,22 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   }
 
   void basicInvalidatePart3(RegionEntry re, EntryEventImpl event, boolean invokeCallbacks) {
-    // No op. overridden by sub classes.
     // Dispatching listener events moved to basic*Part2.
+    if (!event.isFromServer()) {
+      // the servers still send invalidates for keys they invalidated
+      afterNearCacheRemoval(event.getKey());
+    }
+  }
+
+  /**
+   * Called when the entry of the given key has been evicted, destroyed or invalidated by this
+   * client, so its value is no longer held.
+   */
+  private void afterNearCacheRemoval(Object key) {
+    ServerRegionProxy proxy = serverRegionProxy;
+    if (proxy != null && proxy.getNearCacheInterests() != null) {
+      proxy.getNearCacheInterests().afterRemoval(key);
+    }
   }
 
   /**
@@ -5604,6 +5654,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     Operation originalOp = event.getOperation();
     RegionEntry oldEntry;
 
+    // the interest is registered before serverPut writes to the server and kept until the new
+    // value is cached
+    NearCacheInterests nearCacheInterests = getNearCacheInterestsForWrite(event);
+    if (nearCacheInterests != null) {
+      nearCacheInterests.beforeWrite(event.getKey());
+    }
     try {
       oldEntry = entries.basicPut(event, lastModified, ifNew, ifOld, expectedOldValue,
           requireOldValue, overwriteDestroyed);
@@ -5624,6 +5680,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         return false;
       }
 
+    } finally {
+      if (nearCacheInterests != null) {
+        nearCacheInterests.afterWrite(event.getKey());
+      }
     }
 
     // for EMPTY clients, see if a concurrent map operation had an entry on the server
@@ -5641,6 +5701,19 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return oldEntry != null;
   }
 
+  /**
+   * Returns the near cache interests of this region if the given event is written to a server by
+   * {@link #serverPut(EntryEventImpl, boolean, Object)}, otherwise null.
+   */
+  private NearCacheInterests getNearCacheInterestsForWrite(EntryEventImpl event) {
+    ServerRegionProxy mySRP = getServerProxy();
+    if (mySRP == null || !event.getOperation().isDistributed() || event.isFromServer()
+        || event.isBulkOpInProgress()) {
+      return null;
+    }
+    return mySRP.getNearCacheInterests();
+  }
+
   /**
    * check to see if a LowMemoryException should be thrown for this event
    */
@@ -6619,9 +6692,13 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     final EntryEventImpl event = generateEvictDestroyEvent(entry.getKey());
 
     try {
-      return mapDestroy(event, false, // cacheWrite
+      boolean evicted = mapDestroy(event, false, // cacheWrite
           true, // isEviction
           null); // expectedOldValue
+      if (evicted) {
+        afterNearCacheRemoval(entry.getKey());
+      }
+      return evicted;
     } catch (CacheWriterException error) {
       throw new Error(
           "Cache Writer should not have been called for evictDestroy",
@@ -6729,6 +6806,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   @Override
   public void basicDestroyPart3(RegionEntry re, EntryEventImpl event, boolean inTokenMode,
       boolean duringRI, boolean invokeCallbacks, Object expectedOldValue) {
+    afterNearCacheRemoval(event.getKey());
 
     if (invokeCallbacks) {
       if (event.isBulkOpInProgress()) {
@@ -8674,80 +8752,90 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
       // Send the rest of the keys to the server (if necessary)
       if (!keysList.isEmpty()) {
-        VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
-        if (isDebugEnabled) {
-          logger.debug("remote getAll results are {}", remoteResults);
+        NearCacheInterests nearCacheInterests = getServerProxy().getNearCacheInterests();
+        if (nearCacheInterests != null) {
+          nearCacheInterests.beforeLoad(keysList);
         }
+        try {
+          VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
+          if (isDebugEnabled) {
+            logger.debug("remote getAll results are {}", remoteResults);
+          }
 
-        // Add remote results to local cache and all results if successful
-        for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
-          VersionedObjectList.Entry entry = it.next();
-          Object key = entry.getKey();
-          boolean notOnServer = entry.isKeyNotOnServer();
-          // in 8.0 we added transfer of tombstones with RI/getAll results
-          boolean createTombstone = false;
-          if (notOnServer) {
-            createTombstone = entry.getVersionTag() != null && getConcurrencyChecksEnabled();
-            allResults.put(key, null);
-            if (isDebugEnabled) {
-              logger.debug("Added remote result for missing key: {}", key);
-            }
-            if (!createTombstone) {
-              continue;
+          // Add remote results to local cache and all results if successful
+          for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
+            VersionedObjectList.Entry entry = it.next();
+            Object key = entry.getKey();
+            boolean notOnServer = entry.isKeyNotOnServer();
+            // in 8.0 we added transfer of tombstones with RI/getAll results
+            boolean createTombstone = false;
+            if (notOnServer) {
+              createTombstone = entry.getVersionTag() != null && getConcurrencyChecksEnabled();
+              allResults.put(key, null);
+              if (isDebugEnabled) {
+                logger.debug("Added remote result for missing key: {}", key);
+              }
+              if (!createTombstone) {
+                continue;
+              }
             }
-          }
 
-          Object value;
-          if (createTombstone) {
-            // the value is null in this case, so use TOKEN_TOMBSTONE
-            value = Token.TOMBSTONE;
-          } else {
-            value = entry.getObject();
-          }
+            Object value;
+            if (createTombstone) {
+              // the value is null in this case, so use TOKEN_TOMBSTONE
+              value = Token.TOMBSTONE;
+            } else {
+              value = entry.getObject();
+            }
 
-          if (value instanceof Throwable) {
-            continue;
-          }
+            if (value instanceof Throwable) {
+              continue;
+            }
 
-          // The following basicPutEntry needs to be done
-          // even if we do not have storage so that the
-          // correct events will be delivered to any callbacks we have.
-          long startPut = getStatisticsClock().getTime();
-          validateKey(key);
+            // The following basicPutEntry needs to be done
+            // even if we do not have storage so that the
+            // correct events will be delivered to any callbacks we have.
+            long startPut = getStatisticsClock().getTime();
+            validateKey(key);
 
-          @Released
-          EntryEventImpl event = entryEventFactory.create(this, Operation.LOCAL_LOAD_CREATE, key,
-              value, callback, false, getMyId(), true);
+            @Released
+            EntryEventImpl event = entryEventFactory.create(this, Operation.LOCAL_LOAD_CREATE, key,
+                value, callback, false, getMyId(), true);
 
-          try {
-            event.setFromServer(true);
-            event.setVersionTag(entry.getVersionTag());
-
-            if (!alreadyInvalid(key, event)) {
-              // don't update if it's already here & invalid
-              TXStateProxy txState = cache.getTXMgr().pauseTransaction();
-              try {
-                basicPutEntry(event, 0L);
-              } catch (ConcurrentCacheModificationException e) {
-                if (isDebugEnabled) {
-                  logger.debug(
-                      "getAll result for {} not stored in cache due to concurrent modification",
-                      key, e);
+            try {
+              event.setFromServer(true);
+              event.setVersionTag(entry.getVersionTag());
+
+              if (!alreadyInvalid(key, event)) {
+                // don't update if it's already here & invalid
+                TXStateProxy txState = cache.getTXMgr().pauseTransaction();
+                try {
+                  basicPutEntry(event, 0L);
+                } catch (ConcurrentCacheModificationException e) {
+                  if (isDebugEnabled) {
+                    logger.debug(
+                        "getAll result for {} not stored in cache due to concurrent modification",
+                        key, e);
+                  }
+                } finally {
+                  cache.getTXMgr().unpauseTransaction(txState);
                 }
-              } finally {
-                cache.getTXMgr().unpauseTransaction(txState);
+                getCachePerfStats().endPut(startPut, event.isOriginRemote());
               }
-              getCachePerfStats().endPut(startPut, event.isOriginRemote());
-            }
 
-            if (!createTombstone) {
-              allResults.put(key, value);
-              if (isTraceEnabled) {
-                logger.trace("Added remote result for getAll request: {}, {}", key, value);
+              if (!createTombstone) {
+                allResults.put(key, value);
+                if (isTraceEnabled) {
+                  logger.trace("Added remote result for getAll request: {}, {}", key, value);
+                }
               }
+            } finally {
+              event.release();
             }
-          } finally {
-            event.release();
+          }
+        } finally {
+          if (nearCacheInterests != null) {
+            nearCacheInterests.afterLoad(keysList);
           }
         }
       }
@@ -8946,6 +9034,26 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   // TODO: refactor basicPutAll
   VersionedObjectList basicPutAll(final Map<?, ?> map,
       final DistributedPutAllOperation putAllOp, final Map<Object, VersionTag> retryVersions) {
+    NearCacheInterests nearCacheInterests =
+        hasServerProxy() ? getServerProxy().getNearCacheInterests() : null;
+    if (nearCacheInterests == null) {
+      return putAllAndCache(map, putAllOp, retryVersions);
+    }
+    // the interest is kept until the written values are cached
+    List<Object> keys = new ArrayList<>(map.keySet());
+    nearCacheInterests.beforeWrite(keys);
+    try {
+      return putAllAndCache(map, putAllOp, retryVersions);
+    } finally {
+      nearCacheInterests.afterWrite(keys);
+    }
+  }
+
+  /**
+   * Writes the map to the servers, if any, and puts the entries in the cache.
+   */
+  private VersionedObjectList putAllAndCache(final Map<?, ?> map,
+      final DistributedPutAllOperation putAllOp, final Map<Object, VersionTag> retryVersions) {
 
     final boolean isDebugEnabled = logger.isDebugEnabled();
     final EntryEventImpl event = putAllOp.getBaseEvent();
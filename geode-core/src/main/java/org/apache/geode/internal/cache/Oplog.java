@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -42,6 +43,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -90,8 +94,10 @@ import org.apache.geode.internal.cache.persistence.DiskStoreID;
 import org.apache.geode.internal.cache.persistence.UninterruptibleFileChannel;
 import org.apache.geode.internal.cache.persistence.UninterruptibleRandomAccessFile;
 import org.apache.geode.internal.cache.versions.CompactVersionHolder;
+import org.apache.geode.internal.cache.versions.DiskVersionTag;
 import org.apache.geode.internal.cache.versions.RegionVersionHolder;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.cache.versions.VMVersionTag;
 import org.apache.geode.internal.cache.versions.VersionHolder;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionStamp;
@@ -180,6 +186,23 @@ public class Oplog implements CompactableOplog, Flushable {
   private static final boolean SYNC_WRITES =
       Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "syncWrites");
 
+  /**
+   * If true, concurrent synchronous writes to an oplog share one flush (and sync, if syncWrites is
+   * set) instead of each doing its own. See {@link OplogGroupCommitter}.
+   */
+  private static final boolean GROUP_COMMIT =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "OPLOG_GROUP_COMMIT");
+
+  /**
+   * How long, in microseconds, a group commit waits for more writers before it flushes.
+   */
+  private static final long GROUP_COMMIT_WINDOW_MICROS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "OPLOG_GROUP_COMMIT_WINDOW_MICROS", 0);
+
+  private final OplogGroupCommitter groupCommitter =
+      GROUP_COMMIT ? new OplogGroupCommitter(this::groupCommitFlush, GROUP_COMMIT_WINDOW_MICROS)
+          : null;
+
   /**
    * The HighWaterMark of recentValues.
    */
@@ -1613,8 +1636,35 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private OplogEntryIdMap skippedKeyBytes;
 
+  /**
+   * Reads the files that {@link #recoverCrf} will read so that they are in the file system cache
+   * when it does. The bytes read are discarded.
+   */
+  void readAheadForRecovery(boolean recoverValuesSync) {
+    File krfFile = new File(this.diskFile.getPath() + KRF_FILE_EXT);
+    boolean hasKrf = krfFile.exists();
+    if (hasKrf) {
+      readAhead(krfFile);
+    }
+    if ((!hasKrf || recoverValuesSync) && this.crf.f != null) {
+      readAhead(this.crf.f);
+    }
+  }
+
+  private static void readAhead(File file) {
+    byte[] buffer = new byte[1024 * 1024];
+    try (FileInputStream fis = new FileInputStream(file)) {
+      while (fis.read(buffer) != -1) {
+        // only here to get the file into the file system cache
+      }
+    } catch (IOException ignore) {
+      // recovery will report the problem when it reads the file
+    }
+  }
+
   private boolean readKrf(OplogEntryIdSet deletedIds, boolean recoverValues,
-      boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
+      boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog,
+      ExecutorService recoveryPool) {
     File f = new File(this.diskFile.getPath() + KRF_FILE_EXT);
     if (!f.exists()) {
       return false;
@@ -1684,6 +1734,7 @@ public class Oplog implements CompactableOplog, Flushable {
         readTotalCountRecord(dis, f);
         readRVVRecord(dis, f, false, latestOplog);
         long lastOffset = 0;
+        final KrfBatch batch = recoveryPool != null ? new KrfBatch() : null;
         byte[] keyBytes = DataSerializer.readByteArray(dis);
         while (keyBytes != null) {
           byte userBits = dis.readByte();
@@ -1695,7 +1746,7 @@ public class Oplog implements CompactableOplog, Flushable {
           // read version
           VersionTag tag = null;
           if (EntryBits.isWithVersions(userBits)) {
-            tag = readVersionsFromOplog(dis);
+            tag = readVersionsFromOplog(dis, batch);
             if (drs != null && !drs.getDiskRegionView().getFlags()
                 .contains(DiskRegionFlag.IS_WITH_VERSIONING)) {
               // 50044 Remove version tag from entry if we don't want versioning
@@ -1740,47 +1791,24 @@ public class Oplog implements CompactableOplog, Flushable {
             } else if (EntryBits.isTombstone(userBits)) {
               valueBytes = DiskEntry.TOMBSTONE_BYTES;
             }
-            Object key = deserializeKey(keyBytes, version, in);
-            {
-              Object oldValue = getRecoveryMap().put(oplogKeyId, key);
-              if (oldValue != null) {
-                throw new AssertionError(
-                    String.format(
-                        "Oplog::readNewEntry: Create is present in more than one Oplog. This should not be possible. The Oplog Key ID for this entry is %s.",
-                        oplogKeyId));
-              }
-            }
-            if (drs != null) {
-              DiskEntry de = drs.getDiskEntry(key);
-              if (de == null) {
-                if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY_VERBOSE)) {
-                  logger.trace(LogMarker.PERSIST_RECOVERY_VERBOSE,
-                      "readNewEntry oplogKeyId=<{}> drId={} userBits={} oplogOffset={} valueLen={}",
-                      oplogKeyId, drId, userBits, oplogOffset, valueLength);
-                }
-                DiskEntry.RecoveredEntry re =
-                    createRecoveredEntry(valueBytes, valueLength, userBits,
-                        getOplogId(), oplogOffset, oplogKeyId, false, version, in);
-                if (tag != null) {
-                  re.setVersionTag(tag);
-                }
-                initRecoveredEntry(drs.getDiskRegionView(), drs.initializeRecoveredEntry(key, re));
-                drs.getDiskRegionView().incRecoveredEntryCount();
-                this.stats.incRecoveredEntryCreates();
-                krfEntryCount++;
-              } else {
-                DiskId curdid = de.getDiskId();
-                // assert curdid.getOplogId() != getOplogId();
-                if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY_VERBOSE)) {
-                  logger.trace(LogMarker.PERSIST_RECOVERY_VERBOSE,
-                      "ignore readNewEntry because getOplogId()={} != curdid.getOplogId()={} for drId={} key={}",
-                      getOplogId(), curdid.getOplogId(), drId, key);
-                }
+            if (batch != null) {
+              // whether an entry is skipped does not depend on the other entries of this krf so
+              // they can be recovered a batch at a time
+              batch.add(keyBytes, valueBytes, valueLength, userBits, drId, drs, tag, oplogKeyId,
+                  oplogOffset);
+              if (batch.isFull()) {
+                krfEntryCount += recoverKrfBatch(batch, version, in, recoveryPool);
               }
+            } else {
+              krfEntryCount += recoverKrfEntry(deserializeKey(keyBytes, version, in), valueBytes,
+                  valueLength, userBits, drId, drs, tag, oplogKeyId, oplogOffset, version, in);
             }
           }
           keyBytes = DataSerializer.readByteArray(dis);
         } // while
+        if (batch != null) {
+          krfEntryCount += recoverKrfBatch(batch, version, in, recoveryPool);
+        }
         setRecoverNewEntryId(oplogKeyIdHWM);
         long tlc = totalLiveCount.get();
         if (totalCount.get() == 0 && tlc > 0) {
@@ -1824,6 +1852,207 @@ public class Oplog implements CompactableOplog, Flushable {
     return true;
   }
 
+  /**
+   * Recovers an entry read from a krf that was not skipped. Returns 1 if an entry was created in
+   * the region, otherwise 0.
+   */
+  private int recoverKrfEntry(Object key, byte[] valueBytes, int valueLength, byte userBits,
+      long drId, DiskRecoveryStore drs, VersionTag tag, long oplogKeyId, long oplogOffset,
+      KnownVersion version, ByteArrayDataInput in) {
+    Object oldValue = getRecoveryMap().put(oplogKeyId, key);
+    if (oldValue != null) {
+      throw new AssertionError(
+          String.format(
+              "Oplog::readNewEntry: Create is present in more than one Oplog. This should not be possible. The Oplog Key ID for this entry is %s.",
+              oplogKeyId));
+    }
+    if (drs == null) {
+      return 0;
+    }
+    DiskEntry de = drs.getDiskEntry(key);
+    if (de == null) {
+      if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY_VERBOSE)) {
+        logger.trace(LogMarker.PERSIST_RECOVERY_VERBOSE,
+            "readNewEntry oplogKeyId=<{}> drId={} userBits={} oplogOffset={} valueLen={}",
+            oplogKeyId, drId, userBits, oplogOffset, valueLength);
+      }
+      DiskEntry.RecoveredEntry re = createRecoveredEntry(valueBytes, valueLength, userBits,
+          getOplogId(), oplogOffset, oplogKeyId, false, version, in);
+      if (tag != null) {
+        re.setVersionTag(tag);
+      }
+      initRecoveredEntry(drs.getDiskRegionView(), drs.initializeRecoveredEntry(key, re));
+      drs.getDiskRegionView().incRecoveredEntryCount();
+      this.stats.incRecoveredEntryCreates();
+      return 1;
+    } else {
+      DiskId curdid = de.getDiskId();
+      // assert curdid.getOplogId() != getOplogId();
+      if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY_VERBOSE)) {
+        logger.trace(LogMarker.PERSIST_RECOVERY_VERBOSE,
+            "ignore readNewEntry because getOplogId()={} != curdid.getOplogId()={} for drId={} key={}",
+            getOplogId(), curdid.getOplogId(), drId, key);
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Deserializes the keys of the batch in parallel and then recovers its entries in the order they
+   * were read. Returns the number of entries created and clears the batch.
+   * <p>
+   * Only the key deserialization is done in parallel. Applying an entry updates the recovery map
+   * and the live entry list of this oplog and decides, by looking up the key in its region, whether
+   * an entry recovered from a newer oplog already exists, so the entries are applied one at a time
+   * by the recovering thread.
+   */
+  private int recoverKrfBatch(KrfBatch batch, KnownVersion version, ByteArrayDataInput in,
+      ExecutorService recoveryPool) {
+    final int size = batch.size;
+    List<Future<?>> futures = new ArrayList<>();
+    for (int start = KrfBatch.KEYS_PER_TASK; start < size; start += KrfBatch.KEYS_PER_TASK) {
+      final int from = start;
+      final int to = Math.min(size, start + KrfBatch.KEYS_PER_TASK);
+      futures.add(recoveryPool
+          .submit(() -> deserializeKrfKeys(batch, from, to, version, new ByteArrayDataInput())));
+    }
+    // this thread deserializes the first keys itself
+    deserializeKrfKeys(batch, 0, Math.min(size, KrfBatch.KEYS_PER_TASK), version, in);
+    boolean interrupted = false;
+    try {
+      for (Future<?> future : futures) {
+        for (;;) {
+          try {
+            future.get();
+            break;
+          } catch (InterruptedException ignore) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+              throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+              throw (Error) cause;
+            }
+            throw new DiskAccessException("Failed to deserialize a recovered key", cause,
+                getParent());
+          }
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    int created = 0;
+    for (int i = 0; i < size; i++) {
+      created += recoverKrfEntry(batch.keys[i], batch.valueBytes[i], batch.valueLengths[i],
+          batch.userBits[i], batch.drIds[i], batch.stores[i], batch.getVersionTag(i),
+          batch.oplogKeyIds[i], batch.oplogOffsets[i], version, in);
+    }
+    batch.clear();
+    return created;
+  }
+
+  private void deserializeKrfKeys(KrfBatch batch, int from, int to, KnownVersion version,
+      ByteArrayDataInput in) {
+    for (int i = from; i < to; i++) {
+      batch.keys[i] = deserializeKey(batch.keyBytes[i], version, in);
+    }
+  }
+
+  /**
+   * The krf entries that are waiting for their keys to be deserialized.
+   * <p>
+   * The versions of the entries are kept in primitive arrays and handed out in a version tag that
+   * is reused for every entry. The tag is only read by the recovery code and the version stamp of a
+   * recovered region entry copies its fields, so no tag is allocated for each recovered entry.
+   */
+  private static class KrfBatch {
+    static final int CAPACITY = 4096;
+    static final int KEYS_PER_TASK = 256;
+
+    final byte[][] keyBytes = new byte[CAPACITY][];
+    final Object[] keys = new Object[CAPACITY];
+    final byte[][] valueBytes = new byte[CAPACITY][];
+    final int[] valueLengths = new int[CAPACITY];
+    final byte[] userBits = new byte[CAPACITY];
+    final long[] drIds = new long[CAPACITY];
+    final DiskRecoveryStore[] stores = new DiskRecoveryStore[CAPACITY];
+    final boolean[] versioned = new boolean[CAPACITY];
+    final VersionSource[] members = new VersionSource[CAPACITY];
+    final int[] entryVersions = new int[CAPACITY];
+    final long[] regionVersions = new long[CAPACITY];
+    final long[] timestamps = new long[CAPACITY];
+    final int[] distributedSystemIds = new int[CAPACITY];
+    final long[] oplogKeyIds = new long[CAPACITY];
+    final long[] oplogOffsets = new long[CAPACITY];
+    private final VersionTag diskVersionTag = new DiskVersionTag();
+    private final VersionTag vmVersionTag = new VMVersionTag();
+    int size;
+
+    /**
+     * Returns the reused tag of the kind {@link VersionTag#create(VersionSource)} would create for
+     * the member. It is overwritten by the next call.
+     */
+    VersionTag getReusableVersionTag(VersionSource member) {
+      VersionTag tag = member instanceof DiskStoreID ? diskVersionTag : vmVersionTag;
+      tag.setMemberID(member);
+      return tag;
+    }
+
+    /**
+     * Returns the version of the entry at the index in the reused tag, or null if the entry has
+     * no version.
+     */
+    VersionTag getVersionTag(int index) {
+      if (!versioned[index]) {
+        return null;
+      }
+      VersionTag tag = getReusableVersionTag(members[index]);
+      tag.setEntryVersion(entryVersions[index]);
+      tag.setRegionVersion(regionVersions[index]);
+      tag.setVersionTimeStamp(timestamps[index]);
+      tag.setDistributedSystemId(distributedSystemIds[index]);
+      return tag;
+    }
+
+    void add(byte[] keyBytes, byte[] valueBytes, int valueLength, byte userBits, long drId,
+        DiskRecoveryStore store, VersionTag tag, long oplogKeyId, long oplogOffset) {
+      this.keyBytes[size] = keyBytes;
+      this.valueBytes[size] = valueBytes;
+      this.valueLengths[size] = valueLength;
+      this.userBits[size] = userBits;
+      this.drIds[size] = drId;
+      this.stores[size] = store;
+      this.versioned[size] = tag != null;
+      if (tag != null) {
+        this.members[size] = tag.getMemberID();
+        this.entryVersions[size] = tag.getEntryVersion();
+        this.regionVersions[size] = tag.getRegionVersion();
+        this.timestamps[size] = tag.getVersionTimeStamp();
+        this.distributedSystemIds[size] = tag.getDistributedSystemId();
+      }
+      this.oplogKeyIds[size] = oplogKeyId;
+      this.oplogOffsets[size] = oplogOffset;
+      size++;
+    }
+
+    boolean isFull() {
+      return size == CAPACITY;
+    }
+
+    void clear() {
+      Arrays.fill(keyBytes, 0, size, null);
+      Arrays.fill(keys, 0, size, null);
+      Arrays.fill(valueBytes, 0, size, null);
+      Arrays.fill(stores, 0, size, null);
+      Arrays.fill(members, 0, size, null);
+      size = 0;
+    }
+  }
+
   private void validateOpcode(DataInputStream dis, byte expect) throws IOException {
     byte opCode = dis.readByte();
     if (opCode != expect) {
@@ -2196,6 +2425,19 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   long recoverCrf(OplogEntryIdSet deletedIds, boolean recoverValues, boolean recoverValuesSync,
       boolean alreadyRecoveredOnce, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
+    return recoverCrf(deletedIds, recoverValues, recoverValuesSync, alreadyRecoveredOnce,
+        oplogsNeedingValueRecovery, latestOplog, null);
+  }
+
+  /**
+   * Recovers one oplog
+   *
+   * @param latestOplog - true if this oplog is the latest oplog in the disk store.
+   * @param recoveryPool if not null, used to deserialize the keys of krf entries in parallel
+   */
+  long recoverCrf(OplogEntryIdSet deletedIds, boolean recoverValues, boolean recoverValuesSync,
+      boolean alreadyRecoveredOnce, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog,
+      ExecutorService recoveryPool) {
     // crf might not exist; but drf always will
     this.diskFile = new File(this.drf.f.getParentFile(),
         oplogSet.getPrefix() + getParent().getName() + "_" + this.oplogId);
@@ -2221,7 +2463,7 @@ public class Oplog implements CompactableOplog, Flushable {
       // if we have a KRF then read it and delay reading the CRF.
       // Unless we are in synchronous recovery mode
       if (!readKrf(deletedIds, recoverValues, recoverValuesSync, oplogsNeedingValueRecovery,
-          latestOplog)) {
+          latestOplog, recoveryPool)) {
         logger.info("Recovering {} {} for disk store {}.",
             new Object[] {toString(), crfFile.getAbsolutePath(), getParent().getName()});
         byteCount = readCrf(deletedIds, recoverValues, latestOplog);
@@ -2369,6 +2611,14 @@ public class Oplog implements CompactableOplog, Flushable {
   }
 
   private VersionTag readVersionsFromOplog(DataInput dis) throws IOException {
+    return readVersionsFromOplog(dis, null);
+  }
+
+  /**
+   * Reads the version of a record. If a krf batch is given the version is read into its reused tag
+   * instead of a new one.
+   */
+  private VersionTag readVersionsFromOplog(DataInput dis, KrfBatch batch) throws IOException {
     if (KnownVersion.GFE_70.compareTo(currentRecoveredGFVersion()) <= 0) {
       // this version format is for gemfire 7.0
       // if we have different version format in 7.1, it will be handled in
@@ -2379,7 +2629,8 @@ public class Oplog implements CompactableOplog, Flushable {
       Object member = getParent().getDiskInitFile().getCanonicalObject(memberId);
       long timestamp = InternalDataSerializer.readUnsignedVL(dis);
       int dsId = (int) InternalDataSerializer.readSignedVL(dis);
-      VersionTag vt = VersionTag.create((VersionSource) member);
+      VersionTag vt = batch != null ? batch.getReusableVersionTag((VersionSource) member)
+          : VersionTag.create((VersionSource) member);
       vt.setEntryVersion(entryVersion);
       vt.setRegionVersion(regionVersion);
       vt.setMemberID((VersionSource) member);
@@ -3511,6 +3762,8 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private void basicCreate(DiskRegion dr, DiskEntry entry, ValueWrapper value, byte userBits,
       boolean async) throws IOException, InterruptedException {
+    final boolean groupCommit = isGroupCommit(async);
+    long groupCommitTicket = 0;
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
@@ -3582,7 +3835,10 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+          if (groupCommit) {
+            groupCommitTicket = this.groupCommitter.append();
+          }
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3638,6 +3894,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (groupCommitTicket != 0) {
+      this.groupCommitter.awaitCommit(groupCommitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4515,6 +4774,8 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private void basicModify(DiskRegionView dr, DiskEntry entry, ValueWrapper value, byte userBits,
       boolean async, boolean calledByCompactor) throws IOException, InterruptedException {
+    final boolean groupCommit = isGroupCommit(async);
+    long groupCommitTicket = 0;
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1L;
@@ -4551,7 +4812,10 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitTicket = this.groupCommitter.append();
+            }
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
@@ -4622,6 +4886,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (groupCommitTicket != 0) {
+      this.groupCommitter.awaitCommit(groupCommitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4652,6 +4919,8 @@ public class Oplog implements CompactableOplog, Flushable {
 
   private void basicSaveConflictVersionTag(DiskRegionView dr, VersionTag tag, boolean async)
       throws IOException, InterruptedException {
+    final boolean groupCommit = isGroupCommit(async);
+    long groupCommitTicket = 0;
     boolean useNextOplog = false;
     int adjustment = 0;
     getParent().getBackupLock().lock();
@@ -4676,7 +4945,10 @@ public class Oplog implements CompactableOplog, Flushable {
               throw cce;
             }
             this.firstRecord = false;
-            writeOpLogBytes(this.crf, async, true);
+            writeOpLogBytes(this.crf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitTicket = this.groupCommitter.append();
+            }
             this.crf.currSize = temp;
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
               logger.trace(LogMarker.PERSIST_WRITES_VERBOSE,
@@ -4698,6 +4970,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (groupCommitTicket != 0) {
+      this.groupCommitter.awaitCommit(groupCommitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4971,6 +5246,8 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private void basicRemove(DiskRegionView dr, DiskEntry entry, boolean async, boolean isClear)
       throws IOException, InterruptedException {
+    final boolean groupCommit = isGroupCommit(async);
+    long groupCommitTicket = 0;
     DiskId id = entry.getDiskId();
 
     boolean useNextOplog = false;
@@ -5024,7 +5301,10 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitTicket = this.groupCommitter.append();
+            }
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5056,6 +5336,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (groupCommitTicket != 0) {
+      this.groupCommitter.awaitCommit(groupCommitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5195,6 +5478,59 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Returns true if a write should leave its flush to a group commit instead of flushing itself.
+   * Must be called before taking the lock; a thread that already holds it can not wait for another
+   * thread's flush.
+   */
+  private boolean isGroupCommit(boolean async) {
+    return this.groupCommitter != null && !async && !Thread.holdsLock(this.lock);
+  }
+
+  /**
+   * Flushes both files for a group commit and returns the last group commit ticket covered. Only
+   * writing the buffers to the channels is done while holding the lock. The files are synced after
+   * releasing it so that writers can append the records of the next group commit meanwhile.
+   */
+  private long groupCommitFlush() {
+    final long covered;
+    final UninterruptibleFileChannel drfChannel;
+    final UninterruptibleFileChannel crfChannel;
+    synchronized (this.lock) {
+      covered = this.groupCommitter.getAppended();
+      flushAll(false, false);
+      drfChannel = this.drf.RAFClosed ? null : this.drf.channel;
+      crfChannel = this.crf.RAFClosed ? null : this.crf.channel;
+    }
+    if (SYNC_WRITES) {
+      try {
+        force(drfChannel);
+        force(crfChannel);
+      } catch (IOException ex) {
+        getParent().getCancelCriterion().checkCancelInProgress(ex);
+        throw new DiskAccessException(
+            String.format("Failed writing key to %s", this.diskFile.getPath()),
+            ex, getParent());
+      }
+    }
+    getStats().incGroupCommits();
+    return covered;
+  }
+
+  /**
+   * Syncs the content and meta data of the given channel unless it is null or has been closed.
+   */
+  private static void force(UninterruptibleFileChannel channel) throws IOException {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.force(true);
+    } catch (ClosedChannelException ignore) {
+      // the file was closed after its buffer was flushed, like flush ignores a closed channel
+    }
+  }
+
   public void flushAll() {
     flushAll(false);
   }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets the threads doing synchronous writes to an {@link Oplog} share flushes. A writer appends its
+ * record to the oplog's write buffers, takes a ticket with {@link #append()} while still holding
+ * the oplog's lock, and then, after releasing that lock, calls {@link #awaitCommit(long)}. The
+ * first waiting writer becomes the leader: it optionally waits a short window so that more writers
+ * can append and then does a single flush covering every record appended so far. The other writers
+ * wait for a flush that covers their ticket.
+ */
+class OplogGroupCommitter {
+
+  /**
+   * Flushes and syncs everything appended to the oplog and returns the last ticket handed out
+   * before the flush started. It must read that ticket and write the buffers to the files while
+   * holding the oplog's lock, but may sync the files after releasing it.
+   */
+  private final LongSupplier flusher;
+
+  private final long windowNanos;
+
+  /** The last ticket handed out. Only incremented while holding the oplog's lock. */
+  private final AtomicLong appended = new AtomicLong();
+
+  /** The last ticket covered by a completed flush. Guarded by this. */
+  private long committed;
+
+  /** True while a leader is flushing. Guarded by this. */
+  private boolean committing;
+
+  OplogGroupCommitter(LongSupplier flusher, long windowMicros) {
+    this.flusher = flusher;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+  }
+
+  /**
+   * Returns the ticket of a record that has just been appended to the oplog's write buffers. Must
+   * be called while holding the oplog's lock.
+   */
+  long append() {
+    return this.appended.incrementAndGet();
+  }
+
+  /**
+   * Returns the last ticket handed out. The flusher calls this, while holding the oplog's lock,
+   * just before it flushes.
+   */
+  long getAppended() {
+    return this.appended.get();
+  }
+
+  long getCommitted() {
+    synchronized (this) {
+      return this.committed;
+    }
+  }
+
+  /**
+   * Waits until the record with the given ticket has been flushed, doing the flush if no other
+   * writer is. Must not be called while holding the oplog's lock.
+   */
+  void awaitCommit(long ticket) {
+    boolean interrupted = false;
+    try {
+      for (;;) {
+        synchronized (this) {
+          while (this.committing && this.committed < ticket) {
+            try {
+              wait();
+            } catch (InterruptedException ignore) {
+              // the record is already written to the buffers so it has to be flushed
+              interrupted = true;
+            }
+          }
+          if (this.committed >= ticket) {
+            return;
+          }
+          this.committing = true;
+        }
+        lead();
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void lead() {
+    long covered = 0;
+    boolean interrupted = false;
+    try {
+      if (this.windowNanos > 0) {
+        // an interrupt does not shorten the window; the flush is done either way
+        long end = System.nanoTime() + this.windowNanos;
+        long remaining;
+        while ((remaining = end - System.nanoTime()) > 0) {
+          LockSupport.parkNanos(this, remaining);
+          interrupted |= Thread.interrupted();
+        }
+      }
+      covered = this.flusher.getAsLong();
+    } finally {
+      synchronized (this) {
+        this.committing = false;
+        if (covered > this.committed) {
+          this.committed = covered;
+        }
+        notifyAll();
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -25,10 +25,14 @@ import java.nio.channels.FileChannel;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.annotations.Immutable;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.DiskAccessException;
 import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.distributed.OplogCancelledException;
@@ -42,6 +46,8 @@ import org.apache.geode.internal.cache.persistence.BytesAndBits;
 import org.apache.geode.internal.cache.persistence.DiskRegionView;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.unsafe.internal.sun.misc.Unsafe;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
  * An oplog used for overflow-only regions. For regions that are persistent (i.e. they can be
@@ -55,9 +61,37 @@ class OverflowOplog implements CompactableOplog, Flushable {
   /** Extension of the oplog file * */
   static final String CRF_FILE_EXT = ".crf";
 
+  /**
+   * If true, an oplog that is no longer appended to is memory mapped and values are faulted in
+   * from the mapping instead of with a seek and read on the file. Overflow files are deleted while
+   * still mapped so this should not be used on platforms, like Windows, that do not allow that.
+   */
+  @MutableForTesting
+  static boolean MMAP_READS =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "OVERFLOW_OPLOG_MMAP_READS");
+
+  /** Used to release mappings. Null if sun.misc.Unsafe is not available. */
+  @Immutable
+  private static final Unsafe unsafe;
+  static {
+    Unsafe tmp = null;
+    try {
+      tmp = new Unsafe();
+    } catch (RuntimeException ignore) {
+    } catch (Error ignore) {
+    }
+    unsafe = tmp;
+  }
+
   /** The file which will be created on disk * */
   private final File diskFile;
 
+  /**
+   * Read locked while a value is copied from the crf's mapping and write locked to release it, so
+   * that a released mapping is never read.
+   */
+  private final ReadWriteLock mappedBufLock = new ReentrantReadWriteLock();
+
   /** boolean marked true when this oplog is closed * */
   private volatile boolean closed;
 
@@ -384,6 +418,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
         } catch (IOException ignore) {
         }
         this.crf.RAFClosed = true;
+        unmapCrf();
         this.stats.decOpenOplogs();
       }
       this.closed = true;
@@ -806,6 +841,10 @@ class OverflowOplog implements CompactableOplog, Flushable {
 
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, int valueLength,
       byte userBits) throws IOException {
+    byte[] mappedBytes = mappedGet(offsetInOplog, valueLength);
+    if (mappedBytes != null) {
+      return new BytesAndBits(mappedBytes, userBits);
+    }
     synchronized (this.crf) {
       assert offsetInOplog >= 0;
       RandomAccessFile myRAF = this.crf.raf;
@@ -992,12 +1031,90 @@ class OverflowOplog implements CompactableOplog, Flushable {
     if (suggestedOffset + length > this.maxOplogSize) {
       flushAll();
       this.doneAppending = true;
+      if (MMAP_READS) {
+        mapCrf();
+      }
       return -1;
     } else {
       return suggestedOffset;
     }
   }
 
+  /**
+   * Maps the flushed part of the crf so that later reads do not need the file or its lock. If the
+   * file can not be mapped reads keep using the file.
+   */
+  private void mapCrf() {
+    synchronized (this.crf) {
+      if (this.crf.mappedBuf != null || this.crf.RAFClosed || this.crf.bytesFlushed <= 0
+          || this.crf.bytesFlushed > Integer.MAX_VALUE) {
+        return;
+      }
+      try {
+        this.crf.mappedBuf =
+            this.crf.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.crf.bytesFlushed);
+      } catch (IOException ex) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Could not memory map {}; reading from the file instead", this.crf.f, ex);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the value at offsetInOplog copied from the memory mapped crf, or null if the crf is not
+   * mapped or does not contain the value.
+   */
+  private byte[] mappedGet(long offsetInOplog, int valueLength) {
+    if (this.crf.mappedBuf == null) {
+      // checked before locking so that reads of unmapped oplogs do not pay for the lock
+      return null;
+    }
+    final Lock readLock = this.mappedBufLock.readLock();
+    readLock.lock();
+    try {
+      final ByteBuffer mappedBuf = this.crf.mappedBuf;
+      if (mappedBuf == null || offsetInOplog < 0
+          || offsetInOplog + valueLength > mappedBuf.capacity()) {
+        return null;
+      }
+      ByteBuffer value = mappedBuf.duplicate();
+      value.position((int) offsetInOplog);
+      byte[] valueBytes = new byte[valueLength];
+      value.get(valueBytes);
+      this.stats.incOplogReads();
+      return valueBytes;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  /**
+   * Releases the mapping of the crf, if it has one, once no read is copying from it. The mapping is
+   * released right away, instead of when the buffer is garbage collected, so that the disk space
+   * and address space of a deleted crf are freed when it is deleted.
+   */
+  private void unmapCrf() {
+    final Lock writeLock = this.mappedBufLock.writeLock();
+    writeLock.lock();
+    try {
+      final ByteBuffer mappedBuf = this.crf.mappedBuf;
+      if (mappedBuf != null) {
+        this.crf.mappedBuf = null;
+        unmap(mappedBuf);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Returns true if the crf is memory mapped. Used by tests.
+   */
+  boolean isCrfMapped() {
+    return this.crf.mappedBuf != null;
+  }
+
   private void addLive(DiskEntry de) {
     this.totalCount.incrementAndGet();
     this.totalLiveCount.incrementAndGet();
@@ -1124,6 +1241,8 @@ class OverflowOplog implements CompactableOplog, Flushable {
     public ByteBuffer writeBuf;
     public long currSize; // HWM
     public long bytesFlushed;
+    /** The flushed part of the file, mapped once it is no longer appended to. */
+    public volatile ByteBuffer mappedBuf;
   }
 
   /**
@@ -1432,6 +1551,11 @@ class OverflowOplog implements CompactableOplog, Flushable {
             DiskEntry.LOCAL_INVALID_BYTES.length, false /* Cannot be reused */);
       }
     } else {
+      byte[] mappedBytes = mappedGet(offsetInOplog, valueLength);
+      if (mappedBytes != null) {
+        wrapper.setData(mappedBytes, userBits, valueLength, true);
+        return true;
+      }
       try {
         synchronized (this.crf) {
           if (/*
@@ -1494,4 +1618,21 @@ class OverflowOplog implements CompactableOplog, Flushable {
     }
     return true;
   }
+
+  /**
+   * Releases the given mapping. If that is not possible it is left to be released when the buffer
+   * is garbage collected.
+   */
+  private static void unmap(ByteBuffer mappedBuf) {
+    if (unsafe == null) {
+      return;
+    }
+    try {
+      unsafe.invokeCleaner(mappedBuf);
+    } catch (RuntimeException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not release a memory mapping; it is released once unreachable", e);
+      }
+    }
+  }
 }
@@ -28,6 +28,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -36,6 +39,7 @@ import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.DiskAccessException;
 import org.apache.geode.internal.cache.DiskStoreImpl.OplogEntryIdSet;
 import org.apache.geode.internal.cache.entries.DiskEntry;
@@ -46,11 +50,24 @@ import org.apache.geode.internal.cache.persistence.DiskStoreFilter;
 import org.apache.geode.internal.cache.persistence.OplogType;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.sequencelog.EntryLogger;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 public class PersistentOplogSet implements OplogSet {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * The number of threads used to recover the oplogs of a disk store. With more than one, the drfs
+   * are read in parallel, the files of the oplogs whose crfs are recovered next are read ahead
+   * into the file system cache while the current one is recovered, and the keys read from krfs are
+   * deserialized in parallel. The recovered entries are still applied to the regions by a single
+   * thread.
+   */
+  @MutableForTesting
+  static int RECOVERY_THREADS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "disk.RECOVERY_THREADS", 1);
+
   /** variable to generate sequential unique oplogEntryId's* */
   private final AtomicLong oplogEntryId = new AtomicLong(DiskStoreImpl.INVALID_ID);
 
@@ -455,36 +472,60 @@ public class PersistentOplogSet implements OplogSet {
 
     if (!oplogSet.isEmpty()) {
       long startOpLogRecovery = System.currentTimeMillis();
-
-      // first figure out all entries that have been destroyed
-      boolean latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        byteCount += oplog.recoverDrf(deletedIds, getAlreadyRecoveredOnce().get(), latestOplog);
-        latestOplog = false;
-        if (!getAlreadyRecoveredOnce().get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
+      ExecutorService recoveryPool = null;
+      if (RECOVERY_THREADS > 1) {
+        recoveryPool = LoggingExecutors.newWorkStealingPool(
+            "DiskStoreRecovery-" + parent.getName() + "-", RECOVERY_THREADS);
       }
-
-      parent.incDeadRecordCount(deletedIds.size());
-
-      // now figure out live entries
-      latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds, recoverValues(), recoverValuesSync(),
-            getAlreadyRecoveredOnce().get(), oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
+      try {
+        // first figure out all entries that have been destroyed
+        long startDrfRecovery = parent.getStats().getStatTime();
+        byteCount += recoverDrfs(oplogSet, deletedIds, recoveryPool);
         if (!getAlreadyRecoveredOnce().get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          for (Oplog oplog : oplogSet) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
         }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+        parent.getStats().endRecoveryDrfs(startDrfRecovery);
+
+        parent.incDeadRecordCount(deletedIds.size());
+
+        // now figure out live entries
+        long startCrfRecovery = parent.getStats().getStatTime();
+        List<Oplog> oplogs = new ArrayList<>(oplogSet);
+        int nextReadAhead = 1;
+        boolean latestOplog = true;
+        for (int i = 0; i < oplogs.size(); i++) {
+          Oplog oplog = oplogs.get(i);
+          if (recoveryPool != null) {
+            // the crfs have to be recovered one at a time, newest first, so the pool only reads
+            // ahead the files of the oplogs that will be recovered next
+            for (; nextReadAhead < Math.min(oplogs.size(), i + RECOVERY_THREADS); nextReadAhead++) {
+              Oplog next = oplogs.get(nextReadAhead);
+              recoveryPool.execute(() -> next.readAheadForRecovery(recoverValuesSync()));
+            }
+          }
+          long startOpLogRead = parent.getStats().startOplogRead();
+          long bytesRead = oplog.recoverCrf(deletedIds, recoverValues(), recoverValuesSync(),
+              getAlreadyRecoveredOnce().get(), oplogsNeedingValueRecovery, latestOplog,
+              recoveryPool);
+          latestOplog = false;
+          if (!getAlreadyRecoveredOnce().get()) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
+          byteCount += bytesRead;
+          parent.getStats().endOplogRead(startOpLogRead, bytesRead);
 
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          // Callback to the disk regions to indicate the oplog is recovered
+          // Used for offline export
+          for (DiskRecoveryStore drs : currentRecoveryMap.values()) {
+            drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          }
+        }
+        parent.getStats().endRecoveryCrfs(startCrfRecovery);
+      } finally {
+        if (recoveryPool != null) {
+          recoveryPool.shutdownNow();
         }
       }
 
@@ -495,6 +536,7 @@ public class PersistentOplogSet implements OplogSet {
 
     if (!parent.isOfflineCompacting()) {
       long startRegionInit = System.currentTimeMillis();
+      long startRegionInitStat = parent.getStats().getStatTime();
 
       // create the oplogs now so that loadRegionData can have them available
       // Create an array of Oplogs so that we are able to add it in a single shot
@@ -533,6 +575,76 @@ public class PersistentOplogSet implements OplogSet {
         long endRegionInit = System.currentTimeMillis();
         logger.info("recovery region initialization took {} ms", endRegionInit - startRegionInit);
       }
+      parent.getStats().endRecoveryRegionInit(startRegionInitStat);
+    }
+    return byteCount;
+  }
+
+  /**
+   * Reads the drfs of the oplogs, newest first, and adds the ids of the entries they destroyed to
+   * deletedIds. The drfs are read in parallel if recoveryPool is not null. Returns the number of
+   * bytes read.
+   */
+  @VisibleForTesting
+  long recoverDrfs(Collection<Oplog> oplogs, OplogEntryIdSet deletedIds,
+      ExecutorService recoveryPool) {
+    if (recoveryPool != null) {
+      return recoverDrfsInParallel(oplogs, deletedIds, recoveryPool);
+    }
+    long byteCount = 0;
+    boolean latestOplog = true;
+    for (Oplog oplog : oplogs) {
+      byteCount += oplog.recoverDrf(deletedIds, getAlreadyRecoveredOnce().get(), latestOplog);
+      latestOplog = false;
+    }
+    return byteCount;
+  }
+
+  /**
+   * Reads the drfs of all the oplogs in parallel, each into a set of its own, and then adds those
+   * sets to deletedIds. Returns the number of bytes read.
+   */
+  private long recoverDrfsInParallel(Collection<Oplog> oplogs, OplogEntryIdSet deletedIds,
+      ExecutorService recoveryPool) {
+    final boolean alreadyRecoveredOnce = getAlreadyRecoveredOnce().get();
+    List<OplogEntryIdSet> oplogDeletedIds = new ArrayList<>(oplogs.size());
+    List<Future<Long>> futures = new ArrayList<>(oplogs.size());
+    boolean latestOplog = true;
+    for (Oplog oplog : oplogs) {
+      OplogEntryIdSet ids = new OplogEntryIdSet();
+      oplogDeletedIds.add(ids);
+      final boolean latest = latestOplog;
+      futures.add(recoveryPool.submit(() -> oplog.recoverDrf(ids, alreadyRecoveredOnce, latest)));
+      latestOplog = false;
+    }
+    long byteCount = 0;
+    boolean interrupted = false;
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        for (;;) {
+          try {
+            byteCount += futures.get(i).get();
+            break;
+          } catch (InterruptedException ignore) {
+            // the drfs have to be recovered before the crfs can be
+            interrupted = true;
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+              throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+              throw (Error) cause;
+            }
+            throw new DiskAccessException("Failed to recover drf", cause, parent);
+          }
+        }
+        deletedIds.addAll(oplogDeletedIds.get(i));
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
     }
     return byteCount;
   }
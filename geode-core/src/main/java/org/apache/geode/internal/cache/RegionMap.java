@@ -86,6 +86,9 @@ public interface RegionMap extends EvictableMap {
 
     /** whether "api" statistics are enabled */
     boolean statisticsEnabled = false;
+
+    /** the key constraint of the region or null if its keys are not constrained */
+    Class<?> keyConstraint = null;
   }
 
   RegionEntryFactory getEntryFactory();
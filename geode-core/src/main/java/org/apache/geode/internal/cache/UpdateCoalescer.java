@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.ReplyException;
+import org.apache.geode.distributed.internal.ReplyProcessor21;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Sends the updates that threads distribute at the same time to the same members of a replicated
+ * region in one {@link CoalescedUpdateMessage}. Up to a given number of messages may be in flight
+ * to the same members. While that many are sent and waiting for their replies, the updates
+ * distributed by other threads wait, and the next of those threads sends all of them. The more
+ * updates are distributed, the more are sent in each message, so members receive fewer messages
+ * and send fewer replies. Updates to other members are not held back.
+ *
+ * <p>
+ * Only updates that need no more than one message to each recipient and one reply from it are
+ * coalesced; see {@link UpdateOperation#canBeCoalesced()}. Members running an older version, which
+ * do not know the coalesced message, are sent each update on its own.
+ */
+class UpdateCoalescer {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * If true, the updates of replicated regions with an ack scope are coalesced.
+   */
+  static final boolean ENABLED =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "DistributedRegion.COALESCE_UPDATES");
+
+  /**
+   * The maximum number of updates sent in one message.
+   */
+  static final int MAX_UPDATES = Integer
+      .getInteger(GeodeGlossary.GEMFIRE_PREFIX + "DistributedRegion.MAX_COALESCED_UPDATES", 1000);
+
+  /**
+   * The maximum number of messages sent to the same members and waiting for their replies.
+   */
+  static final int MAX_SENDS = Integer
+      .getInteger(GeodeGlossary.GEMFIRE_PREFIX + "DistributedRegion.MAX_COALESCED_SENDS", 4);
+
+  private final DistributionManager dm;
+
+  private final int maxUpdates;
+
+  private final int maxSends;
+
+  /** The updates waiting to be sent or acknowledged, by their recipients. Guarded by this. */
+  private final Map<Set<InternalDistributedMember>, Lane> lanes = new HashMap<>();
+
+  UpdateCoalescer(DistributionManager dm, int maxUpdates, int maxSends) {
+    this.dm = dm;
+    this.maxUpdates = maxUpdates;
+    this.maxSends = maxSends;
+  }
+
+  /**
+   * Sends the given update message to the given members and returns once they have acknowledged
+   * it, possibly together with other updates.
+   *
+   * @throws ReplyException if a member failed to apply the update or other updates sent with it
+   */
+  void distribute(CacheOperationMessage message, Set<InternalDistributedMember> recipients) {
+    Set<InternalDistributedMember> olderMembers = getOlderMembers(recipients);
+    if (olderMembers.isEmpty()) {
+      coalesce(message, recipients);
+      return;
+    }
+    ReplyProcessor21 processor = sendUncoalesced(message, olderMembers);
+    try {
+      if (olderMembers.size() < recipients.size()) {
+        Set<InternalDistributedMember> currentMembers = new HashSet<>(recipients);
+        currentMembers.removeAll(olderMembers);
+        coalesce(message, currentMembers);
+      }
+    } finally {
+      try {
+        processor.waitForRepliesUninterruptibly();
+      } catch (ReplyException e) {
+        e.handleCause();
+      }
+    }
+  }
+
+  private static Set<InternalDistributedMember> getOlderMembers(
+      Set<InternalDistributedMember> recipients) {
+    Set<InternalDistributedMember> olderMembers = Collections.emptySet();
+    for (InternalDistributedMember recipient : recipients) {
+      if (recipient.getVersion().isOlderThan(KnownVersion.CURRENT)) {
+        if (olderMembers.isEmpty()) {
+          olderMembers = new HashSet<>();
+        }
+        olderMembers.add(recipient);
+      }
+    }
+    return olderMembers;
+  }
+
+  /**
+   * Sends the given update message on its own and returns the processor of its replies.
+   */
+  private ReplyProcessor21 sendUncoalesced(CacheOperationMessage message,
+      Set<InternalDistributedMember> recipients) {
+    ReplyProcessor21 processor = new ReplyProcessor21(dm, recipients);
+    processor.enableSevereAlertProcessing();
+    // a coalesced update replies to the message carrying it, whatever its processor id is
+    message.processorId = processor.getProcessorId();
+    message.setRecipients(recipients);
+    putOutgoing(message, processor);
+    return processor;
+  }
+
+  private void coalesce(CacheOperationMessage message, Set<InternalDistributedMember> recipients) {
+    PendingUpdate update = new PendingUpdate(message);
+    boolean interrupted = false;
+    try {
+      for (;;) {
+        Lane lane;
+        List<PendingUpdate> updates;
+        synchronized (this) {
+          lane = lanes.computeIfAbsent(recipients, k -> new Lane());
+          if (!update.queued) {
+            lane.pending.add(update);
+            update.queued = true;
+          }
+          while (!update.done && (update.taken || lane.sends >= maxSends)) {
+            try {
+              wait();
+            } catch (InterruptedException ignore) {
+              // the update has been applied locally, so it has to be distributed
+              interrupted = true;
+            }
+          }
+          if (update.done) {
+            break;
+          }
+          updates = lane.takePending(maxUpdates);
+          lane.sends++;
+        }
+        send(recipients, lane, updates);
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (update.exception != null) {
+      update.exception.handleCause();
+    }
+    if (update.failure != null) {
+      throw update.failure;
+    }
+  }
+
+  /**
+   * Sends the given updates to the given members in one message and waits for the replies.
+   */
+  private void send(Set<InternalDistributedMember> recipients, Lane lane,
+      List<PendingUpdate> updates) {
+    try {
+      ReplyProcessor21 processor = new ReplyProcessor21(dm, recipients);
+      processor.enableSevereAlertProcessing();
+      List<CacheOperationMessage> messages = new ArrayList<>(updates.size());
+      for (PendingUpdate update : updates) {
+        messages.add(update.message);
+      }
+      CoalescedUpdateMessage message =
+          new CoalescedUpdateMessage(processor.getProcessorId(), messages);
+      message.setRecipients(recipients);
+      putOutgoing(message, processor);
+      processor.waitForRepliesUninterruptibly();
+    } catch (ReplyException e) {
+      for (PendingUpdate update : updates) {
+        update.exception = e;
+      }
+    } catch (RuntimeException e) {
+      for (PendingUpdate update : updates) {
+        update.failure = e;
+      }
+    } finally {
+      synchronized (this) {
+        for (PendingUpdate update : updates) {
+          update.done = true;
+        }
+        lane.sends--;
+        if (lane.sends == 0 && lane.pending.isEmpty()) {
+          lanes.remove(recipients);
+        }
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Sends the given message and stops the given processor from waiting for the replies of the
+   * members it could not be sent to. Like the other updates, those members are not sent it again;
+   * they have left or are being removed from the distributed system.
+   */
+  private void putOutgoing(DistributionMessage message, ReplyProcessor21 processor) {
+    Set<InternalDistributedMember> failures = dm.putOutgoing(message);
+    if (failures != null && !failures.isEmpty()) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Failed sending ({}) to {}", message, failures);
+      }
+      for (InternalDistributedMember failure : failures) {
+        processor.memberDeparted(dm, failure, false);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int getPendingCount() {
+    int count = 0;
+    for (Lane lane : lanes.values()) {
+      count += lane.pending.size();
+    }
+    return count;
+  }
+
+  /**
+   * The updates to the same members. Its fields are guarded by the coalescer.
+   */
+  private static class Lane {
+    private List<PendingUpdate> pending = new ArrayList<>();
+    private int sends;
+
+    List<PendingUpdate> takePending(int maxUpdates) {
+      List<PendingUpdate> updates;
+      if (pending.size() <= maxUpdates) {
+        updates = pending;
+        pending = new ArrayList<>();
+      } else {
+        List<PendingUpdate> first = pending.subList(0, maxUpdates);
+        updates = new ArrayList<>(first);
+        first.clear();
+      }
+      for (PendingUpdate update : updates) {
+        update.taken = true;
+      }
+      return updates;
+    }
+  }
+
+  /**
+   * An update waiting to be sent or acknowledged. Its fields are guarded by the coalescer.
+   */
+  private static class PendingUpdate {
+    private final CacheOperationMessage message;
+    private boolean queued;
+    private boolean taken;
+    private boolean done;
+    private ReplyException exception;
+    private RuntimeException failure;
+
+    PendingUpdate(CacheOperationMessage message) {
+      this.message = message;
+    }
+  }
+}
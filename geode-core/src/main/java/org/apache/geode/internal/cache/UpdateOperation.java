@@ -65,6 +65,14 @@ public class UpdateOperation extends AbstractUpdateOperation {
     return true;
   }
 
+  @Override
+  protected boolean canBeCoalesced() {
+    DistributedRegion region = getRegion();
+    EntryEventImpl ev = getEvent();
+    return region.getUpdateCoalescer() != null && !region.getMulticastEnabled()
+        && ev.getDeltaBytes() == null && ev.getRemoteOperationMessage() == null;
+  }
+
   @Override
   protected CacheOperationMessage createMessage() {
     EntryEventImpl ev = getEvent();
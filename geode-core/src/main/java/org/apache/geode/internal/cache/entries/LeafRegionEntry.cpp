@@ -25,9 +25,14 @@ package org.apache.geode.internal.cache.entries;
 #define KEY_TYPE UUID
 #elif defined(KEY_STRING1) || defined(KEY_STRING2)
 #define KEY_TYPE String
+#elif defined(KEY_OFFHEAP)
+#define KEY_TYPE long
 #else
 #error the KEY_TYPE macro must be defined    
 #endif
+#if defined(KEY_OFFHEAP) && !defined(OFFHEAP)
+#error KEY_OFFHEAP can only be used with OFFHEAP
+#endif
 
 #ifdef KEY_UUID
 import java.util.UUID;
@@ -96,7 +101,11 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
  * ./dev-tools/generateRegionEntryClasses.sh (it must be run from the top level directory).
  */
+#ifdef KEY_OFFHEAP
+public class LEAF_CLASS extends PARENT_CLASS implements OffHeapKeyRegionEntry {
+#else
 public class LEAF_CLASS extends PARENT_CLASS {
+#endif
 
   // --------------------------------------- common fields ----------------------------------------
 
@@ -199,6 +208,21 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * bits2 encodes character data
    */
   private final long bits2;
+#elif defined(KEY_OFFHEAP)
+  /**
+   * All access done using OFF_HEAP_KEY_ADDRESS_UPDATER so it is used even though the compiler can
+   * not tell it is.
+   */
+  @SuppressWarnings("unused")
+  @Retained @Released private volatile long offHeapKeyAddress;
+
+  private static final AtomicLongFieldUpdater<LEAF_CLASS> OFF_HEAP_KEY_ADDRESS_UPDATER =
+      AtomicLongFieldUpdater.newUpdater(LEAF_CLASS.class, "offHeapKeyAddress");
+
+  /**
+   * Heap copy of the key. Only set once the off-heap key has been released.
+   */
+  private volatile Object releasedKey;
 #endif
 
   public LEAF_CLASS (final RegionEntryContext context, final KEY_TYPE key,
@@ -280,6 +304,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
     tempBits1 |= key.length();
     this.bits1 = tempBits1;
     this.bits2 = tempBits2;
+#elif defined(KEY_OFFHEAP)
+    // caller has already stored the key off heap using OffHeapRegionEntryHelper.allocateKey
+    this.offHeapKeyAddress = key;
 #endif
   }
 
@@ -942,6 +969,36 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_OFFHEAP)
+  @Override
+  public Object getKey() {
+    return OffHeapRegionEntryHelper.getKey(this);
+  }
+
+  @Override
+  public boolean isKeyEqual(final Object key) {
+    return OffHeapRegionEntryHelper.isKeyEqual(this, key);
+  }
+
+  @Override
+  public long getKeyAddress() {
+    return OFF_HEAP_KEY_ADDRESS_UPDATER.get(this);
+  }
+
+  @Override
+  public boolean setKeyAddress(final long expectedAddress, final long newAddress) {
+    return OFF_HEAP_KEY_ADDRESS_UPDATER.compareAndSet(this, expectedAddress, newAddress);
+  }
+
+  @Override
+  public Object getReleasedKey() {
+    return this.releasedKey;
+  }
+
+  @Override
+  public void setReleasedKey(final Object key) {
+    this.releasedKey = key;
+  }
 #endif
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
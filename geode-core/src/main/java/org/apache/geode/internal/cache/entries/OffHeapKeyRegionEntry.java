@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.entries;
+
+/**
+ * An {@link OffHeapRegionEntry} whose key is also stored off heap. The entry only keeps the address
+ * of the key on the heap. Once the entry has been removed its key memory is released and a heap
+ * copy of the key is kept instead so that threads still holding the entry can read it.
+ *
+ * @see org.apache.geode.internal.offheap.OffHeapRegionEntryHelper#getKey(OffHeapKeyRegionEntry)
+ */
+public interface OffHeapKeyRegionEntry extends OffHeapRegionEntry {
+  /**
+   * OFF_HEAP_KEY_FIELD_READER
+   *
+   * @return the address of the off-heap key or 0 if the key has been released
+   */
+  long getKeyAddress();
+
+  /**
+   * OFF_HEAP_KEY_FIELD_WRITER
+   *
+   * @param expectedAddr OFF_HEAP_ADDRESS
+   * @param newAddr OFF_HEAP_ADDRESS
+   * @return true if the address was changed
+   */
+  boolean setKeyAddress(long expectedAddr, long newAddr);
+
+  /**
+   * Returns the heap copy of the key made when the off-heap key was released; null until then.
+   */
+  Object getReleasedKey();
+
+  void setReleasedKey(Object key);
+}
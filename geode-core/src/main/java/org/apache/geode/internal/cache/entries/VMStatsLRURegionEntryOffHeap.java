@@ -21,6 +21,7 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
 
 public abstract class VMStatsLRURegionEntryOffHeap extends VMStatsLRURegionEntry
     implements OffHeapRegionEntry {
@@ -56,6 +57,9 @@ public abstract class VMStatsLRURegionEntryOffHeap extends VMStatsLRURegionEntry
             } else {
               return new VMStatsLRURegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_REGION_KEYS) {
+            return new VMStatsLRURegionEntryOffHeapOffHeapKey(context,
+                OffHeapRegionEntryHelper.allocateKey(skey), value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -21,6 +21,7 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
 
 public abstract class VMThinDiskLRURegionEntryOffHeap extends VMThinDiskLRURegionEntry
     implements OffHeapRegionEntry {
@@ -58,6 +59,9 @@ public abstract class VMThinDiskLRURegionEntryOffHeap extends VMThinDiskLRURegio
               return new VMThinDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.OFF_HEAP_REGION_KEYS) {
+            return new VMThinDiskLRURegionEntryOffHeapOffHeapKey(context,
+                OffHeapRegionEntryHelper.allocateKey(skey), value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -115,6 +115,7 @@ import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock
 import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock.StoppableWriteLock;
 import org.apache.geode.logging.internal.executors.LoggingThread;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
  * An implementation of Queue using Gemfire Region as the underlying datastructure. The key will be
@@ -265,6 +266,29 @@ public class HARegionQueue implements RegionQueue {
    */
   public static final int DEFAULT_MESSAGE_SYNC_INTERVAL = 1;
 
+  /**
+   * If true, the serialized values of the events held in a container map are moved to direct
+   * buffers when the events are first queued, so the queues of every client share one copy of each
+   * value outside the heap.
+   */
+  static final boolean OFF_HEAP_VALUES =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "HARegionQueue.OFF_HEAP_VALUES");
+
+  /**
+   * The size, in bytes, of the smallest value moved to a direct buffer when
+   * {@link #OFF_HEAP_VALUES} is set. Smaller values are cheaper to keep on the heap.
+   */
+  static final int OFF_HEAP_VALUE_THRESHOLD = Integer
+      .getInteger(GeodeGlossary.GEMFIRE_PREFIX + "HARegionQueue.OFF_HEAP_VALUE_THRESHOLD", 1024);
+
+  /**
+   * The maximum total size, in bytes, of the direct buffers holding values when
+   * {@link #OFF_HEAP_VALUES} is set, counting the buffers of dispatched values until the garbage
+   * collector frees them. Values that would go over it stay on the heap.
+   */
+  static final long MAX_OFF_HEAP_VALUES_SIZE = Long.getLong(
+      GeodeGlossary.GEMFIRE_PREFIX + "HARegionQueue.MAX_OFF_HEAP_VALUES_SIZE", 256L * 1024 * 1024);
+
   /**
    * The frequency (in seconds) at which a message will be sent by the primary to all the secondary
    * nodes to remove the events which have already been dispatched from the queue.
@@ -3560,6 +3584,12 @@ public class HARegionQueue implements RegionQueue {
           inputHaEventWrapper.incAndGetReferenceCount();
           inputHaEventWrapper.setHAContainer(this.haContainer);
 
+          if (OFF_HEAP_VALUES && this.haContainer instanceof HAContainerMap) {
+            // the event has not been added to any queue yet
+            ((ClientUpdateMessageImpl) inputHaEventWrapper.getClientUpdateMessage())
+                .moveValueOffHeap(OFF_HEAP_VALUE_THRESHOLD, MAX_OFF_HEAP_VALUES_SIZE);
+          }
+
           if (!inputHaEventWrapper.getPutInProgress()) {
             // This means that this is a GII'ed event. Hence we must
             // explicitly set 'clientUpdateMessage' to null.
@@ -65,6 +65,7 @@ import org.apache.geode.DataSerializer;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.ToDataException;
+import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.client.internal.PoolImpl;
@@ -104,6 +105,7 @@ import org.apache.geode.internal.util.ArrayUtils;
 import org.apache.geode.logging.internal.executors.LoggingThread;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.logging.internal.executors.VirtualThreadFactory;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -705,8 +707,8 @@ public class AcceptorImpl implements Acceptor, Runnable {
             MILLISECONDS, threadName, threadInitializer, commandWrapper,
             getStats().getCnxPoolHelper(), getThreadMonitorObj());
       }
-      return CoreLoggingExecutors.newThreadPoolWithSynchronousFeed(MINIMUM_MAX_CONNECTIONS,
-          maxConnections, 0L, SECONDS, threadName, threadInitializer, commandWrapper);
+      return newServerConnectionPool(VIRTUAL_THREADS, AcceptorImpl::newVirtualThreadPool,
+          localPort, maxConnections, threadName, threadInitializer, commandWrapper);
     } catch (IllegalArgumentException poolInitException) {
       stats.close();
       serverSock.close();
@@ -714,6 +716,51 @@ public class AcceptorImpl implements Acceptor, Runnable {
     }
   }
 
+  /**
+   * Returns the pool that runs the server connections when max-threads is 0. If virtualThreads is
+   * true and virtualThreadPoolFactory creates a pool, each connection runs on a virtual thread,
+   * otherwise on a platform thread.
+   */
+  @VisibleForTesting
+  static ExecutorService newServerConnectionPool(boolean virtualThreads,
+      VirtualThreadPoolFactory virtualThreadPoolFactory, int localPort, int maxConnections,
+      String threadName, ThreadInitializer threadInitializer, CommandWrapper commandWrapper) {
+    if (virtualThreads) {
+      ExecutorService pool = virtualThreadPoolFactory.create(maxConnections, threadName,
+          threadInitializer, commandWrapper);
+      if (pool != null) {
+        logger.info("Running server connections on port {} on virtual threads", localPort);
+        return pool;
+      }
+      logger.warn("Virtual threads are not supported by this JVM. Running server connections"
+          + " on port {} on platform threads.", localPort);
+    }
+    return CoreLoggingExecutors.newThreadPoolWithSynchronousFeed(MINIMUM_MAX_CONNECTIONS,
+        maxConnections, 0L, SECONDS, threadName, threadInitializer, commandWrapper);
+  }
+
+  static ExecutorService newVirtualThreadPool(int maxConnections, String threadName,
+      ThreadInitializer threadInitializer, CommandWrapper commandWrapper) {
+    if (!VirtualThreadFactory.isAvailable()) {
+      return null;
+    }
+    return CoreLoggingExecutors.newVirtualThreadPerTaskExecutor(maxConnections, threadName,
+        threadInitializer, commandWrapper);
+  }
+
+  /**
+   * Creates the pool that runs each server connection on a virtual thread.
+   */
+  @FunctionalInterface
+  @VisibleForTesting
+  interface VirtualThreadPoolFactory {
+    /**
+     * Returns the pool, or null if this JVM does not support virtual threads.
+     */
+    ExecutorService create(int maxConnections, String threadName,
+        ThreadInitializer threadInitializer, CommandWrapper commandWrapper);
+  }
+
   private ThreadsMonitoring getThreadMonitorObj() {
     DistributionManager distributionManager = cache.getDistributionManager();
     if (distributionManager != null) {
@@ -758,6 +805,16 @@ public class AcceptorImpl implements Acceptor, Runnable {
   @Deprecated
   private final int DEPRECATED_SELECTOR_POOL_SIZE =
       Integer.getInteger("BridgeServer.SELECTOR_POOL_SIZE", 16);
+  /**
+   * If true, and max-threads is 0, each server connection is run on a virtual thread instead of a
+   * platform thread, so that the number of threads is not what limits the number of clients. Only
+   * used on JVMs that support virtual threads. Message.receive reads from the socket inside a
+   * synchronized block, which keeps a waiting virtual thread on its carrier thread before Java 24,
+   * so idle connections only stop using a platform thread each from Java 24 on.
+   */
+  private static final boolean VIRTUAL_THREADS =
+      Boolean.getBoolean("BridgeServer.VIRTUAL_THREADS");
+
   private final int HANDSHAKE_POOL_SIZE = Integer
       .getInteger("BridgeServer.HANDSHAKE_POOL_SIZE", HANDSHAKER_DEFAULT_POOL_SIZE);
 
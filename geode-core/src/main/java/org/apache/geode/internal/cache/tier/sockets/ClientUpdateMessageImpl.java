@@ -17,11 +17,15 @@ package org.apache.geode.internal.cache.tier.sockets;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
 
@@ -29,6 +33,7 @@ import org.apache.geode.DataSerializer;
 import org.apache.geode.GemFireIOException;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.InternalDataSerializer;
@@ -48,6 +53,7 @@ import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.internal.size.Sizeable;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -77,9 +83,31 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
   private Object _keyOfInterest;
 
   /**
-   * The new value
+   * The new value. Once {@link #moveValueOffHeap} has moved it, a serialized value is a read-only
+   * direct ByteBuffer. Volatile because it is moved after the message has been queued.
    */
-  private Object _value;
+  private volatile Object _value;
+
+  /**
+   * The total size of the direct buffers that values have been moved to and that have not been
+   * freed yet.
+   */
+  @MakeNotStatic
+  private static final AtomicLong offHeapValuesSize = new AtomicLong();
+
+  /**
+   * The references to the direct buffers of {@link #offHeapValuesSize}, kept reachable until they
+   * are enqueued in {@link #freedOffHeapValues}.
+   */
+  @MakeNotStatic
+  private static final Set<OffHeapValueReference> offHeapValues = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The references to the direct buffers the garbage collector has found unreachable, so their
+   * memory is freed.
+   */
+  @MakeNotStatic
+  private static final ReferenceQueue<ByteBuffer> freedOffHeapValues = new ReferenceQueue<>();
 
   /**
    * Whether the value is a serialized object or just a byte[]
@@ -143,6 +171,12 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   private VersionTag<?> versionTag;
 
+  /**
+   * The parts of this event's message that are the same for every client of a version, serialized
+   * by the first dispatcher that sends this event.
+   */
+  private transient volatile SerializedParts serializedParts;
+
   /* added up all constants and form single value */
   private static final int CONSTANT_MEMORY_OVERHEAD;
 
@@ -221,7 +255,81 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   @Override
   public Object getValue() {
-    return _value;
+    Object value = _value;
+    if (value instanceof ByteBuffer) {
+      return toByteArray((ByteBuffer) value);
+    }
+    return value;
+  }
+
+  /**
+   * Moves this message's serialized value out of the heap into a direct buffer. The buffer is
+   * shared by every client queue holding this message and is freed by the garbage collector once
+   * neither the message nor a dispatcher sending it references it. The value is sent to clients
+   * straight from the buffer, so it is not copied back to the heap to be dispatched.
+   *
+   * <p>
+   * Values smaller than minimumSize are not worth a direct allocation and stay on the heap, as do
+   * values that would take the direct buffers not freed yet over maximumTotalSize. A buffer counts
+   * toward maximumTotalSize until the garbage collector has freed it, not only while its message
+   * is queued, so maximumTotalSize limits the direct memory actually used.
+   *
+   * @return true if the value was moved
+   */
+  public synchronized boolean moveValueOffHeap(int minimumSize, long maximumTotalSize) {
+    Object value = _value;
+    if (!(value instanceof byte[])) {
+      return false;
+    }
+    byte[] bytes = (byte[]) value;
+    if (bytes.length == 0 || bytes.length < minimumSize) {
+      return false;
+    }
+    pollFreedOffHeapValues();
+    if (offHeapValuesSize.addAndGet(bytes.length) > maximumTotalSize) {
+      offHeapValuesSize.addAndGet(-bytes.length);
+      return false;
+    }
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    // the read-only view and its duplicates keep the buffer reachable while a dispatcher uses them
+    offHeapValues.add(new OffHeapValueReference(buffer));
+    buffer.put(bytes);
+    buffer.flip();
+    _value = buffer.asReadOnlyBuffer();
+    return true;
+  }
+
+  /**
+   * Removes the sizes of the direct buffers the garbage collector has freed from
+   * {@link #offHeapValuesSize}.
+   */
+  private static void pollFreedOffHeapValues() {
+    OffHeapValueReference reference;
+    while ((reference = (OffHeapValueReference) freedOffHeapValues.poll()) != null) {
+      if (offHeapValues.remove(reference)) {
+        offHeapValuesSize.addAndGet(-reference.size);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  static long getOffHeapValuesSize() {
+    pollFreedOffHeapValues();
+    return offHeapValuesSize.get();
+  }
+
+  /**
+   * Returns true if this message's value has been moved to a direct buffer.
+   */
+  public boolean isValueOffHeap() {
+    return _value instanceof ByteBuffer;
+  }
+
+  private static byte[] toByteArray(ByteBuffer buffer) {
+    ByteBuffer duplicate = buffer.duplicate();
+    byte[] bytes = new byte[duplicate.remaining()];
+    duplicate.get(bytes);
+    return bytes;
   }
 
   @Override
@@ -267,7 +375,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   @Override
   public Object getValueToConflate() {
-    return _value;
+    return getValue();
   }
 
   @Override
@@ -344,6 +452,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
    *
    * @param latestValue Object containing the latest value to use. This could be the original value
    *        if conflation is not enabled, or it could be a conflated value if conflation is enabled.
+   *        It is null if the value is to be sent from its off-heap buffer.
    * @return a <code>Message</code> generated from the fields of this
    *         <code>ClientUpdateMessage</code>
    * @see org.apache.geode.internal.cache.tier.sockets.Message
@@ -359,6 +468,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     if (latestValue != null) {
       serializedValue = latestValue;
+    } else if (isValueOffHeap()) {
+      // the value part is added straight from the off-heap buffer
     } else {
       /*
        * This means latestValue is instance of Delta, and its delta has already been extracted and
@@ -381,12 +492,26 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return message;
   }
 
+  /**
+   * Adds the given serialized value to the message or, if it is null and this message's value is
+   * off-heap, the off-heap buffer without copying it.
+   */
+  private void addValuePart(Message message, byte[] latestValue) {
+    Object value = _value;
+    if (latestValue == null && value instanceof ByteBuffer) {
+      message.addRawBufferPart((ByteBuffer) value, (_valueIsObject == 0x01));
+    } else {
+      message.addRawPart(latestValue, (_valueIsObject == 0x01));
+    }
+  }
+
   private Message getGFE70Message(CacheClientProxy proxy, byte[] p_latestValue,
       boolean conflation, KnownVersion clientVersion) throws IOException {
     byte[] latestValue = p_latestValue;
 
     Message message;
     ClientProxyMembershipID proxyId = proxy.getProxyID();
+    SerializedParts parts = getSerializedParts(proxy, clientVersion);
     // Add CQ info.
     int cqMsgParts = 0;
     boolean clientHasCq = _hasCqs && (getCqs(proxyId) != null);
@@ -406,21 +531,21 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message = getMessage(7 + cqMsgParts, clientVersion);
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
         message.addStringPart(_regionName, true);
-        message.addStringOrObjPart(_keyOfInterest);
+        parts.addKeyPart(message);
       } else {
         // Notify by subscription - send the value
         message = getMessage(9 + cqMsgParts, clientVersion);
         if (isCreate()) {
           message.setMessageType(MessageType.LOCAL_CREATE);
           message.addStringPart(_regionName, true);
-          message.addStringOrObjPart(_keyOfInterest);
+          parts.addKeyPart(message);
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
-          message.addRawPart(latestValue, (_valueIsObject == 0x01));
+          addValuePart(message, latestValue);
         } else {
           message.setMessageType(MessageType.LOCAL_UPDATE);
           message.addStringPart(_regionName, true);
-          message.addStringOrObjPart(_keyOfInterest);
+          parts.addKeyPart(message);
 
           if (deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -429,23 +554,20 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
             proxy.getStatistics().incDeltaMessagesSent();
           } else {
             message.addObjPart(Boolean.FALSE);
-            if (latestValue == null) {
+            if (latestValue == null && !isValueOffHeap()) {
               if (!(_value instanceof byte[])) {
                 _value = CacheServerHelper.serialize(_value);
               }
               latestValue = (byte[]) _value;
             }
             // Add the value (which has already been serialized)
-            message.addRawPart(latestValue, (_valueIsObject == 0x01));
+            addValuePart(message, latestValue);
           }
         }
       }
 
-      message.addObjPart(_callbackArgument);
-      if (versionTag != null) {
-        versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
-      }
-      message.addObjPart(versionTag);
+      parts.addCallbackArgumentPart(message);
+      parts.addVersionTagPart(message);
       message.addObjPart(isClientInterested(proxyId));
       message.addObjPart(clientHasCq);
 
@@ -468,9 +590,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
       }
       message.addStringPart(_regionName, true);
-      message.addStringOrObjPart(_keyOfInterest);
-      message.addObjPart(_callbackArgument);
-      message.addObjPart(versionTag);
+      parts.addKeyPart(message);
+      parts.addCallbackArgumentPart(message);
+      parts.addVersionTagPart(message);
       message.addObjPart(isClientInterested(proxyId));
       message.addObjPart(clientHasCq);
 
@@ -486,7 +608,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(_regionName, true);
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
       message.addObjPart(clientHasCq);
 
       if (clientHasCq) {
@@ -496,7 +618,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(_regionName, true);
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
       message.addObjPart(clientHasCq);
 
       if (clientHasCq) {
@@ -506,7 +628,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(_regionName, true);
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
 
       // Add CQ status.
       message.addObjPart(clientHasCq);
@@ -521,10 +643,31 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(_eventIdentifier);
+    parts.addEventIdPart(message);
     return message;
   }
 
+  /**
+   * Returns the serialized parts of this event's message for clients of the given version. Only the
+   * parts for the version of the first client this event is sent to are kept, since the clients of
+   * a server are usually all of the same version.
+   */
+  private SerializedParts getSerializedParts(CacheClientProxy proxy, KnownVersion clientVersion)
+      throws IOException {
+    SerializedParts parts = serializedParts;
+    if (parts == null || !parts.version.equals(clientVersion)) {
+      if (versionTag != null) {
+        versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
+      }
+      parts = new SerializedParts(clientVersion, _keyOfInterest, _callbackArgument, versionTag,
+          _eventIdentifier);
+      if (serializedParts == null) {
+        serializedParts = parts;
+      }
+    }
+    return parts;
+  }
+
   private static final ThreadLocal<Map<Integer, Message>> CACHED_MESSAGES =
       ThreadLocal.withInitial(HashMap::new);
 
@@ -743,8 +886,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     buffer.append("ClientUpdateMessageImpl[").append("op=").append(_operation)
         .append(";region=").append(_regionName).append(";key=").append(_keyOfInterest);
     if (logger.isTraceEnabled()) {
+      Object value = getValue();
       buffer.append(";value=").append(
-          (_value instanceof byte[]) ? deserialize((byte[]) _value) : _value);
+          (value instanceof byte[]) ? deserialize((byte[]) value) : value);
     }
     buffer.append(";isObject=").append(_valueIsObject).append(";cbArg=")
         .append(_callbackArgument).append(";memberId=").append(_membershipId)
@@ -767,10 +911,11 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     out.writeByte(_operation.getEventCode());
     DataSerializer.writeString(_regionName, out);
     DataSerializer.writeObject(_keyOfInterest, out);
-    if (_value instanceof byte[]) {
-      DataSerializer.writeByteArray((byte[]) _value, out);
+    Object value = getValue();
+    if (value instanceof byte[]) {
+      DataSerializer.writeByteArray((byte[]) value, out);
     } else {
-      DataSerializer.writeByteArray(CacheServerHelper.serialize(_value), out);
+      DataSerializer.writeByteArray(CacheServerHelper.serialize(value), out);
     }
     out.writeByte(_valueIsObject);
     DataSerializer.writeObject(_membershipId, out);
@@ -901,13 +1046,23 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     int size = CONSTANT_MEMORY_OVERHEAD;
 
-    // The value (a byte[])
-    if (_value != null) {
-      size += CachedDeserializableFactory.calcMemSize(_value);
+    // The value (a byte[]). A value in a direct buffer is counted too, so that the memory the
+    // queue holds outside the heap is limited by its eviction like the rest.
+    Object value = _value;
+    if (value instanceof ByteBuffer) {
+      size += ((ByteBuffer) value).capacity();
+    } else if (value != null) {
+      size += CachedDeserializableFactory.calcMemSize(value);
     }
 
     // The sizeOf call gets the size of the input callback argument.
     size += sizeOf(getOriginalCallbackArgument());
+
+    // The parts serialized once this event has been dispatched
+    SerializedParts parts = serializedParts;
+    if (parts != null) {
+      size += parts.getSizeInBytes();
+    }
     return size;
   }
 
@@ -954,6 +1109,72 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
   }
 
 
+  /**
+   * The key, callback argument, version tag and event id parts of an event's message, serialized
+   * once so that the messages sent to every client write the same bytes.
+   */
+  private static class SerializedParts {
+    private final KnownVersion version;
+    private final byte[] key;
+    private final boolean keyIsObject;
+    private final byte[] callbackArgument;
+    private final boolean callbackArgumentIsObject;
+    private final byte[] versionTag;
+    private final byte[] eventId;
+
+    SerializedParts(KnownVersion version, Object key, Object callbackArgument,
+        VersionTag<?> versionTag, EventID eventId) throws IOException {
+      this.version = version;
+      // the same forms as Message.addStringOrObjPart and Message.addObjPart
+      if (key == null || key instanceof String) {
+        this.key = key == null ? null : CacheServerHelper.toUTF((String) key);
+        this.keyIsObject = false;
+      } else {
+        this.key = serialize(key, version);
+        this.keyIsObject = true;
+      }
+      if (callbackArgument == null || callbackArgument instanceof byte[]) {
+        this.callbackArgument = (byte[]) callbackArgument;
+        this.callbackArgumentIsObject = false;
+      } else {
+        this.callbackArgument = serialize(callbackArgument, version);
+        this.callbackArgumentIsObject = true;
+      }
+      this.versionTag = versionTag == null ? null : serialize(versionTag, version);
+      this.eventId = eventId == null ? null : serialize(eventId, version);
+    }
+
+    private static byte[] serialize(Object object, KnownVersion version) throws IOException {
+      return BlobHelper.serializeToBlob(object,
+          version.equals(KnownVersion.CURRENT) ? null : version);
+    }
+
+    void addKeyPart(Message message) {
+      message.addRawPart(key, keyIsObject);
+    }
+
+    void addCallbackArgumentPart(Message message) {
+      message.addRawPart(callbackArgument, callbackArgumentIsObject);
+    }
+
+    void addVersionTagPart(Message message) {
+      message.addRawPart(versionTag, versionTag != null);
+    }
+
+    void addEventIdPart(Message message) {
+      message.addRawPart(eventId, eventId != null);
+    }
+
+    int getSizeInBytes() {
+      return Sizeable.PER_OBJECT_OVERHEAD + sizeOf(key) + sizeOf(callbackArgument)
+          + sizeOf(versionTag) + sizeOf(eventId);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+      return bytes == null ? 0 : CachedDeserializableFactory.calcMemSize(bytes);
+    }
+  }
+
   /**
    * Even though this class is just a ConcurrentHashMap I wanted it to be its own class so it could
    * be easily identified in heap dumps. The concurrency level on these should be 1 to keep their
@@ -1160,4 +1381,16 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     _value = nv;
   }
 
+  /**
+   * A reference to a direct buffer holding a value, enqueued once the buffer is unreachable.
+   */
+  private static class OffHeapValueReference extends PhantomReference<ByteBuffer> {
+
+    private final int size;
+
+    OffHeapValueReference(ByteBuffer buffer) {
+      super(buffer, freedOffHeapValues);
+      size = buffer.capacity();
+    }
+  }
 }
@@ -106,6 +106,12 @@ public class Message {
 
   private static final int DEFAULT_CHUNK_SIZE = 1024;
 
+  /**
+   * A part is only serialized into what remains of a message's parts buffer if at least this many
+   * bytes remain.
+   */
+  private static final int MINIMUM_PART_BUFFER_SIZE = 64;
+
   @Immutable
   private static final byte[] TRUE = defineTrue();
   @Immutable
@@ -166,6 +172,12 @@ public class Message {
   private boolean readHeader = false;
   private int chunkSize = DEFAULT_CHUNK_SIZE;
 
+  /**
+   * The buffer that the parts added to this message are serialized into. Reused once the parts
+   * have been cleared.
+   */
+  private ByteBuffer partsBuffer;
+
   Part securePart = null;
   private boolean isMetaRegion = false;
 
@@ -300,7 +312,10 @@ public class Message {
     } else {
       // do NOT close the HeapDataOutputStream
       this.messageModified = true;
-      part.setPartState(new HeapDataOutputStream(str), false);
+      HeapDataOutputStream hdos = newPartOutputStream(null, false);
+      hdos.writeUTFNoLength(str);
+      partSerialized(hdos);
+      part.setPartState(hdos, false);
     }
     this.currentPart++;
   }
@@ -378,12 +393,13 @@ public class Message {
 
     // Create the HDOS with a flag telling it that it can keep any byte[] or ByteBuffers/ByteSources
     // passed to it. Do NOT close the HeapDataOutputStream!
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, true);
+    HeapDataOutputStream hdos = newPartOutputStream(v, true);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
       throw new SerializationException("failed serializing object", ex);
     }
+    partSerialized(hdos);
     this.messageModified = true;
     Part part = this.partsList[this.currentPart];
     part.setPartState(hdos, true);
@@ -401,18 +417,49 @@ public class Message {
     }
 
     // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    HeapDataOutputStream hdos = newPartOutputStream(v, false);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
       throw new SerializationException("failed serializing object", ex);
     }
+    partSerialized(hdos);
     this.messageModified = true;
     Part part = this.partsList[this.currentPart];
     part.setPartState(hdos, true);
     this.currentPart++;
   }
 
+  /**
+   * Returns a stream to serialize a part into. The stream writes into the unused end of this
+   * message's parts buffer, so that a message allocates one buffer for all of its small parts
+   * instead of one per part. Once the buffer is used up a stream with a buffer of its own is
+   * returned.
+   */
+  private HeapDataOutputStream newPartOutputStream(KnownVersion v, boolean doNotCopy) {
+    if (this.partsBuffer == null) {
+      this.partsBuffer = ByteBuffer.allocate(this.chunkSize);
+    }
+    if (this.partsBuffer.remaining() < MINIMUM_PART_BUFFER_SIZE) {
+      return new HeapDataOutputStream(this.chunkSize, v, doNotCopy);
+    }
+    return new HeapDataOutputStream(this.partsBuffer.slice(), v, doNotCopy);
+  }
+
+  /**
+   * Marks the part of the parts buffer that the given stream, returned by
+   * {@link #newPartOutputStream}, was serialized into as used.
+   */
+  private void partSerialized(HeapDataOutputStream hdos) {
+    int size = hdos.size();
+    if (size <= this.partsBuffer.remaining()) {
+      this.partsBuffer.position(this.partsBuffer.position() + size);
+    } else {
+      // the stream outgrew the parts buffer, or has a buffer of its own
+      this.partsBuffer.position(this.partsBuffer.limit());
+    }
+  }
+
   public void addIntPart(int v) {
     this.messageModified = true;
     Part part = this.partsList[this.currentPart];
@@ -444,6 +491,17 @@ public class Message {
     this.currentPart++;
   }
 
+  /**
+   * Adds a part whose payload is the remaining bytes of the given buffer. The buffer is not copied
+   * and its position is not changed, so it may be shared by several messages.
+   */
+  public void addRawBufferPart(ByteBuffer newPart, boolean isObject) {
+    this.messageModified = true;
+    Part part = this.partsList[this.currentPart];
+    part.setPartState(newPart, isObject);
+    this.currentPart++;
+  }
+
   public int getMessageType() {
     return this.messageType;
   }
@@ -621,11 +679,20 @@ public class Message {
           if (partLen <= commBuffer.remaining()) {
             part.writeTo(commBuffer);
           } else {
-            flushBuffer();
+            ByteBuffer directBuffer = null;
             if (this.socketChannel != null) {
-              part.writeTo(this.socketChannel, commBuffer);
+              directBuffer = part.createDirectByteBuffer();
+            }
+            if (directBuffer != null) {
+              // an off-heap value is written straight from off-heap memory along with the headers
+              flushBuffer(directBuffer);
             } else {
-              part.writeTo(this.outputStream, commBuffer);
+              flushBuffer();
+              if (this.socketChannel != null) {
+                part.writeTo(this.socketChannel, commBuffer);
+              } else {
+                part.writeTo(this.outputStream, commBuffer);
+              }
             }
             if (this.messageStats != null) {
               this.messageStats.incSentBytes(partLen);
@@ -663,6 +730,24 @@ public class Message {
     cb.clear();
   }
 
+  /**
+   * Writes what is in the comm buffer followed by all of data to the socket channel using
+   * gathering writes, so that data does not have to be copied into the comm buffer.
+   */
+  private void flushBuffer(ByteBuffer data) throws IOException {
+    final ByteBuffer cb = getCommBuffer();
+    final int bytesInBuffer = cb.position();
+    cb.flip();
+    final ByteBuffer[] buffers = {cb, data};
+    do {
+      this.socketChannel.write(buffers);
+    } while (data.remaining() > 0);
+    if (this.messageStats != null) {
+      this.messageStats.incSentBytes(bytesInBuffer);
+    }
+    cb.clear();
+  }
+
   private void readHeaderAndBody(boolean setHeaderReadTimeout, int headerReadTimeoutMillis)
       throws IOException {
     clearParts();
@@ -912,20 +997,21 @@ public class Message {
         // now we need to read partLen - alreadyReadBytes off the wire
         int off = alreadyReadBytes;
         int remaining = partLen - off;
+        if (remaining > 0 && this.socketChannel != null) {
+          // the comm buffer is empty, so the rest of the part is read straight into its bytes
+          cb.clear();
+          cb.flip();
+        }
+        ByteBuffer partBuffer = null;
         while (remaining > 0) {
           if (this.socketChannel != null) {
-            int bytesThisTime = remaining;
-            cb.clear();
-            if (bytesThisTime > cb.capacity()) {
-              bytesThisTime = cb.capacity();
+            if (partBuffer == null) {
+              partBuffer = ByteBuffer.wrap(partBytes, off, remaining);
             }
-            cb.limit(bytesThisTime);
-            int res = this.socketChannel.read(cb);
+            int res = this.socketChannel.read(partBuffer);
             if (res != -1) {
-              cb.flip();
               bytesRemaining -= res;
               remaining -= res;
-              cb.get(partBytes, off, res);
               off += res;
               if (this.messageStats != null) {
                 this.messageStats.incReceivedBytes(res);
@@ -1044,6 +1130,10 @@ public class Message {
       part.clear();
     }
     this.currentPart = 0;
+    if (this.partsBuffer != null) {
+      // no part refers to the parts buffer any more
+      this.partsBuffer.clear();
+    }
   }
 
   @Override
@@ -567,7 +567,9 @@ public class MessageDispatcher extends LoggingThread {
 
     final Message message;
     if (clientMessage instanceof ClientUpdateMessage) {
-      byte[] latestValue = (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
+      // an off-heap value is sent from its buffer rather than being copied to the heap
+      byte[] latestValue = ((ClientUpdateMessageImpl) clientMessage).isValueOffHeap() ? null
+          : (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
       if (logger.isTraceEnabled()) {
         StringBuilder msg = new StringBuilder(100);
         msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
@@ -56,8 +56,8 @@ public class Part {
   private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
   /**
-   * The payload of this part. Could be null, a byte[] or a HeapDataOutputStream on the send side.
-   * Could be null, or a byte[] on the receiver side.
+   * The payload of this part. Could be null, a byte[], a HeapDataOutputStream, a StoredObject or a
+   * ByteBuffer on the send side. Could be null, or a byte[] on the receiver side.
    */
   private Object part;
 
@@ -146,6 +146,24 @@ public class Part {
     }
   }
 
+  /**
+   * Sets this part to the remaining bytes of the given buffer, which are written without being
+   * copied to the heap. The buffer's position and limit are not changed, so it can be shared by
+   * parts of several messages.
+   */
+  public void setPartState(ByteBuffer bb, boolean isObject) {
+    if (isObject) {
+      this.typeCode = OBJECT_CODE;
+    } else if (bb.remaining() == 0) {
+      this.typeCode = EMPTY_BYTEARRAY_CODE;
+      this.part = EMPTY_BYTE_ARRAY;
+      return;
+    } else {
+      this.typeCode = BYTE_CODE;
+    }
+    this.part = bb;
+  }
+
   public byte getTypeCode() {
     return this.typeCode;
   }
@@ -161,6 +179,8 @@ public class Part {
       return ((byte[]) this.part).length;
     } else if (this.part instanceof StoredObject) {
       return ((StoredObject) this.part).getDataSize();
+    } else if (this.part instanceof ByteBuffer) {
+      return ((ByteBuffer) this.part).remaining();
     } else {
       return ((HeapDataOutputStream) this.part).size();
     }
@@ -394,11 +414,15 @@ public class Part {
             if (buf.remaining() == 0) {
               HeapDataOutputStream.flushStream(out, buf);
             }
-            buf.put(AddressableMemoryManager.readByte(addr));
-            addr++;
-            bytesToSend--;
+            int bytesThisTime = Math.min(bytesToSend, buf.remaining());
+            copyToBuffer(addr, bytesThisTime, buf);
+            addr += bytesThisTime;
+            bytesToSend -= bytesThisTime;
           }
         }
+      } else if (this.part instanceof ByteBuffer) {
+        HeapDataOutputStream.writeByteBufferToStream(out, buf,
+            ((ByteBuffer) this.part).duplicate());
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         try {
@@ -425,13 +449,10 @@ public class Part {
           buf.put(bb);
         } else {
           int bytesToSend = c.getDataSize();
-          long addr = c.getAddressForReadingData(0, bytesToSend);
-          while (bytesToSend > 0) {
-            buf.put(AddressableMemoryManager.readByte(addr));
-            addr++;
-            bytesToSend--;
-          }
+          copyToBuffer(c.getAddressForReadingData(0, bytesToSend), bytesToSend, buf);
         }
+      } else if (this.part instanceof ByteBuffer) {
+        buf.put(((ByteBuffer) this.part).duplicate());
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         try {
@@ -489,11 +510,8 @@ public class Part {
               bytesThisTime = BUF_MAX;
             }
             len -= bytesThisTime;
-            while (bytesThisTime > 0) {
-              buf.put(AddressableMemoryManager.readByte(addr));
-              addr++;
-              bytesThisTime--;
-            }
+            copyToBuffer(addr, bytesThisTime, buf);
+            addr += bytesThisTime;
             buf.flip();
             while (buf.remaining() > 0) {
               sc.write(buf);
@@ -501,6 +519,11 @@ public class Part {
             buf.clear();
           }
         }
+      } else if (this.part instanceof ByteBuffer) {
+        ByteBuffer bb = ((ByteBuffer) this.part).duplicate();
+        while (bb.remaining() > 0) {
+          sc.write(bb);
+        }
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         try {
@@ -512,6 +535,38 @@ public class Part {
     }
   }
 
+  /**
+   * Returns a direct ByteBuffer that reads the off-heap memory of this part without copying it, or
+   * null if this part is not stored off-heap or such a buffer can not be created. The buffer of a
+   * StoredObject is only valid while the off-heap value is retained by whoever set this part's
+   * state.
+   */
+  ByteBuffer createDirectByteBuffer() {
+    if (getLength() > 0 && this.part instanceof StoredObject) {
+      return ((StoredObject) this.part).createDirectByteBuffer();
+    }
+    if (getLength() > 0 && this.part instanceof ByteBuffer) {
+      ByteBuffer bb = (ByteBuffer) this.part;
+      return bb.isDirect() ? bb.duplicate() : null;
+    }
+    return null;
+  }
+
+  /**
+   * Copies len bytes of off-heap memory starting at addr to buf, which must have room for them.
+   */
+  private static void copyToBuffer(long addr, int len, ByteBuffer buf) {
+    if (buf.hasArray()) {
+      int position = buf.position();
+      AddressableMemoryManager.readBytes(addr, buf.array(), buf.arrayOffset() + position, len);
+      buf.position(position + len);
+    } else {
+      for (int i = 0; i < len; i++) {
+        buf.put(AddressableMemoryManager.readByte(addr + i));
+      }
+    }
+  }
+
   private static String typeCodeToString(byte c) {
     switch (c) {
       case BYTE_CODE:
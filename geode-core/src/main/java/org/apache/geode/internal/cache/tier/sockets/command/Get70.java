@@ -39,6 +39,7 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.offheap.OffHeapHelper;
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.security.AuthorizeRequest;
@@ -187,6 +188,10 @@ public class Get70 extends BaseCommand {
       }
 
       // post process
+      if (data instanceof StoredObject && securityService.needPostProcess()) {
+        // post processors are only given heap values
+        data = ((StoredObject) data).getValueAsHeapByteArray();
+      }
       data = securityService.postProcess(regionName, key, data, entry.isObject);
 
       long oldStart = start;
@@ -43,6 +43,7 @@ import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.logging.internal.executors.VirtualThreadFactory;
 
 /**
  * Utility class that creates instances of ExecutorService whose threads will always log uncaught
@@ -166,6 +167,19 @@ public class CoreLoggingExecutors {
         threadFactory);
   }
 
+  /**
+   * Returns an executor that runs each command on a new virtual thread. Only call this if
+   * {@link VirtualThreadFactory#isAvailable()} returns true.
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor(int maximumPoolSize,
+      String threadName, ThreadInitializer threadInitializer, CommandWrapper commandWrapper) {
+    BlockingQueue<Runnable> blockingQueue = new SynchronousQueue<>();
+    ThreadFactory threadFactory =
+        new VirtualThreadFactory(threadName, threadInitializer, commandWrapper);
+    return new ThreadPoolExecutor(0, maximumPoolSize, 0L, MILLISECONDS, blockingQueue,
+        threadFactory);
+  }
+
   /**
    * Used for P2P Reader Threads in ConnectionTable
    */
@@ -30,6 +30,7 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.OutOfOffHeapMemoryException;
+import org.apache.geode.logging.internal.executors.LoggingThread;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.util.internal.GeodeGlossary;
 
@@ -139,11 +140,17 @@ public class FreeListManager {
    */
   private final AtomicInteger lastFragmentAllocation = new AtomicInteger(0);
   private final CopyOnWriteArrayList<Fragment> fragmentList;
-  private final MemoryAllocatorImpl ma;
+  final MemoryAllocatorImpl ma;
 
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, BACKGROUND_DEFRAGMENTATION_INTERVAL > 0);
+  }
+
+  FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs,
+      boolean incrementalDefragmentation) {
     this.ma = ma;
     this.slabs = slabs;
+    this.incrementalDefragmentation = incrementalDefragmentation;
     long total = 0;
     Fragment[] tmp = new Fragment[slabs.length];
     for (int i = 0; i < slabs.length; i++) {
@@ -287,6 +294,31 @@ public class FreeListManager {
   }
 
   protected final AtomicInteger defragmentationCount = new AtomicInteger();
+  /**
+   * How often, in milliseconds, a background thread checks whether off-heap memory needs to be
+   * defragmented. Setting this also switches defragmentation to the incremental algorithm that
+   * processes one slab at a time. The default of 0 disables both.
+   */
+  public static final long BACKGROUND_DEFRAGMENTATION_INTERVAL =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "OFF_HEAP_BACKGROUND_DEFRAGMENTATION_INTERVAL",
+          0);
+  /**
+   * If true memory is defragmented one slab at a time while allocation continues on the others.
+   */
+  private final boolean incrementalDefragmentation;
+  /**
+   * True while an incremental defragmentation is running. Guarded by this.
+   */
+  private boolean incrementalDefragmentationInProgress;
+  /**
+   * The number of slabs defragmented by incremental defragmentations. Guarded by this.
+   */
+  private long slabsDefragmented;
+  /**
+   * The slab the next incremental defragmentation starts with.
+   */
+  private int nextSlabToDefragment;
+  private volatile Thread backgroundDefragmenter;
   /*
    * Set this to "true" to perform data integrity checks on allocated and reused Chunks. This may
    * clobber performance so turn on only when necessary.
@@ -363,6 +395,9 @@ public class FreeListManager {
    * returns false;
    */
   boolean defragment(int chunkSize) {
+    if (this.incrementalDefragmentation) {
+      return defragmentIncrementally(chunkSize);
+    }
     final long startDefragmentationTime = this.ma.getStats().startDefragmentation();
     final int countPreSync = this.defragmentationCount.get();
     afterDefragmentationCountFetched();
@@ -523,6 +558,253 @@ public class FreeListManager {
     return result;
   }
 
+  /**
+   * Defragments memory one slab at a time and returns true as soon as a slab yields a free fragment
+   * of at least chunkSize bytes. Only the free memory of the slab being defragmented is unavailable
+   * while it is processed; allocations keep being served by the other slabs. A thread that finds
+   * another incremental defragmentation in progress waits for it to finish its current slab and
+   * returns true so that its caller retries the allocation.
+   */
+  private boolean defragmentIncrementally(int chunkSize) {
+    final int countPreSync = this.defragmentationCount.get();
+    afterDefragmentationCountFetched();
+    synchronized (this) {
+      if (this.defragmentationCount.get() != countPreSync) {
+        // someone else did a defragmentation while we waited on the sync.
+        // So just return true causing the caller to retry the allocation.
+        return true;
+      }
+      if (this.incrementalDefragmentationInProgress) {
+        waitForDefragmentationProgress();
+        return true;
+      }
+      this.incrementalDefragmentationInProgress = true;
+    }
+    final OffHeapMemoryStats stats = this.ma.getStats();
+    final long startDefragmentationTime = stats.startDefragmentation();
+    boolean result = false;
+    try {
+      final int firstSlab = this.nextSlabToDefragment;
+      for (int i = 0; i < this.slabs.length && !result; i++) {
+        final int slabId = (firstSlab + i) % this.slabs.length;
+        result = defragmentSlab(slabId, chunkSize);
+        this.nextSlabToDefragment = (slabId + 1) % this.slabs.length;
+        stats.setDefragmentationProgress((int) (((i + 1) * 100L) / this.slabs.length));
+        synchronized (this) {
+          this.slabsDefragmented++;
+          notifyAll();
+        }
+      }
+      updateFragmentStats();
+      return result;
+    } finally {
+      synchronized (this) {
+        this.incrementalDefragmentationInProgress = false;
+        // Signal any waiters that a defragmentation happened.
+        this.defragmentationCount.incrementAndGet();
+        notifyAll();
+      }
+      stats.setDefragmentationProgress(0);
+      stats.endDefragmentation(startDefragmentationTime);
+    }
+  }
+
+  /**
+   * Waits, without giving up on an interrupt, until the incremental defragmentation in progress
+   * has finished another slab. Must be called while synchronized on this.
+   */
+  private void waitForDefragmentationProgress() {
+    final long slabsDefragmentedAtStart = this.slabsDefragmented;
+    boolean interrupted = false;
+    try {
+      while (this.incrementalDefragmentationInProgress
+          && this.slabsDefragmented == slabsDefragmentedAtStart) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Takes the free memory of one slab out of the free lists and fragments, combines the adjacent
+   * chunks and gives the result back as new fragments. Concurrent allocations and frees are not
+   * blocked; memory freed into the slab while this runs is simply left for the next pass.
+   *
+   * @return true if one of the new fragments is at least chunkSize bytes
+   */
+  boolean defragmentSlab(int slabId, int chunkSize) {
+    final OffHeapMemoryStats stats = this.ma.getStats();
+    final long startTime = stats.startSlabDefragmentation();
+    try {
+      final long slabStart = this.slabs[slabId].getMemoryAddress();
+      final long slabEnd = slabStart + this.slabs[slabId].getSize();
+      ResizableLongArray freeChunks = new ResizableLongArray();
+      collectSlabFragmentChunks(slabStart, slabEnd, freeChunks);
+      collectSlabHugeChunks(slabStart, slabEnd, freeChunks);
+      collectSlabTinyChunks(slabStart, slabEnd, freeChunks);
+      Arrays.sort(freeChunks.data, 0, freeChunks.size());
+
+      boolean result = false;
+      ArrayList<Fragment> newFragments = new ArrayList<Fragment>();
+      int i = 0;
+      while (i < freeChunks.size()) {
+        final long addr = freeChunks.get(i);
+        i++;
+        while (i < freeChunks.size() && combineIfAdjacentAndSmallEnough(addr, freeChunks.get(i))) {
+          i++;
+        }
+        int addrSize = OffHeapStoredObject.getSize(addr);
+        if (addrSize >= chunkSize) {
+          result = true;
+        }
+        Fragment f = createFragment(addr, addrSize);
+        if (this.validateMemoryWithFill) {
+          f.fill();
+        }
+        newFragments.add(f);
+      }
+      this.fragmentList.addAll(newFragments);
+      return result;
+    } finally {
+      stats.endSlabDefragmentation(startTime);
+    }
+  }
+
+  /**
+   * Claims the unallocated space of every fragment in the given slab and removes those fragments.
+   */
+  private void collectSlabFragmentChunks(long slabStart, long slabEnd, ResizableLongArray result) {
+    for (Fragment f : this.fragmentList) {
+      if (f.getAddress() < slabStart || f.getAddress() >= slabEnd) {
+        continue;
+      }
+      int offset;
+      int diff;
+      do {
+        offset = f.getFreeIndex();
+        diff = f.getSize() - offset;
+      } while (diff >= OffHeapStoredObject.MIN_CHUNK_SIZE && !f.allocate(offset, offset + diff));
+      this.fragmentList.remove(f);
+      if (diff < OffHeapStoredObject.MIN_CHUNK_SIZE) {
+        // The fragment is completely allocated.
+        assert diff == 0;
+        continue;
+      }
+      long chunkAddr = f.getAddress() + offset;
+      OffHeapStoredObject.setSize(chunkAddr, diff);
+      result.add(chunkAddr);
+    }
+  }
+
+  private void collectSlabHugeChunks(long slabStart, long slabEnd, ResizableLongArray result) {
+    for (OffHeapStoredObject c : this.hugeChunkSet) {
+      long addr = c.getAddress();
+      if (addr >= slabStart && addr < slabEnd && this.hugeChunkSet.remove(c)) {
+        result.add(addr);
+      }
+    }
+  }
+
+  /**
+   * Takes the free chunks of the given slab out of the tiny free lists. Each list is emptied while
+   * it is split so an allocation of that size may briefly find it empty and fall back to the
+   * fragments.
+   */
+  private void collectSlabTinyChunks(long slabStart, long slabEnd, ResizableLongArray result) {
+    for (int i = 0; i < this.tinyFreeLists.length(); i++) {
+      OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
+      if (cl == null) {
+        continue;
+      }
+      long addr = cl.clear();
+      long keepHead = 0L;
+      long keepTail = 0L;
+      while (addr != 0L) {
+        long next = OffHeapStoredObject.getNext(addr);
+        if (addr >= slabStart && addr < slabEnd) {
+          result.add(addr);
+        } else {
+          if (keepHead == 0L) {
+            keepHead = addr;
+          } else {
+            OffHeapStoredObject.setNext(keepTail, addr);
+          }
+          keepTail = addr;
+        }
+        addr = next;
+      }
+      if (keepHead != 0L) {
+        cl.offerChain(keepHead, keepTail);
+      }
+    }
+  }
+
+  private void updateFragmentStats() {
+    int fragments = 0;
+    int largestFragment = 0;
+    for (Fragment f : this.fragmentList) {
+      int freeSpace = f.freeSpace();
+      if (freeSpace >= OffHeapStoredObject.MIN_CHUNK_SIZE) {
+        fragments++;
+        if (freeSpace > largestFragment) {
+          largestFragment = freeSpace;
+        }
+      }
+    }
+    this.ma.getStats().setLargestFragment(largestFragment);
+    this.ma.getStats().setFragments(fragments);
+    this.ma.getStats().setFragmentation(getFragmentation());
+  }
+
+  /**
+   * Starts a thread that defragments memory incrementally whenever more than half of the free
+   * memory is held in free lists instead of fragments.
+   */
+  void startBackgroundDefragmenter(final long intervalMillis) {
+    Thread thread = new LoggingThread("OffHeapDefragmenter", () -> {
+      while (true) {
+        try {
+          Thread.sleep(intervalMillis);
+        } catch (InterruptedException e) {
+          return;
+        }
+        long freeMemory = getFreeMemory();
+        if (freeMemory - getFreeFragmentMemory() > freeMemory / 2) {
+          defragment(Integer.MAX_VALUE);
+        }
+      }
+    });
+    this.backgroundDefragmenter = thread;
+    thread.start();
+  }
+
+  private void stopBackgroundDefragmenter() {
+    Thread thread = this.backgroundDefragmenter;
+    if (thread != null) {
+      this.backgroundDefragmenter = null;
+      thread.interrupt();
+      boolean interrupted = false;
+      while (thread.isAlive()) {
+        try {
+          // the slabs must not be freed while the thread is still using them
+          thread.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
   /**
    * Unit tests override this method to get better test coverage
    */
@@ -702,29 +984,87 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
-  }
-
-  private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
-      AtomicReferenceArray<OffHeapStoredObjectAddressStack> freeLists, boolean useFragments) {
-    OffHeapStoredObjectAddressStack clq = freeLists.get(idx);
-    if (clq != null) {
-      long memAddr = clq.poll();
-      if (memAddr != 0) {
-        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
-        checkDataIntegrity(result);
-        result.readyForAllocation();
-        return result;
-      }
+    final int idx = getNearestTinyMultiple(size);
+    long memAddr = pollTinyFreeList(idx);
+    if (memAddr != 0) {
+      OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+      checkDataIntegrity(result);
+      result.readyForAllocation();
+      return result;
     }
     if (useFragments) {
-      return allocateFromFragments(((idx + 1) * multiple) + offset);
+      return allocateFromFragments((idx + 1) * TINY_MULTIPLE);
     } else {
       return null;
     }
   }
 
+  /**
+   * Removes and returns the address of a free chunk from the tiny free list with the given index.
+   * Returns 0 if that free list is empty. Subclasses may override this to put a cache in front of
+   * the shared free lists.
+   */
+  protected long pollTinyFreeList(int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq != null) {
+      return clq.poll();
+    }
+    return 0L;
+  }
+
+  /**
+   * Adds the address of a freed chunk to the tiny free list with the given index. Subclasses may
+   * override this to put a cache in front of the shared free lists.
+   */
+  protected void offerTinyFreeList(long addr, int idx) {
+    basicFree(addr, idx, this.tinyFreeLists);
+  }
+
+  /**
+   * Carves up to count chunks of chunkSize bytes out of a single fragment with one allocation. The
+   * carved chunks are initialized as freed chunks and their addresses are stored in result.
+   *
+   * @return the number of chunks carved; 0 if no fragment had room for more than one chunk
+   */
+  int allocateFreeChunksFromFragments(int chunkSize, long[] result, int count) {
+    assert count <= result.length;
+    final int lastAllocationId = this.lastFragmentAllocation.get();
+    final int fragmentCount = this.fragmentList.size();
+    for (int n = 0; n < fragmentCount; n++) {
+      final int fragIdx = (lastAllocationId + n) % fragmentCount;
+      final Fragment fragment;
+      try {
+        fragment = this.fragmentList.get(fragIdx);
+      } catch (IndexOutOfBoundsException ignore) {
+        // A concurrent defragmentation can cause this.
+        return 0;
+      }
+      int carved;
+      int oldOffset;
+      do {
+        oldOffset = fragment.getFreeIndex();
+        int fragmentFreeSize = fragment.getSize() - oldOffset;
+        carved = Math.min(count, fragmentFreeSize / chunkSize);
+        int extraSize = fragmentFreeSize - (carved * chunkSize);
+        if (extraSize != 0 && extraSize < OffHeapStoredObject.MIN_CHUNK_SIZE) {
+          // leave enough behind for the normal allocation path to consume the tail
+          carved--;
+        }
+      } while (carved > 1 && !fragment.allocate(oldOffset, oldOffset + (carved * chunkSize)));
+      if (carved > 1) {
+        this.lastFragmentAllocation.set(fragIdx);
+        long addr = fragment.getAddress() + oldOffset;
+        for (int i = 0; i < carved; i++) {
+          new OffHeapStoredObject(addr, chunkSize).readyForFree();
+          result[i] = addr;
+          addr += chunkSize;
+        }
+        return carved;
+      }
+    }
+    return 0;
+  }
+
   private OffHeapStoredObject allocateHuge(int size, boolean useFragments) {
     // sizeHolder is a fake Chunk used to search our sorted hugeChunkSet.
     OffHeapStoredObject sizeHolder = new SearchMarker(size);
@@ -800,7 +1140,7 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    offerTinyFreeList(addr, getNearestTinyMultiple(cSize));
   }
 
   private void basicFree(long addr, int idx,
@@ -978,6 +1318,7 @@ public class FreeListManager {
   }
 
   void freeSlabs() {
+    stopBackgroundDefragmenter();
     for (int i = 0; i < slabs.length; i++) {
       slabs[i].free();
     }
@@ -218,7 +218,15 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
     this.stats.setFragments(slabs.length);
     this.stats.setLargestFragment(slabs[0].getSize());
 
-    this.freeList = new FreeListManager(this, slabs);
+    if (ThreadCachingFreeListManager.THREAD_CACHE_SIZE > 0) {
+      this.freeList = new ThreadCachingFreeListManager(this, slabs);
+    } else {
+      this.freeList = new FreeListManager(this, slabs);
+    }
+    if (FreeListManager.BACKGROUND_DEFRAGMENTATION_INTERVAL > 0) {
+      this.freeList
+          .startBackgroundDefragmenter(FreeListManager.BACKGROUND_DEFRAGMENTATION_INTERVAL);
+    }
     this.memoryInspector = new MemoryInspectorImpl(this.freeList);
 
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
@@ -43,6 +43,18 @@ public interface OffHeapMemoryStats {
 
   void setFragmentation(int value);
 
+  void incThreadCacheMemory(long value);
+
+  void incThreadCacheRefills();
+
+  void incThreadCacheFlushes();
+
+  long startSlabDefragmentation();
+
+  void endSlabDefragmentation(long start);
+
+  void setDefragmentationProgress(int value);
+
   long getFreeMemory();
 
   long getMaxMemory();
@@ -65,6 +77,18 @@ public interface OffHeapMemoryStats {
 
   long getDefragmentationTime();
 
+  long getThreadCacheMemory();
+
+  long getThreadCacheRefills();
+
+  long getThreadCacheFlushes();
+
+  long getSlabDefragmentations();
+
+  long getDefragmentationPauseTime();
+
+  int getDefragmentationProgress();
+
   Statistics getStats();
 
   void close();
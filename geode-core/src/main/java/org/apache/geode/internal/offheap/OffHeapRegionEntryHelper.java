@@ -21,6 +21,7 @@ import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
@@ -205,6 +206,9 @@ public class OffHeapRegionEntryHelper {
     final long newAddress = objectToAddress(Token.REMOVED_PHASE2);
     if (re.setAddress(oldAddress, newAddress)) {
       releaseAddress(oldAddress);
+      if (re instanceof OffHeapKeyRegionEntry) {
+        releaseKey((OffHeapKeyRegionEntry) re);
+      }
     } /*
        * else { if (!calledSetValue || re.getAddress() != newAddress) { expectedValue.release(); } }
        */
@@ -359,6 +363,9 @@ public class OffHeapRegionEntryHelper {
     ReferenceCountHelper.setReferenceCountOwner(re);
     releaseAddress(oldAddress);
     ReferenceCountHelper.setReferenceCountOwner(null);
+    if (newAddress == REMOVED_PHASE2_ADDRESS && re instanceof OffHeapKeyRegionEntry) {
+      releaseKey((OffHeapKeyRegionEntry) re);
+    }
   }
 
   public static Token getValueAsToken(@Unretained OffHeapRegionEntry re) {
@@ -436,6 +443,161 @@ public class OffHeapRegionEntryHelper {
     return (address & COMPRESSED_BIT) != 0;
   }
 
+  /**
+   * Off-heap key encoding used when every character of the key is <= 0x7f.
+   */
+  private static final byte KEY_BYTE_ENCODED = 1;
+  /**
+   * Off-heap key encoding used when the key needs two bytes per character.
+   */
+  private static final byte KEY_CHAR_ENCODED = 2;
+
+  /**
+   * Copies the given key into newly allocated off-heap memory. The first data byte records the
+   * encoding; it is followed by one byte per character if every character is <= 0x7f and by two
+   * bytes per character otherwise.
+   *
+   * @return the OFF_HEAP_ADDRESS of the key; the caller owns the single reference to it
+   */
+  @Retained
+  public static long allocateKey(String key) {
+    final int length = key.length();
+    boolean byteEncoded = true;
+    for (int i = 0; i < length; i++) {
+      if (key.charAt(i) > 0x7f) {
+        byteEncoded = false;
+        break;
+      }
+    }
+    byte[] bytes;
+    if (byteEncoded) {
+      bytes = new byte[1 + length];
+      bytes[0] = KEY_BYTE_ENCODED;
+      for (int i = 0; i < length; i++) {
+        bytes[1 + i] = (byte) key.charAt(i);
+      }
+    } else {
+      bytes = new byte[1 + (length * 2)];
+      bytes[0] = KEY_CHAR_ENCODED;
+      for (int i = 0; i < length; i++) {
+        char c = key.charAt(i);
+        bytes[1 + (i * 2)] = (byte) (c >> 8);
+        bytes[2 + (i * 2)] = (byte) c;
+      }
+    }
+    StoredObject chunk = MemoryAllocatorImpl.getAllocator().allocate(bytes.length);
+    chunk.writeDataBytes(0, bytes);
+    return chunk.getAddress();
+  }
+
+  /**
+   * Returns the key of the given entry. If the off-heap key is still owned by the entry it is
+   * decoded into a new String; otherwise the heap copy made when the key was released is returned.
+   */
+  public static Object getKey(@Unretained OffHeapKeyRegionEntry re) {
+    long addr = re.getKeyAddress();
+    while (addr != 0L) {
+      if (OffHeapStoredObject.retain(addr)) {
+        try {
+          // make sure the memory we retained still belongs to this entry's key
+          if (re.getKeyAddress() == addr) {
+            return decodeKey(new OffHeapStoredObject(addr));
+          }
+        } finally {
+          OffHeapStoredObject.release(addr);
+        }
+      }
+      addr = re.getKeyAddress();
+    }
+    return re.getReleasedKey();
+  }
+
+  /**
+   * Compares the given key with the off-heap key of the given entry without creating a heap copy
+   * of the stored key.
+   */
+  public static boolean isKeyEqual(@Unretained OffHeapKeyRegionEntry re, Object key) {
+    if (!(key instanceof String)) {
+      return false;
+    }
+    final String stringKey = (String) key;
+    long addr = re.getKeyAddress();
+    while (addr != 0L) {
+      if (OffHeapStoredObject.retain(addr)) {
+        try {
+          if (re.getKeyAddress() == addr) {
+            return keyEquals(new OffHeapStoredObject(addr), stringKey);
+          }
+        } finally {
+          OffHeapStoredObject.release(addr);
+        }
+      }
+      addr = re.getKeyAddress();
+    }
+    return stringKey.equals(re.getReleasedKey());
+  }
+
+  /**
+   * Called once an entry has been set to REMOVED_PHASE2 or did not make it into the region map. A
+   * heap copy of the key is kept in the entry for any thread still referencing it and then the
+   * off-heap key is released.
+   */
+  public static void releaseKey(@Unretained OffHeapKeyRegionEntry re) {
+    Object key = getKey(re);
+    long addr = re.getKeyAddress();
+    if (addr != 0L) {
+      re.setReleasedKey(key);
+      if (re.setKeyAddress(addr, 0L)) {
+        OffHeapStoredObject.release(addr);
+      }
+    }
+  }
+
+  private static String decodeKey(@Unretained OffHeapStoredObject chunk) {
+    final int dataSize = chunk.getDataSize();
+    char[] chars;
+    if (chunk.readDataByte(0) == KEY_BYTE_ENCODED) {
+      chars = new char[dataSize - 1];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) (chunk.readDataByte(1 + i) & 0xff);
+      }
+    } else {
+      chars = new char[(dataSize - 1) / 2];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) (((chunk.readDataByte(1 + (i * 2)) & 0xff) << 8)
+            | (chunk.readDataByte(2 + (i * 2)) & 0xff));
+      }
+    }
+    return new String(chars);
+  }
+
+  private static boolean keyEquals(@Unretained OffHeapStoredObject chunk, String key) {
+    final int dataSize = chunk.getDataSize();
+    final int length = key.length();
+    if (chunk.readDataByte(0) == KEY_BYTE_ENCODED) {
+      if (dataSize - 1 != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (key.charAt(i) != (char) (chunk.readDataByte(1 + i) & 0xff)) {
+          return false;
+        }
+      }
+    } else {
+      if ((dataSize - 1) / 2 != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        char c = (char) (((chunk.readDataByte(1 + (i * 2)) & 0xff) << 8)
+            | (chunk.readDataByte(2 + (i * 2)) & 0xff));
+        if (key.charAt(i) != c) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   private static final ThreadLocal<Object> clearNeedsToCheckForOffHeap = new ThreadLocal<Object>();
 
   public static boolean doesClearNeedToCheckForOffHeap() {
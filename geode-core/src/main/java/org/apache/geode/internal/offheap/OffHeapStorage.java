@@ -61,6 +61,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int threadCacheMemoryId;
+  private static final int threadCacheRefillsId;
+  private static final int threadCacheFlushesId;
+  private static final int slabDefragmentationsId;
+  private static final int defragmentationPauseTimeId;
+  private static final int defragmentationProgressId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -87,6 +93,18 @@ public class OffHeapStorage implements OffHeapMemoryStats {
         "The total number of reads of off-heap memory. Only reads of a full object increment this statistic. If only a part of the object is read this statistic is not incremented.";
     final String maxMemoryDesc =
         "The maximum amount of off-heap memory, in bytes. This is the amount of memory allocated at startup and does not change.";
+    final String threadCacheMemoryDesc =
+        "The amount of free off-heap memory, in bytes, held in per-thread allocation caches.";
+    final String threadCacheRefillsDesc =
+        "The total number of times a per-thread allocation cache was refilled from the shared free lists or fragments.";
+    final String threadCacheFlushesDesc =
+        "The total number of times a per-thread allocation cache returned free memory to the shared free lists.";
+    final String slabDefragmentationsDesc =
+        "The total number of slabs defragmented by incremental defragmentations.";
+    final String defragmentationPauseTimeDesc =
+        "The total time the free memory of a slab was unavailable for allocation while the slab was defragmented incrementally.";
+    final String defragmentationProgressDesc =
+        "The percentage of slabs already processed by the incremental defragmentation in progress.";
 
     final String usedMemory = "usedMemory";
     final String defragmentations = "defragmentations";
@@ -99,6 +117,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String objects = "objects";
     final String reads = "reads";
     final String maxMemory = "maxMemory";
+    final String threadCacheMemory = "threadCacheMemory";
+    final String threadCacheRefills = "threadCacheRefills";
+    final String threadCacheFlushes = "threadCacheFlushes";
+    final String slabDefragmentations = "slabDefragmentations";
+    final String defragmentationPauseTime = "defragmentationPauseTime";
+    final String defragmentationProgress = "defragmentationProgress";
 
     statsType = f.createType(statsTypeName, statsTypeDescription,
         new StatisticDescriptor[] {f.createLongGauge(usedMemory, usedMemoryDesc, "bytes"),
@@ -112,7 +136,15 @@ public class OffHeapStorage implements OffHeapMemoryStats {
             f.createIntGauge(largestFragment, largestFragmentDesc, "bytes"),
             f.createIntGauge(objects, objectsDesc, "objects"),
             f.createLongCounter(reads, readsDesc, "operations"),
-            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),});
+            f.createLongGauge(maxMemory, maxMemoryDesc, "bytes"),
+            f.createLongGauge(threadCacheMemory, threadCacheMemoryDesc, "bytes"),
+            f.createLongCounter(threadCacheRefills, threadCacheRefillsDesc, "operations"),
+            f.createLongCounter(threadCacheFlushes, threadCacheFlushesDesc, "operations"),
+            f.createLongCounter(slabDefragmentations, slabDefragmentationsDesc, "operations"),
+            f.createLongCounter(defragmentationPauseTime, defragmentationPauseTimeDesc,
+                "nanoseconds", false),
+            f.createIntGauge(defragmentationProgress, defragmentationProgressDesc,
+                "percentage"),});
 
     usedMemoryId = statsType.nameToId(usedMemory);
     defragmentationId = statsType.nameToId(defragmentations);
@@ -125,6 +157,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     objectsId = statsType.nameToId(objects);
     readsId = statsType.nameToId(reads);
     maxMemoryId = statsType.nameToId(maxMemory);
+    threadCacheMemoryId = statsType.nameToId(threadCacheMemory);
+    threadCacheRefillsId = statsType.nameToId(threadCacheRefills);
+    threadCacheFlushesId = statsType.nameToId(threadCacheFlushes);
+    slabDefragmentationsId = statsType.nameToId(slabDefragmentations);
+    defragmentationPauseTimeId = statsType.nameToId(defragmentationPauseTime);
+    defragmentationProgressId = statsType.nameToId(defragmentationProgress);
   }
 
   public static long parseOffHeapMemorySize(String value) {
@@ -387,6 +425,69 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return this.stats.getInt(fragmentationId);
   }
 
+  @Override
+  public void incThreadCacheMemory(long value) {
+    this.stats.incLong(threadCacheMemoryId, value);
+  }
+
+  @Override
+  public long getThreadCacheMemory() {
+    return this.stats.getLong(threadCacheMemoryId);
+  }
+
+  @Override
+  public void incThreadCacheRefills() {
+    this.stats.incLong(threadCacheRefillsId, 1);
+  }
+
+  @Override
+  public long getThreadCacheRefills() {
+    return this.stats.getLong(threadCacheRefillsId);
+  }
+
+  @Override
+  public void incThreadCacheFlushes() {
+    this.stats.incLong(threadCacheFlushesId, 1);
+  }
+
+  @Override
+  public long getThreadCacheFlushes() {
+    return this.stats.getLong(threadCacheFlushesId);
+  }
+
+  @Override
+  public long startSlabDefragmentation() {
+    return DistributionStats.getStatTime();
+  }
+
+  @Override
+  public void endSlabDefragmentation(long start) {
+    this.stats.incLong(slabDefragmentationsId, 1);
+    if (DistributionStats.enableClockStats) {
+      this.stats.incLong(defragmentationPauseTimeId, DistributionStats.getStatTime() - start);
+    }
+  }
+
+  @Override
+  public long getSlabDefragmentations() {
+    return this.stats.getLong(slabDefragmentationsId);
+  }
+
+  @Override
+  public long getDefragmentationPauseTime() {
+    return this.stats.getLong(defragmentationPauseTimeId);
+  }
+
+  @Override
+  public void setDefragmentationProgress(int value) {
+    this.stats.setInt(defragmentationProgressId, value);
+  }
+
+  @Override
+  public int getDefragmentationProgress() {
+    return this.stats.getInt(defragmentationProgressId);
+  }
+
   @Override
   public Statistics getStats() {
     return this.stats;
@@ -410,10 +511,36 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
     setFragmentation(oldStats.getFragmentation());
+    setThreadCacheMemory(oldStats.getThreadCacheMemory());
+    setThreadCacheRefills(oldStats.getThreadCacheRefills());
+    setThreadCacheFlushes(oldStats.getThreadCacheFlushes());
+    setSlabDefragmentations(oldStats.getSlabDefragmentations());
+    setDefragmentationPauseTime(oldStats.getDefragmentationPauseTime());
+    setDefragmentationProgress(oldStats.getDefragmentationProgress());
 
     oldStats.close();
   }
 
+  private void setThreadCacheMemory(long value) {
+    this.stats.setLong(threadCacheMemoryId, value);
+  }
+
+  private void setThreadCacheRefills(long value) {
+    this.stats.setLong(threadCacheRefillsId, value);
+  }
+
+  private void setThreadCacheFlushes(long value) {
+    this.stats.setLong(threadCacheFlushesId, value);
+  }
+
+  private void setSlabDefragmentations(long value) {
+    this.stats.setLong(slabDefragmentationsId, value);
+  }
+
+  private void setDefragmentationPauseTime(long value) {
+    this.stats.setLong(defragmentationPauseTimeId, value);
+  }
+
   private void setDefragmentationTime(long value) {
     stats.setLong(defragmentationTimeId, value);
   }
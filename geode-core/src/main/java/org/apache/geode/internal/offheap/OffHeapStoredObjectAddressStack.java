@@ -51,6 +51,19 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     }
   }
 
+  /**
+   * Pushes a chain of addresses, already linked from head to tail, with a single update.
+   */
+  public void offerChain(long head, long tail) {
+    assert head != 0 && tail != 0;
+    MemoryAllocatorImpl.validateAddress(head);
+    MemoryAllocatorImpl.validateAddress(tail);
+    synchronized (this) {
+      OffHeapStoredObject.setNext(tail, this.topAddr);
+      this.topAddr = head;
+    }
+  }
+
   @Override
   public long poll() {
     long result;
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * A FreeListManager that keeps a small cache of free chunks for each thread in front of the shared
+ * tiny free lists, in the spirit of the thread caches of tcmalloc and jemalloc. Every size class of
+ * TINY_MULTIPLE bytes up to {@link #MAX_CACHED_CHUNK_SIZE} has its own cached stack of addresses.
+ * <p>
+ * Allocating or freeing a cached size class only touches the calling thread's cache. When a cache
+ * is empty it is refilled with a batch of chunks taken from the shared free list or, if that is
+ * empty, carved out of a fragment with a single compare-and-set. When a cache is full half of it is
+ * flushed back to the shared free list. This way threads contend on the shared free lists and
+ * fragments once per batch instead of once per allocation.
+ * <p>
+ * Cached chunks are invisible to defragmentation so the caches are flushed before memory is
+ * defragmented. Each cache is flushed under its own lock which is otherwise only taken by its
+ * owning thread, so flushing never stops allocation on the other threads. The caches of threads
+ * that have died are flushed as new threads register theirs.
+ */
+public class ThreadCachingFreeListManager extends FreeListManager {
+  /**
+   * The maximum number of bytes of free chunks each thread may cache. Thread caches are disabled
+   * when this is 0, which is the default.
+   */
+  public static final int THREAD_CACHE_SIZE =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_SIZE", 0);
+
+  /**
+   * Chunks larger than this are always allocated from the shared free lists.
+   */
+  static final int MAX_CACHED_CHUNK_SIZE = 4096;
+
+  /**
+   * The maximum number of chunks cached per size class.
+   */
+  static final int CACHED_CHUNKS_PER_SIZE = 64;
+
+  private final int cachedListCount;
+
+  private final int threadCacheSize;
+
+  private final CopyOnWriteArrayList<ThreadCache> threadCaches = new CopyOnWriteArrayList<>();
+
+  private final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<ThreadCache>() {
+    @Override
+    protected ThreadCache initialValue() {
+      return registerThreadCache();
+    }
+  };
+
+  public ThreadCachingFreeListManager(MemoryAllocatorImpl ma, Slab[] slabs) {
+    this(ma, slabs, THREAD_CACHE_SIZE);
+  }
+
+  ThreadCachingFreeListManager(MemoryAllocatorImpl ma, Slab[] slabs, int threadCacheSize) {
+    super(ma, slabs);
+    this.threadCacheSize = threadCacheSize;
+    this.cachedListCount = Math.min(MAX_CACHED_CHUNK_SIZE, MAX_TINY) / TINY_MULTIPLE;
+  }
+
+  private ThreadCache registerThreadCache() {
+    flushDeadThreadCaches();
+    ThreadCache cache = new ThreadCache(Thread.currentThread(), this.cachedListCount);
+    this.threadCaches.add(cache);
+    return cache;
+  }
+
+  private void flushDeadThreadCaches() {
+    for (ThreadCache cache : this.threadCaches) {
+      if (!cache.isOwnerAlive()) {
+        flush(cache);
+        this.threadCaches.remove(cache);
+      }
+    }
+  }
+
+  @Override
+  protected long pollTinyFreeList(int idx) {
+    if (idx >= this.cachedListCount) {
+      return super.pollTinyFreeList(idx);
+    }
+    final int chunkSize = (idx + 1) * TINY_MULTIPLE;
+    final ThreadCache cache = this.threadCache.get();
+    synchronized (cache) {
+      long addr = cache.pop(idx);
+      if (addr == 0L) {
+        refill(cache, idx, chunkSize);
+        addr = cache.pop(idx);
+      }
+      if (addr != 0L) {
+        cache.cachedBytes -= chunkSize;
+        getStats().incThreadCacheMemory(-chunkSize);
+      }
+      return addr;
+    }
+  }
+
+  @Override
+  protected void offerTinyFreeList(long addr, int idx) {
+    if (idx >= this.cachedListCount) {
+      super.offerTinyFreeList(addr, idx);
+      return;
+    }
+    final int chunkSize = (idx + 1) * TINY_MULTIPLE;
+    final ThreadCache cache = this.threadCache.get();
+    synchronized (cache) {
+      if (cache.size(idx) == CACHED_CHUNKS_PER_SIZE
+          || cache.cachedBytes + chunkSize > this.threadCacheSize) {
+        if (!flushHalf(cache, idx, chunkSize)) {
+          super.offerTinyFreeList(addr, idx);
+          return;
+        }
+      }
+      cache.push(idx, addr);
+      cache.cachedBytes += chunkSize;
+      getStats().incThreadCacheMemory(chunkSize);
+    }
+  }
+
+  /**
+   * Fills the given size class of the cache with up to half its capacity. Must be called while
+   * synchronized on the cache.
+   */
+  private void refill(ThreadCache cache, int idx, int chunkSize) {
+    int count = Math.min(CACHED_CHUNKS_PER_SIZE / 2,
+        (int) ((this.threadCacheSize - cache.cachedBytes) / chunkSize));
+    if (count <= 1) {
+      return;
+    }
+    int added = 0;
+    for (; added < count; added++) {
+      long addr = super.pollTinyFreeList(idx);
+      if (addr == 0L) {
+        break;
+      }
+      cache.push(idx, addr);
+    }
+    if (added == 0) {
+      long[] carved = cache.getBatchBuffer();
+      added = allocateFreeChunksFromFragments(chunkSize, carved, count);
+      for (int i = 0; i < added; i++) {
+        cache.push(idx, carved[i]);
+      }
+    }
+    if (added > 0) {
+      cache.cachedBytes += (long) added * chunkSize;
+      getStats().incThreadCacheMemory((long) added * chunkSize);
+      getStats().incThreadCacheRefills();
+    }
+  }
+
+  /**
+   * Returns half of the cached chunks of the given size class to the shared free list. Must be
+   * called while synchronized on the cache.
+   *
+   * @return false if nothing was cached for that size class
+   */
+  private boolean flushHalf(ThreadCache cache, int idx, int chunkSize) {
+    int count = (cache.size(idx) + 1) / 2;
+    if (count == 0) {
+      return false;
+    }
+    for (int i = 0; i < count; i++) {
+      super.offerTinyFreeList(cache.pop(idx), idx);
+    }
+    cache.cachedBytes -= (long) count * chunkSize;
+    getStats().incThreadCacheMemory(-(long) count * chunkSize);
+    getStats().incThreadCacheFlushes();
+    return true;
+  }
+
+  /**
+   * Returns all the chunks cached by the given thread cache to the shared free lists.
+   */
+  private void flush(ThreadCache cache) {
+    synchronized (cache) {
+      if (cache.cachedBytes == 0) {
+        return;
+      }
+      for (int idx = 0; idx < this.cachedListCount; idx++) {
+        long addr = cache.pop(idx);
+        while (addr != 0L) {
+          super.offerTinyFreeList(addr, idx);
+          addr = cache.pop(idx);
+        }
+      }
+      getStats().incThreadCacheMemory(-cache.cachedBytes);
+      getStats().incThreadCacheFlushes();
+      cache.cachedBytes = 0;
+    }
+  }
+
+  /**
+   * Returns the chunks cached by every thread to the shared free lists. Each thread cache is
+   * flushed in turn so threads keep allocating while this runs.
+   */
+  void flushThreadCaches() {
+    for (ThreadCache cache : this.threadCaches) {
+      flush(cache);
+      if (!cache.isOwnerAlive()) {
+        this.threadCaches.remove(cache);
+      }
+    }
+  }
+
+  @Override
+  boolean defragment(int chunkSize) {
+    flushThreadCaches();
+    return super.defragment(chunkSize);
+  }
+
+  @Override
+  long getFreeTinyMemory() {
+    long result = super.getFreeTinyMemory();
+    for (ThreadCache cache : this.threadCaches) {
+      result += cache.cachedBytes;
+    }
+    return result;
+  }
+
+  long getThreadCacheMemory() {
+    long result = 0;
+    for (ThreadCache cache : this.threadCaches) {
+      result += cache.cachedBytes;
+    }
+    return result;
+  }
+
+  private OffHeapMemoryStats getStats() {
+    return this.ma.getStats();
+  }
+
+  /**
+   * The free chunks cached for one thread, kept as a stack of addresses per size class. All access
+   * must be synchronized on the cache; only its owner and a thread flushing it ever do so.
+   */
+  private static class ThreadCache {
+    private final WeakReference<Thread> owner;
+
+    private final long[][] stacks;
+
+    private final int[] sizes;
+
+    private long[] batchBuffer;
+
+    /** the number of bytes held by all the cached chunks; read without sync for statistics */
+    volatile long cachedBytes;
+
+    ThreadCache(Thread owner, int listCount) {
+      this.owner = new WeakReference<>(owner);
+      this.stacks = new long[listCount][];
+      this.sizes = new int[listCount];
+    }
+
+    boolean isOwnerAlive() {
+      Thread thread = this.owner.get();
+      return thread != null && thread.isAlive();
+    }
+
+    int size(int idx) {
+      return this.sizes[idx];
+    }
+
+    long pop(int idx) {
+      int size = this.sizes[idx];
+      if (size == 0) {
+        return 0L;
+      }
+      size--;
+      this.sizes[idx] = size;
+      return this.stacks[idx][size];
+    }
+
+    void push(int idx, long addr) {
+      long[] stack = this.stacks[idx];
+      if (stack == null) {
+        stack = new long[CACHED_CHUNKS_PER_SIZE];
+        this.stacks[idx] = stack;
+      }
+      stack[this.sizes[idx]++] = addr;
+    }
+
+    long[] getBatchBuffer() {
+      if (this.batchBuffer == null) {
+        this.batchBuffer = new long[CACHED_CHUNKS_PER_SIZE];
+      }
+      return this.batchBuffer;
+    }
+  }
+}
@@ -430,6 +430,14 @@ public class Connection implements Runnable {
   private static final int BATCH_BUFFER_SIZE =
       Integer.getInteger("p2p.batchBufferSize", 1024 * 1024);
   private static final int BATCH_FLUSH_MS = Integer.getInteger("p2p.batchFlushTime", 50);
+
+  /**
+   * The maximum size of a chunked message that is received into a pooled buffer and deserialized
+   * by the reader thread, instead of being streamed to a destreamer thread chunk by chunk. Zero,
+   * the default, streams every chunked message.
+   */
+  private static final int MAX_BUFFERED_CHUNKED_MESSAGE_SIZE =
+      Integer.getInteger("p2p.MAX_BUFFERED_CHUNKED_MESSAGE_SIZE", 0);
   private final Object batchLock = new Object();
   private ByteBuffer fillBatchBuffer;
   private ByteBuffer sendBatchBuffer;
@@ -1855,8 +1863,8 @@ public class Connection implements Runnable {
         if (result != null) {
           idleMsgDestreamer = null;
         } else {
-          result =
-              new MsgDestreamer(owner.getConduit().getStats(), conduit.getCancelCriterion(), v);
+          result = new MsgDestreamer(owner.getConduit().getStats(), conduit.getCancelCriterion(), v,
+              getBufferPool(), MAX_BUFFERED_CHUNKED_MESSAGE_SIZE);
         }
         result.setName(p2pReaderName() + " msgId=" + msgId);
         destreamerMap.put(key, result);
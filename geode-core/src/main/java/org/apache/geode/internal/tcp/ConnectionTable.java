@@ -82,6 +82,22 @@ public class ConnectionTable {
    */
   private final Map orderedConnectionMap = new ConcurrentHashMap();
 
+  /**
+   * The number of shared ordered connections to each member used by the threads that would
+   * otherwise own their ordered connections. A thread always sends on the same one of them, so the
+   * messages it sends to a member are still received in order, and the messages received on them
+   * are processed by the receiver's executors instead of by a reader thread per sending thread.
+   * Zero, the default, gives each of those threads connections of its own.
+   */
+  static final int SHARED_ORDERED_CONNECTIONS =
+      Integer.getInteger("p2p.SHARED_ORDERED_CONNECTIONS_PER_MEMBER", 0);
+
+  /**
+   * Used like orderedConnectionMap for each of the SHARED_ORDERED_CONNECTIONS connections to a
+   * member.
+   */
+  private final Map[] stripedConnectionMaps;
+
   /**
    * ordered connections local to this thread.
    */
@@ -185,16 +201,25 @@ public class ConnectionTable {
   }
 
   public static ConnectionTable create(TCPConduit conduit) {
-    ConnectionTable ct = new ConnectionTable(conduit);
+    return create(conduit, SHARED_ORDERED_CONNECTIONS);
+  }
+
+  @VisibleForTesting
+  static ConnectionTable create(TCPConduit conduit, int sharedOrderedConnections) {
+    ConnectionTable ct = new ConnectionTable(conduit, sharedOrderedConnections);
     lastInstance.set(ct);
     return ct;
   }
 
-  private ConnectionTable(TCPConduit conduit) {
+  private ConnectionTable(TCPConduit conduit, int sharedOrderedConnections) {
     owner = conduit;
     idleConnTimer = owner.idleConnectionTimeout != 0
         ? new SystemTimer(conduit.getDM().getSystem()) : null;
     threadConnectionMap = new ConcurrentHashMap();
+    stripedConnectionMaps = new Map[sharedOrderedConnections];
+    for (int i = 0; i < stripedConnectionMaps.length; i++) {
+      stripedConnectionMaps[i] = new ConcurrentHashMap();
+    }
     p2pReaderThreadPool = createThreadPoolForIO(conduit.getDM().getSystem().isShareSockets());
     socketCloser = new SocketCloser();
     bufferPool = conduit.getBufferPool();
@@ -345,6 +370,7 @@ public class ConnectionTable {
    * @param id the DistributedMember on which we are creating a connection
    * @param scheduleTimeout whether unordered connection should time out
    * @param preserveOrder whether to preserve order
+   * @param m the map holding the connection
    * @param startTime the ms clock start time for the operation
    * @param ackTimeout the ms ack-wait-threshold, or zero
    * @param ackSATimeout the ms ack-severe-alert-threshold, or zero
@@ -352,11 +378,9 @@ public class ConnectionTable {
    * @throws IOException if unable to create the connection
    */
   private Connection getSharedConnection(InternalDistributedMember id, boolean scheduleTimeout,
-      boolean preserveOrder, long startTime, long ackTimeout, long ackSATimeout)
+      boolean preserveOrder, Map m, long startTime, long ackTimeout, long ackSATimeout)
       throws IOException, DistributedSystemDisconnectedException {
 
-    final Map m = preserveOrder ? orderedConnectionMap : unorderedConnectionMap;
-
     // new connection, if needed
     PendingConnection pc = null;
 
@@ -373,7 +397,7 @@ public class ConnectionTable {
         }
       }
       if (mEntry == null) {
-        pc = new PendingConnection(preserveOrder, id);
+        pc = new PendingConnection(preserveOrder, id, m);
         m.put(id, pc);
       }
     }
@@ -544,8 +568,12 @@ public class ConnectionTable {
     Connection result;
     boolean threadOwnsResources = threadOwnsResources();
     if (!preserveOrder || !threadOwnsResources) {
-      result = getSharedConnection(id, threadOwnsResources, preserveOrder, startTime, ackTimeout,
+      result = getSharedConnection(id, threadOwnsResources, preserveOrder,
+          preserveOrder ? orderedConnectionMap : unorderedConnectionMap, startTime, ackTimeout,
           ackSATimeout);
+    } else if (stripedConnectionMaps.length > 0 && getThreadOwnsResourcesRegistration() == null) {
+      result = getSharedConnection(id, false, true, getStripedConnectionMap(Thread.currentThread()),
+          startTime, ackTimeout, ackSATimeout);
     } else {
       result = getThreadOwnedConnection(id, startTime, ackTimeout, ackSATimeout);
     }
@@ -555,6 +583,14 @@ public class ConnectionTable {
     return result;
   }
 
+  /**
+   * Returns the map of the shared ordered connections the given thread sends on in place of
+   * connections of its own. A thread always gets the same map.
+   */
+  Map getStripedConnectionMap(Thread thread) {
+    return stripedConnectionMaps[(int) (thread.getId() % stripedConnectionMaps.length)];
+  }
+
   synchronized void fileDescriptorsExhausted() {
     if (!ulimitWarningIssued) {
       ulimitWarningIssued = true;
@@ -621,6 +657,14 @@ public class ConnectionTable {
       }
       orderedConnectionMap.clear();
     }
+    for (Map m : stripedConnectionMaps) {
+      synchronized (m) {
+        for (Object o : m.values()) {
+          closeCon("Connection table being destroyed", o);
+        }
+        m.clear();
+      }
+    }
     synchronized (unorderedConnectionMap) {
       for (Object o : unorderedConnectionMap.values()) {
         closeCon("Connection table being destroyed", o);
@@ -726,6 +770,9 @@ public class ConnectionTable {
         }
       }
     }
+    for (int i = 0; !needsRemoval && i < stripedConnectionMaps.length; i++) {
+      needsRemoval = stripedConnectionMaps[i].get(memberID) != null;
+    }
     if (!needsRemoval) {
       ConcurrentMap cm = threadConnectionMap;
       if (cm != null) {
@@ -750,6 +797,15 @@ public class ConnectionTable {
         }
         closeCon(reason, c);
       }
+      for (Map m : stripedConnectionMaps) {
+        synchronized (m) {
+          Object c = m.remove(memberID);
+          if (remoteAddress == null && c instanceof Connection) {
+            remoteAddress = ((Connection) c).getRemoteAddress();
+          }
+          closeCon(reason, c);
+        }
+      }
 
       ConcurrentMap cm = threadConnectionMap;
       if (cm != null) {
@@ -872,6 +928,13 @@ public class ConnectionTable {
           closeCon(reason, orderedConnectionMap.remove(stub));
         }
       }
+      for (Map m : stripedConnectionMaps) {
+        synchronized (m) {
+          if (m.get(stub) == c) {
+            closeCon(reason, m.remove(stub));
+          }
+        }
+      }
     } else {
       synchronized (unorderedConnectionMap) {
         if (unorderedConnectionMap.get(stub) == c) {
@@ -931,12 +994,20 @@ public class ConnectionTable {
   }
 
   /**
-   * records the current outgoing message count on all thread-owned ordered connections. This does
-   * not synchronize or stop new connections from being formed or new messages from being sent
+   * records the current outgoing message count on all thread-owned ordered connections, and on the
+   * shared ordered connections used in their place. This does not synchronize or stop new
+   * connections from being formed or new messages from being sent
    *
    * @since GemFire 5.1
    */
   void getThreadOwnedOrderedConnectionState(DistributedMember member, Map result) {
+    for (Map m : stripedConnectionMaps) {
+      Object o = m.get(member);
+      if (o instanceof Connection) {
+        Connection conn = (Connection) o;
+        result.put(conn.getUniqueId(), conn.getMessagesSent());
+      }
+    }
     ConcurrentMap cm = threadConnectionMap;
     if (cm != null) {
       ArrayList al = (ArrayList) cm.get(member);
@@ -1025,7 +1096,8 @@ public class ConnectionTable {
     return receivers.size();
   }
 
-  private class PendingConnection {
+  @VisibleForTesting
+  class PendingConnection {
 
     /**
      * true if this connection is still pending
@@ -1049,9 +1121,15 @@ public class ConnectionTable {
 
     private final Thread connectingThread;
 
-    private PendingConnection(boolean preserveOrder, DistributedMember id) {
+    /**
+     * the map holding this pending connection
+     */
+    private final Map map;
+
+    PendingConnection(boolean preserveOrder, DistributedMember id, Map map) {
       this.preserveOrder = preserveOrder;
       this.id = id;
+      this.map = map;
       connectingThread = Thread.currentThread();
     }
 
@@ -1089,7 +1167,7 @@ public class ConnectionTable {
         throw new ReenteredConnectException("This thread is already trying to connect");
       }
 
-      final Map m = preserveOrder ? orderedConnectionMap : unorderedConnectionMap;
+      final Map m = map;
 
       DistributedMember targetMember = null;
       if (ackSATimeout > 0) {
@@ -29,6 +29,7 @@ import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.VersionedDataInputStream;
 
@@ -38,6 +39,12 @@ import org.apache.geode.internal.serialization.VersionedDataInputStream;
  * chunks. This allows us to receive a message without needing to read it completely into a buffer
  * before we can start deserializing it.
  *
+ * <p>
+ * If it is given a buffer pool, the chunks of a message are instead received into a pooled buffer
+ * as long as the message is no larger than a maximum size, and the message is deserialized from
+ * that buffer by the thread that gets it. This saves handing every chunk over to the destreamer
+ * thread, which is only started if a message exceeds the maximum size.
+ *
  * @since GemFire 5.0.2
  *
  */
@@ -66,15 +73,53 @@ public class MsgDestreamer {
 
   final KnownVersion version;
 
+  private final DMStats stats;
+
+  /**
+   * The pool of the buffers that messages are received into, or null if they are always streamed
+   * to the destreamer thread.
+   */
+  private final BufferPool bufferPool;
+
+  /**
+   * The maximum size of a message that is received into a buffer.
+   */
+  private final int maxBufferedSize;
+
+  /**
+   * The chunks of the current message, while they are being received into a buffer. Guarded by
+   * this.
+   */
+  private ByteBuffer buffer;
+
+  /**
+   * True if the chunks of the current message are being streamed to the destreamer thread.
+   */
+  private boolean streaming;
+
+  private boolean started;
+
   public MsgDestreamer(DMStats stats, CancelCriterion stopper, KnownVersion v) {
+    this(stats, stopper, v, null, 0);
+  }
+
+  public MsgDestreamer(DMStats stats, CancelCriterion stopper, KnownVersion v,
+      BufferPool bufferPool, int maxBufferedSize) {
     this.stopper = stopper;
     this.t = new DestreamerThread(stats, stopper);
     this.version = v;
-    init();
+    this.stats = stats;
+    this.bufferPool = maxBufferedSize > 0 ? bufferPool : null;
+    this.maxBufferedSize = maxBufferedSize;
+    this.streaming = this.bufferPool == null;
+    if (this.streaming) {
+      init();
+    }
   }
 
   private void init() {
     this.t.start();
+    this.started = true;
   }
 
   public void close() {
@@ -86,8 +131,13 @@ public class MsgDestreamer {
     synchronized (this) {
       this.failure = null;
       this.result = null;
+      if (this.buffer != null) {
+        this.bufferPool.releaseReceiveBuffer(this.buffer);
+        this.buffer = null;
+      }
     }
     this.size = 0;
+    this.streaming = this.bufferPool == null;
     this.t.setName("IDLE p2pDestreamer");
   }
 
@@ -139,11 +189,64 @@ public class MsgDestreamer {
     // if this destreamer has failed or this chunk is empty just return
     if (this.failure == null && length > 0) {
       // logit("addChunk bb length=" + length);
-      this.t.addChunk(bb, length);
+      if (!this.streaming && !bufferChunk(bb, length)) {
+        startStreaming();
+      }
+      if (this.streaming) {
+        this.t.addChunk(bb, length);
+      }
       this.size += length;
     }
   }
 
+  /**
+   * Adds the given chunk to the buffer of the current message. Returns false, without adding it,
+   * if the message would be larger than the maximum size of a buffered message.
+   */
+  private synchronized boolean bufferChunk(ByteBuffer chunk, int length) {
+    if (this.size + length > this.maxBufferedSize) {
+      return false;
+    }
+    if (this.buffer == null || this.buffer.remaining() < length) {
+      int capacity = Math.min(Math.max(this.size + length, 2 * this.size), this.maxBufferedSize);
+      ByteBuffer newBuffer = this.bufferPool.acquireDirectReceiveBuffer(capacity);
+      if (this.buffer != null) {
+        this.buffer.flip();
+        newBuffer.put(this.buffer);
+        this.bufferPool.releaseReceiveBuffer(this.buffer);
+      }
+      this.buffer = newBuffer;
+    }
+    ByteBuffer bb = chunk.slice();
+    bb.limit(length);
+    this.buffer.put(bb);
+    return true;
+  }
+
+  private synchronized ByteBuffer takeBuffer() {
+    ByteBuffer result = this.buffer;
+    this.buffer = null;
+    return result;
+  }
+
+  /**
+   * Streams the chunks buffered so far, and the rest of the current message, to the destreamer
+   * thread.
+   */
+  private void startStreaming() throws IOException {
+    this.streaming = true;
+    if (!this.started) {
+      init();
+    }
+    ByteBuffer buffered = takeBuffer();
+    if (buffered != null) {
+      buffered.flip();
+      this.t.addChunk(buffered, buffered.remaining());
+      // the destreamer thread has read the chunk
+      this.bufferPool.releaseReceiveBuffer(buffered);
+    }
+  }
+
   /**
    * Returns the number of bytes added to this destreamer.
    */
@@ -163,6 +266,9 @@ public class MsgDestreamer {
     // if (Thread.interrupted()) throw new InterruptedException(); not necessary done in
     // waitUntilDone
     // this.t.join();
+    if (!this.streaming) {
+      return deserializeBuffer();
+    }
     waitUntilDone();
     if (this.failure != null) {
       // logit("failed with" + this.failure);
@@ -182,6 +288,40 @@ public class MsgDestreamer {
     }
   }
 
+  /**
+   * Deserializes the current message from the buffer its chunks were received into.
+   */
+  private DistributionMessage deserializeBuffer() throws IOException, ClassNotFoundException {
+    ByteBuffer buffered = takeBuffer();
+    if (buffered == null) {
+      buffered = ByteBuffer.allocate(0);
+    } else {
+      buffered.flip();
+    }
+    ReplyProcessor21.initMessageRPId();
+    try (ByteBufferInputStream bbis = this.version == null ? new ByteBufferInputStream(buffered)
+        : new VersionedByteBufferInputStream(buffered, this.version)) {
+      long startSer = this.stats.startMsgDeserialization();
+      DistributionMessage msg = (DistributionMessage) InternalDataSerializer.readDSFID(bbis);
+      this.stats.endMsgDeserialization(startSer);
+      return msg;
+    } catch (IOException | ClassNotFoundException ex) {
+      this.RPid = ReplyProcessor21.getMessageRPId();
+      throw ex;
+    } catch (RuntimeException ex) {
+      this.RPid = ReplyProcessor21.getMessageRPId();
+      IOException io =
+          new IOException("failure during message deserialization");
+      io.initCause(ex);
+      throw io;
+    } finally {
+      ReplyProcessor21.clearMessageRPId();
+      if (buffered.capacity() > 0) {
+        this.bufferPool.releaseReceiveBuffer(buffered);
+      }
+    }
+  }
+
   /**
    * Returns the reply processor id for the current failed message. Returns 0 if it does not have
    * one. Note this method should only be called after getMessage has thrown an exception.
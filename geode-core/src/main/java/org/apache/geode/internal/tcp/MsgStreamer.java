@@ -14,6 +14,8 @@
  */
 package org.apache.geode.internal.tcp;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UTFDataFormatException;
@@ -21,6 +23,12 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
@@ -38,6 +46,7 @@ import org.apache.geode.internal.ObjToByteArraySerializer;
 import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.StaticSerialization;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
@@ -52,6 +61,24 @@ import org.apache.geode.util.internal.GeodeGlossary;
 public class MsgStreamer extends OutputStream
     implements ObjToByteArraySerializer, BaseMsgStreamer, ByteBufferWriter {
 
+  /**
+   * The number of threads that write the chunks of a message sent to more than one connection, so
+   * that the connections are written to at the same time. Zero, the default, writes to the
+   * connections one after the other.
+   */
+  public static final int FAN_OUT_THREADS = Integer.getInteger("p2p.FAN_OUT_THREADS", 0);
+
+  /**
+   * Creates the executor that writes the chunks of messages to all but the first of their
+   * connections. It hands each write to an idle thread or rejects it, so a write waiting for a
+   * member that does not read is never queued ahead of the writes of other messages; the sending
+   * thread does the rejected writes itself.
+   */
+  public static ExecutorService createFanOutExecutor(int threads) {
+    return LoggingExecutors.newFixedThreadPool(threads, 0, SECONDS, new SynchronousQueue<>(),
+        "P2P Fan-out Writer", true);
+  }
+
   /**
    * List of connections to send this msg to.
    */
@@ -59,6 +86,12 @@ public class MsgStreamer extends OutputStream
 
   private final BufferPool bufferPool;
 
+  /**
+   * Writes the chunks of the message to all but the first connection, or null if they are written
+   * to one connection after the other by the sending thread.
+   */
+  private final ExecutorService fanOutExecutor;
+
   /**
    * Any exceptions that happen during sends
    */
@@ -126,7 +159,7 @@ public class MsgStreamer extends OutputStream
    * now be used.
    */
   MsgStreamer(List<?> cons, DistributionMessage msg, boolean directReply, DMStats stats,
-      int sendBufferSize, BufferPool bufferPool) {
+      int sendBufferSize, BufferPool bufferPool, ExecutorService fanOutExecutor) {
     this.stats = stats;
     this.msg = msg;
     this.cons = cons;
@@ -137,6 +170,7 @@ public class MsgStreamer extends OutputStream
     this.msgId = MsgIdGenerator.NO_MSG_ID;
     this.directReply = directReply;
     this.bufferPool = bufferPool;
+    this.fanOutExecutor = cons.size() > 1 ? fanOutExecutor : null;
     startSerialization();
   }
 
@@ -147,6 +181,17 @@ public class MsgStreamer extends OutputStream
    */
   public static BaseMsgStreamer create(List<?> cons, final DistributionMessage msg,
       final boolean directReply, final DMStats stats, BufferPool bufferPool) {
+    return create(cons, msg, directReply, stats, bufferPool, null);
+  }
+
+  /**
+   * Create message streamers like {@link #create(List, DistributionMessage, boolean, DMStats,
+   * BufferPool)}, which write each chunk of a message to their connections at the same time using
+   * the given executor, unless it is null.
+   */
+  public static BaseMsgStreamer create(List<?> cons, final DistributionMessage msg,
+      final boolean directReply, final DMStats stats, BufferPool bufferPool,
+      ExecutorService fanOutExecutor) {
     final Connection firstCon = (Connection) cons.get(0);
     // split into different versions if required
     KnownVersion version;
@@ -175,7 +220,7 @@ public class MsgStreamer extends OutputStream
       }
       if (versionToConnMap == null) {
         return new MsgStreamer(cons, msg, directReply, stats, firstCon.getSendBufferSize(),
-            bufferPool);
+            bufferPool, fanOutExecutor);
       } else {
         // if there is a versioned stream created, then split remaining
         // connections to unversioned stream
@@ -195,7 +240,7 @@ public class MsgStreamer extends OutputStream
           }
           streamers.add(
               new MsgStreamer(currentVersionConnections, msg, directReply, stats, sendBufferSize,
-                  bufferPool));
+                  bufferPool, fanOutExecutor));
         }
         for (ObjectIterator<Object2ObjectMap.Entry> itr =
             versionToConnMap.object2ObjectEntrySet().fastIterator(); itr.hasNext();) {
@@ -203,18 +248,18 @@ public class MsgStreamer extends OutputStream
           Object ver = entry.getKey();
           Object l = entry.getValue();
           streamers.add(new VersionedMsgStreamer((List<?>) l, msg, directReply, stats,
-              bufferPool, sendBufferSize, (KnownVersion) ver));
+              bufferPool, sendBufferSize, (KnownVersion) ver, fanOutExecutor));
         }
         return new MsgStreamerList(streamers);
       }
     } else if ((version = firstCon.getRemoteVersion()) == null) {
       return new MsgStreamer(cons, msg, directReply, stats, firstCon.getSendBufferSize(),
-          bufferPool);
+          bufferPool, fanOutExecutor);
     } else {
       // create a single VersionedMsgStreamer
       return new VersionedMsgStreamer(cons, msg, directReply, stats, bufferPool,
           firstCon.getSendBufferSize(),
-          version);
+          version, fanOutExecutor);
     }
   }
 
@@ -324,35 +369,112 @@ public class MsgStreamer extends OutputStream
       conflationMsg = this.msg;
     }
     this.stats.endMsgSerialization(this.serStartTime);
-    for (Iterator it = this.cons.iterator(); it.hasNext();) {
-      Connection con = (Connection) it.next();
-      try {
-        con.sendPreserialized(this.buffer,
-            lastFlushForMessage && this.msg.containsRegionContentChange(), conflationMsg);
-      } catch (IOException ex) {
-        it.remove();
-        if (this.ce == null) {
-          this.ce = new ConnectExceptions();
-        }
-        this.ce.addFailure(con.getRemoteAddress(), ex);
-        con.closeForReconnect(
-            String.format("closing due to %s", "IOException"));
-      } catch (ConnectionException ex) {
-        it.remove();
-        if (this.ce == null) {
-          this.ce = new ConnectExceptions();
+    if (this.fanOutExecutor != null && this.cons.size() > 1) {
+      sendToAll(lastFlushForMessage && this.msg.containsRegionContentChange(), conflationMsg);
+    } else {
+      for (Iterator it = this.cons.iterator(); it.hasNext();) {
+        Connection con = (Connection) it.next();
+        try {
+          con.sendPreserialized(this.buffer,
+              lastFlushForMessage && this.msg.containsRegionContentChange(), conflationMsg);
+        } catch (IOException ex) {
+          it.remove();
+          addFailure(con, ex, "IOException");
+        } catch (ConnectionException ex) {
+          it.remove();
+          addFailure(con, ex, "ConnectionException");
         }
-        this.ce.addFailure(con.getRemoteAddress(), ex);
-        con.closeForReconnect(
-            String.format("closing due to %s", "ConnectionException"));
+        this.buffer.rewind();
       }
-      this.buffer.rewind();
     }
     startSerialization();
     this.buffer.clear();
     this.buffer.position(Connection.MSG_HEADER_BYTES);
   }
 
+  private void addFailure(Connection con, Exception ex, String reason) {
+    if (this.ce == null) {
+      this.ce = new ConnectExceptions();
+    }
+    this.ce.addFailure(con.getRemoteAddress(), ex);
+    con.closeForReconnect(
+        String.format("closing due to %s", reason));
+  }
+
+  /**
+   * Writes the chunk in the buffer to all the connections at the same time, each from its own
+   * read-only view of the buffer. The sending thread writes to the first connection and the fan-out
+   * executor to the others, and the chunk is only done once all of them have been written to. The
+   * sending thread also writes to the connections the executor has no idle thread for.
+   */
+  private void sendToAll(boolean cacheContentChanges, DistributionMessage conflationMsg) {
+    final int numCons = this.cons.size();
+    final List<FutureTask<Void>> writes = new ArrayList<>(numCons);
+    for (int i = 0; i < numCons; i++) {
+      final Connection con = (Connection) this.cons.get(i);
+      final ByteBuffer view = this.buffer.asReadOnlyBuffer();
+      Callable<Void> write = () -> {
+        con.sendPreserialized(view, cacheContentChanges, conflationMsg);
+        return null;
+      };
+      FutureTask<Void> task = new FutureTask<>(write);
+      if (i > 0) {
+        try {
+          this.fanOutExecutor.execute(task);
+        } catch (RejectedExecutionException ignore) {
+          // every fan-out thread is busy, maybe writing to a member that does not read, or the
+          // channel is being closed, so write to the connection from this thread
+          task.run();
+        }
+      }
+      writes.add(task);
+    }
+    writes.get(0).run();
+
+    final Exception[] failures = new Exception[numCons];
+    Throwable unexpected = null;
+    boolean interrupted = false;
+    try {
+      for (int i = 0; i < numCons; i++) {
+        for (;;) {
+          try {
+            writes.get(i).get();
+            break;
+          } catch (InterruptedException ignore) {
+            // the buffer can not be reused until the connection has been written to
+            interrupted = true;
+          } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException || cause instanceof ConnectionException) {
+              failures[i] = (Exception) cause;
+            } else if (unexpected == null) {
+              unexpected = cause;
+            }
+            break;
+          }
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (int i = numCons - 1; i >= 0; i--) {
+      if (failures[i] != null) {
+        Connection con = (Connection) this.cons.remove(i);
+        addFailure(con, failures[i],
+            failures[i] instanceof IOException ? "IOException" : "ConnectionException");
+      }
+    }
+    if (unexpected instanceof RuntimeException) {
+      throw (RuntimeException) unexpected;
+    } else if (unexpected instanceof Error) {
+      throw (Error) unexpected;
+    } else if (unexpected != null) {
+      throw new IllegalStateException(unexpected);
+    }
+  }
+
   @VisibleForTesting
   protected ByteBuffer getBuffer() {
     return buffer;
@@ -16,6 +16,7 @@
 package org.apache.geode.internal.tcp;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.distributed.internal.DistributionMessage;
@@ -33,8 +34,9 @@ class VersionedMsgStreamer extends MsgStreamer implements VersionedDataStream {
   private final KnownVersion version;
 
   VersionedMsgStreamer(List<?> cons, DistributionMessage msg, boolean directReply, DMStats stats,
-      BufferPool bufferPool, int sendBufferSize, KnownVersion version) {
-    super(cons, msg, directReply, stats, sendBufferSize, bufferPool);
+      BufferPool bufferPool, int sendBufferSize, KnownVersion version,
+      ExecutorService fanOutExecutor) {
+    super(cons, msg, directReply, stats, sendBufferSize, bufferPool, fanOutExecutor);
     this.version = version;
   }
 
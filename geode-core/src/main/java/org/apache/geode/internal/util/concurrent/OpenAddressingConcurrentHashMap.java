@@ -0,0 +1,879 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+import org.apache.geode.logging.internal.executors.LoggingThread;
+
+/**
+ * A concurrent map whose values are {@link HashEntry} instances that carry their own key, stored
+ * in a striped open-addressing table instead of in chained bins. Every slot pairs the entry
+ * reference with an inlined <code>long</code> that holds the primitive value of a {@link Long} or
+ * {@link Integer} key, or the hash code of any other key. Probing compares those primitives and
+ * only touches the entry object to confirm a match, so lookups of primitive keys never have to
+ * unbox the key held by the entry.
+ *
+ * <p>
+ * This is the layout region maps use for regions whose key constraint is <code>Long</code>,
+ * <code>Integer</code> or <code>String</code>: the region entry is both the key holder and the
+ * value, just as with {@link CustomEntryConcurrentHashMap} and
+ * {@link org.apache.geode.internal.cache.entries.AbstractRegionEntry.HashRegionEntryCreator}.
+ *
+ * <p>
+ * Reads are lock free. Writes lock the segment that owns the key. Removed slots are marked and
+ * reused by later inserts; a segment rebuilds its table when live plus removed slots exceed the
+ * load factor. Iterators are weakly consistent and never throw
+ * {@link java.util.ConcurrentModificationException}.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values; every value must implement {@link HashEntry}
+ */
+public class OpenAddressingConcurrentHashMap<K, V> extends AbstractMap<K, V>
+    implements ConcurrentMapWithReusableEntries<K, V> {
+
+  /** Marks a slot whose entry has been removed. Probes continue past it. */
+  private static final Object REMOVED = new Object();
+
+  private static final int MAX_SEGMENTS = 1 << 16;
+
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private static final int MINIMUM_CAPACITY = 4;
+
+  /**
+   * Linear probing degrades quickly when the table gets full so, unlike the chained map, the load
+   * factor is capped.
+   */
+  private static final float MAXIMUM_LOAD_FACTOR = 0.75f;
+
+  private final Segment[] segments;
+
+  private final int segmentShift;
+
+  private final int segmentMask;
+
+  private final float loadFactor;
+
+  private Set<K> keySet;
+
+  private Collection<V> values;
+
+  private Set<Map.Entry<K, V>> entrySet;
+
+  private Set<Map.Entry<K, V>> reusableEntrySet;
+
+  /**
+   * Returns true if this map inlines keys of the given type; keys of a supported type are either
+   * stored in their primitive form or, for strings, by their hash code.
+   */
+  public static boolean isSupportedKeyType(Class<?> keyType) {
+    return keyType == Long.class || keyType == Integer.class || keyType == String.class;
+  }
+
+  /**
+   * Creates a new, empty map.
+   *
+   * @param initialCapacity the implementation performs internal sizing to accommodate this many
+   *        elements.
+   * @param loadFactor the load factor threshold, used to control resizing. Values above 0.75 are
+   *        treated as 0.75.
+   * @param concurrencyLevel the estimated number of concurrently updating threads.
+   * @throws IllegalArgumentException if the initial capacity is negative or the load factor or
+   *         concurrencyLevel are nonpositive.
+   */
+  public OpenAddressingConcurrentHashMap(int initialCapacity, float loadFactor,
+      int concurrencyLevel) {
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    if (concurrencyLevel > MAX_SEGMENTS) {
+      concurrencyLevel = MAX_SEGMENTS;
+    }
+    int sshift = 0;
+    int ssize = 1;
+    while (ssize < concurrencyLevel) {
+      ++sshift;
+      ssize <<= 1;
+    }
+    // the segment is chosen with the high bits of the hash and the slot with the low bits
+    this.segmentShift = 32 - sshift;
+    this.segmentMask = ssize - 1;
+    this.loadFactor = Math.min(loadFactor, MAXIMUM_LOAD_FACTOR);
+    if (initialCapacity > MAXIMUM_CAPACITY) {
+      initialCapacity = MAXIMUM_CAPACITY;
+    }
+    int perSegment = (int) Math.ceil(initialCapacity / (double) ssize / this.loadFactor);
+    int cap = MINIMUM_CAPACITY;
+    while (cap < perSegment && cap < MAXIMUM_CAPACITY) {
+      cap <<= 1;
+    }
+    this.segments = new Segment[ssize];
+    for (int i = 0; i < ssize; i++) {
+      this.segments[i] = new Segment(cap, this.loadFactor);
+    }
+  }
+
+  /**
+   * Returns the value stored in the inlined key slot for the given key.
+   */
+  static long keyBits(Object key) {
+    if (key instanceof Long) {
+      return (Long) key;
+    } else if (key instanceof Integer) {
+      return (Integer) key;
+    } else {
+      return key.hashCode();
+    }
+  }
+
+  /**
+   * Spreads the key bits so that both the high bits used to pick the segment and the low bits used
+   * to pick the slot are well distributed, even for sequential keys.
+   */
+  static int hash(long bits) {
+    long h = bits * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static boolean isKeyEqual(Object entry, Object key) {
+    return ((HashEntry<?, ?>) entry).isKeyEqual(key);
+  }
+
+  @SuppressWarnings("unchecked")
+  private K keyOf(Object entry) {
+    return ((HashEntry<K, ?>) entry).getKey();
+  }
+
+  private Segment segmentFor(int hash) {
+    return this.segments[(hash >>> this.segmentShift) & this.segmentMask];
+  }
+
+  private static void checkValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    if (!(value instanceof HashEntry)) {
+      throw new IllegalArgumentException(
+          "values of " + OpenAddressingConcurrentHashMap.class.getSimpleName()
+              + " must implement HashEntry but was " + value.getClass().getName());
+    }
+  }
+
+  /**
+   * A slot table. The key slot of an index is always written before its entry is published with a
+   * volatile write, so a reader that sees an entry also sees its key bits.
+   */
+  private static class Table {
+    final long[] keys;
+
+    final AtomicReferenceArray<Object> entries;
+
+    /** the number of used (live or removed) slots above which the table is rebuilt */
+    final int threshold;
+
+    Table(int capacity, float loadFactor) {
+      this.keys = new long[capacity];
+      this.entries = new AtomicReferenceArray<>(capacity);
+      this.threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /** Used while building a table that has not been published yet. */
+    void insertNew(long bits, Object entry) {
+      int mask = this.keys.length - 1;
+      int i = hash(bits) & mask;
+      while (this.entries.get(i) != null) {
+        i = (i + 1) & mask;
+      }
+      this.keys[i] = bits;
+      this.entries.lazySet(i, entry);
+    }
+  }
+
+  /**
+   * A lock guarding one stripe of the map.
+   */
+  private static class Segment extends ReentrantLock {
+    private static final long serialVersionUID = 8434813287716734914L;
+
+    private final int initialCapacity;
+
+    private final float loadFactor;
+
+    /** the number of live entries; written under the lock */
+    volatile int count;
+
+    /** the number of live plus removed slots; guarded by the lock */
+    private int used;
+
+    volatile Table table;
+
+    Segment(int initialCapacity, float loadFactor) {
+      this.initialCapacity = initialCapacity;
+      this.loadFactor = loadFactor;
+      this.table = new Table(initialCapacity, loadFactor);
+    }
+
+    Object get(Object key, long bits, int hash) {
+      if (this.count == 0) {
+        return null;
+      }
+      final Table tab = this.table;
+      final long[] keys = tab.keys;
+      final AtomicReferenceArray<Object> entries = tab.entries;
+      final int mask = keys.length - 1;
+      int i = hash & mask;
+      for (int probes = 0; probes <= mask; probes++) {
+        Object e = entries.get(i);
+        if (e == null) {
+          return null;
+        }
+        if (e != REMOVED && keys[i] == bits && isKeyEqual(e, key)) {
+          return e;
+        }
+        i = (i + 1) & mask;
+      }
+      return null;
+    }
+
+    /**
+     * Returns the index of the slot holding the key or -1. Must be called with the lock held.
+     */
+    private int indexOf(Table tab, Object key, long bits, int hash) {
+      final int mask = tab.keys.length - 1;
+      int i = hash & mask;
+      for (int probes = 0; probes <= mask; probes++) {
+        Object e = tab.entries.get(i);
+        if (e == null) {
+          return -1;
+        }
+        if (e != REMOVED && tab.keys[i] == bits && isKeyEqual(e, key)) {
+          return i;
+        }
+        i = (i + 1) & mask;
+      }
+      return -1;
+    }
+
+    Object put(Object key, long bits, int hash, Object value, boolean onlyIfAbsent) {
+      lock();
+      try {
+        if (this.used >= this.table.threshold) {
+          rehash();
+        }
+        final Table tab = this.table;
+        final long[] keys = tab.keys;
+        final AtomicReferenceArray<Object> entries = tab.entries;
+        final int mask = keys.length - 1;
+        int free = -1;
+        int i = hash & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+          Object e = entries.get(i);
+          if (e == null) {
+            if (free == -1) {
+              free = i;
+            }
+            break;
+          }
+          if (e == REMOVED) {
+            if (free == -1) {
+              free = i;
+            }
+          } else if (keys[i] == bits && isKeyEqual(e, key)) {
+            if (!onlyIfAbsent) {
+              entries.set(i, value);
+            }
+            return e;
+          }
+          i = (i + 1) & mask;
+        }
+        if (entries.get(free) == null) {
+          this.used++;
+        }
+        keys[free] = bits;
+        entries.set(free, value);
+        this.count = this.count + 1;
+        return null;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Removes the key if it is mapped to expectedValue or, if expectedValue is null, to anything.
+     */
+    Object remove(Object key, long bits, int hash, Object expectedValue) {
+      lock();
+      try {
+        final Table tab = this.table;
+        int i = indexOf(tab, key, bits, hash);
+        if (i == -1) {
+          return null;
+        }
+        Object e = tab.entries.get(i);
+        if (expectedValue != null && e != expectedValue && !e.equals(expectedValue)) {
+          return null;
+        }
+        int next = (i + 1) & (tab.keys.length - 1);
+        if (tab.entries.get(next) == null) {
+          // no probe sequence continues past this slot so it can be emptied
+          tab.entries.set(i, null);
+          this.used--;
+        } else {
+          tab.entries.set(i, REMOVED);
+        }
+        this.count = this.count - 1;
+        return e;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Replaces the value of the key if it is mapped to expectedValue or, if expectedValue is null,
+     * to anything. Returns the previous value or null if nothing was replaced.
+     */
+    Object replace(Object key, long bits, int hash, Object expectedValue, Object newValue) {
+      lock();
+      try {
+        final Table tab = this.table;
+        int i = indexOf(tab, key, bits, hash);
+        if (i == -1) {
+          return null;
+        }
+        Object e = tab.entries.get(i);
+        if (expectedValue != null && e != expectedValue && !e.equals(expectedValue)) {
+          return null;
+        }
+        tab.entries.set(i, newValue);
+        return e;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Rebuilds the table without its removed slots, doubling it if the live entries alone would
+     * exceed half the threshold. Must be called with the lock held.
+     */
+    private void rehash() {
+      final Table oldTable = this.table;
+      int capacity = oldTable.keys.length;
+      if (this.count >= oldTable.threshold / 2 && capacity < MAXIMUM_CAPACITY) {
+        capacity <<= 1;
+      }
+      Table newTable = new Table(capacity, this.loadFactor);
+      for (int i = 0; i < oldTable.keys.length; i++) {
+        Object e = oldTable.entries.get(i);
+        if (e != null && e != REMOVED) {
+          newTable.insertNew(oldTable.keys[i], e);
+        }
+      }
+      this.used = this.count;
+      this.table = newTable;
+    }
+
+    /**
+     * Empties this segment. If the entries need to be released they are added to clearedEntries,
+     * which is created if needed, and returned.
+     */
+    ArrayList<Object> clear(ArrayList<Object> clearedEntries) {
+      if (this.count == 0) {
+        return clearedEntries;
+      }
+      lock();
+      try {
+        final AtomicReferenceArray<Object> entries = this.table.entries;
+        if (clearedEntries == null) {
+          if (OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap()) {
+            clearedEntries = new ArrayList<>();
+          } else {
+            // see if we have a map with off-heap region entries
+            for (int i = 0; i < entries.length(); i++) {
+              Object e = entries.get(i);
+              if (e != null && e != REMOVED) {
+                if (e instanceof OffHeapRegionEntry) {
+                  clearedEntries = new ArrayList<>();
+                }
+                // after the first entry we are done
+                break;
+              }
+            }
+          }
+        }
+        if (clearedEntries != null) {
+          for (int i = 0; i < entries.length(); i++) {
+            Object e = entries.get(i);
+            if (e != null && e != REMOVED) {
+              clearedEntries.add(e);
+            }
+          }
+        }
+        // readers still holding the old table keep seeing a consistent snapshot
+        this.table = new Table(this.initialCapacity, this.loadFactor);
+        this.used = 0;
+        this.count = 0;
+      } finally {
+        unlock();
+      }
+      return clearedEntries;
+    }
+  }
+
+  @Override
+  public int size() {
+    long sum = 0;
+    for (Segment segment : this.segments) {
+      sum += segment.count;
+    }
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Segment segment : this.segments) {
+      if (segment.count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return (V) segmentFor(hash).get(key, bits, hash);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    for (V v : values()) {
+      if (v == value || v.equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    checkValue(value);
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return (V) segmentFor(hash).put(key, bits, hash, value, false);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V putIfAbsent(K key, V value) {
+    checkValue(value);
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return (V) segmentFor(hash).put(key, bits, hash, value, true);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return (V) segmentFor(hash).remove(key, bits, hash, null);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (value == null) {
+      return false;
+    }
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return segmentFor(hash).remove(key, bits, hash, value) != null;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    if (oldValue == null) {
+      throw new NullPointerException();
+    }
+    checkValue(newValue);
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return segmentFor(hash).replace(key, bits, hash, oldValue, newValue) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V replace(K key, V value) {
+    checkValue(value);
+    long bits = keyBits(key);
+    int hash = hash(bits);
+    return (V) segmentFor(hash).replace(key, bits, hash, null, value);
+  }
+
+  @Override
+  public void clear() {
+    clearWithExecutor(null);
+  }
+
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    ArrayList<Object> entries = null;
+    try {
+      for (Segment segment : this.segments) {
+        entries = segment.clear(entries);
+      }
+    } finally {
+      if (entries != null) {
+        final ArrayList<Object> clearedEntries = entries;
+        Runnable runnable;
+        if (OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap()) {
+          runnable = () -> {
+            for (Object e : clearedEntries) {
+              if (e instanceof RegionEntry) {
+                synchronized (e) {
+                  GatewaySenderEventImpl.release(((RegionEntry) e).getValue()); // OFFHEAP
+                }
+              }
+            }
+          };
+        } else {
+          runnable = () -> {
+            for (Object e : clearedEntries) {
+              synchronized (e) {
+                ((OffHeapRegionEntry) e).release();
+              }
+            }
+          };
+        }
+        boolean submitted = false;
+        if (executor != null) {
+          try {
+            executor.execute(runnable);
+            submitted = true;
+          } catch (RejectedExecutionException | CancelException | NullPointerException e) {
+            // fall through with submitted false
+          }
+        }
+        if (!submitted) {
+          String name = getClass().getSimpleName() + "@" + hashCode() + " Clear Thread";
+          Thread thread = new LoggingThread(name, runnable);
+          thread.start();
+        }
+      }
+    }
+  }
+
+  @Override
+  public Set<K> keySet() {
+    Set<K> ks = this.keySet;
+    return ks != null ? ks : (this.keySet = new KeySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    Collection<V> vs = this.values;
+    return vs != null ? vs : (this.values = new Values());
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    Set<Map.Entry<K, V>> es = this.entrySet;
+    return es != null ? es : (this.entrySet = new EntrySet(false));
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySetWithReusableEntries() {
+    Set<Map.Entry<K, V>> es = this.reusableEntrySet;
+    return es != null ? es : (this.reusableEntrySet = new EntrySet(true));
+  }
+
+  /* ---------------- Iterator Support -------------- */
+
+  private abstract class HashIterator {
+    private int nextSegmentIndex = segments.length - 1;
+
+    private AtomicReferenceArray<Object> currentEntries;
+
+    private int nextIndex;
+
+    private Object nextEntry;
+
+    Object lastReturned;
+
+    HashIterator() {
+      advance();
+    }
+
+    private void advance() {
+      while (true) {
+        if (this.currentEntries != null) {
+          while (this.nextIndex < this.currentEntries.length()) {
+            Object e = this.currentEntries.get(this.nextIndex++);
+            if (e != null && e != REMOVED) {
+              this.nextEntry = e;
+              return;
+            }
+          }
+        }
+        if (this.nextSegmentIndex < 0) {
+          this.nextEntry = null;
+          return;
+        }
+        this.currentEntries = segments[this.nextSegmentIndex--].table.entries;
+        this.nextIndex = 0;
+      }
+    }
+
+    public boolean hasNext() {
+      return this.nextEntry != null;
+    }
+
+    Object nextEntry() {
+      if (this.nextEntry == null) {
+        throw new NoSuchElementException();
+      }
+      this.lastReturned = this.nextEntry;
+      advance();
+      return this.lastReturned;
+    }
+
+    public void remove() {
+      if (this.lastReturned == null) {
+        throw new IllegalStateException();
+      }
+      OpenAddressingConcurrentHashMap.this.remove(keyOf(this.lastReturned), this.lastReturned);
+      this.lastReturned = null;
+    }
+  }
+
+  private class KeyIterator extends HashIterator implements Iterator<K> {
+    @Override
+    public K next() {
+      return keyOf(nextEntry());
+    }
+  }
+
+  private class ValueIterator extends HashIterator implements Iterator<V> {
+    @Override
+    @SuppressWarnings("unchecked")
+    public V next() {
+      return (V) nextEntry();
+    }
+  }
+
+  private class EntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      Object e = nextEntry();
+      return new WriteThroughEntry(keyOf(e), (V) e);
+    }
+  }
+
+  private class ReusableEntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+    private final ReusableEntry entry = new ReusableEntry();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      Object e = nextEntry();
+      this.entry.key = keyOf(e);
+      this.entry.value = (V) e;
+      return this.entry;
+    }
+  }
+
+  /**
+   * An entry returned by the entry set iterator. Setting its value writes through to the map.
+   */
+  private class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+    private static final long serialVersionUID = -2402417282575917869L;
+
+    WriteThroughEntry(K key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      checkValue(value);
+      V oldValue = super.setValue(value);
+      put(getKey(), value);
+      return oldValue;
+    }
+  }
+
+  /**
+   * The single entry handed out by each iterator of {@link #entrySetWithReusableEntries()}.
+   */
+  private class ReusableEntry implements Map.Entry<K, V> {
+    K key;
+
+    V value;
+
+    @Override
+    public K getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      checkValue(value);
+      V oldValue = this.value;
+      this.value = value;
+      put(this.key, value);
+      return oldValue;
+    }
+  }
+
+  private class KeySet extends AbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      return new KeyIterator();
+    }
+
+    @Override
+    public int size() {
+      return OpenAddressingConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return OpenAddressingConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return OpenAddressingConcurrentHashMap.this.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+      OpenAddressingConcurrentHashMap.this.clear();
+    }
+  }
+
+  private class Values extends AbstractCollection<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueIterator();
+    }
+
+    @Override
+    public int size() {
+      return OpenAddressingConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return OpenAddressingConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsValue(o);
+    }
+
+    @Override
+    public void clear() {
+      OpenAddressingConcurrentHashMap.this.clear();
+    }
+  }
+
+  private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+    private final boolean reuseEntries;
+
+    EntrySet(boolean reuseEntries) {
+      this.reuseEntries = reuseEntries;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return this.reuseEntries ? new ReusableEntryIterator() : new EntryIterator();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      V v = get(e.getKey());
+      return v != null && v.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return OpenAddressingConcurrentHashMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return OpenAddressingConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return OpenAddressingConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      OpenAddressingConcurrentHashMap.this.clear();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class EndpointLoadTest {
+
+  private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  public void costGrowsWithOpsInProgress() {
+    EndpointLoad load = new EndpointLoad();
+    long now = System.nanoTime();
+    double idle = load.getCost(now);
+
+    load.startOp();
+
+    assertThat(load.getCost(now)).isGreaterThan(idle);
+    assertThat(load.getInProgress()).isEqualTo(1);
+  }
+
+  @Test
+  public void responseTimeFollowsIncreaseAtOnceAndDecaysOverTime() {
+    EndpointLoad load = new EndpointLoad();
+    long now = System.nanoTime();
+    load.addResponseTime(MILLISECOND, now);
+    load.addResponseTime(100 * MILLISECOND, now);
+
+    assertThat(load.getCost(now)).isEqualTo(100.0 * MILLISECOND);
+
+    long later = now + TimeUnit.MILLISECONDS.toNanos(EndpointLoad.DECAY_MILLIS * 5);
+    assertThat(load.getCost(later)).isLessThan(MILLISECOND);
+  }
+
+  @Test
+  public void lessLoadedOfTwoEndpointsIsChosen() {
+    Endpoint fast = endpoint(MILLISECOND);
+    Endpoint slow = endpoint(100 * MILLISECOND);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(EndpointLoad.chooseLessLoaded(Arrays.asList(slow, fast))).isSameAs(fast);
+    }
+  }
+
+  @Test
+  public void closedEndpointsAreNotChosen() {
+    Endpoint closed = endpoint(MILLISECOND);
+    when(closed.isClosed()).thenReturn(true);
+    Endpoint open = endpoint(100 * MILLISECOND);
+
+    assertThat(EndpointLoad.chooseLessLoaded(Arrays.asList(closed, open))).isSameAs(open);
+    assertThat(EndpointLoad.chooseLessLoaded(Collections.singletonList(closed))).isNull();
+  }
+
+  private Endpoint endpoint(long responseTime) {
+    EndpointLoad load = new EndpointLoad();
+    load.addResponseTime(responseTime, System.nanoTime());
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.getLoad()).thenReturn(load);
+    return endpoint;
+  }
+}
@@ -15,15 +15,20 @@
 package org.apache.geode.cache.client.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,11 +37,15 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import org.apache.geode.SerializationException;
+import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.execute.BucketMovedException;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
 import org.apache.geode.test.fake.Fakes;
 
@@ -62,6 +71,26 @@ public class GetAllOpJUnitTest {
     serverToFilterMap.put(serverLocation, new HashSet(keys));
   }
 
+  @Test
+  public void streamingGetAllFetchesKeysOfUnreachableServerFromAnyServer() {
+    when(region.getFullPath()).thenReturn("/testRegion");
+    when(((PoolImpl) pool).acquireConnection(any(ServerLocation.class)))
+        .thenThrow(new ServerConnectivityException("testRetry"));
+    GetAllOp.execute(pool, region, keys, -1, null, chunk -> {
+    });
+    Mockito.verify(pool, times(1)).execute(any());
+  }
+
+  @Test
+  public void streamingGetAllWithoutRetriesThrowsIfServerIsUnreachable() {
+    when(region.getFullPath()).thenReturn("/testRegion");
+    when(((PoolImpl) pool).acquireConnection(any(ServerLocation.class)))
+        .thenThrow(new ServerConnectivityException("testRetry"));
+    assertThatThrownBy(() -> GetAllOp.execute(pool, region, keys, 0, null, chunk -> {
+    })).isInstanceOf(ServerConnectivityException.class);
+    Mockito.verify(pool, never()).execute(any());
+  }
+
   @Test
   public void singleHopGetAllShouldRetrySOECausedBySerialzationExp() {
     when(region.getFullPath()).thenReturn("/testRegion")
@@ -98,4 +127,101 @@ public class GetAllOpJUnitTest {
     Mockito.verify(pool, times(0)).execute(any());
   }
 
+  @Test
+  public void streamingGetAllDoesNotDeliverChunksAgainWhenTheReplyIsReadAgain() throws Exception {
+    List<VersionedObjectList> delivered = new ArrayList<>();
+    GetAllOp.GetAllOpImpl op = new GetAllOp.GetAllOpImpl("/testRegion", keys, null, delivered::add);
+    Connection connection = connection();
+
+    op.processResponse(reply(chunk(1, 2, 3, 4), chunk(5, 6, 7, 8, 9, 10)), connection);
+    op.processResponse(reply(chunk(1, 2, 3, 4), chunk(5, 6, 7, 8, 9, 10)), connection);
+
+    assertThat(delivered).hasSize(2);
+    assertDelivered(delivered.get(0), 1, 2, 3, 4);
+    assertDelivered(delivered.get(1), 5, 6, 7, 8, 9, 10);
+    assertThat(op.getUndeliveredKeys()).isEmpty();
+  }
+
+  @Test
+  public void streamingGetAllDeliversOnlyTheRestOfAChunkThatWasPartlyDeliveredBeforeFailover()
+      throws Exception {
+    List<VersionedObjectList> delivered = new ArrayList<>();
+    GetAllOp.GetAllOpImpl op = new GetAllOp.GetAllOpImpl("/testRegion", keys, null, delivered::add);
+    Connection connection = connection();
+    ChunkedMessage failedReply = reply(chunk(1, 2, 3, 4), chunk(5, 6, 7, 8, 9, 10));
+    doNothing().doThrow(new IOException("server failed")).when(failedReply).receiveChunk();
+
+    assertThatThrownBy(() -> op.processResponse(failedReply, connection))
+        .isInstanceOf(IOException.class);
+    assertThat(op.getUndeliveredKeys()).containsExactly(5, 6, 7, 8, 9, 10);
+
+    op.processResponse(reply(chunk(1, 2, 3), chunk(4, 5, 6), chunk(7, 8, 9), chunk(10)),
+        connection);
+
+    assertThat(delivered).hasSize(4);
+    assertDelivered(delivered.get(0), 1, 2, 3, 4);
+    assertDelivered(delivered.get(1), 5, 6);
+    assertDelivered(delivered.get(2), 7, 8, 9);
+    assertDelivered(delivered.get(3), 10);
+    assertThat(op.getUndeliveredKeys()).isEmpty();
+  }
+
+  @Test
+  public void streamingGetAllReadsTheRestOfTheReplyWhenTheConsumerFails() throws Exception {
+    RuntimeException failure = new RuntimeException("consumer failed");
+    List<VersionedObjectList> delivered = new ArrayList<>();
+    GetAllOp.GetAllOpImpl op = new GetAllOp.GetAllOpImpl("/testRegion", keys, null, chunk -> {
+      delivered.add(chunk);
+      throw failure;
+    });
+    ChunkedMessage reply = reply(chunk(1, 2, 3), chunk(4, 5, 6), chunk(7, 8, 9, 10));
+
+    op.processResponse(reply, connection());
+
+    Mockito.verify(reply, times(3)).receiveChunk();
+    assertThat(delivered).hasSize(1);
+    assertDelivered(delivered.get(0), 1, 2, 3);
+    assertThatThrownBy(op::throwConsumerFailure).isSameAs(failure);
+  }
+
+  private Connection connection() {
+    Connection connection = mock(Connection.class);
+    when(connection.getEndpoint()).thenReturn(mock(Endpoint.class));
+    return connection;
+  }
+
+  private VersionedObjectList chunk(int... keys) {
+    VersionedObjectList chunk = new VersionedObjectList(keys.length, false, false);
+    for (int key : keys) {
+      chunk.addObjectPart(null, "value-" + key, true, null);
+    }
+    return chunk;
+  }
+
+  private ChunkedMessage reply(VersionedObjectList... chunks) throws Exception {
+    ChunkedMessage reply = mock(ChunkedMessage.class);
+    when(reply.getMessageType()).thenReturn(MessageType.RESPONSE);
+    Part[] parts = new Part[chunks.length];
+    Boolean[] lastChunk = new Boolean[chunks.length];
+    for (int i = 0; i < chunks.length; i++) {
+      parts[i] = mock(Part.class);
+      when(parts[i].getObject()).thenReturn(chunks[i]);
+      lastChunk[i] = i == chunks.length - 1;
+    }
+    when(reply.getPart(0)).thenReturn(parts[0], Arrays.copyOfRange(parts, 1, parts.length));
+    when(reply.isLastChunk())
+        .thenReturn(lastChunk[0], Arrays.copyOfRange(lastChunk, 1, lastChunk.length));
+    return reply;
+  }
+
+  private void assertDelivered(VersionedObjectList chunk, int... keys) {
+    List<Object> expectedKeys = new ArrayList<>();
+    List<Object> expectedValues = new ArrayList<>();
+    for (int key : keys) {
+      expectedKeys.add(key);
+      expectedValues.add("value-" + key);
+    }
+    assertThat(chunk.getKeys()).isEqualTo(expectedKeys);
+    assertThat(chunk.getObjects()).isEqualTo(expectedValues);
+  }
 }
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.LocalRegion;
+
+public class HedgedGetsTest {
+
+  private final ServerLocation server = new ServerLocation("localhost", 1);
+  private final ServerLocation otherServer = new ServerLocation("localhost", 2);
+  private ExecutablePool pool;
+  private GetOp.GetOpImpl get;
+  private GetOp.GetOpImpl hedge;
+
+  @Before
+  public void setUp() {
+    pool = mock(ExecutablePool.class);
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    get = new GetOp.GetOpImpl(region, "key", null, true, null);
+    hedge = new GetOp.GetOpImpl(region, "key", null, true, null);
+  }
+
+  @Test
+  public void bucketBoundsContainTheirResponseTimes() {
+    for (long micros = 0; micros < 100_000; micros++) {
+      int bucket = HedgedGets.bucketOf(micros);
+      assertThat(HedgedGets.upperBoundOf(bucket)).isGreaterThanOrEqualTo(micros);
+      if (bucket > 0) {
+        assertThat(HedgedGets.upperBoundOf(bucket - 1)).isLessThan(micros);
+      }
+    }
+  }
+
+  @Test
+  public void getsAreNotHedgedUntilEnoughResponseTimesAreKnown() {
+    HedgedGets hedgedGets = new HedgedGets(90);
+    for (int i = 1; i < HedgedGets.MINIMUM_SAMPLES; i++) {
+      hedgedGets.addResponseTime(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    assertThat(hedgedGets.getDelayNanos()).isEqualTo(-1);
+
+    hedgedGets.addResponseTime(TimeUnit.MILLISECONDS.toNanos(1));
+
+    assertThat(hedgedGets.getDelayNanos()).isBetween(TimeUnit.MILLISECONDS.toNanos(1),
+        TimeUnit.MICROSECONDS.toNanos(1200));
+  }
+
+  @Test
+  public void delayIsThePercentileOfResponseTimes() {
+    HedgedGets hedgedGets = new HedgedGets(90);
+    for (int i = 0; i < 90; i++) {
+      hedgedGets.addResponseTime(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+    for (int i = 0; i < 10; i++) {
+      hedgedGets.addResponseTime(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    assertThat(hedgedGets.getDelayNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  @Test
+  public void slowGetIsHedgedOnOtherServerAndCancelled() {
+    HedgedGets hedgedGets = hedgedGets(TimeUnit.MICROSECONDS.toNanos(100));
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+      // the get only ends once it is cancelled, like a get whose connection is destroyed
+      await().until(get::isCancelled);
+      throw new ServerConnectivityException("cancelled");
+    });
+    when(pool.executeOn(eq(otherServer), any(), anyBoolean(), anyBoolean())).thenReturn("fast");
+
+    assertThat(hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+        .isEqualTo("fast");
+    assertThat(hedge.isCancelled()).isFalse();
+  }
+
+  @Test
+  public void getIsExecutedByCallingThread() {
+    HedgedGets hedgedGets = hedgedGets(TimeUnit.SECONDS.toNanos(1));
+    Thread caller = Thread.currentThread();
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean()))
+        .thenAnswer(invocation -> Thread.currentThread() == caller ? "value" : "other thread");
+
+    assertThat(hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+        .isEqualTo("value");
+  }
+
+  @Test
+  public void getAnsweredWithinDelayIsNotHedged() throws Exception {
+    HedgedGets hedgedGets = hedgedGets(TimeUnit.MILLISECONDS.toNanos(200));
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean())).thenReturn("value");
+
+    assertThat(hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+        .isEqualTo("value");
+
+    Thread.sleep(400);
+    verify(pool, never()).executeOn(eq(otherServer), any(), anyBoolean(), anyBoolean());
+  }
+
+  @Test
+  public void hedgeIsCancelledWhenGetIsAnsweredFirst() {
+    HedgedGets hedgedGets = hedgedGets(TimeUnit.MICROSECONDS.toNanos(100));
+    CountDownLatch hedging = new CountDownLatch(1);
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+      hedging.await();
+      return "value";
+    });
+    when(pool.executeOn(eq(otherServer), any(), anyBoolean(), anyBoolean()))
+        .thenAnswer(invocation -> {
+          hedging.countDown();
+          await().until(hedge::isCancelled);
+          throw new ServerConnectivityException("cancelled");
+        });
+
+    assertThat(hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+        .isEqualTo("value");
+    assertThat(hedge.isCancelled()).isTrue();
+    assertThat(get.isCancelled()).isFalse();
+  }
+
+  @Test
+  public void getFailingWithinDelayIsNotHedged() throws Exception {
+    HedgedGets hedgedGets = hedgedGets(TimeUnit.MILLISECONDS.toNanos(200));
+    ServerConnectivityException failure = new ServerConnectivityException("failed");
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean())).thenThrow(failure);
+
+    assertThatThrownBy(
+        () -> hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+            .isSameAs(failure);
+
+    Thread.sleep(400);
+    verify(pool, never()).executeOn(eq(otherServer), any(), anyBoolean(), anyBoolean());
+  }
+
+  @Test
+  public void getFailingAfterHedgeIsAnsweredByHedge() {
+    HedgedGets hedgedGets = hedgedGets(TimeUnit.MICROSECONDS.toNanos(100));
+    CountDownLatch hedging = new CountDownLatch(1);
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+      hedging.await();
+      throw new ServerConnectivityException("failed");
+    });
+    when(pool.executeOn(eq(otherServer), any(), anyBoolean(), anyBoolean()))
+        .thenAnswer(invocation -> {
+          hedging.countDown();
+          return "hedged";
+        });
+
+    assertThat(hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+        .isEqualTo("hedged");
+  }
+
+  @Test
+  public void cancellingGetDestroysItsConnection() throws Exception {
+    get.setCancellable();
+    Connection connection = mock(Connection.class);
+    CountDownLatch attempting = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+    when(connection.getStats()).thenAnswer(invocation -> {
+      attempting.countDown();
+      cancelled.await();
+      return mock(ConnectionStats.class);
+    });
+    CompletableFuture<Object> attempt = CompletableFuture.supplyAsync(() -> {
+      try {
+        return get.attempt(connection);
+      } catch (Exception e) {
+        throw new CompletionException(e);
+      }
+    });
+    attempting.await();
+
+    get.cancel();
+
+    verify(connection).destroy();
+    cancelled.countDown();
+    assertThatThrownBy(attempt::join)
+        .hasCauseInstanceOf(HedgedGets.AttemptCancelledException.class);
+  }
+
+  @Test
+  public void cancellableGetIsNotPipelined() {
+    assertThat(get.isPipelinable()).isTrue();
+
+    get.setCancellable();
+
+    assertThat(get.isPipelinable()).isFalse();
+  }
+
+  @Test
+  public void getIsNotHedgedWithoutResponseTimes() {
+    HedgedGets hedgedGets = new HedgedGets(50);
+    when(pool.executeOn(eq(server), any(), anyBoolean(), anyBoolean())).thenReturn("value");
+
+    assertThat(hedgedGets.execute(pool, server, get, otherServer, hedge, false, null))
+        .isEqualTo("value");
+
+    verify(pool, never()).executeOn(eq(otherServer), any(), anyBoolean(), anyBoolean());
+  }
+
+  /**
+   * Returns hedged gets whose delay is about the given response time.
+   */
+  private static HedgedGets hedgedGets(long responseNanos) {
+    HedgedGets hedgedGets = new HedgedGets(50);
+    for (int i = 0; i < HedgedGets.MINIMUM_SAMPLES; i++) {
+      hedgedGets.addResponseTime(responseNanos);
+    }
+    return hedgedGets;
+  }
+}
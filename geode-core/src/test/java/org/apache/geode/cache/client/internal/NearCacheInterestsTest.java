@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.NoSubscriptionServersAvailableException;
+
+public class NearCacheInterestsTest {
+
+  private ServerRegionProxy proxy;
+  private Set<Object> cachedKeys;
+  private NearCacheInterests interests;
+
+  @Before
+  public void setUp() {
+    proxy = mock(ServerRegionProxy.class);
+    cachedKeys = new HashSet<>();
+    interests = new NearCacheInterests(proxy, (byte) 0, cachedKeys::contains);
+  }
+
+  @Test
+  public void interestIsRegisteredOnceForInvalidatesOnly() {
+    interests.beforeLoad("key");
+    interests.beforeLoad("key");
+
+    verify(proxy, times(1)).registerInterestList(Collections.singletonList("key"),
+        InterestResultPolicy.NONE, false, true, (byte) 0);
+    assertThat(interests.getRegisteredCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void keysLoadedTogetherShareOneRegistration() {
+    interests.beforeLoad(Arrays.asList("key1", "key2"));
+
+    verify(proxy, times(1)).registerInterestList(anyList(), any(), anyBoolean(), anyBoolean(),
+        anyByte());
+    assertThat(interests.getRegisteredCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void removedKeyIsUnregisteredByNextRegistration() {
+    interests.beforeLoad("key1");
+    interests.afterLoad("key1");
+    interests.afterRemoval("key1");
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+
+    interests.beforeLoad("key2");
+
+    verify(proxy).unregisterInterestList(Collections.singletonList("key1"), false, false);
+    assertThat(interests.getRegisteredCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void keyRemovedDuringLoadIsNotUnregisteredBeforeLoadedValueIsCached() {
+    interests.beforeLoad("key1");
+    // the entry is evicted before the loaded value is cached
+    interests.afterRemoval("key1");
+
+    interests.beforeLoad("key2");
+    cachedKeys.add("key1");
+    interests.afterLoad("key1");
+    interests.afterLoad("key2");
+    interests.beforeLoad("key3");
+
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+    assertThat(interests.getRegisteredCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void keyRemovedDuringLoadIsUnregisteredIfNoValueIsCached() {
+    interests.beforeLoad("key1");
+    interests.afterRemoval("key1");
+    interests.afterLoad("key1");
+
+    interests.beforeLoad("key2");
+
+    verify(proxy).unregisterInterestList(Collections.singletonList("key1"), false, false);
+    assertThat(interests.getRegisteredCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void keyRemovedDuringWritesIsUnregisteredAfterLastWrite() {
+    interests.beforeWrite("key1");
+    interests.beforeWrite(Collections.singletonList("key1"));
+    interests.afterRemoval("key1");
+
+    interests.afterWrite("key1");
+    interests.beforeLoad("key2");
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+
+    interests.afterWrite(Collections.singletonList("key1"));
+    interests.beforeLoad("key3");
+    verify(proxy).unregisterInterestList(Collections.singletonList("key1"), false, false);
+  }
+
+  @Test
+  public void keyLoadedAgainBeforeUnregisteringIsNotRegisteredAgain() {
+    interests.beforeLoad("key");
+    interests.afterLoad("key");
+    interests.afterRemoval("key");
+
+    interests.beforeLoad("key");
+
+    verify(proxy, times(1)).registerInterestList(anyList(), any(), anyBoolean(), anyBoolean(),
+        anyByte());
+    verify(proxy, never()).unregisterInterestList(anyList(), anyBoolean(), anyBoolean());
+  }
+
+  @Test
+  public void failedRegistrationIsRetriedByNextLoad() {
+    when(proxy.registerInterestList(anyList(), any(), anyBoolean(), anyBoolean(), anyByte()))
+        .thenThrow(new NoSubscriptionServersAvailableException("no servers"))
+        .thenReturn(null);
+
+    assertThatThrownBy(() -> interests.beforeLoad("key"))
+        .isInstanceOf(NoSubscriptionServersAvailableException.class);
+    assertThat(interests.getRegisteredCount()).isZero();
+
+    interests.beforeLoad("key");
+
+    verify(proxy, times(2)).registerInterestList(eq(Collections.singletonList("key")), any(),
+        anyBoolean(), anyBoolean(), anyByte());
+    assertThat(interests.getRegisteredCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void keysOfFailedRegistrationByAnotherThreadAreAllRegisteredAgain() throws Exception {
+    CountDownLatch registering = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(proxy.registerInterestList(anyList(), any(), anyBoolean(), anyBoolean(), anyByte()))
+        .thenAnswer(invocation -> {
+          registering.countDown();
+          release.await();
+          return null;
+        })
+        .thenThrow(new NoSubscriptionServersAvailableException("no servers"))
+        .thenReturn(null);
+    Thread first = new Thread(() -> interests.beforeLoad("key"));
+    first.start();
+    registering.await();
+
+    // both wait for the next registration, which fails whichever of them does it
+    Thread batch = new Thread(() -> loadIgnoringFailure(() -> interests
+        .beforeLoad(Arrays.asList("key1", "key2"))));
+    Thread single = new Thread(() -> loadIgnoringFailure(() -> interests.beforeLoad("key3")));
+    batch.start();
+    single.start();
+    await().until(() -> batch.getState() == Thread.State.WAITING
+        && single.getState() == Thread.State.WAITING);
+    release.countDown();
+    first.join();
+    batch.join();
+    single.join();
+
+    verify(proxy, times(3)).registerInterestList(anyList(), any(), anyBoolean(), anyBoolean(),
+        anyByte());
+    assertThat(interests.getRegisteredCount()).isEqualTo(4);
+  }
+
+  private static void loadIgnoringFailure(Runnable load) {
+    try {
+      load.run();
+    } catch (NoSubscriptionServersAvailableException ignore) {
+      // the thread that did the failed registration
+    }
+  }
+}
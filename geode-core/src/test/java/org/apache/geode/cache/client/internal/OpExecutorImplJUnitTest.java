@@ -16,8 +16,13 @@ package org.apache.geode.cache.client.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,9 +35,14 @@ import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.junit.Before;
@@ -369,6 +379,160 @@ public class OpExecutorImplJUnitTest {
     assertThat(thrown).isSameAs(serverConnectivityException);
   }
 
+  @Test
+  public void executeAsyncCompletesWithResultOfPipelinedConnection() {
+    PipelinedConnections pipelinedConnections = mock(PipelinedConnections.class);
+    OpExecutorImpl exec = asyncExecutor(3, pipelinedConnections);
+    AbstractOp op = pipelinableOp(pipelinedConnections);
+    PipelinedConnection conn = pipelinedConnection(new ServerLocation("localhost", 1));
+    CompletableFuture<Object> reply = new CompletableFuture<>();
+    when(conn.executeAsync(op)).thenReturn(reply);
+    when(pipelinedConnections.getConnection(isNull(), anySet())).thenReturn(conn);
+
+    CompletableFuture<Object> result = exec.executeAsync(op);
+
+    assertThat(result).isNotDone();
+    reply.complete("hello");
+    assertThat(result).isCompletedWithValue("hello");
+    assertThat(borrows).isEqualTo(0);
+  }
+
+  @Test
+  public void executeAsyncRetriesFailedAttemptOnAnotherServerOutsideReaderThread() {
+    PipelinedConnections pipelinedConnections = mock(PipelinedConnections.class);
+    OpExecutorImpl exec = asyncExecutor(3, pipelinedConnections);
+    AbstractOp op = pipelinableOp(pipelinedConnections);
+    ServerLocation failedServer = new ServerLocation("localhost", 1);
+    PipelinedConnection failedConn = pipelinedConnection(failedServer);
+    PipelinedConnection retryConn = pipelinedConnection(new ServerLocation("localhost", 2));
+    CompletableFuture<Object> failedReply = new CompletableFuture<>();
+    when(failedConn.executeAsync(op)).thenReturn(failedReply);
+    when(retryConn.executeAsync(op)).thenReturn(CompletableFuture.completedFuture("hello"));
+    List<Set<ServerLocation>> excludedServers = new ArrayList<>();
+    when(pipelinedConnections.getConnection(isNull(), anySet())).thenAnswer(invocation -> {
+      excludedServers.add(new HashSet<>(invocation.getArgument(1)));
+      return excludedServers.size() == 1 ? failedConn : retryConn;
+    });
+    List<Runnable> retries = new ArrayList<>();
+    doAnswer(invocation -> retries.add(invocation.getArgument(0)))
+        .when(pipelinedConnections).execute(any());
+
+    CompletableFuture<Object> result = exec.executeAsync(op);
+    // completed by the thread reading the failed connection's replies
+    failedReply.completeExceptionally(new IOException("test"));
+
+    assertThat(retries).hasSize(1);
+    verify(retryConn, never()).executeAsync(op);
+    assertThat(result).isNotDone();
+
+    retries.get(0).run();
+
+    assertThat(result).isCompletedWithValue("hello");
+    assertThat(excludedServers).containsExactly(Collections.emptySet(),
+        Collections.singleton(failedServer));
+    verify(failedConn).destroy();
+    verify(op.getMessage()).setIsRetry();
+    assertThat(serverCrashes).isEqualTo(1);
+  }
+
+  @Test
+  public void executeAsyncCompletesExceptionallyIfFinalAttemptFails() {
+    PipelinedConnections pipelinedConnections = mock(PipelinedConnections.class);
+    OpExecutorImpl exec = asyncExecutor(0, pipelinedConnections);
+    AbstractOp op = pipelinableOp(pipelinedConnections);
+    PipelinedConnection conn = pipelinedConnection(new ServerLocation("localhost", 1));
+    when(conn.executeAsync(op)).thenReturn(failedFuture(new IOException("test")));
+    when(pipelinedConnections.getConnection(isNull(), anySet())).thenReturn(conn);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(pipelinedConnections).execute(any());
+
+    CompletableFuture<Object> result = exec.executeAsync(op);
+
+    assertThat(catchThrowable(result::join)).isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(ServerConnectivityException.class);
+    verify(pipelinedConnections, times(1)).getConnection(isNull(), anySet());
+  }
+
+  @Test
+  public void executeAsyncCompletesExceptionallyIfNoOtherServerCanBeConnected() {
+    PipelinedConnections pipelinedConnections = mock(PipelinedConnections.class);
+    OpExecutorImpl exec = asyncExecutor(3, pipelinedConnections);
+    AbstractOp op = pipelinableOp(pipelinedConnections);
+    PipelinedConnection conn = pipelinedConnection(new ServerLocation("localhost", 1));
+    when(conn.executeAsync(op)).thenReturn(failedFuture(new IOException("test")));
+    when(pipelinedConnections.getConnection(isNull(), anySet())).thenReturn(conn)
+        .thenReturn(null);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(pipelinedConnections).execute(any());
+
+    CompletableFuture<Object> result = exec.executeAsync(op);
+
+    assertThat(catchThrowable(result::join)).isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(NoAvailableServersException.class);
+  }
+
+  @Test
+  public void executeAsyncFailsWithAttemptFailureIfReaderThreadsAreShutDown() {
+    PipelinedConnections pipelinedConnections = mock(PipelinedConnections.class);
+    OpExecutorImpl exec = asyncExecutor(3, pipelinedConnections);
+    AbstractOp op = pipelinableOp(pipelinedConnections);
+    PipelinedConnection conn = pipelinedConnection(new ServerLocation("localhost", 1));
+    IOException failure = new IOException("test");
+    when(conn.executeAsync(op)).thenReturn(failedFuture(failure));
+    when(pipelinedConnections.getConnection(isNull(), anySet())).thenReturn(conn);
+    doThrow(new RejectedExecutionException()).when(pipelinedConnections).execute(any());
+
+    CompletableFuture<Object> result = exec.executeAsync(op);
+
+    assertThat(catchThrowable(result::join)).isInstanceOf(CompletionException.class)
+        .hasCause(failure);
+    verify(pipelinedConnections, times(1)).getConnection(isNull(), anySet());
+  }
+
+  @Test
+  public void executeAsyncWithoutPipelinedConnectionExecutesOnCallingThread() throws Exception {
+    PipelinedConnections pipelinedConnections = mock(PipelinedConnections.class);
+    OpExecutorImpl exec = asyncExecutor(3, pipelinedConnections);
+    AbstractOp op = pipelinableOp(pipelinedConnections);
+    when(op.attempt(any())).thenReturn("hello");
+
+    CompletableFuture<Object> result = exec.executeAsync(op);
+
+    assertThat(result).isCompletedWithValue("hello");
+    assertThat(borrows).isEqualTo(1);
+    assertThat(returns).isEqualTo(1);
+  }
+
+  private OpExecutorImpl asyncExecutor(int retries, PipelinedConnections pipelinedConnections) {
+    OpExecutorImpl exec = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker,
+        retries, 10, PoolFactory.DEFAULT_SERVER_CONNECTION_TIMEOUT, cancelCriterion, null);
+    exec.setPipelinedConnections(pipelinedConnections);
+    return exec;
+  }
+
+  private AbstractOp pipelinableOp(PipelinedConnections pipelinedConnections) {
+    AbstractOp op = mock(AbstractOp.class);
+    when(op.getMessage()).thenReturn(mock(Message.class));
+    when(pipelinedConnections.canExecute(op)).thenReturn(true);
+    return op;
+  }
+
+  private PipelinedConnection pipelinedConnection(ServerLocation server) {
+    PipelinedConnection conn = mock(PipelinedConnection.class);
+    when(conn.getServer()).thenReturn(server);
+    return conn;
+  }
+
+  private static CompletableFuture<Object> failedFuture(Throwable failure) {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    future.completeExceptionally(failure);
+    return future;
+  }
+
   private void reset() {
     borrows = 0;
     returns = 0;
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.client.internal.PipelinedConnection.PendingReply;
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+
+public class PipelinedConnectionTest {
+
+  private final List<Runnable> readers = new ArrayList<>();
+  private Connection connection;
+  private Consumer<PipelinedConnection> destroyListener;
+  private PipelinedConnection pipelinedConnection;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    connection = mock(Connection.class);
+    when(connection.getCommBuffer()).thenReturn(ByteBuffer.allocate(1024));
+    when(connection.getSocket()).thenReturn(mock(Socket.class));
+    destroyListener = mock(Consumer.class);
+    pipelinedConnection = new PipelinedConnection(connection, readers::add, destroyListener);
+  }
+
+  private AbstractOp replyingOp(Message reply) throws Exception {
+    AbstractOp op = mock(AbstractOp.class);
+    when(op.receivePipelinedResponse(any(), any())).thenReturn(reply);
+    return op;
+  }
+
+  private void runReaders() {
+    List<Runnable> started = new ArrayList<>(readers);
+    readers.clear();
+    started.forEach(Runnable::run);
+  }
+
+  @Test
+  public void asyncReplyCompletesFuture() throws Exception {
+    Message message = mock(Message.class);
+    AbstractOp op = replyingOp(message);
+
+    PendingReply reply = pipelinedConnection.send(op, true);
+
+    verify(op).attemptSend(connection);
+    assertThat(reply.getFuture()).isNotDone();
+    assertThat(pipelinedConnection.getPendingCount()).isEqualTo(1);
+
+    runReaders();
+
+    assertThat(reply.getFuture()).isCompletedWithValue(message);
+    assertThat(pipelinedConnection.getPendingCount()).isZero();
+  }
+
+  @Test
+  public void asyncRepliesAreReadInSendOrderByOneReader() throws Exception {
+    Message firstMessage = mock(Message.class);
+    Message secondMessage = mock(Message.class);
+    List<Message> completed = new ArrayList<>();
+
+    PendingReply first = pipelinedConnection.send(replyingOp(firstMessage), true);
+    PendingReply second = pipelinedConnection.send(replyingOp(secondMessage), true);
+    first.getFuture().thenAccept(completed::add);
+    second.getFuture().thenAccept(completed::add);
+
+    assertThat(readers).hasSize(1);
+    runReaders();
+
+    assertThat(completed).containsExactly(firstMessage, secondMessage);
+  }
+
+  @Test
+  public void syncReplyIsReadByWaitingThread() throws Exception {
+    Message message = mock(Message.class);
+
+    PendingReply reply = pipelinedConnection.send(replyingOp(message), false);
+
+    assertThat(reply.getFuture()).isNull();
+    assertThat(readers).isEmpty();
+    assertThat(reply.await()).isSameAs(message);
+  }
+
+  @Test
+  public void waitingThreadStartsReaderForAsyncRepliesAfterItsOwn() throws Exception {
+    Message syncMessage = mock(Message.class);
+    Message asyncMessage = mock(Message.class);
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch replied = new CountDownLatch(1);
+    AbstractOp syncOp = mock(AbstractOp.class);
+    when(syncOp.receivePipelinedResponse(any(), any())).thenAnswer(invocation -> {
+      reading.countDown();
+      replied.await(getTimeout().toMillis(), MILLISECONDS);
+      return syncMessage;
+    });
+    PendingReply sync = pipelinedConnection.send(syncOp, false);
+    CompletableFuture<Message> syncResult = CompletableFuture.supplyAsync(() -> {
+      try {
+        return sync.await();
+      } catch (Exception e) {
+        throw new CompletionException(e);
+      }
+    });
+    assertThat(reading.await(getTimeout().toMillis(), MILLISECONDS)).isTrue();
+
+    // no reader is started for an async op sent while a thread is reading
+    PendingReply async = pipelinedConnection.send(replyingOp(asyncMessage), true);
+    assertThat(readers).isEmpty();
+    replied.countDown();
+
+    assertThat(syncResult.get(getTimeout().toMillis(), MILLISECONDS)).isSameAs(syncMessage);
+    assertThat(async.getFuture()).isNotDone();
+    assertThat(readers).hasSize(1);
+    runReaders();
+    assertThat(async.getFuture()).isCompletedWithValue(asyncMessage);
+  }
+
+  @Test
+  public void failedReadFailsPendingRepliesAndDestroysConnection() throws Exception {
+    IOException readFailure = new IOException("test");
+    AbstractOp failingOp = mock(AbstractOp.class);
+    when(failingOp.receivePipelinedResponse(any(), any())).thenThrow(readFailure);
+    AbstractOp op = replyingOp(mock(Message.class));
+
+    PendingReply failed = pipelinedConnection.send(failingOp, true);
+    PendingReply other = pipelinedConnection.send(op, true);
+    runReaders();
+
+    assertThat(catchThrowable(() -> failed.getFuture().get()))
+        .isInstanceOf(ExecutionException.class).hasCause(readFailure);
+    assertThat(catchThrowable(() -> other.getFuture().get()))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ConnectionDestroyedException.class);
+    assertThat(pipelinedConnection.isDestroyed()).isTrue();
+    assertThat(pipelinedConnection.getPendingCount()).isZero();
+    verify(connection).destroy();
+    verify(destroyListener).accept(pipelinedConnection);
+    verify(op, never()).receivePipelinedResponse(any(), any());
+  }
+
+  @Test
+  public void sendOnDestroyedConnectionFails() throws Exception {
+    pipelinedConnection.destroy();
+
+    Throwable thrown =
+        catchThrowable(() -> pipelinedConnection.send(replyingOp(mock(Message.class)), true));
+
+    assertThat(thrown).isInstanceOf(ConnectionDestroyedException.class);
+  }
+
+  @Test
+  public void failedSendDestroysConnection() throws Exception {
+    AbstractOp op = mock(AbstractOp.class);
+    IOException sendFailure = new IOException("test");
+    doThrow(sendFailure).when(op).attemptSend(connection);
+
+    Throwable thrown = catchThrowable(() -> pipelinedConnection.send(op, true));
+
+    assertThat(thrown).isSameAs(sendFailure);
+    assertThat(pipelinedConnection.isDestroyed()).isTrue();
+    assertThat(pipelinedConnection.getPendingCount()).isZero();
+  }
+
+  @Test
+  public void readerStopsWhenNoRepliesArePending() throws Exception {
+    Message firstMessage = mock(Message.class);
+    Message secondMessage = mock(Message.class);
+
+    PendingReply first = pipelinedConnection.send(replyingOp(firstMessage), true);
+    runReaders();
+    assertThat(first.getFuture()).isCompletedWithValue(firstMessage);
+
+    PendingReply second = pipelinedConnection.send(replyingOp(secondMessage), true);
+
+    assertThat(readers).hasSize(1);
+    runReaders();
+    assertThat(second.getFuture()).isCompletedWithValue(secondMessage);
+  }
+
+  @Test
+  public void shutDownReaderExecutorFailsAsyncReplies() throws Exception {
+    ExecutorService readerExecutor = Executors.newSingleThreadExecutor();
+    readerExecutor.shutdown();
+    pipelinedConnection =
+        new PipelinedConnection(connection, readerExecutor, destroyListener);
+
+    PendingReply reply = pipelinedConnection.send(replyingOp(mock(Message.class)), true);
+
+    CompletableFuture<Message> future = reply.getFuture();
+    assertThat(catchThrowable(future::get)).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ConnectionDestroyedException.class)
+        .hasRootCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(pipelinedConnection.isDestroyed()).isTrue();
+    verify(connection).destroy();
+  }
+}
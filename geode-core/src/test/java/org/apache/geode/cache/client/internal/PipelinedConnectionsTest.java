@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+
+public class PipelinedConnectionsTest {
+
+  private final ServerLocation server = new ServerLocation("localhost", 40404);
+  private ConnectionFactory connectionFactory;
+  private PipelinedConnections pipelinedConnections;
+
+  @Before
+  public void setUp() throws Exception {
+    connectionFactory = mock(ConnectionFactory.class);
+    when(connectionFactory.createClientToServerConnection(anySet()))
+        .thenAnswer(invocation -> createConnection());
+    when(connectionFactory.createClientToServerConnection(any(ServerLocation.class), anyBoolean()))
+        .thenAnswer(invocation -> createConnection());
+    pipelinedConnections =
+        new PipelinedConnections(connectionFactory, 2, Executors.newCachedThreadPool());
+  }
+
+  private Connection createConnection() throws SocketException {
+    Connection connection = mock(Connection.class);
+    when(connection.getServer()).thenReturn(server);
+    when(connection.getCommBuffer()).thenReturn(ByteBuffer.allocate(1024));
+    when(connection.getSocket()).thenReturn(mock(Socket.class));
+    return connection;
+  }
+
+  @Test
+  public void idleConnectionIsReused() {
+    PipelinedConnection first = pipelinedConnections.getConnection(null, Collections.emptySet());
+    PipelinedConnection second = pipelinedConnections.getConnection(null, Collections.emptySet());
+
+    assertThat(first).isNotNull();
+    assertThat(second).isSameAs(first);
+    verify(connectionFactory, times(1)).createClientToServerConnection(anySet());
+  }
+
+  @Test
+  public void destroyedConnectionIsReplaced() {
+    PipelinedConnection first = pipelinedConnections.getConnection(server, Collections.emptySet());
+    first.destroy();
+
+    PipelinedConnection second =
+        pipelinedConnections.getConnection(server, Collections.emptySet());
+
+    assertThat(first.isDestroyed()).isTrue();
+    assertThat(second).isNotNull().isNotSameAs(first);
+  }
+
+  @Test
+  public void returnsNullIfNoConnectionCanBeCreated() {
+    when(connectionFactory.createClientToServerConnection(anySet())).thenReturn(null);
+
+    assertThat(pipelinedConnections.getConnection(null, Collections.emptySet())).isNull();
+  }
+
+  @Test
+  public void serverRequiringCredentialsDisablesPipelining() {
+    AbstractOp op = mock(AbstractOp.class);
+    when(op.isPipelinable()).thenReturn(true);
+    assertThat(pipelinedConnections.canExecute(op)).isTrue();
+
+    server.setRequiresCredentials(true);
+
+    assertThat(pipelinedConnections.getConnection(null, Collections.emptySet())).isNull();
+    assertThat(pipelinedConnections.canExecute(op)).isFalse();
+  }
+
+  @Test
+  public void closeDestroysConnections() {
+    PipelinedConnection connection =
+        pipelinedConnections.getConnection(null, Collections.emptySet());
+
+    pipelinedConnections.close(false);
+
+    assertThat(connection.isDestroyed()).isTrue();
+    assertThat(pipelinedConnections.getConnection(null, Collections.emptySet())).isNull();
+  }
+}
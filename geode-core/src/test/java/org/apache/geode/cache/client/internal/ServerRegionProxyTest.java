@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+
+public class ServerRegionProxyTest {
+
+  private InternalPool pool;
+  private ServerRegionProxy proxy;
+
+  @Before
+  public void setUp() {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    InternalCache cache = mock(InternalCache.class);
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    when(region.getCache()).thenReturn(cache);
+    when(cache.getInternalDistributedSystem()).thenReturn(system);
+    when(system.getDistributedMember()).thenReturn(new InternalDistributedMember("localhost", 0));
+    pool = mock(InternalPool.class);
+    proxy = new ServerRegionProxy(region, pool);
+  }
+
+  @Test
+  public void getAsyncCompletesWithValueOfGet() {
+    CompletableFuture<Object> get = new CompletableFuture<>();
+    when(pool.executeAsync(any())).thenReturn(get);
+
+    CompletableFuture<Object> result = proxy.getAsync("key", null);
+
+    ArgumentCaptor<Op> op = ArgumentCaptor.forClass(Op.class);
+    verify(pool).executeAsync(op.capture());
+    assertThat(op.getValue()).isInstanceOf(GetOp.GetOpImpl.class);
+    assertThat(result).isNotDone();
+    get.complete("value");
+    assertThat(result).isCompletedWithValue("value");
+  }
+
+  @Test
+  public void getAsyncCompletesExceptionallyIfGetFails() {
+    RuntimeException failure = new RuntimeException("test");
+    when(pool.executeAsync(any())).thenReturn(failedFuture(failure));
+
+    CompletableFuture<Object> result = proxy.getAsync("key", null);
+
+    assertThat(catchThrowable(result::join)).isInstanceOf(CompletionException.class)
+        .hasCause(failure);
+  }
+
+  @Test
+  public void putAsyncCompletesWithoutOldValueOncePutIsDone() {
+    CompletableFuture<Object> put = new CompletableFuture<>();
+    when(pool.executeAsync(any())).thenReturn(put);
+
+    CompletableFuture<Void> result = proxy.putAsync("key", "value", null);
+
+    ArgumentCaptor<Op> op = ArgumentCaptor.forClass(Op.class);
+    verify(pool).executeAsync(op.capture());
+    assertThat(op.getValue()).isInstanceOf(PutOp.PutOpImpl.class);
+    assertThat(result).isNotDone();
+    put.complete("oldValue");
+    assertThat(result).isCompletedWithValue(null);
+  }
+
+  @Test
+  public void putAsyncCompletesExceptionallyIfPutFails() {
+    RuntimeException failure = new RuntimeException("test");
+    when(pool.executeAsync(any())).thenReturn(failedFuture(failure));
+
+    CompletableFuture<Void> result = proxy.putAsync("key", "value", null);
+
+    assertThat(catchThrowable(result::join)).isInstanceOf(CompletionException.class)
+        .hasCause(failure);
+  }
+
+  @Test
+  public void getAllAsyncGetsEachDistinctKeyOnce() {
+    CompletableFuture<Object> first = new CompletableFuture<>();
+    CompletableFuture<Object> second = new CompletableFuture<>();
+    when(pool.executeAsync(any())).thenReturn(first, second);
+
+    CompletableFuture<Map<Object, Object>> result =
+        proxy.getAllAsync(asList("key1", "key2", "key1"), null);
+
+    verify(pool, times(2)).executeAsync(any());
+    assertThat(result).isNotDone();
+    second.complete("value2");
+    assertThat(result).isNotDone();
+    first.complete("value1");
+    assertThat(result.join()).containsExactly(entry("key1", "value1"), entry("key2", "value2"));
+  }
+
+  @Test
+  public void getAllAsyncCompletesExceptionallyIfAnyGetFails() {
+    RuntimeException failure = new RuntimeException("test");
+    when(pool.executeAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture("value1"), failedFuture(failure));
+
+    CompletableFuture<Map<Object, Object>> result =
+        proxy.getAllAsync(asList("key1", "key2"), null);
+
+    assertThat(catchThrowable(result::join)).isInstanceOf(CompletionException.class)
+        .hasCause(failure);
+  }
+
+  private static CompletableFuture<Object> failedFuture(Throwable failure) {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    future.completeExceptionally(failure);
+    return future;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutorPoolSizerTest {
+
+  private static final long[] NO_JOBS = new long[6];
+
+  private ThreadPoolExecutor executor;
+  private ExecutorPoolStats stats;
+  private ExecutorPoolSizer sizer;
+  private long[] queueWaits;
+
+  @Before
+  public void setUp() {
+    executor = new ThreadPoolExecutor(1, 8, 60, SECONDS, new SynchronousQueue<>());
+    stats = mock(ExecutorPoolStats.class);
+    queueWaits = NO_JOBS.clone();
+    when(stats.getQueueWaits()).thenAnswer(invocation -> queueWaits.clone());
+    sizer = new ExecutorPoolSizer(10);
+    sizer.add("pool", executor, stats);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void poolGrowsWhenJobsWaitLongerThanTheTarget() {
+    // jobs that waited between 10 and 100 milliseconds
+    queueWaits[3] += 5;
+
+    sizer.resize();
+
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(10);
+    verify(stats).setMaximumPoolSize(10);
+    verify(stats).incPoolSizeIncreases();
+  }
+
+  @Test
+  public void poolDoesNotGrowWhenFewJobsWait() {
+    queueWaits[0] += 1000;
+    queueWaits[4] += 1;
+
+    sizer.resize();
+
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(8);
+    verify(stats, never()).incPoolSizeIncreases();
+  }
+
+  @Test
+  public void poolDoesNotGrowBeyondTheGrowthLimit() {
+    for (int i = 0; i < 100; i++) {
+      queueWaits[5] += 1;
+      sizer.resize();
+    }
+
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(8 * ExecutorPoolSizer.GROWTH_LIMIT);
+  }
+
+  @Test
+  public void poolShrinksToItsConfiguredSizeOnceJobsStopWaiting() {
+    for (int i = 0; i < 2; i++) {
+      queueWaits[3] += 5;
+      sizer.resize();
+    }
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(12);
+
+    for (int i = 0; i < ExecutorPoolSizer.SHRINK_INTERVALS - 1; i++) {
+      queueWaits[0] += 100;
+      sizer.resize();
+    }
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(12);
+
+    for (int i = 0; i < ExecutorPoolSizer.SHRINK_INTERVALS * 10; i++) {
+      queueWaits[0] += 100;
+      sizer.resize();
+    }
+    assertThat(executor.getMaximumPoolSize()).isEqualTo(8);
+    verify(stats, times(2)).incPoolSizeDecreases();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.ReplyException;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplySender;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+
+public class CoalescedUpdateMessageTest {
+
+  private ClusterDistributionManager dm;
+  private InternalDistributedMember sender;
+
+  @Before
+  public void setUp() {
+    dm = mock(ClusterDistributionManager.class);
+    sender = mock(InternalDistributedMember.class);
+  }
+
+  @Test
+  public void updatesAreProcessedInOrderAndAcknowledgedOnce() {
+    CacheOperationMessage update1 = update(null);
+    CacheOperationMessage update2 = update(null);
+    CoalescedUpdateMessage message =
+        new CoalescedUpdateMessage(7, Arrays.asList(update1, update2));
+    message.setSender(sender);
+
+    message.process(dm);
+
+    InOrder inOrder = inOrder(update1, update2);
+    inOrder.verify(update1).process(dm);
+    inOrder.verify(update2).process(dm);
+    ReplyMessage reply = sentReply();
+    assertThat(reply.getProcessorId()).isEqualTo(7);
+    assertThat(reply.getRecipients()).containsExactly(sender);
+    assertThat(reply.getException()).isNull();
+  }
+
+  @Test
+  public void firstExceptionOfUpdatesIsReplied() {
+    ReplyException first = new ReplyException("first");
+    CoalescedUpdateMessage message = new CoalescedUpdateMessage(7,
+        Arrays.asList(update(null), update(first), update(new ReplyException("second"))));
+    message.setSender(sender);
+
+    message.process(dm);
+
+    assertThat(sentReply().getException()).isSameAs(first);
+  }
+
+  private ReplyMessage sentReply() {
+    ArgumentCaptor<ReplyMessage> captor = ArgumentCaptor.forClass(ReplyMessage.class);
+    verify(dm, times(1)).putOutgoing(captor.capture());
+    return captor.getValue();
+  }
+
+  /**
+   * Returns an update message that replies with the given exception, like a cache operation
+   * message processed with no processor id.
+   */
+  private CacheOperationMessage update(ReplyException exception) {
+    CacheOperationMessage update = mock(CacheOperationMessage.class);
+    AtomicReference<ReplySender> replySender = new AtomicReference<>();
+    doAnswer(invocation -> {
+      replySender.set(invocation.getArgument(0));
+      return null;
+    }).when(update).setReplySender(any());
+    doAnswer(invocation -> {
+      ReplyMessage.send(sender, 0, exception, replySender.get());
+      return null;
+    }).when(update).process(dm);
+    return update;
+  }
+}
@@ -166,4 +166,24 @@ public class OplogEntryIdSetTest {
     LongStream.range(0x00000000FFFFFFFFL + 1, 0x00000000FFFFFFFFL + testEntries)
         .forEach(i -> assertThat(oplogEntryIdSet.contains(i)).isTrue());
   }
+
+  @Test
+  public void addAllAddsIdsOfAllSizes() {
+    OplogEntryIdSet source = new OplogEntryIdSet();
+    source.add(1);
+    source.add(0x00000000FFFFFFFFL);
+    source.add(0x00000000FFFFFFFFL + 1);
+    source.add(Long.MIN_VALUE);
+    OplogEntryIdSet target = new OplogEntryIdSet();
+    target.add(2);
+
+    target.addAll(source);
+
+    assertThat(target.size()).isEqualTo(5);
+    assertThat(target.contains(1)).isTrue();
+    assertThat(target.contains(2)).isTrue();
+    assertThat(target.contains(0x00000000FFFFFFFFL)).isTrue();
+    assertThat(target.contains(0x00000000FFFFFFFFL + 1)).isTrue();
+    assertThat(target.contains(Long.MIN_VALUE)).isTrue();
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class OplogGroupCommitterTest {
+
+  private final Object oplogLock = new Object();
+  private final AtomicInteger flushes = new AtomicInteger();
+  private OplogGroupCommitter committer;
+
+  private long flush() {
+    synchronized (oplogLock) {
+      flushes.incrementAndGet();
+      return committer.getAppended();
+    }
+  }
+
+  @Test
+  public void singleWriterFlushesItsOwnRecord() {
+    committer = new OplogGroupCommitter(this::flush, 0);
+
+    long ticket = append();
+    committer.awaitCommit(ticket);
+
+    assertThat(flushes.get()).isEqualTo(1);
+    assertThat(committer.getCommitted()).isEqualTo(ticket);
+  }
+
+  @Test
+  public void recordCoveredByEarlierFlushDoesNotFlushAgain() {
+    committer = new OplogGroupCommitter(this::flush, 0);
+    long first = append();
+    long second = append();
+
+    committer.awaitCommit(second);
+    committer.awaitCommit(first);
+
+    assertThat(flushes.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void concurrentWritersShareFlushes() throws Exception {
+    committer = new OplogGroupCommitter(this::flush, 100_000);
+    int writerCount = 16;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> writers = new ArrayList<>();
+    for (int i = 0; i < writerCount; i++) {
+      Thread writer = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        committer.awaitCommit(append());
+      });
+      writer.start();
+      writers.add(writer);
+    }
+
+    start.countDown();
+    for (Thread writer : writers) {
+      writer.join();
+    }
+
+    assertThat(committer.getCommitted()).isEqualTo(writerCount);
+    assertThat(flushes.get()).isBetween(1, writerCount - 1);
+  }
+
+  @Test
+  public void failedFlushIsRetriedByNextWaiter() {
+    AtomicInteger attempts = new AtomicInteger();
+    committer = new OplogGroupCommitter(() -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new IllegalStateException("flush failed");
+      }
+      return flush();
+    }, 0);
+    long ticket = append();
+
+    assertThatThrownBy(() -> committer.awaitCommit(ticket))
+        .isInstanceOf(IllegalStateException.class);
+    committer.awaitCommit(ticket);
+
+    assertThat(committer.getCommitted()).isEqualTo(ticket);
+  }
+
+  private long append() {
+    synchronized (oplogLock) {
+      return committer.append();
+    }
+  }
+}
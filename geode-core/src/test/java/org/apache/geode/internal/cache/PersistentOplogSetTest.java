@@ -15,6 +15,8 @@
 package org.apache.geode.internal.cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.same;
@@ -23,13 +25,17 @@ import static org.mockito.Mockito.when;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import org.apache.geode.internal.cache.DiskStoreImpl.OplogEntryIdSet;
 import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.internal.cache.entries.DiskEntry.Helper.ValueWrapper;
 import org.apache.geode.internal.cache.persistence.DiskRecoveryStore;
@@ -275,6 +281,55 @@ public class PersistentOplogSetTest {
         .contains("entryCount=" + entryCount);
   }
 
+  @Test
+  public void recoverDrfsWithPoolRecoversTheSameIdsAndByteCountAsSerialRecovery() {
+    long[] ids1 = {1, 2, 3, 0xFFFFFFFFL, 0x100000000L, -5};
+    long[] ids2 = {3, 4, 0x100000000L, 0x100000001L, -6};
+    long[] ids3 = {5, 6, 7, -5, -7};
+    List<Oplog> oplogs = Arrays.asList(drfOplog(100, ids1), drfOplog(250, ids2),
+        drfOplog(75, ids3));
+    OplogEntryIdSet serialIds = new OplogEntryIdSet();
+    OplogEntryIdSet pooledIds = new OplogEntryIdSet();
+    ExecutorService recoveryPool = Executors.newFixedThreadPool(3);
+
+    long serialBytes;
+    long pooledBytes;
+    try {
+      serialBytes = persistentOplogSet.recoverDrfs(oplogs, serialIds, null);
+      pooledBytes = persistentOplogSet.recoverDrfs(oplogs, pooledIds, recoveryPool);
+    } finally {
+      recoveryPool.shutdownNow();
+    }
+
+    assertThat(pooledBytes).isEqualTo(serialBytes).isEqualTo(425);
+    assertThat(pooledIds.size()).isEqualTo(serialIds.size()).isEqualTo(13);
+    for (long[] ids : Arrays.asList(ids1, ids2, ids3)) {
+      for (long id : ids) {
+        assertThat(serialIds.contains(id)).isTrue();
+        assertThat(pooledIds.contains(id)).isTrue();
+      }
+    }
+    assertThat(serialIds.contains(8)).isFalse();
+    assertThat(pooledIds.contains(8)).isFalse();
+  }
+
+  @Test
+  public void recoverDrfsWithPoolTellsOnlyTheFirstOplogThatItIsTheLatest() {
+    Oplog latest = drfOplog(1, 1);
+    Oplog older = drfOplog(1, 2);
+    ExecutorService recoveryPool = Executors.newFixedThreadPool(2);
+
+    try {
+      persistentOplogSet.recoverDrfs(Arrays.asList(latest, older), new OplogEntryIdSet(),
+          recoveryPool);
+    } finally {
+      recoveryPool.shutdownNow();
+    }
+
+    verify(latest).recoverDrf(any(OplogEntryIdSet.class), eq(false), eq(true));
+    verify(older).recoverDrf(any(OplogEntryIdSet.class), eq(false), eq(false));
+  }
+
   private ValidatingDiskRegion validatingDiskRegionForBucket(String prName, int entryCount) {
     ValidatingDiskRegion validatingDiskRegion = mock(ValidatingDiskRegion.class);
     when(validatingDiskRegion.isBucket()).thenReturn(true);
@@ -293,6 +348,19 @@ public class PersistentOplogSetTest {
     return validatingDiskRegion;
   }
 
+  private Oplog drfOplog(long bytes, long... deletedIds) {
+    Oplog oplog = mock(Oplog.class);
+    when(oplog.recoverDrf(any(OplogEntryIdSet.class), anyBoolean(), anyBoolean()))
+        .thenAnswer(invocation -> {
+          OplogEntryIdSet ids = invocation.getArgument(0);
+          for (long id : deletedIds) {
+            ids.add(id);
+          }
+          return bytes;
+        });
+    return oplog;
+  }
+
   private Oplog oplog(boolean needsCompaction) {
     Oplog oplog = mock(Oplog.class);
     when(oplog.needsCompaction()).thenReturn(needsCompaction);
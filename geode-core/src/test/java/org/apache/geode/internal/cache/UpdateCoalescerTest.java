@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.MembershipListener;
+import org.apache.geode.distributed.internal.ReplyException;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplyProcessor21;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+public class UpdateCoalescerTest {
+
+  private DistributionManager dm;
+  private InternalDistributedMember member1;
+  private InternalDistributedMember member2;
+  private InternalDistributedMember olderMember;
+
+  private final List<DistributionMessage> sent = new CopyOnWriteArrayList<>();
+  /** the messages to slow members, which are replied to by {@link #replyToSlowMembers()} */
+  private final List<DistributionMessage> held = new CopyOnWriteArrayList<>();
+  private final Set<InternalDistributedMember> slowMembers = ConcurrentHashMap.newKeySet();
+  private final Set<InternalDistributedMember> unreachableMembers = ConcurrentHashMap.newKeySet();
+  private final Map<InternalDistributedMember, ReplyException> replyExceptions =
+      new ConcurrentHashMap<>();
+  private final List<CompletableFuture<Void>> distributions = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    member1 = member(KnownVersion.CURRENT);
+    member2 = member(KnownVersion.CURRENT);
+    olderMember = member(KnownVersion.GEODE_1_12_0);
+
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    when(system.getConfig()).thenReturn(mock(DistributionConfig.class));
+    dm = mock(DistributionManager.class);
+    when(dm.getSystem()).thenReturn(system);
+    when(dm.getStats()).thenReturn(mock(DMStats.class));
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(dm.addMembershipListenerAndGetDistributionManagerIds(any(MembershipListener.class)))
+        .thenReturn(new HashSet<>(Arrays.asList(member1, member2, olderMember)));
+    when(dm.putOutgoing(any())).thenAnswer(invocation -> {
+      DistributionMessage message = invocation.getArgument(0);
+      sent.add(message);
+      Set<InternalDistributedMember> failures = new HashSet<>(message.getRecipients());
+      failures.retainAll(unreachableMembers);
+      if (Collections.disjoint(message.getRecipients(), slowMembers)) {
+        reply(message);
+      } else {
+        held.add(message);
+      }
+      return failures;
+    });
+  }
+
+  @After
+  public void tearDown() {
+    slowMembers.clear();
+    replyToSlowMembers();
+  }
+
+  @Test
+  public void updatesDistributedWhileMaxSendsAreInFlightAreSentInOneMessage() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    slowMembers.add(member1);
+    CacheOperationMessage update1 = update();
+    CacheOperationMessage update2 = update();
+    CacheOperationMessage update3 = update();
+
+    distributeAsync(coalescer, update1, member1);
+    await().until(() -> sent.size() == 1);
+    distributeAsync(coalescer, update2, member1);
+    distributeAsync(coalescer, update3, member1);
+    await().until(() -> coalescer.getPendingCount() == 2);
+    slowMembers.clear();
+    replyToSlowMembers();
+    awaitDistributions();
+
+    assertThat(sent).hasSize(2);
+    assertThat(updates(sent.get(0))).containsExactly(update1);
+    assertThat(updates(sent.get(1))).containsExactlyInAnyOrder(update2, update3);
+    assertThat(coalescer.getPendingCount()).isZero();
+  }
+
+  @Test
+  public void atMostMaxUpdatesAreSentInOneMessage() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 2, 1);
+    slowMembers.add(member1);
+
+    distributeAsync(coalescer, update(), member1);
+    await().until(() -> sent.size() == 1);
+    for (int i = 0; i < 3; i++) {
+      distributeAsync(coalescer, update(), member1);
+    }
+    await().until(() -> coalescer.getPendingCount() == 3);
+    slowMembers.clear();
+    replyToSlowMembers();
+    awaitDistributions();
+
+    assertThat(sent).hasSize(3);
+    assertThat(updates(sent.get(0))).hasSize(1);
+    assertThat(updates(sent.get(1))).hasSize(2);
+    assertThat(updates(sent.get(2))).hasSize(1);
+  }
+
+  @Test
+  public void updatesAreSentWithoutWaitingUntilMaxSendsAreInFlight() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 2);
+    slowMembers.add(member1);
+
+    distributeAsync(coalescer, update(), member1);
+    distributeAsync(coalescer, update(), member1);
+    await().until(() -> sent.size() == 2);
+
+    assertThat(coalescer.getPendingCount()).isZero();
+  }
+
+  @Test
+  public void updatesToOtherMembersAreNotHeldBackBySlowMember() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    slowMembers.add(member1);
+    CacheOperationMessage update = update();
+
+    distributeAsync(coalescer, update(), member1);
+    await().until(() -> sent.size() == 1);
+    coalescer.distribute(update, Collections.singleton(member2));
+
+    assertThat(sent.get(1).getRecipients()).containsExactly(member2);
+    assertThat(updates(sent.get(1))).containsExactly(update);
+  }
+
+  @Test
+  public void olderMembersAreSentTheUpdateOnItsOwn() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    CacheOperationMessage update = update();
+
+    coalescer.distribute(update, new HashSet<>(Arrays.asList(member1, olderMember)));
+
+    assertThat(sent).hasSize(2);
+    assertThat(sent.get(0)).isSameAs(update);
+    assertThat(update.getRecipients()).containsExactly(olderMember);
+    assertThat(sent.get(1)).isInstanceOf(CoalescedUpdateMessage.class);
+    assertThat(sent.get(1).getRecipients()).containsExactly(member1);
+    assertThat(updates(sent.get(1))).containsExactly(update);
+  }
+
+  @Test
+  public void onlyOlderMembersAreSentNoCoalescedMessage() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    CacheOperationMessage update = update();
+
+    coalescer.distribute(update, Collections.singleton(olderMember));
+
+    assertThat(sent).containsExactly(update);
+  }
+
+  @Test
+  public void membersTheMessageCouldNotBeSentToAreNotWaitedFor() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    unreachableMembers.add(member2);
+
+    coalescer.distribute(update(), new HashSet<>(Arrays.asList(member1, member2)));
+
+    assertThat(sent).hasSize(1);
+    assertThat(coalescer.getPendingCount()).isZero();
+  }
+
+  @Test
+  public void exceptionRepliedForCoalescedUpdatesIsThrown() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    IllegalStateException failure = new IllegalStateException("failed");
+    replyExceptions.put(member1, new ReplyException(failure));
+
+    assertThatThrownBy(() -> coalescer.distribute(update(), Collections.singleton(member1)))
+        .isSameAs(failure);
+  }
+
+  @Test
+  public void exceptionRepliedByOlderMemberIsThrown() {
+    UpdateCoalescer coalescer = new UpdateCoalescer(dm, 1000, 1);
+    IllegalStateException failure = new IllegalStateException("failed");
+    replyExceptions.put(olderMember, new ReplyException(failure));
+
+    assertThatThrownBy(() -> coalescer.distribute(update(),
+        new HashSet<>(Arrays.asList(member1, olderMember)))).isSameAs(failure);
+    assertThat(sent).hasSize(2);
+  }
+
+  private void distributeAsync(UpdateCoalescer coalescer, CacheOperationMessage update,
+      InternalDistributedMember recipient) {
+    distributions.add(CompletableFuture
+        .runAsync(() -> coalescer.distribute(update, Collections.singleton(recipient))));
+  }
+
+  private void awaitDistributions() {
+    CompletableFuture.allOf(distributions.toArray(new CompletableFuture[0])).join();
+  }
+
+  private void replyToSlowMembers() {
+    for (DistributionMessage message : held) {
+      held.remove(message);
+      reply(message);
+    }
+  }
+
+  private void reply(DistributionMessage message) {
+    for (InternalDistributedMember recipient : message.getRecipients()) {
+      if (unreachableMembers.contains(recipient)) {
+        continue;
+      }
+      ReplyMessage reply = new ReplyMessage();
+      reply.setSender(recipient);
+      reply.setProcessorId(message.getProcessorId());
+      reply.setException(replyExceptions.get(recipient));
+      ReplyProcessor21.getProcessor(message.getProcessorId()).process(reply);
+    }
+  }
+
+  private static List<CacheOperationMessage> updates(DistributionMessage message) {
+    return ((CoalescedUpdateMessage) message).getMessages();
+  }
+
+  private static InternalDistributedMember member(KnownVersion version) {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    when(member.getVersion()).thenReturn(version);
+    return member;
+  }
+
+  private static CacheOperationMessage update() {
+    CacheOperationMessage update = mock(CacheOperationMessage.class);
+    doCallRealMethod().when(update).setRecipients(any());
+    when(update.getRecipients()).thenCallRealMethod();
+    when(update.getProcessorId()).thenCallRealMethod();
+    return update;
+  }
+}
@@ -26,12 +26,15 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.quality.Strictness.STRICT_STUBS;
 
 import java.net.ServerSocket;
 import java.net.SocketAddress;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
@@ -48,9 +51,13 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.tier.Acceptor;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl.VirtualThreadPoolFactory;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.statistics.StatisticsManager;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 
 @Category(ClientServerTest.class)
@@ -120,4 +127,57 @@ public class AcceptorImplTest {
 
     assertThat(acceptor.isGatewayReceiver()).isTrue();
   }
+
+  @Test
+  public void serverConnectionPoolUsesVirtualThreadsIfAvailable() {
+    VirtualThreadPoolFactory virtualThreadPoolFactory = mock(VirtualThreadPoolFactory.class);
+    ExecutorService virtualThreadPool = mock(ExecutorService.class);
+    ThreadInitializer threadInitializer = mock(ThreadInitializer.class);
+    CommandWrapper commandWrapper = mock(CommandWrapper.class);
+    when(virtualThreadPoolFactory.create(800, "ServerConnection", threadInitializer,
+        commandWrapper)).thenReturn(virtualThreadPool);
+
+    ExecutorService pool = AcceptorImpl.newServerConnectionPool(true, virtualThreadPoolFactory,
+        0, 800, "ServerConnection", threadInitializer, commandWrapper);
+
+    assertThat(pool).isSameAs(virtualThreadPool);
+  }
+
+  @Test
+  public void serverConnectionPoolUsesPlatformThreadsIfVirtualThreadsAreUnavailable() {
+    VirtualThreadPoolFactory virtualThreadPoolFactory = mock(VirtualThreadPoolFactory.class);
+    when(virtualThreadPoolFactory.create(anyInt(), any(), any(), any())).thenReturn(null);
+
+    ExecutorService pool = AcceptorImpl.newServerConnectionPool(true, virtualThreadPoolFactory,
+        0, 800, "ServerConnection", null, null);
+
+    try {
+      assertPlatformThreadPool(pool, 800);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void serverConnectionPoolUsesPlatformThreadsByDefault() {
+    VirtualThreadPoolFactory virtualThreadPoolFactory = mock(VirtualThreadPoolFactory.class);
+
+    ExecutorService pool = AcceptorImpl.newServerConnectionPool(false, virtualThreadPoolFactory,
+        0, 800, "ServerConnection", null, null);
+
+    try {
+      assertPlatformThreadPool(pool, 800);
+      verifyNoInteractions(virtualThreadPoolFactory);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static void assertPlatformThreadPool(ExecutorService pool, int maxConnections) {
+    assertThat(pool).isInstanceOf(ThreadPoolExecutor.class);
+    ThreadPoolExecutor threadPool = (ThreadPoolExecutor) pool;
+    assertThat(threadPool.getCorePoolSize()).isEqualTo(MINIMUM_MAX_CONNECTIONS);
+    assertThat(threadPool.getMaximumPoolSize()).isEqualTo(maxConnections);
+    assertThat(threadPool.getThreadFactory()).isInstanceOf(LoggingThreadFactory.class);
+  }
 }
@@ -15,6 +15,7 @@
 
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
@@ -34,7 +35,9 @@ import org.apache.geode.CopyHelper;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DurableClientAttributes;
 import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.test.fake.Fakes;
 import org.apache.geode.test.junit.rules.ExecutorServiceRule;
@@ -227,4 +230,120 @@ public class ClientUpdateMessageImplTest implements Serializable {
     assertThat(clientUpdateMessageImpl.getClientCqs().get(client2)).isNull();
   }
 
+  @Test
+  public void valueMovedOffHeapIsStillReturnedAsBytes() {
+    ClientUpdateMessageImpl clientUpdateMessageImpl = new ClientUpdateMessageImpl();
+    byte[] value = new byte[] {1, 2, 3};
+    clientUpdateMessageImpl.setLatestValue(value);
+
+    assertThat(clientUpdateMessageImpl.moveValueOffHeap(0, Long.MAX_VALUE)).isTrue();
+
+    assertThat(clientUpdateMessageImpl.isValueOffHeap()).isTrue();
+    assertThat(clientUpdateMessageImpl.getValue()).isEqualTo(value);
+    assertThat(clientUpdateMessageImpl.getValueToConflate()).isEqualTo(value);
+  }
+
+  @Test
+  public void valueMovedOffHeapIsStillCountedInSize() {
+    ClientUpdateMessageImpl clientUpdateMessageImpl = new ClientUpdateMessageImpl();
+    clientUpdateMessageImpl.setLatestValue(new byte[1000]);
+
+    clientUpdateMessageImpl.moveValueOffHeap(0, Long.MAX_VALUE);
+
+    assertThat(clientUpdateMessageImpl.getSizeInBytes()).isGreaterThan(1000);
+  }
+
+  @Test
+  public void valueSmallerThanMinimumSizeStaysOnHeap() {
+    ClientUpdateMessageImpl clientUpdateMessageImpl = new ClientUpdateMessageImpl();
+    clientUpdateMessageImpl.setLatestValue(new byte[100]);
+
+    assertThat(clientUpdateMessageImpl.moveValueOffHeap(1024, Long.MAX_VALUE)).isFalse();
+
+    assertThat(clientUpdateMessageImpl.isValueOffHeap()).isFalse();
+  }
+
+  @Test
+  public void valueOverMaximumTotalSizeStaysOnHeapUntilOthersAreFreed() {
+    long maximumTotalSize = ClientUpdateMessageImpl.getOffHeapValuesSize() + 1500;
+    ClientUpdateMessageImpl first = new ClientUpdateMessageImpl();
+    first.setLatestValue(new byte[1000]);
+    ClientUpdateMessageImpl second = new ClientUpdateMessageImpl();
+    second.setLatestValue(new byte[1000]);
+
+    assertThat(first.moveValueOffHeap(0, maximumTotalSize)).isTrue();
+    assertThat(second.moveValueOffHeap(0, maximumTotalSize)).isFalse();
+
+    // the first message is dispatched and removed from the queues, so its buffer can be freed
+    first = null;
+
+    await().untilAsserted(() -> {
+      System.gc();
+      assertThat(second.moveValueOffHeap(0, maximumTotalSize)).isTrue();
+    });
+  }
+
+  @Test
+  public void referencedValueCountsTowardMaximumTotalSize() {
+    long maximumTotalSize = ClientUpdateMessageImpl.getOffHeapValuesSize() + 1500;
+    ClientUpdateMessageImpl first = new ClientUpdateMessageImpl();
+    first.setLatestValue(new byte[1000]);
+    ClientUpdateMessageImpl second = new ClientUpdateMessageImpl();
+    second.setLatestValue(new byte[1000]);
+    assertThat(first.moveValueOffHeap(0, maximumTotalSize)).isTrue();
+
+    // a dispatcher may still be sending the first value after its message left the queues
+    System.gc();
+
+    assertThat(second.moveValueOffHeap(0, maximumTotalSize)).isFalse();
+    assertThat(first.isValueOffHeap()).isTrue();
+  }
+
+  @Test
+  public void valuesStayWithinMaximumTotalSizeAfterRepeatedEnqueueAndDispatch() {
+    long maximumTotalSize = ClientUpdateMessageImpl.getOffHeapValuesSize() + 10_000;
+    int movedCount = 0;
+
+    for (int i = 0; i < 1000; i++) {
+      ClientUpdateMessageImpl clientUpdateMessageImpl = new ClientUpdateMessageImpl();
+      clientUpdateMessageImpl.setLatestValue(new byte[1000]);
+      if (clientUpdateMessageImpl.moveValueOffHeap(0, maximumTotalSize)) {
+        movedCount++;
+      }
+      // dispatched, after which the message is no longer referenced
+      assertThat(clientUpdateMessageImpl.getValue()).hasSize(1000);
+
+      assertThat(ClientUpdateMessageImpl.getOffHeapValuesSize())
+          .isLessThanOrEqualTo(maximumTotalSize);
+      if (i % 100 == 99) {
+        System.gc();
+      }
+    }
+
+    assertThat(movedCount).isGreaterThan(10);
+  }
+
+  @Test
+  public void messagesToClientsShareSerializedParts() throws Exception {
+    InternalRegion region = mock(InternalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    ClientUpdateMessageImpl clientUpdateMessageImpl = new ClientUpdateMessageImpl(
+        EnumListenerEvent.AFTER_DESTROY, region, 1, null, (byte) 0x01, "callback", null, null);
+
+    Message first = clientUpdateMessageImpl.getMessage(mockProxy(client1), null);
+    byte[] firstKey = first.getPart(1).getSerializedForm();
+    byte[] firstCallbackArgument = first.getPart(2).getSerializedForm();
+    Message second = clientUpdateMessageImpl.getMessage(mockProxy(client2), null);
+
+    assertThat(firstKey).isNotNull();
+    assertThat(second.getPart(1).getSerializedForm()).isSameAs(firstKey);
+    assertThat(second.getPart(2).getSerializedForm()).isSameAs(firstCallbackArgument);
+  }
+
+  private static CacheClientProxy mockProxy(ClientProxyMembershipID proxyId) {
+    CacheClientProxy proxy = mock(CacheClientProxy.class);
+    when(proxy.getProxyID()).thenReturn(proxyId);
+    when(proxy.getVersion()).thenReturn(KnownVersion.CURRENT);
+    return proxy;
+  }
 }
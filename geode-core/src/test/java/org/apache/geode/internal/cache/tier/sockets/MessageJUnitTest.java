@@ -14,8 +14,10 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
@@ -30,12 +32,22 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.NullOffHeapMemoryStats;
+import org.apache.geode.internal.offheap.NullOutOfOffHeapMemoryListener;
+import org.apache.geode.internal.offheap.SlabImpl;
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 
 @Category({ClientServerTest.class})
@@ -54,6 +66,11 @@ public class MessageJUnitTest {
     this.message.setComms(mockServerConnection, mockSocket, msgBuffer, mockStats);
   }
 
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
   @Test
   public void clearDoesNotThrowNPE() throws Exception {
     // unsetComms clears the message's ByteBuffer, which was causing an NPE during shutdown
@@ -107,6 +124,30 @@ public class MessageJUnitTest {
     }
   }
 
+  @Test
+  public void partsSerializedIntoSharedBufferKeepTheirOwnBytes() throws Exception {
+    String largeValue = new String(new char[2000]).replace('\0', 'x');
+    for (int i = 0; i < 2; i++) {
+      this.message.setNumberOfParts(4);
+      this.message.addObjPart("value");
+      this.message.addStringPart("key");
+      this.message.addObjPart(largeValue);
+      this.message.addObjPart(7L);
+
+      assertPartBytes(this.message.getPart(0), BlobHelper.serializeToBlob("value"));
+      assertPartBytes(this.message.getPart(1), CacheServerHelper.toUTF("key"));
+      assertPartBytes(this.message.getPart(2), BlobHelper.serializeToBlob(largeValue));
+      assertPartBytes(this.message.getPart(3), BlobHelper.serializeToBlob(7L));
+      this.message.clearParts();
+    }
+  }
+
+  private void assertPartBytes(Part part, byte[] expected) {
+    ByteBuffer buffer = ByteBuffer.allocate(part.getLength());
+    part.writeTo(buffer);
+    assertArrayEquals(expected, buffer.array());
+  }
+
   /**
    * geode-1468: Message should clear the chunks in its Parts when performing cleanup.
    */
@@ -218,4 +259,100 @@ public class MessageJUnitTest {
     }
   }
 
+  @Test
+  public void offHeapPartIsSentFromOffHeapMemoryAndItsReferenceCountIsRestored()
+      throws Exception {
+    byte[] value = new byte[5000];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) i;
+    }
+    StoredObject storedObject = allocateOffHeap(value);
+    int refCount = storedObject.getRefCount();
+
+    try (ServerSocketChannel serverChannel = openServerChannel();
+        SocketChannel channel = SocketChannel.open(serverChannel.getLocalAddress());
+        SocketChannel peer = serverChannel.accept()) {
+      // the value is larger than the comm buffer, so it is written with the buffered header
+      Message message = createOffHeapValueMessage(channel, storedObject);
+
+      sendRetained(message, storedObject);
+
+      // type, length, number of parts, transaction id and flags, then the part's length and type
+      ByteBuffer received = ByteBuffer.allocate(17 + 5 + value.length);
+      while (received.hasRemaining()) {
+        peer.read(received);
+      }
+      received.flip();
+      assertEquals(MessageType.RESPONSE, received.getInt());
+      assertEquals(5 + value.length, received.getInt());
+      assertEquals(1, received.getInt());
+      assertEquals(7, received.getInt());
+      received.get();
+      assertEquals(value.length, received.getInt());
+      assertEquals(0, received.get());
+      byte[] receivedValue = new byte[value.length];
+      received.get(receivedValue);
+      assertArrayEquals(value, receivedValue);
+    }
+    assertEquals(refCount, storedObject.getRefCount());
+  }
+
+  @Test
+  public void offHeapPartReferenceCountIsRestoredIfTheWriteFails() throws Exception {
+    StoredObject storedObject = allocateOffHeap(new byte[5000]);
+    int refCount = storedObject.getRefCount();
+
+    try (ServerSocketChannel serverChannel = openServerChannel();
+        SocketChannel channel = SocketChannel.open(serverChannel.getLocalAddress())) {
+      Message message = createOffHeapValueMessage(channel, storedObject);
+      channel.close();
+
+      try {
+        sendRetained(message, storedObject);
+        fail("expected an exception but none was thrown");
+      } catch (IOException expected) {
+        // the channel was closed
+      }
+    }
+    assertEquals(refCount, storedObject.getRefCount());
+  }
+
+  private static StoredObject allocateOffHeap(byte[] value) {
+    MemoryAllocatorImpl allocator = MemoryAllocatorImpl.createForUnitTest(
+        new NullOutOfOffHeapMemoryListener(), new NullOffHeapMemoryStats(),
+        new SlabImpl[] {new SlabImpl(1024 * 1024)});
+    return allocator.allocateAndInitialize(value, false, false);
+  }
+
+  private static ServerSocketChannel openServerChannel() throws IOException {
+    ServerSocketChannel serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    return serverChannel;
+  }
+
+  private static Message createOffHeapValueMessage(SocketChannel channel,
+      StoredObject storedObject) throws IOException {
+    Message message = new Message(1, KnownVersion.CURRENT);
+    message.setComms(channel.socket(), ByteBuffer.allocate(1000), mock(MessageStats.class));
+    message.setMessageType(MessageType.RESPONSE);
+    message.setTransactionId(7);
+    message.addPartInAnyForm(storedObject, false);
+    assertNotNull("the value must be written from off-heap memory",
+        message.getPart(0).createDirectByteBuffer());
+    return message;
+  }
+
+  /**
+   * Sends the message the way Get70 sends a reply holding an off-heap value, which is retained
+   * until the reply has been sent.
+   */
+  private static void sendRetained(Message message, StoredObject storedObject)
+      throws IOException {
+    assertTrue(storedObject.retain());
+    try {
+      message.send();
+    } finally {
+      storedObject.release();
+    }
+  }
 }
@@ -24,16 +24,20 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.offheap.AddressableMemoryManager;
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 
 @Category({ClientServerTest.class})
@@ -181,4 +185,88 @@ public class PartTest {
     verify(heapDataOutputStream, times(1)).rewind();
   }
 
+  @Test
+  public void createDirectByteBufferReturnsNullForHeapPart() {
+    Part part = new Part();
+    part.setPartState(new byte[] {1, 2, 3}, false);
+
+    assertThat(part.createDirectByteBuffer()).isNull();
+  }
+
+  @Test
+  public void writeToByteBufferCopiesStoredObjectWithoutDirectByteBuffer() {
+    byte[] bytes = {1, 2, 3, 4, 5, 6, 7, 8};
+    long addr = AddressableMemoryManager.allocate(bytes.length);
+    try {
+      AddressableMemoryManager.writeBytes(addr, bytes, 0, bytes.length);
+      StoredObject storedObject = mockStoredObject(addr, bytes.length);
+      Part part = new Part();
+      part.setPartState(storedObject, false);
+      ByteBuffer byteBuffer = ByteBuffer.allocate(16);
+
+      part.writeTo(byteBuffer);
+
+      assertThat(byteBuffer.position()).isEqualTo(bytes.length);
+      assertThat(Arrays.copyOf(byteBuffer.array(), bytes.length)).isEqualTo(bytes);
+    } finally {
+      AddressableMemoryManager.free(addr);
+    }
+  }
+
+  @Test
+  public void writeToOutputStreamCopiesStoredObjectInBufferSizedChunks() throws Exception {
+    byte[] bytes = new byte[100];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    long addr = AddressableMemoryManager.allocate(bytes.length);
+    try {
+      AddressableMemoryManager.writeBytes(addr, bytes, 0, bytes.length);
+      StoredObject storedObject = mockStoredObject(addr, bytes.length);
+      Part part = new Part();
+      part.setPartState(storedObject, false);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      ByteBuffer byteBuffer = ByteBuffer.allocate(16);
+
+      part.writeTo(outputStream, byteBuffer);
+      byteBuffer.flip();
+      outputStream.write(byteBuffer.array(), 0, byteBuffer.limit());
+
+      assertThat(outputStream.toByteArray()).isEqualTo(bytes);
+    } finally {
+      AddressableMemoryManager.free(addr);
+    }
+  }
+
+  @Test
+  public void byteBufferPartCanBeWrittenMoreThanOnce() throws Exception {
+    byte[] bytes = new byte[] {1, 2, 3, 4};
+    ByteBuffer value = ByteBuffer.allocateDirect(bytes.length);
+    value.put(bytes);
+    value.flip();
+    Part part = new Part();
+    part.setPartState(value.asReadOnlyBuffer(), true);
+
+    ByteBuffer first = ByteBuffer.allocate(bytes.length);
+    part.writeTo(first);
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    ByteBuffer byteBuffer = ByteBuffer.allocate(16);
+    part.writeTo(second, byteBuffer);
+    byteBuffer.flip();
+    second.write(byteBuffer.array(), 0, byteBuffer.limit());
+
+    assertThat(part.getLength()).isEqualTo(bytes.length);
+    assertThat(first.array()).isEqualTo(bytes);
+    assertThat(second.toByteArray()).isEqualTo(bytes);
+    assertThat(value.remaining()).isEqualTo(bytes.length);
+  }
+
+  private static StoredObject mockStoredObject(long addr, int size) {
+    StoredObject storedObject = mock(StoredObject.class);
+    when(storedObject.hasRefCount()).thenReturn(true);
+    when(storedObject.getDataSize()).thenReturn(size);
+    when(storedObject.getAddressForReadingData(0, size)).thenReturn(addr);
+    when(storedObject.createDirectByteBuffer()).thenReturn(null);
+    return storedObject;
+  }
 }
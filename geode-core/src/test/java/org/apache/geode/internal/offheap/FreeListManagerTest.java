@@ -17,8 +17,10 @@ package org.apache.geode.internal.offheap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -453,6 +455,86 @@ public class FreeListManagerTest {
         .isEqualTo(originalFragment.getAddress() + (16 + 8));
   }
 
+  @Test
+  public void incrementalDefragmentCombinesFreeChunksOfEachSlab() {
+    Slab slab1 = new SlabImpl(DEFAULT_SLAB_SIZE, true);
+    Slab slab2 = new SlabImpl(DEFAULT_SLAB_SIZE, true);
+    FreeListManager manager = new FreeListManager(ma, new Slab[] {slab1, slab2}, true);
+    try {
+      ArrayList<OffHeapStoredObject> chunks = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        chunks.add(manager.allocate(DEFAULT_SLAB_SIZE / 2 - 8));
+        chunks.add(manager.allocate(DEFAULT_SLAB_SIZE / 2 - 8));
+      }
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), manager);
+      }
+
+      assertThat(manager.defragment(DEFAULT_SLAB_SIZE + 1)).isFalse();
+      assertThat(manager.getFragmentList()).hasSize(2);
+      assertThat(manager.getFreeFragmentMemory()).isEqualTo(DEFAULT_SLAB_SIZE * 2);
+      verify(stats, times(2)).endSlabDefragmentation(anyLong());
+      verify(stats).setDefragmentationProgress(100);
+      verify(stats).endDefragmentation(anyLong());
+    } finally {
+      manager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void incrementalDefragmentStopsAtFirstSlabWithALargeEnoughFragment() {
+    Slab slab1 = new SlabImpl(DEFAULT_SLAB_SIZE);
+    Slab slab2 = new SlabImpl(DEFAULT_SLAB_SIZE);
+    FreeListManager manager = new FreeListManager(ma, new Slab[] {slab1, slab2}, true);
+    try {
+      OffHeapStoredObject c1 = manager.allocate(DEFAULT_SLAB_SIZE / 2 - 8);
+      OffHeapStoredObject c2 = manager.allocate(DEFAULT_SLAB_SIZE / 2 - 8);
+      OffHeapStoredObject.release(c1.getAddress(), manager);
+      OffHeapStoredObject.release(c2.getAddress(), manager);
+
+      assertThat(manager.defragment(DEFAULT_SLAB_SIZE)).isTrue();
+      verify(stats, times(1)).endSlabDefragmentation(anyLong());
+      verify(stats).setDefragmentationProgress(50);
+    } finally {
+      manager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void incrementalDefragmentLeavesTinyChunksOfOtherSlabsInTheirFreeList() {
+    Slab slab1 = new SlabImpl(DEFAULT_SLAB_SIZE);
+    Slab slab2 = new SlabImpl(DEFAULT_SLAB_SIZE);
+    FreeListManager manager = new FreeListManager(ma, new Slab[] {slab1, slab2}, true);
+    try {
+      manager.allocate(DEFAULT_SLAB_SIZE - 8 - 32);
+      OffHeapStoredObject tiny1 = manager.allocate(24);
+      OffHeapStoredObject rest = manager.allocate(DEFAULT_SLAB_SIZE - 8 - 32);
+      OffHeapStoredObject tiny2 = manager.allocate(24);
+      assertThat(slab2.getMemoryAddress()).isLessThanOrEqualTo(tiny2.getAddress());
+      OffHeapStoredObject.release(tiny1.getAddress(), manager);
+      OffHeapStoredObject.release(tiny2.getAddress(), manager);
+      OffHeapStoredObject.release(rest.getAddress(), manager);
+
+      assertThat(manager.defragmentSlab(1, DEFAULT_SLAB_SIZE)).isTrue();
+      assertThat(manager.getFreeTinyMemory()).isEqualTo(32);
+      assertThat(manager.allocate(24).getAddress()).isEqualTo(tiny1.getAddress());
+    } finally {
+      manager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void backgroundDefragmenterIsStoppedWhenSlabsAreFreed() {
+    setUpSingleSlabManager();
+    this.freeListManager.startBackgroundDefragmenter(1);
+
+    this.freeListManager.freeSlabs();
+    this.freeListManager = null;
+
+    assertThat(Thread.getAllStackTraces().keySet())
+        .noneMatch(thread -> thread.getName().startsWith("OffHeapDefragmenter"));
+  }
+
   @Test
   public void allocationsThatLeaveLessThanMinChunkSizeFreeInAFragment() {
     int SMALL_SLAB = 16;
@@ -43,6 +43,7 @@ import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.VMCachedDeserializable;
 import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapOffHeapKey;
 import org.apache.geode.internal.cache.entries.VersionedStatsDiskRegionEntryOffHeap;
 import org.apache.geode.internal.serialization.DSCODE;
 
@@ -907,6 +908,69 @@ public class OffHeapRegionEntryHelperJUnitTest {
     OffHeapRegionEntryHelper.setValue(re, Token.REMOVED_PHASE2);
   }
 
+  @Test
+  public void allocateKeyShouldStoreByteEncodedKeyOffHeap() {
+    String key = "key-that-is-too-long-to-inline";
+
+    VMThinRegionEntryOffHeapOffHeapKey re =
+        new VMThinRegionEntryOffHeapOffHeapKey(null, OffHeapRegionEntryHelper.allocateKey(key),
+            null);
+
+    assertThat(OffHeapRegionEntryHelper.isOffHeap(re.getKeyAddress())).isTrue();
+    assertThat(new OffHeapStoredObject(re.getKeyAddress()).getDataSize())
+        .isEqualTo(key.length() + 1);
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(key)).isTrue();
+    assertThat(re.isKeyEqual("key-that-is-too-long-to-inlinE")).isFalse();
+    assertThat(re.isKeyEqual("key-that-is-too-long")).isFalse();
+    assertThat(re.isKeyEqual(1L)).isFalse();
+  }
+
+  @Test
+  public void allocateKeyShouldStoreCharEncodedKeyOffHeap() {
+    String key = "\u00e9l\u00e8ve-\u4e2d\u6587";
+
+    VMThinRegionEntryOffHeapOffHeapKey re =
+        new VMThinRegionEntryOffHeapOffHeapKey(null, OffHeapRegionEntryHelper.allocateKey(key),
+            null);
+
+    assertThat(new OffHeapStoredObject(re.getKeyAddress()).getDataSize())
+        .isEqualTo((key.length() * 2) + 1);
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(key)).isTrue();
+    assertThat(re.isKeyEqual("\u00e9l\u00e8ve-\u4e2d\u6588")).isFalse();
+  }
+
+  @Test
+  public void settingValueToRemovedPhase2ShouldReleaseOffHeapKey() {
+    String key = "key-that-is-too-long-to-inline";
+    VMThinRegionEntryOffHeapOffHeapKey re =
+        new VMThinRegionEntryOffHeapOffHeapKey(null, OffHeapRegionEntryHelper.allocateKey(key),
+            null);
+    assertThat(ma.getUsedMemory()).isGreaterThan(0);
+
+    OffHeapRegionEntryHelper.setValue(re, Token.REMOVED_PHASE2);
+
+    assertThat(re.getKeyAddress()).isEqualTo(0L);
+    assertThat(ma.getUsedMemory()).isEqualTo(0);
+    assertThat(re.getKey()).isEqualTo(key);
+    assertThat(re.isKeyEqual(key)).isTrue();
+  }
+
+  @Test
+  public void releaseKeyShouldOnlyReleaseOffHeapKeyOnce() {
+    String key = "key-that-is-too-long-to-inline";
+    VMThinRegionEntryOffHeapOffHeapKey re =
+        new VMThinRegionEntryOffHeapOffHeapKey(null, OffHeapRegionEntryHelper.allocateKey(key),
+            null);
+
+    OffHeapRegionEntryHelper.releaseKey(re);
+    OffHeapRegionEntryHelper.releaseKey(re);
+
+    assertThat(ma.getUsedMemory()).isEqualTo(0);
+    assertThat(re.getKey()).isEqualTo(key);
+  }
+
   @Test
   public void doWithOffHeapClearShouldSetTheThreadLocalToTrue() {
     // verify that threadlocal is not set
@@ -207,6 +207,20 @@ public class OffHeapStorageJUnitTest {
       stats.incReads();
       assertEquals(1, stats.getReads());
 
+      stats.incThreadCacheMemory(100);
+      assertEquals(100, stats.getThreadCacheMemory());
+      stats.incThreadCacheMemory(-100);
+      assertEquals(0, stats.getThreadCacheMemory());
+
+      stats.incThreadCacheRefills();
+      assertEquals(1, stats.getThreadCacheRefills());
+
+      stats.incThreadCacheFlushes();
+      assertEquals(1, stats.getThreadCacheFlushes());
+
+      stats.setDefragmentationProgress(50);
+      assertEquals(50, stats.getDefragmentationProgress());
+
       stats.setFragmentation(100);
       assertEquals(100, stats.getFragmentation());
       stats.setFragmentation(0);
@@ -234,6 +248,14 @@ public class OffHeapStorageJUnitTest {
         assertEquals(1, stats.getDefragmentations());
         assertEquals(0, stats.getDefragmentationsInProgress());
         assertTrue(stats.getDefragmentationTime() > 0);
+
+        start = stats.startSlabDefragmentation();
+        while (DistributionStats.getStatTime() == start) {
+          Thread.yield();
+        }
+        stats.endSlabDefragmentation(start);
+        assertEquals(1, stats.getSlabDefragmentations());
+        assertTrue(stats.getDefragmentationPauseTime() > 0);
       } finally {
         DistributionStats.enableClockStats = originalEnableClockStats;
       }
@@ -254,6 +276,11 @@ public class OffHeapStorageJUnitTest {
       assertEquals(0, stats.getLargestFragment());
       assertEquals(0, stats.getObjects());
       assertEquals(0, stats.getReads());
+      assertEquals(0, stats.getThreadCacheRefills());
+      assertEquals(0, stats.getThreadCacheFlushes());
+      assertEquals(0, stats.getSlabDefragmentations());
+      assertEquals(0, stats.getDefragmentationPauseTime());
+      assertEquals(0, stats.getDefragmentationProgress());
 
       OutOfOffHeapMemoryException ex = null;
       try {
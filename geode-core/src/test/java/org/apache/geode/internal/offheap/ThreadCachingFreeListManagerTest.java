@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThreadCachingFreeListManagerTest {
+
+  private static final int SLAB_SIZE = 1024 * 1024;
+
+  private static final int THREAD_CACHE_SIZE = 64 * 1024;
+
+  private final MemoryAllocatorImpl ma = mock(MemoryAllocatorImpl.class);
+  private final OffHeapMemoryStats stats = mock(OffHeapMemoryStats.class);
+  private ThreadCachingFreeListManager freeListManager;
+
+  @Before
+  public void setUp() {
+    when(ma.getStats()).thenReturn(stats);
+    freeListManager =
+        new ThreadCachingFreeListManager(ma, new Slab[] {new SlabImpl(SLAB_SIZE)},
+            THREAD_CACHE_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    freeListManager.freeSlabs();
+  }
+
+  @Test
+  public void firstTinyAllocationCarvesABatchIntoTheThreadCache() {
+    OffHeapStoredObject c = freeListManager.allocate(10);
+
+    assertThat(c.getDataSize()).isEqualTo(10);
+    assertThat(freeListManager.getUsedMemory()).isEqualTo(c.getSize());
+    assertThat(freeListManager.getThreadCacheMemory())
+        .isEqualTo((long) (ThreadCachingFreeListManager.CACHED_CHUNKS_PER_SIZE / 2 - 1)
+            * c.getSize());
+    verify(stats).incThreadCacheRefills();
+  }
+
+  @Test
+  public void freedTinyChunkIsReusedFromTheThreadCache() {
+    OffHeapStoredObject c = freeListManager.allocate(10);
+    long addr = c.getAddress();
+    OffHeapStoredObject.release(addr, freeListManager);
+
+    OffHeapStoredObject c2 = freeListManager.allocate(10);
+
+    assertThat(c2.getAddress()).isEqualTo(addr);
+    assertThat(c2.getRefCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void threadCacheDoesNotGrowPastItsSize() {
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      chunks.add(freeListManager.allocate(100));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), freeListManager);
+    }
+
+    assertThat(freeListManager.getThreadCacheMemory()).isLessThanOrEqualTo(THREAD_CACHE_SIZE);
+    assertThat(freeListManager.getUsedMemory()).isZero();
+    verify(stats, atLeastOnce()).incThreadCacheFlushes();
+  }
+
+  @Test
+  public void flushThreadCachesReturnsCachedChunksToTheFreeLists() {
+    OffHeapStoredObject c = freeListManager.allocate(10);
+    OffHeapStoredObject.release(c.getAddress(), freeListManager);
+    long freeTinyMemory = freeListManager.getFreeTinyMemory();
+
+    freeListManager.flushThreadCaches();
+
+    assertThat(freeListManager.getThreadCacheMemory()).isZero();
+    assertThat(freeListManager.getFreeTinyMemory()).isEqualTo(freeTinyMemory);
+  }
+
+  @Test
+  public void threadCacheOfDeadThreadIsFlushed() throws Exception {
+    Thread thread = new Thread(() -> {
+      OffHeapStoredObject c = freeListManager.allocate(10);
+      OffHeapStoredObject.release(c.getAddress(), freeListManager);
+    });
+    thread.start();
+    thread.join();
+    assertThat(freeListManager.getThreadCacheMemory()).isPositive();
+
+    freeListManager.flushThreadCaches();
+
+    assertThat(freeListManager.getThreadCacheMemory()).isZero();
+  }
+
+  @Test
+  public void defragmentSeesChunksHeldByThreadCaches() {
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      chunks.add(freeListManager.allocate(100));
+    }
+    OffHeapStoredObject rest = freeListManager.allocate(freeListManager.getFragmentList().get(0)
+        .freeSpace() - OffHeapStoredObject.HEADER_SIZE);
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), freeListManager);
+    }
+    OffHeapStoredObject.release(rest.getAddress(), freeListManager);
+
+    assertThat(freeListManager.defragment(SLAB_SIZE)).isTrue();
+    assertThat(freeListManager.getThreadCacheMemory()).isZero();
+  }
+}
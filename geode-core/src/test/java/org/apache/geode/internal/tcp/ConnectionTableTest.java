@@ -14,13 +14,28 @@
  */
 package org.apache.geode.internal.tcp;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -31,19 +46,25 @@ import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.test.junit.categories.MembershipTest;
 
 @Category(MembershipTest.class)
 public class ConnectionTableTest {
 
+  private static final int STRIPES = 4;
+
   private ConnectionTable connectionTable;
   private Socket socket;
   private PeerConnectionFactory factory;
   private Connection connection;
+  private InternalDistributedSystem system;
+  private TCPConduit tcpConduit;
+  private final InternalDistributedMember member = mock(InternalDistributedMember.class);
 
   @Before
   public void initConnectionTable() throws Exception {
-    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    system = mock(InternalDistributedSystem.class);
     when(system.isShareSockets()).thenReturn(false);
 
     DistributionManager dm = mock(DistributionManager.class);
@@ -52,7 +73,7 @@ public class ConnectionTableTest {
     CancelCriterion cancelCriterion = mock(CancelCriterion.class);
     DMStats dmStats = mock(DMStats.class);
 
-    TCPConduit tcpConduit = mock(TCPConduit.class);
+    tcpConduit = mock(TCPConduit.class);
     when(tcpConduit.getDM()).thenReturn(dm);
     when(tcpConduit.getCancelCriterion()).thenReturn(cancelCriterion);
     when(tcpConduit.getStats()).thenReturn(dmStats);
@@ -113,4 +134,200 @@ public class ConnectionTableTest {
       }
     }
   }
+
+  @Test
+  public void threadAlwaysSendsOnSameStripe() throws Exception {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    when(system.threadOwnsResources()).thenReturn(true);
+    FutureTask<List<Connection>> gets = new FutureTask<>(() -> {
+      List<Connection> result = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        result.add(stripedTable.get(member, true, System.currentTimeMillis(), 0, 0));
+      }
+      return result;
+    });
+    Thread thread = new Thread(gets);
+    Map stripe = stripedTable.getStripedConnectionMap(thread);
+    Connection stripeConnection = connectedOrderedConnection();
+    stripe.put(member, stripeConnection);
+
+    thread.start();
+
+    assertThat(stripedTable.getStripedConnectionMap(thread)).isSameAs(stripe);
+    assertThat(gets.get(getTimeout().toMillis(), MILLISECONDS))
+        .containsExactly(stripeConnection, stripeConnection, stripeConnection);
+  }
+
+  @Test
+  public void threadsAreSpreadAcrossStripes() {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+
+    Set<Map> stripes = stripes(stripedTable);
+
+    assertThat(stripes).hasSize(STRIPES);
+  }
+
+  @Test
+  public void threadsOfDifferentStripesSendOnDifferentConnections() throws Exception {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    Map<Map, Connection> connections = new IdentityHashMap<>();
+    for (Map stripe : stripes(stripedTable)) {
+      Connection stripeConnection = connectedOrderedConnection();
+      stripe.put(member, stripeConnection);
+      connections.put(stripe, stripeConnection);
+    }
+    List<Thread> threads = new ArrayList<>();
+    List<FutureTask<Connection>> gets = new ArrayList<>();
+    for (int i = 0; i < STRIPES * 4; i++) {
+      FutureTask<Connection> get = orderedGet(stripedTable);
+      gets.add(get);
+      threads.add(new Thread(get));
+    }
+
+    threads.forEach(Thread::start);
+
+    for (int i = 0; i < threads.size(); i++) {
+      assertThat(gets.get(i).get(getTimeout().toMillis(), MILLISECONDS))
+          .isSameAs(connections.get(stripedTable.getStripedConnectionMap(threads.get(i))));
+    }
+  }
+
+  @Test
+  public void threadWaitsForPendingConnectionOfItsStripe() throws Exception {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    FutureTask<Connection> get = orderedGet(stripedTable);
+    Thread thread = new Thread(get);
+    Map stripe = stripedTable.getStripedConnectionMap(thread);
+    stripe.put(member, stripedTable.new PendingConnection(true, member, stripe));
+    thread.start();
+    await().until(() -> thread.getState() == Thread.State.TIMED_WAITING);
+
+    Connection stripeConnection = connectedOrderedConnection();
+    stripe.put(member, stripeConnection);
+
+    assertThat(get.get(getTimeout().toMillis(), MILLISECONDS)).isSameAs(stripeConnection);
+  }
+
+  @Test
+  public void removeEndpointClosesConnectionsOfEveryStripe() {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    Set<Map> stripes = stripes(stripedTable);
+    List<Connection> connections = new ArrayList<>();
+    for (Map stripe : stripes) {
+      Connection stripeConnection = connectedOrderedConnection();
+      stripe.put(member, stripeConnection);
+      connections.add(stripeConnection);
+    }
+
+    stripedTable.removeEndpoint(member, "test", false);
+
+    for (Map stripe : stripes) {
+      assertThat(stripe).isEmpty();
+    }
+    for (Connection stripeConnection : connections) {
+      verify(stripeConnection).closePartialConnect("test", false);
+    }
+  }
+
+  @Test
+  public void removeEndpointReleasesThreadWaitingForPendingStripeConnection() throws Exception {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    FutureTask<Connection> get = orderedGet(stripedTable);
+    Thread thread = new Thread(get);
+    Map stripe = stripedTable.getStripedConnectionMap(thread);
+    stripe.put(member, stripedTable.new PendingConnection(true, member, stripe));
+    thread.start();
+    await().until(() -> thread.getState() == Thread.State.TIMED_WAITING);
+
+    stripedTable.removeEndpoint(member, "test", false);
+
+    assertThat(get.get(getTimeout().toMillis(), MILLISECONDS)).isNull();
+    assertThat(stripe).isEmpty();
+  }
+
+  @Test
+  public void removeSharedConnectionRemovesItFromItsStripeOnly() {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    Iterator<Map> stripes = stripes(stripedTable).iterator();
+    Map removedStripe = stripes.next();
+    Map otherStripe = stripes.next();
+    Connection removed = connectedOrderedConnection();
+    Connection other = connectedOrderedConnection();
+    removedStripe.put(member, removed);
+    otherStripe.put(member, other);
+
+    stripedTable.removeSharedConnection("test", member, true, removed);
+
+    assertThat(removedStripe).isEmpty();
+    assertThat(otherStripe).containsEntry(member, other);
+    verify(removed).closePartialConnect("test", false);
+    verify(other, never()).closePartialConnect(any(), anyBoolean());
+  }
+
+  @Test
+  public void closeClosesConnectionsOfEveryStripe() {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    Set<Map> stripes = stripes(stripedTable);
+    List<Connection> connections = new ArrayList<>();
+    for (Map stripe : stripes) {
+      Connection stripeConnection = connectedOrderedConnection();
+      stripe.put(member, stripeConnection);
+      connections.add(stripeConnection);
+    }
+
+    stripedTable.close();
+
+    for (Map stripe : stripes) {
+      assertThat(stripe).isEmpty();
+    }
+    for (Connection stripeConnection : connections) {
+      verify(stripeConnection).closePartialConnect("Connection table being destroyed", false);
+    }
+  }
+
+  @Test
+  public void flushStateIncludesConnectionsOfEveryStripe() {
+    ConnectionTable stripedTable = ConnectionTable.create(tcpConduit, STRIPES);
+    Map<Long, Long> expected = new HashMap<>();
+    long id = 0;
+    for (Map stripe : stripes(stripedTable)) {
+      Connection stripeConnection = connectedOrderedConnection();
+      when(stripeConnection.getUniqueId()).thenReturn(++id);
+      when(stripeConnection.getMessagesSent()).thenReturn(id * 10);
+      stripe.put(member, stripeConnection);
+      expected.put(id, id * 10);
+    }
+    Map<Long, Long> state = new HashMap<>();
+
+    stripedTable.getThreadOwnedOrderedConnectionState(member, state);
+
+    assertThat(state).isEqualTo(expected);
+  }
+
+  /**
+   * Returns the stripes of the given table, found by looking up the stripes of new threads.
+   */
+  private static Set<Map> stripes(ConnectionTable table) {
+    Set<Map> stripes = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (int i = 0; i < STRIPES * 4; i++) {
+      stripes.add(table.getStripedConnectionMap(new Thread()));
+    }
+    return stripes;
+  }
+
+  /**
+   * Returns a task that gets an ordered connection to the member as a thread that would own its
+   * connections.
+   */
+  private FutureTask<Connection> orderedGet(ConnectionTable table) {
+    when(system.threadOwnsResources()).thenReturn(true);
+    return new FutureTask<>(() -> table.get(member, true, System.currentTimeMillis(), 0, 0));
+  }
+
+  private static Connection connectedOrderedConnection() {
+    Connection result = mock(Connection.class);
+    result.connected = true;
+    result.preserveOrder = true;
+    return result;
+  }
 }
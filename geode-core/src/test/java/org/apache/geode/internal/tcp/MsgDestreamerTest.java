@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.spy;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.util.BlobHelper;
+
+public class MsgDestreamerTest {
+  private final DMStats stats = mock(DMStats.class);
+  private final BufferPool bufferPool = spy(new BufferPool(stats));
+  private final CancelCriterion stopper = mock(CancelCriterion.class);
+  private MsgDestreamer destreamer;
+
+  @After
+  public void tearDown() {
+    if (destreamer != null) {
+      destreamer.close();
+    }
+  }
+
+  @Test
+  public void messageNoLargerThanMaximumIsDeserializedFromBuffer() throws Exception {
+    destreamer = new MsgDestreamer(stats, stopper, null, bufferPool, 1024);
+
+    addChunks(serializedReply(42), 3);
+
+    assertThat(((ReplyMessage) destreamer.getMessage()).getProcessorId()).isEqualTo(42);
+    assertThat(invocations("acquireDirectReceiveBuffer")).isPositive()
+        .isEqualTo(invocations("releaseReceiveBuffer"));
+  }
+
+  @Test
+  public void messageLargerThanMaximumIsStreamed() throws Exception {
+    destreamer = new MsgDestreamer(stats, stopper, null, bufferPool, 4);
+
+    addChunks(serializedReply(42), 3);
+
+    assertThat(((ReplyMessage) destreamer.getMessage()).getProcessorId()).isEqualTo(42);
+    assertThat(invocations("acquireDirectReceiveBuffer")).isPositive()
+        .isEqualTo(invocations("releaseReceiveBuffer"));
+  }
+
+  @Test
+  public void resetReleasesBufferOfUnfinishedMessage() throws Exception {
+    destreamer = new MsgDestreamer(stats, stopper, null, bufferPool, 1024);
+    destreamer.addChunk(ByteBuffer.wrap(serializedReply(42)), 3);
+
+    destreamer.reset();
+
+    assertThat(invocations("acquireDirectReceiveBuffer")).isEqualTo(1);
+    assertThat(invocations("releaseReceiveBuffer")).isEqualTo(1);
+    assertThat(destreamer.size()).isZero();
+  }
+
+  private byte[] serializedReply(int processorId) throws Exception {
+    ReplyMessage reply = new ReplyMessage();
+    reply.setProcessorId(processorId);
+    return BlobHelper.serializeToBlob(reply);
+  }
+
+  private void addChunks(byte[] message, int chunkSize) throws Exception {
+    ByteBuffer bb = ByteBuffer.wrap(message);
+    for (int offset = 0; offset < message.length; offset += chunkSize) {
+      bb.position(offset);
+      destreamer.addChunk(bb, Math.min(chunkSize, message.length - offset));
+    }
+  }
+
+  private long invocations(String methodName) {
+    return mockingDetails(bufferPool).getInvocations().stream()
+        .filter(invocation -> invocation.getMethod().getName().equals(methodName)).count();
+  }
+}
@@ -15,9 +15,12 @@
 
 package org.apache.geode.internal.tcp;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -26,9 +29,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.net.ssl.SSLException;
 
@@ -77,6 +86,68 @@ public class MsgStreamerTest {
     verify(pool, times(2)).releaseSenderBuffer(isA(ByteBuffer.class));
   }
 
+  @Test
+  public void fanOutWritesToEveryConnectionAndRemovesFailedOnes() throws IOException {
+    ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor();
+    try {
+      doThrow(new IOException("failed")).when(connection2).sendPreserialized(any(ByteBuffer.class),
+          any(Boolean.class), any());
+      final MsgStreamer msgStreamer = (MsgStreamer) createMsgStreamer(false, fanOutExecutor);
+
+      msgStreamer.writeMessage();
+
+      verify(connection1).sendPreserialized(any(ByteBuffer.class), any(Boolean.class), any());
+      verify(connection2).closeForReconnect(any());
+      assertThat(msgStreamer.getSentConnections()).containsExactly(connection1);
+      assertThat(msgStreamer.getConnectExceptions().getCauses())
+          .hasOnlyElementsOfType(IOException.class).hasSize(1);
+      verify(pool, times(1)).releaseSenderBuffer(isA(ByteBuffer.class));
+    } finally {
+      fanOutExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void fanOutWriteToBlockedConnectionDoesNotDelayOtherMessages() throws Exception {
+    ExecutorService fanOutExecutor = MsgStreamer.createFanOutExecutor(1);
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // the member of connection2 stops reading, so the only fan-out thread blocks writing to it
+      doAnswer(invocation -> {
+        writing.countDown();
+        release.await();
+        return null;
+      }).when(connection2).sendPreserialized(any(ByteBuffer.class), any(Boolean.class), any());
+      MsgStreamer blocked = (MsgStreamer) createMsgStreamer(false, fanOutExecutor);
+      CompletableFuture<Void> blockedWrite = CompletableFuture.runAsync(() -> write(blocked));
+      writing.await();
+
+      Connection connection3 = mockConnection(3456);
+      Connection connection4 = mockConnection(4567);
+      DistributionMessage message = new SerialAckedMessage();
+      message.setRecipients(
+          Arrays.asList(connection3.getRemoteAddress(), connection4.getRemoteAddress()));
+      MsgStreamer unrelated = (MsgStreamer) MsgStreamer.create(
+          new ArrayList<>(Arrays.asList(connection3, connection4)), message, false, stats, pool,
+          fanOutExecutor);
+      CompletableFuture.runAsync(() -> write(unrelated))
+          .get(getTimeout().toMillis(), MILLISECONDS);
+
+      verify(connection3).sendPreserialized(any(ByteBuffer.class), any(Boolean.class), any());
+      verify(connection4).sendPreserialized(any(ByteBuffer.class), any(Boolean.class), any());
+      assertThat(unrelated.getSentConnections()).containsExactly(connection3, connection4);
+      assertThat(blockedWrite).isNotDone();
+
+      release.countDown();
+      blockedWrite.get(getTimeout().toMillis(), MILLISECONDS);
+      assertThat(blocked.getSentConnections()).containsExactly(connection1, connection2);
+    } finally {
+      release.countDown();
+      fanOutExecutor.shutdownNow();
+    }
+  }
+
   @Test
   public void streamerRespectsMaxMessageSize() {
     InternalDistributedMember member1;
@@ -102,7 +173,29 @@ public class MsgStreamerTest {
 
 
 
+  private static void write(MsgStreamer msgStreamer) {
+    try {
+      msgStreamer.writeMessage();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Connection mockConnection(int port) {
+    Connection connection = mock(Connection.class);
+    InternalDistributedMember member = new InternalDistributedMember("localhost", port);
+    when(connection.getRemoteAddress()).thenReturn(member);
+    when(connection.getRemoteVersion()).thenReturn(KnownVersion.CURRENT);
+    when(connection.getSendBufferSize()).thenReturn(Connection.SMALL_BUFFER_SIZE);
+    return connection;
+  }
+
   protected BaseMsgStreamer createMsgStreamer(boolean mixedDestinationVersions) {
+    return createMsgStreamer(mixedDestinationVersions, null);
+  }
+
+  protected BaseMsgStreamer createMsgStreamer(boolean mixedDestinationVersions,
+      ExecutorService fanOutExecutor) {
 
     InternalDistributedMember member1, member2;
     member1 = new InternalDistributedMember("localhost", 1234);
@@ -121,8 +214,8 @@ public class MsgStreamerTest {
     } else {
       when(connection2.getRemoteVersion()).thenReturn(KnownVersion.CURRENT);
     }
-    List<Connection> connections = Arrays.asList(connection1, connection2);
+    List<Connection> connections = new ArrayList<>(Arrays.asList(connection1, connection2));
 
-    return MsgStreamer.create(connections, message, false, stats, pool);
+    return MsgStreamer.create(connections, message, false, stats, pool, fanOutExecutor);
   }
 }
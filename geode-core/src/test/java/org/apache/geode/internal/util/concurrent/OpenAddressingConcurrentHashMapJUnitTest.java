@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+
+public class OpenAddressingConcurrentHashMapJUnitTest {
+
+  private final OpenAddressingConcurrentHashMap<Object, Object> map =
+      new OpenAddressingConcurrentHashMap<>(16, 0.75f, 4);
+
+  @Test
+  public void putAndGetLongKeysGrowsTheTable() {
+    for (long i = 0; i < 10000; i++) {
+      assertThat(map.put(i, new TestEntry(i))).isNull();
+    }
+
+    assertThat(map.size()).isEqualTo(10000);
+    for (long i = 0; i < 10000; i++) {
+      assertThat(((TestEntry) map.get(i)).key).isEqualTo(i);
+    }
+    assertThat(map.get(10000L)).isNull();
+  }
+
+  @Test
+  public void keysWithTheSameSlotBitsAreKeptApart() {
+    TestEntry longEntry = new TestEntry(97L);
+    TestEntry intEntry = new TestEntry(97);
+    TestEntry stringEntry = new TestEntry("a"); // "a".hashCode() == 97
+
+    map.put(97L, longEntry);
+    map.put(97, intEntry);
+    map.put("a", stringEntry);
+
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get(97L)).isSameAs(longEntry);
+    assertThat(map.get(97)).isSameAs(intEntry);
+    assertThat(map.get("a")).isSameAs(stringEntry);
+  }
+
+  @Test
+  public void putIfAbsentReturnsExistingEntry() {
+    TestEntry first = new TestEntry("key");
+
+    assertThat(map.putIfAbsent("key", first)).isNull();
+    assertThat(map.putIfAbsent("key", new TestEntry("key"))).isSameAs(first);
+    assertThat(map.get("key")).isSameAs(first);
+  }
+
+  @Test
+  public void removedKeysCanBeAddedAgain() {
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 1000; i++) {
+        map.put(i, new TestEntry(i));
+      }
+      for (int i = 0; i < 1000; i += 2) {
+        assertThat(map.remove(i)).isNotNull();
+      }
+      assertThat(map.size()).isEqualTo(500);
+      assertThat(map.get(2)).isNull();
+      assertThat(map.get(3)).isNotNull();
+    }
+  }
+
+  @Test
+  public void removeWithValueOnlyRemovesThatValue() {
+    TestEntry entry = new TestEntry(1L);
+    map.put(1L, entry);
+
+    assertThat(map.remove(1L, new TestEntry(1L))).isFalse();
+    assertThat(map.remove(1L, entry)).isTrue();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void replaceWithValueOnlyReplacesThatValue() {
+    TestEntry entry = new TestEntry(1L);
+    TestEntry replacement = new TestEntry(1L);
+    map.put(1L, entry);
+
+    assertThat(map.replace(1L, replacement, entry)).isFalse();
+    assertThat(map.replace(1L, entry, replacement)).isTrue();
+    assertThat(map.get(1L)).isSameAs(replacement);
+  }
+
+  @Test
+  public void iteratorRemoveRemovesFromMap() {
+    for (long i = 0; i < 100; i++) {
+      map.put(i, new TestEntry(i));
+    }
+
+    int count = 0;
+    for (Iterator<Map.Entry<Object, Object>> it =
+        map.entrySetWithReusableEntries().iterator(); it.hasNext();) {
+      Map.Entry<Object, Object> me = it.next();
+      assertThat(((TestEntry) me.getValue()).key).isEqualTo(me.getKey());
+      it.remove();
+      count++;
+    }
+
+    assertThat(count).isEqualTo(100);
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void keySetContainsAllKeys() {
+    for (long i = 0; i < 100; i++) {
+      map.put(i, new TestEntry(i));
+    }
+
+    assertThat(map.keySet()).hasSize(100).contains(0L, 50L, 99L);
+  }
+
+  @Test
+  public void clearEmptiesMap() {
+    for (long i = 0; i < 100; i++) {
+      map.put(i, new TestEntry(i));
+    }
+
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(1L)).isNull();
+    assertThat(map.keySet()).isEmpty();
+  }
+
+  @Test
+  public void putRejectsValuesThatAreNotHashEntries() {
+    assertThatThrownBy(() -> map.put(1L, "value")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void supportsOnlyInlinedKeyTypes() {
+    assertThat(OpenAddressingConcurrentHashMap.isSupportedKeyType(Long.class)).isTrue();
+    assertThat(OpenAddressingConcurrentHashMap.isSupportedKeyType(Integer.class)).isTrue();
+    assertThat(OpenAddressingConcurrentHashMap.isSupportedKeyType(String.class)).isTrue();
+    assertThat(OpenAddressingConcurrentHashMap.isSupportedKeyType(Object.class)).isFalse();
+    assertThat(OpenAddressingConcurrentHashMap.isSupportedKeyType(null)).isFalse();
+  }
+
+  private static class TestEntry implements HashEntry<Object, Object> {
+    private final Object key;
+
+    TestEntry(Object key) {
+      this.key = key;
+    }
+
+    @Override
+    public Object getKey() {
+      return key;
+    }
+
+    @Override
+    public boolean isKeyEqual(Object k) {
+      return key.equals(k);
+    }
+
+    @Override
+    public Object getMapValue() {
+      return this;
+    }
+
+    @Override
+    public void setMapValue(Object newValue) {}
+
+    @Override
+    public int getEntryHash() {
+      return 0;
+    }
+
+    @Override
+    public HashEntry<Object, Object> getNextEntry() {
+      return null;
+    }
+
+    @Override
+    public void setNextEntry(HashEntry<Object, Object> n) {}
+  }
+}
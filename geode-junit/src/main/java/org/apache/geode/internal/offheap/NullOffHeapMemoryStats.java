@@ -111,6 +111,56 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
     return 0;
   }
 
+  @Override
+  public void incThreadCacheMemory(long value) {}
+
+  @Override
+  public long getThreadCacheMemory() {
+    return 0;
+  }
+
+  @Override
+  public void incThreadCacheRefills() {}
+
+  @Override
+  public long getThreadCacheRefills() {
+    return 0;
+  }
+
+  @Override
+  public void incThreadCacheFlushes() {}
+
+  @Override
+  public long getThreadCacheFlushes() {
+    return 0;
+  }
+
+  @Override
+  public long startSlabDefragmentation() {
+    return 0;
+  }
+
+  @Override
+  public void endSlabDefragmentation(long start) {}
+
+  @Override
+  public long getSlabDefragmentations() {
+    return 0;
+  }
+
+  @Override
+  public long getDefragmentationPauseTime() {
+    return 0;
+  }
+
+  @Override
+  public void setDefragmentationProgress(int value) {}
+
+  @Override
+  public int getDefragmentationProgress() {
+    return 0;
+  }
+
   @Override
   public Statistics getStats() {
     return null;
@@ -83,7 +83,8 @@ public class LoggingUncaughtExceptionHandler {
       }
       // Solution to treat the shutdown hook error as a special case.
       // Do not change the hook's thread name without also changing it here.
-      if (e instanceof NoClassDefFoundError && !((LoggingThread) t).isTreatExceptionAsFatal()) {
+      if (e instanceof NoClassDefFoundError && t instanceof LoggingThread
+          && !((LoggingThread) t).isTreatExceptionAsFatal()) {
         logger.info(
             "Uncaught exception in thread {} this message can be disregarded if it occurred during an Application Server shutdown. The Exception message was: {}",
             t, e);
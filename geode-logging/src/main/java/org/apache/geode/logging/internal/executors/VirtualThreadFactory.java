@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.logging.internal.executors;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
+
+/**
+ * Threads produced by instances of this class are virtual threads that log uncaught exceptions and
+ * have unique names that contain the "baseName" passed to the constructor. Like
+ * {@link LoggingThreadFactory} the optional "threadInitializer" and "commandWrapper" customize what
+ * happens each time a thread is created and run.
+ *
+ * <p>
+ * Virtual threads are only available on JVMs that support them, so they are created with
+ * reflection. Check {@link #isAvailable()} before creating a factory.
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+
+  private static final Method OF_VIRTUAL;
+  private static final Method NAME;
+  private static final Method UNCAUGHT_EXCEPTION_HANDLER;
+  private static final Method FACTORY;
+
+  static {
+    Method ofVirtual = null;
+    Method name = null;
+    Method uncaughtExceptionHandler = null;
+    Method factory = null;
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      name = builderClass.getMethod("name", String.class, long.class);
+      uncaughtExceptionHandler =
+          builderClass.getMethod("uncaughtExceptionHandler", UncaughtExceptionHandler.class);
+      factory = builderClass.getMethod("factory");
+    } catch (ClassNotFoundException | NoSuchMethodException ignore) {
+      // this JVM does not support virtual threads
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    NAME = name;
+    UNCAUGHT_EXCEPTION_HANDLER = uncaughtExceptionHandler;
+    FACTORY = factory;
+  }
+
+  private final ThreadFactory virtualThreadFactory;
+  private final ThreadInitializer threadInitializer;
+  private final CommandWrapper commandWrapper;
+
+  /**
+   * Returns true if this JVM supports virtual threads.
+   */
+  public static boolean isAvailable() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Create a factory that produces virtual threads that log uncaught exceptions
+   *
+   * @param baseName the base name will be included in every thread name
+   * @param threadInitializer if not null, will be invoked with the thread each time a thread is
+   *        created
+   * @param commandWrapper if not null, will be invoked by each thread created by this factory
+   * @throws UnsupportedOperationException if this JVM does not support virtual threads
+   */
+  public VirtualThreadFactory(String baseName, ThreadInitializer threadInitializer,
+      CommandWrapper commandWrapper) {
+    if (!isAvailable()) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+    }
+    try {
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = NAME.invoke(builder, baseName, 1L);
+      builder = UNCAUGHT_EXCEPTION_HANDLER.invoke(builder,
+          LoggingUncaughtExceptionHandler.getInstance());
+      virtualThreadFactory = (ThreadFactory) FACTORY.invoke(builder);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new UnsupportedOperationException("Unable to create virtual threads", e);
+    }
+    this.threadInitializer = threadInitializer;
+    this.commandWrapper = commandWrapper;
+  }
+
+  @Override
+  public Thread newThread(Runnable runnable) {
+    Runnable commandToRun;
+    if (commandWrapper != null) {
+      commandToRun = () -> commandWrapper.invoke(runnable);
+    } else {
+      commandToRun = runnable;
+    }
+    Thread thread = virtualThreadFactory.newThread(commandToRun);
+    if (threadInitializer != null) {
+      threadInitializer.initialize(thread);
+    }
+    return thread;
+  }
+}
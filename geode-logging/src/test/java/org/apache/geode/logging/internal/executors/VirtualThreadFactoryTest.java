@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.logging.internal.executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.test.junit.categories.LoggingTest;
+
+/** Unit tests for {@link VirtualThreadFactory}. */
+@Category(LoggingTest.class)
+public class VirtualThreadFactoryTest {
+
+  @Test
+  public void verifyThreadNames() {
+    assumeTrue(VirtualThreadFactory.isAvailable());
+    VirtualThreadFactory factory = new VirtualThreadFactory("baseName", null, null);
+
+    Thread first = factory.newThread(null);
+    Thread second = factory.newThread(null);
+
+    assertThat(first.getName()).isEqualTo("baseName" + 1);
+    assertThat(second.getName()).isEqualTo("baseName" + 2);
+  }
+
+  @Test
+  public void verifyThreadsAreDaemons() {
+    assumeTrue(VirtualThreadFactory.isAvailable());
+    VirtualThreadFactory factory = new VirtualThreadFactory("baseName", null, null);
+
+    Thread thread = factory.newThread(null);
+
+    assertThat(thread.isDaemon()).isTrue();
+  }
+
+  @Test
+  public void verifyThreadHaveExpectedHandler() {
+    assumeTrue(VirtualThreadFactory.isAvailable());
+    VirtualThreadFactory factory = new VirtualThreadFactory("baseName", null, null);
+
+    Thread thread = factory.newThread(null);
+
+    assertThat(thread.getUncaughtExceptionHandler())
+        .isSameAs(LoggingUncaughtExceptionHandler.getInstance());
+  }
+
+  @Test
+  public void verifyThreadInitializerAndCommandWrapperCalled() throws Exception {
+    assumeTrue(VirtualThreadFactory.isAvailable());
+    ThreadInitializer threadInitializer = mock(ThreadInitializer.class);
+    CommandWrapper commandWrapper = mock(CommandWrapper.class);
+    VirtualThreadFactory factory =
+        new VirtualThreadFactory("baseName", threadInitializer, commandWrapper);
+
+    Thread thread = factory.newThread(mock(Runnable.class));
+    thread.start();
+    thread.join();
+
+    verify(threadInitializer).initialize(thread);
+    verify(commandWrapper).invoke(any());
+  }
+
+  @Test
+  public void constructorThrowsIfVirtualThreadsAreNotSupported() {
+    assumeFalse(VirtualThreadFactory.isAvailable());
+
+    assertThatThrownBy(() -> new VirtualThreadFactory("baseName", null, null))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
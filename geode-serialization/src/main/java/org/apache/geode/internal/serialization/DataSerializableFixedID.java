@@ -687,6 +687,7 @@ public interface DataSerializableFixedID extends SerializationVersions, BasicSer
   short REDIS_HASH_ID = 2188;
   short REDIS_NULL_DATA_ID = 2189;
   short REDIS_SET_OPTIONS_ID = 2190;
+  short COALESCED_UPDATE_MESSAGE = 2191;
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
   /**
@@ -16,6 +16,9 @@
 package org.apache.geode.unsafe.internal.sun.misc;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 
 /**
  * This class wraps the sun.misc.Unsafe class which is only available on Sun JVMs. It is also
@@ -25,6 +28,35 @@ import java.lang.reflect.Field;
  */
 public class Unsafe {
 
+  /**
+   * sun.misc.Unsafe.invokeCleaner, which only exists on Java 9 and later, or null.
+   */
+  private static final Method INVOKE_CLEANER;
+  /**
+   * sun.nio.ch.DirectBuffer.cleaner and sun.misc.Cleaner.clean, used on Java 8, or null.
+   */
+  private static final Method CLEANER;
+  private static final Method CLEAN;
+  static {
+    Method invokeCleaner = null;
+    Method cleaner = null;
+    Method clean = null;
+    try {
+      invokeCleaner = sun.misc.Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (NoSuchMethodException ignore) {
+      try {
+        cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      } catch (ClassNotFoundException | NoSuchMethodException ignored) {
+        cleaner = null;
+        clean = null;
+      }
+    }
+    INVOKE_CLEANER = invokeCleaner;
+    CLEANER = cleaner;
+    CLEAN = clean;
+  }
+
   private final sun.misc.Unsafe unsafe;
   {
     sun.misc.Unsafe tmp;
@@ -210,4 +242,38 @@ public class Unsafe {
   public void putOrderedObject(Object o, long offset, Object x) {
     unsafe.putOrderedObject(o, offset, x);
   }
+
+  /**
+   * Frees the memory of the given direct buffer, for example a memory mapped file, right away
+   * instead of when the buffer is garbage collected. The buffer must not be used afterwards.
+   *
+   * @throws IllegalArgumentException if the buffer is not direct or is a slice or duplicate
+   * @throws UnsupportedOperationException if this JVM provides no way to free the buffer
+   */
+  public void invokeCleaner(ByteBuffer directBuffer) {
+    if (!directBuffer.isDirect()) {
+      throw new IllegalArgumentException("buffer is not direct");
+    }
+    try {
+      if (INVOKE_CLEANER != null) {
+        INVOKE_CLEANER.invoke(unsafe, directBuffer);
+      } else if (CLEANER != null) {
+        Object cleaner = CLEANER.invoke(directBuffer);
+        if (cleaner == null) {
+          throw new IllegalArgumentException("buffer is a slice or duplicate");
+        }
+        CLEAN.invoke(cleaner);
+      } else {
+        throw new UnsupportedOperationException("direct buffers can not be freed on this JVM");
+      }
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new UnsupportedOperationException(cause);
+    } catch (IllegalAccessException e) {
+      throw new UnsupportedOperationException(e);
+    }
+  }
 }
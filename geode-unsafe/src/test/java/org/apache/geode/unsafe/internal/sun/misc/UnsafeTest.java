@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.unsafe.internal.sun.misc;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UnsafeTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Unsafe unsafe = new Unsafe();
+
+  @Test
+  public void invokeCleanerFreesDirectBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+
+    assertThatCode(() -> unsafe.invokeCleaner(buffer)).doesNotThrowAnyException();
+  }
+
+  @Test
+  public void invokeCleanerFreesMappedBuffer() throws Exception {
+    File file = temporaryFolder.newFile();
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(4096);
+      MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, 4096);
+
+      assertThatCode(() -> unsafe.invokeCleaner(buffer)).doesNotThrowAnyException();
+    }
+  }
+
+  @Test
+  public void invokeCleanerRejectsHeapBuffer() {
+    assertThatThrownBy(() -> unsafe.invokeCleaner(ByteBuffer.allocate(1024)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void invokeCleanerRejectsDuplicate() {
+    ByteBuffer duplicate = ByteBuffer.allocateDirect(1024).duplicate();
+
+    assertThatThrownBy(() -> unsafe.invokeCleaner(duplicate))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}